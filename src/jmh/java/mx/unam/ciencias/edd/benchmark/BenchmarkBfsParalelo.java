@@ -0,0 +1,99 @@
+package mx.unam.ciencias.edd.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import mx.unam.ciencias.edd.ArbolBFS;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCongelada;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks para {@link GraficaCongelada#bfsParalelo(Object,ForkJoinPool)}:
+ * compara el recorrido por niveles que alterna pasos de arriba hacia abajo
+ * y de abajo hacia arriba contra {@link GraficaCongelada#bfs} secuencial, en
+ * una gráfica aleatoria conexa con grado promedio 16. La gráfica se
+ * construye con {@link Grafica} y se congela una sola vez; con los
+ * parámetros por omisión ocupa varios gigabytes mientras se construye.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx12g" })
+public class BenchmarkBfsParalelo {
+
+    /** El grado promedio de los vértices. */
+    private static final int GRADO = 16;
+
+    /** El número de vértices. */
+    @Param({ "2000000" }) public int vertices;
+
+    /** El número de hilos de la alberca. */
+    @Param({ "1", "4" }) public int hilos;
+
+    /* La gráfica congelada. */
+    private GraficaCongelada<Integer> congelada;
+    /* La alberca de hilos. */
+    private ForkJoinPool alberca;
+
+    /**
+     * Genera una gráfica conexa con el grado promedio, y la congela.
+     */
+    @Setup public void prepara() {
+        Random random = new Random(vertices);
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < vertices; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < vertices; i++)
+            grafica.conecta(random.nextInt(i), i);
+        long aristas = (long)vertices * GRADO / 2;
+        while (grafica.getAristas() < aristas) {
+            int a = random.nextInt(vertices);
+            int b = random.nextInt(vertices);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+        congelada = grafica.congela();
+        alberca = new ForkJoinPool(hilos);
+    }
+
+    /**
+     * Cierra la alberca de hilos.
+     */
+    @TearDown public void termina() {
+        alberca.shutdown();
+    }
+
+    /**
+     * Recorre la gráfica congelada con BFS secuencial desde el primer
+     * vértice.
+     * @return el número de vértices recorridos.
+     */
+    @Benchmark public int bfs() {
+        int[] recorridos = { 0 };
+        congelada.bfs(0, v -> recorridos[0]++);
+        return recorridos[0];
+    }
+
+    /**
+     * Recorre la gráfica congelada por niveles en paralelo desde el primer
+     * vértice.
+     * @return el árbol BFS.
+     */
+    @Benchmark public ArbolBFS<Integer> bfsParalelo() {
+        return congelada.bfsParalelo(0, alberca);
+    }
+}
@@ -0,0 +1,83 @@
+package mx.unam.ciencias.edd.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.TipoMonticulo;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks para {@link Grafica#dijkstra(Object,Object,TipoMonticulo)}:
+ * compara los montículos en gráficas aleatorias con pesos enteros, de
+ * dispersas a completas, para ubicar los puntos donde conviene cambiar de
+ * montículo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkDijkstra {
+
+    /** El número de vértices. */
+    private static final int VERTICES = 1000;
+
+    /** El grado promedio de los vértices. */
+    @Param({ "4", "16", "64", "250", "999" }) public int grado;
+
+    /** El montículo. */
+    @Param({ "ARREGLO", "MINIMO", "EMPAREJAMIENTO", "RADIX" })
+    public TipoMonticulo tipo;
+
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Genera una gráfica conexa con el grado promedio y pesos enteros entre
+     * 1 y 100.
+     */
+    @Setup public void prepara() {
+        Random random = new Random(grado);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < VERTICES; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < VERTICES; i++)
+            grafica.conecta(random.nextInt(i), i, 1 + random.nextInt(100));
+        long aristas = (long)VERTICES * grado / 2;
+        if (grado == VERTICES - 1) {
+            for (int i = 0; i < VERTICES; i++)
+                for (int j = i + 1; j < VERTICES; j++)
+                    if (!grafica.sonVecinos(i, j))
+                        grafica.conecta(i, j, 1 + random.nextInt(100));
+            return;
+        }
+        while (grafica.getAristas() < aristas) {
+            int a = random.nextInt(VERTICES);
+            int b = random.nextInt(VERTICES);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(100));
+        }
+    }
+
+    /**
+     * Calcula la trayectoria de peso mínimo entre el primer y el último
+     * vértice.
+     * @return la trayectoria.
+     */
+    @Benchmark public Lista<VerticeGrafica<Integer>> dijkstra() {
+        return grafica.dijkstra(0, VERTICES - 1, tipo);
+    }
+}
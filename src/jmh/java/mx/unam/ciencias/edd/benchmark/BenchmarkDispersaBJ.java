@@ -0,0 +1,107 @@
+package mx.unam.ciencias.edd.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import mx.unam.ciencias.edd.Dispersores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compara {@link Dispersores#dispersaBJ}, que lee las palabras de 32 bits de
+ * un golpe, contra la versión que arma cada palabra byte por byte.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkDispersaBJ {
+
+    /** La longitud de la llave, en bytes. */
+    @Param({ "1", "4", "12", "16", "64", "256", "1024", "4096", "65536" })
+    public int longitud;
+
+    /* La llave. */
+    private byte[] llave;
+
+    /**
+     * Genera una llave aleatoria de la longitud del parámetro.
+     */
+    @Setup public void prepara() {
+        llave = new byte[longitud];
+        new Random(longitud).nextBytes(llave);
+    }
+
+    /**
+     * Mide la versión con lecturas de palabras completas.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int palabras() {
+        return Dispersores.dispersaBJ(llave);
+    }
+
+    /**
+     * Mide la versión que arma las palabras byte por byte.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int bytes() {
+        return bytePorByte(llave);
+    }
+
+    /* La función de Bob Jenkins armando las palabras byte por byte; es la
+     * versión original de Dispersores.dispersaBJ. */
+    private static int bytePorByte(byte[] k) {
+        int a = 0x9e3779b9, b = 0x9e3779b9, c = 0xffffffff;
+        int i = 0;
+        int n = k.length;
+        while (true) {
+            if (n >= 12) {
+                a += (k[i]   & 0xff)        | ((k[i+1]  & 0xff) << 8) |
+                    ((k[i+2] & 0xff) << 16) | ((k[i+3]  & 0xff) << 24);
+                b += (k[i+4] & 0xff)        | ((k[i+5]  & 0xff) << 8) |
+                    ((k[i+6] & 0xff) << 16) | ((k[i+7]  & 0xff) << 24);
+                c += (k[i+8] & 0xff)        | ((k[i+9]  & 0xff) << 8) |
+                    ((k[i+10] & 0xff) << 16) | ((k[i+11] & 0xff) << 24);
+                i += 12;
+                n -= 12;
+            } else {
+                c += k.length;
+                switch (n) {
+                case 11: c += (k[i+10] & 0xff) << 24;
+                case 10: c += (k[i+9]  & 0xff) << 16;
+                case  9: c += (k[i+8]  & 0xff) << 8;
+                case  8: b += (k[i+7]  & 0xff) << 24;
+                case  7: b += (k[i+6]  & 0xff) << 16;
+                case  6: b += (k[i+5]  & 0xff) << 8;
+                case  5: b += (k[i+4]  & 0xff);
+                case  4: a += (k[i+3]  & 0xff) << 24;
+                case  3: a += (k[i+2]  & 0xff) << 16;
+                case  2: a += (k[i+1]  & 0xff) << 8;
+                case  1: a += (k[i]    & 0xff);
+                }
+                n = -1;
+            }
+            a -= b; a -= c; a ^= (c >>> 13);
+            b -= c; b -= a; b ^= (a << 8);
+            c -= a; c -= b; c ^= (b >>> 13);
+            a -= b; a -= c; a ^= (c >>> 12);
+            b -= c; b -= a; b ^= (a << 16);
+            c -= a; c -= b; c ^= (b >>> 5);
+            a -= b; a -= c; a ^= (c >>> 3);
+            b -= c; b -= a; b ^= (a << 10);
+            c -= a; c -= b; c ^= (b >>> 15);
+            if (n < 0)
+                return c;
+        }
+    }
+}
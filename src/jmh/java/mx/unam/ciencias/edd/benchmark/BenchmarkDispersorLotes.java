@@ -0,0 +1,119 @@
+package mx.unam.ciencias.edd.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.DispersorLotes;
+import mx.unam.ciencias.edd.Dispersores;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks para {@link DispersorLotes}: compara dispersar las {@link
+ * Llaves#LLAVES} llaves una por una con un {@link Dispersor} contra
+ * dispersarlas en un lote, en arreglos o empacadas. Los dispersores
+ * individuales de los cuatro algoritmos se usan antes de medir, para que la
+ * llamada a {@link Dispersor#dispersa} sea megamórfica, como en un programa
+ * que usa varios.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkDispersorLotes {
+
+    /** La distribución de las longitudes de las llaves. */
+    @Param({ "FIJA_16", "ZIPF" }) public Llaves.Distribucion distribucion;
+
+    /** El algoritmo de dispersión. */
+    @Param({ "BJ_STRING", "DJB_STRING" })
+    public AlgoritmoDispersor algoritmo;
+
+    /* Las llaves. */
+    private byte[][] llaves;
+    /* Las llaves empacadas. */
+    private byte[] datos;
+    /* Los desplazamientos de las llaves empacadas. */
+    private int[] desplazamientos;
+    /* Las dispersiones. */
+    private int[] dispersiones;
+    /* El dispersor individual. */
+    private Dispersor<byte[]> dispersor;
+    /* El dispersor por lotes. */
+    private DispersorLotes lotes;
+
+    /* Regresa un dispersor individual para el algoritmo. */
+    private static Dispersor<byte[]> individual(AlgoritmoDispersor a) {
+        switch (a) {
+        case XOR_STRING: return k -> Dispersores.dispersaXOR(k);
+        case BJ_STRING:  return k -> Dispersores.dispersaBJ(k);
+        case DJB_STRING: return k -> Dispersores.dispersaDJB(k);
+        default:         return k -> Dispersores.dispersaSip(k, 0L, 0L);
+        }
+    }
+
+    /**
+     * Genera las llaves y los dispersores.
+     */
+    @Setup public void prepara() {
+        Random random = new Random(distribucion.ordinal());
+        llaves = Llaves.bytes(distribucion, random);
+        desplazamientos = new int[llaves.length + 1];
+        for (int i = 0; i < llaves.length; i++)
+            desplazamientos[i+1] = desplazamientos[i] + llaves[i].length;
+        datos = new byte[desplazamientos[llaves.length]];
+        for (int i = 0; i < llaves.length; i++)
+            System.arraycopy(llaves[i], 0, datos, desplazamientos[i],
+                             llaves[i].length);
+        dispersiones = new int[llaves.length];
+        for (AlgoritmoDispersor a : AlgoritmoDispersor.values()) {
+            Dispersor<byte[]> d = individual(a);
+            for (int r = 0; r < 1000; r++)
+                for (byte[] llave : llaves)
+                    dispersiones[0] ^= d.dispersa(llave);
+        }
+        dispersor = individual(algoritmo);
+        lotes = FabricaDispersores.dispersorLotes(algoritmo);
+    }
+
+    /**
+     * Dispersa las llaves una por una.
+     * @return las dispersiones.
+     */
+    @Benchmark public int[] individual() {
+        for (int i = 0; i < llaves.length; i++)
+            dispersiones[i] = dispersor.dispersa(llaves[i]);
+        return dispersiones;
+    }
+
+    /**
+     * Dispersa las llaves en un lote de arreglos.
+     * @return las dispersiones.
+     */
+    @Benchmark public int[] lote() {
+        lotes.dispersa(llaves, dispersiones);
+        return dispersiones;
+    }
+
+    /**
+     * Dispersa las llaves en un lote empacado.
+     * @return las dispersiones.
+     */
+    @Benchmark public int[] empacadas() {
+        lotes.dispersa(datos, desplazamientos, dispersiones);
+        return dispersiones;
+    }
+}
@@ -0,0 +1,88 @@
+package mx.unam.ciencias.edd.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import mx.unam.ciencias.edd.Dispersores;
+import mx.unam.ciencias.edd.DispersorRodante;
+import mx.unam.ciencias.edd.Fragmentador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks para {@link DispersorRodante} y {@link Fragmentador}: compara
+ * dispersar cada ventana de un flujo desde cero con {@link
+ * Dispersores#dispersaDJB(byte[],int,int,int)} contra actualizar la
+ * dispersión rodante, y mide la velocidad de fragmentación.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkDispersorRodante {
+
+    /** El tamaño del flujo. */
+    private static final int BYTES = 1 << 16;
+
+    /** El tamaño de la ventana. */
+    @Param({ "16", "64" }) public int ventana;
+
+    /* El flujo. */
+    private byte[] datos;
+    /* El dispersor rodante. */
+    private DispersorRodante rodante;
+    /* El fragmentador. */
+    private Fragmentador fragmentador;
+
+    /**
+     * Genera el flujo, el dispersor y el fragmentador.
+     */
+    @Setup public void prepara() {
+        Random random = new Random(ventana);
+        datos = new byte[BYTES];
+        random.nextBytes(datos);
+        rodante = new DispersorRodante(ventana);
+        fragmentador = new Fragmentador(512, 2048, 8192, 0L);
+    }
+
+    /**
+     * Dispersa cada ventana desde cero.
+     * @return la combinación de las dispersiones.
+     */
+    @Benchmark public int desdeCero() {
+        int r = 0;
+        for (int i = 0; i + ventana <= datos.length; i++)
+            r ^= Dispersores.dispersaDJB(datos, i, ventana, 0);
+        return r;
+    }
+
+    /**
+     * Actualiza la dispersión rodante con cada byte.
+     * @return la combinación de las dispersiones.
+     */
+    @Benchmark public int rodante() {
+        rodante.reinicia();
+        int r = 0;
+        for (byte b : datos)
+            r ^= rodante.agrega(b);
+        return r;
+    }
+
+    /**
+     * Fragmenta el flujo.
+     * @return los cortes.
+     */
+    @Benchmark public int[] fragmenta() {
+        return fragmentador.fragmenta(datos);
+    }
+}
@@ -0,0 +1,220 @@
+package mx.unam.ciencias.edd.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.Dispersores;
+import mx.unam.ciencias.edd.DispersoresVectoriales;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks para las funciones de {@link Dispersores} y los dispersores de
+ * cadenas de {@link FabricaDispersores}. Cada invocación dispersa la
+ * siguiente llave de un conjunto de {@link Llaves#LLAVES} llaves, cuyas
+ * longitudes siguen la distribución del parámetro.
+ *
+ * Para obtener además la tasa de asignación de memoria se puede correr con
+ * <code>java -jar target/benchmarks.jar BenchmarkDispersores -prof gc</code>,
+ * o con el método {@link #main}, que agrega el perfilador de GC.
+ *
+ * Los benchmarks de {@link DispersoresVectoriales} sólo miden el núcleo
+ * vectorial si se compiló con el perfil <code>vector</code> y se corre con
+ * <code>-jvmArgsAppend --add-modules=jdk.incubator.vector</code>; si no,
+ * miden las funciones escalares.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkDispersores {
+
+    /** La distribución de las longitudes de las llaves. */
+    @Param public Llaves.Distribucion distribucion;
+
+    /* Las llaves de bytes. */
+    private byte[][] bytes;
+    /* Las llaves de cadenas. */
+    private String[] cadenas;
+    /* El índice de la siguiente llave. */
+    private int i;
+    /* Dispersor XOR de cadenas. */
+    private Dispersor<String> xor;
+    /* Dispersor de Bob Jenkins de cadenas. */
+    private Dispersor<String> bj;
+    /* Dispersor de Daniel J. Bernstein de cadenas. */
+    private Dispersor<String> djb;
+    /* Dispersor CRC-32C de cadenas. */
+    private Dispersor<String> crc;
+    /* Dispersor xxHash32 de cadenas. */
+    private Dispersor<String> xxh32;
+    /* Dispersor xxHash64 de cadenas. */
+    private Dispersor<String> xxh64;
+
+    /**
+     * Genera las llaves y los dispersores.
+     */
+    @Setup public void prepara() {
+        Random random = new Random(distribucion.ordinal());
+        bytes = Llaves.bytes(distribucion, random);
+        cadenas = Llaves.cadenas(distribucion, random);
+        xor = FabricaDispersores.dispersorCadena(AlgoritmoDispersor.XOR_STRING);
+        bj = FabricaDispersores.dispersorCadena(AlgoritmoDispersor.BJ_STRING);
+        djb = FabricaDispersores.dispersorCadena(AlgoritmoDispersor.DJB_STRING);
+        crc = FabricaDispersores
+            .dispersorCadena(AlgoritmoDispersor.CRC32C_STRING);
+        xxh32 = FabricaDispersores
+            .dispersorCadena(AlgoritmoDispersor.XXH32_STRING);
+        xxh64 = FabricaDispersores
+            .dispersorCadena(AlgoritmoDispersor.XXH64_STRING);
+    }
+
+    /* Regresa el índice de la siguiente llave. */
+    private int siguiente() {
+        return i = (i + 1) & (Llaves.LLAVES - 1);
+    }
+
+    /**
+     * Mide {@link Dispersores#dispersaXOR(byte[])}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int dispersaXOR() {
+        return Dispersores.dispersaXOR(bytes[siguiente()]);
+    }
+
+    /**
+     * Mide {@link Dispersores#dispersaBJ(byte[])}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int dispersaBJ() {
+        return Dispersores.dispersaBJ(bytes[siguiente()]);
+    }
+
+    /**
+     * Mide {@link Dispersores#dispersaDJB(byte[])}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int dispersaDJB() {
+        return Dispersores.dispersaDJB(bytes[siguiente()]);
+    }
+
+    /**
+     * Mide {@link Dispersores#dispersaCRC32C(byte[])}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int dispersaCRC32C() {
+        return Dispersores.dispersaCRC32C(bytes[siguiente()]);
+    }
+
+    /**
+     * Mide {@link Dispersores#dispersaXXH32(byte[])}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int dispersaXXH32() {
+        return Dispersores.dispersaXXH32(bytes[siguiente()]);
+    }
+
+    /**
+     * Mide {@link Dispersores#dispersaXXH64(byte[])}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int dispersaXXH64() {
+        return Dispersores.dispersaXXH64(bytes[siguiente()]);
+    }
+
+    /**
+     * Mide {@link DispersoresVectoriales#dispersaXOR(byte[])}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int vectorialXOR() {
+        return DispersoresVectoriales.dispersaXOR(bytes[siguiente()]);
+    }
+
+    /**
+     * Mide {@link DispersoresVectoriales#dispersaDJB(byte[])}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int vectorialDJB() {
+        return DispersoresVectoriales.dispersaDJB(bytes[siguiente()]);
+    }
+
+    /**
+     * Mide el dispersor de cadenas {@link AlgoritmoDispersor#XOR_STRING}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int cadenaXOR() {
+        return xor.dispersa(cadenas[siguiente()]);
+    }
+
+    /**
+     * Mide el dispersor de cadenas {@link AlgoritmoDispersor#BJ_STRING}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int cadenaBJ() {
+        return bj.dispersa(cadenas[siguiente()]);
+    }
+
+    /**
+     * Mide el dispersor de cadenas {@link AlgoritmoDispersor#DJB_STRING}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int cadenaDJB() {
+        return djb.dispersa(cadenas[siguiente()]);
+    }
+
+    /**
+     * Mide el dispersor de cadenas {@link AlgoritmoDispersor#CRC32C_STRING}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int cadenaCRC32C() {
+        return crc.dispersa(cadenas[siguiente()]);
+    }
+
+    /**
+     * Mide el dispersor de cadenas {@link AlgoritmoDispersor#XXH32_STRING}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int cadenaXXH32() {
+        return xxh32.dispersa(cadenas[siguiente()]);
+    }
+
+    /**
+     * Mide el dispersor de cadenas {@link AlgoritmoDispersor#XXH64_STRING}.
+     * @return la dispersión de la llave.
+     */
+    @Benchmark public int cadenaXXH64() {
+        return xxh64.dispersa(cadenas[siguiente()]);
+    }
+
+    /**
+     * Corre los benchmarks de la clase con el perfilador de GC, que reporta
+     * la tasa de asignación de memoria.
+     * @param args los argumentos de la línea de comandos; se ignoran.
+     * @throws RunnerException si JMH no puede correr los benchmarks.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+            .include(BenchmarkDispersores.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,106 @@
+package mx.unam.ciencias.edd.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Clase para generar los conjuntos de llaves de los benchmarks. Las
+ * longitudes de las llaves siguen una de las distribuciones de {@link
+ * Distribucion}.
+ */
+public class Llaves {
+
+    /**
+     * Enumeración para las distribuciones de longitudes de llaves.
+     */
+    public enum Distribucion {
+        /** Todas las llaves miden 8 bytes. */
+        FIJA_8,
+        /** Todas las llaves miden 16 bytes. */
+        FIJA_16,
+        /** Todas las llaves miden 64 bytes. */
+        FIJA_64,
+        /** Todas las llaves miden 1024 bytes. */
+        FIJA_1024,
+        /** Las longitudes siguen una distribución de Zipf sobre [1, 256]. */
+        ZIPF;
+    }
+
+    /** El número de llaves en cada conjunto; es potencia de 2. */
+    public static final int LLAVES = 1 << 12;
+
+    /* Longitud máxima con la distribución de Zipf. */
+    private static final int MAXIMA_ZIPF = 256;
+    /* Exponente de la distribución de Zipf. */
+    private static final double EXPONENTE_ZIPF = 1.1;
+
+    /* Caracteres para las cadenas; incluye algunos de dos bytes en UTF-8. */
+    private static final String CARACTERES =
+        "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789áéíóúñ";
+
+    /* Constructor privado para evitar instanciación. */
+    private Llaves() {}
+
+    /**
+     * Regresa {@link #LLAVES} arreglos de bytes aleatorios.
+     * @param distribucion la distribución de las longitudes.
+     * @param random el generador de números aleatorios.
+     * @return {@link #LLAVES} arreglos de bytes aleatorios.
+     */
+    public static byte[][] bytes(Distribucion distribucion, Random random) {
+        int[] longitudes = longitudes(distribucion, random);
+        byte[][] llaves = new byte[LLAVES][];
+        for (int i = 0; i < LLAVES; i++) {
+            llaves[i] = new byte[longitudes[i]];
+            random.nextBytes(llaves[i]);
+        }
+        return llaves;
+    }
+
+    /**
+     * Regresa {@link #LLAVES} cadenas aleatorias.
+     * @param distribucion la distribución de las longitudes (en caracteres).
+     * @param random el generador de números aleatorios.
+     * @return {@link #LLAVES} cadenas aleatorias.
+     */
+    public static String[] cadenas(Distribucion distribucion, Random random) {
+        int[] longitudes = longitudes(distribucion, random);
+        String[] llaves = new String[LLAVES];
+        for (int i = 0; i < LLAVES; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < longitudes[i]; j++) {
+                int c = random.nextInt(CARACTERES.length());
+                sb.append(CARACTERES.charAt(c));
+            }
+            llaves[i] = sb.toString();
+        }
+        return llaves;
+    }
+
+    /* Regresa las longitudes de las llaves. */
+    private static int[] longitudes(Distribucion distribucion, Random random) {
+        int[] longitudes = new int[LLAVES];
+        switch (distribucion) {
+        case FIJA_8:  Arrays.fill(longitudes, 8);  break;
+        case FIJA_16: Arrays.fill(longitudes, 16); break;
+        case FIJA_64: Arrays.fill(longitudes, 64); break;
+        case FIJA_1024: Arrays.fill(longitudes, 1024); break;
+        case ZIPF:
+            double[] acumulada = new double[MAXIMA_ZIPF];
+            double suma = 0.0;
+            for (int k = 0; k < MAXIMA_ZIPF; k++) {
+                suma += 1.0 / Math.pow(k + 1, EXPONENTE_ZIPF);
+                acumulada[k] = suma;
+            }
+            for (int i = 0; i < LLAVES; i++) {
+                double u = random.nextDouble() * suma;
+                int k = 0;
+                while (acumulada[k] < u)
+                    k++;
+                longitudes[i] = k + 1;
+            }
+            break;
+        }
+        return longitudes;
+    }
+}
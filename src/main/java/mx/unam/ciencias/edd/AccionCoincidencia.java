@@ -0,0 +1,17 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para realizar acciones sobre las coincidencias de un {@link
+ * BuscadorPatrones}.
+ */
+@FunctionalInterface
+public interface AccionCoincidencia {
+
+    /**
+     * Realiza una acción sobre una coincidencia.
+     * @param patron el índice del patrón que coincidió.
+     * @param posicion la posición en el flujo del primer byte de la
+     *        coincidencia.
+     */
+    public void actua(int patron, long posicion);
+}
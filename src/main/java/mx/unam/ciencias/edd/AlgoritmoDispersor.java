@@ -9,5 +9,13 @@ public enum AlgoritmoDispersor {
     /** Algoritmo de Bob Jenkins para cadenas. */
     BJ_STRING,
     /** Algoritmo de Daniel J. Bernstein para cadenas. */
-    DJB_STRING;
+    DJB_STRING,
+    /** Algoritmo SipHash-2-4 con llave secreta para cadenas. */
+    SIP_STRING,
+    /** Algoritmo CRC-32C para cadenas, acelerado por hardware. */
+    CRC32C_STRING,
+    /** Algoritmo xxHash32 de Yann Collet para cadenas. */
+    XXH32_STRING,
+    /** Algoritmo xxHash64 de Yann Collet para cadenas. */
+    XXH64_STRING;
 }
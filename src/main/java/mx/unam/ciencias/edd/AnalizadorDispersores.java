@@ -0,0 +1,314 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * <p>Clase para analizar la calidad de los algoritmos de {@link
+ * AlgoritmoDispersor} sobre un corpus de llaves.</p>
+ *
+ * <p>Para un conjunto de dispersiones, la clase puede calcular la
+ * distribución en cubetas de una tabla de cualquier tamaño (potencia de 2 o
+ * primo), la prueba de χ² de esa distribución, y la sucesión de exploración
+ * lineal más larga que provocarían al insertarlas en una tabla con
+ * direccionamiento abierto. Para un algoritmo puede calcular además el sesgo
+ * de avalancha (qué tanto se aleja de 1/2 la probabilidad de que cambiar un
+ * bit de la llave cambie cada bit de la dispersión) y su rendimiento.</p>
+ *
+ * <p>El método {@link #main} imprime un reporte de todos los algoritmos para
+ * las líneas de un archivo, o para llaves generadas si no recibe
+ * archivo.</p>
+ */
+public class AnalizadorDispersores {
+
+    /* Número máximo de llaves para medir la avalancha. */
+    private static final int LLAVES_AVALANCHA = 1000;
+    /* Número máximo de bits de entrada para medir la avalancha. */
+    private static final int BITS_AVALANCHA = 64;
+    /* Número de llaves generadas si no se recibe archivo. */
+    private static final int LLAVES_GENERADAS = 100000;
+    /* Llaves de SipHash para la semilla 0, derivadas como en la fábrica. */
+    private static final long SIP_K0 = FabricaDispersores.mezcla(0L);
+    private static final long SIP_K1 =
+        FabricaDispersores.mezcla(FabricaDispersores.DORADO);
+
+    /* Destino de las dispersiones al medir el rendimiento, para que el
+     * compilador no las elimine. */
+    private static volatile int sumidero;
+
+    /* Constructor privado para evitar instanciación. */
+    private AnalizadorDispersores() {}
+
+    /**
+     * Dispersa una llave de bytes con el algoritmo recibido, sin semilla. Para
+     * SipHash usa las llaves secretas que {@link FabricaDispersores} deriva
+     * de la semilla 0, para que coincida con {@link
+     * FabricaDispersores#dispersorCadena(AlgoritmoDispersor)}.
+     * @param algoritmo el algoritmo a usar.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de la llave.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     */
+    public static int dispersa(AlgoritmoDispersor algoritmo, byte[] llave) {
+        switch (algoritmo) {
+        case XOR_STRING:    return Dispersores.dispersaXOR(llave);
+        case BJ_STRING:     return Dispersores.dispersaBJ(llave);
+        case DJB_STRING:    return Dispersores.dispersaDJB(llave);
+        case SIP_STRING:    return Dispersores.dispersaSip(llave, SIP_K0,
+                                                           SIP_K1);
+        case CRC32C_STRING: return Dispersores.dispersaCRC32C(llave);
+        case XXH32_STRING:  return Dispersores.dispersaXXH32(llave);
+        case XXH64_STRING:  return Dispersores.dispersaXXH64(llave);
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /**
+     * Dispersa todas las llaves con el algoritmo recibido.
+     * @param algoritmo el algoritmo a usar.
+     * @param llaves las llaves a dispersar.
+     * @return las dispersiones de las llaves, en el mismo orden.
+     */
+    public static int[] dispersiones(AlgoritmoDispersor algoritmo,
+                                     byte[][] llaves) {
+        int[] d = new int[llaves.length];
+        for (int i = 0; i < llaves.length; i++)
+            d[i] = dispersa(algoritmo, llaves[i]);
+        return d;
+    }
+
+    /**
+     * Regresa la cubeta que le toca a una dispersión en una tabla de
+     * <em>m</em> cubetas: la dispersión, sin signo, módulo <em>m</em>. Si
+     * <em>m</em> es potencia de 2 esto es lo mismo que tomar los bits bajos.
+     * @param dispersion la dispersión.
+     * @param m el número de cubetas.
+     * @return la cubeta de la dispersión.
+     */
+    public static int cubeta(int dispersion, int m) {
+        return Integer.remainderUnsigned(dispersion, m);
+    }
+
+    /**
+     * Cuenta cuántas dispersiones caen en cada cubeta de una tabla de
+     * <em>m</em> cubetas.
+     * @param dispersiones las dispersiones.
+     * @param m el número de cubetas.
+     * @return un arreglo con el número de dispersiones en cada cubeta.
+     */
+    public static int[] cubetas(int[] dispersiones, int m) {
+        int[] c = new int[m];
+        for (int d : dispersiones)
+            c[cubeta(d, m)]++;
+        return c;
+    }
+
+    /**
+     * Calcula el estadístico χ² de una distribución en cubetas, contra la
+     * distribución uniforme.
+     * @param cubetas el número de elementos en cada cubeta.
+     * @return el estadístico χ² de la distribución.
+     */
+    public static double chiCuadrada(int[] cubetas) {
+        long n = 0;
+        for (int c : cubetas)
+            n += c;
+        double e = (double)n / cubetas.length;
+        double x = 0.0;
+        for (int c : cubetas)
+            x += (c - e) * (c - e) / e;
+        return x;
+    }
+
+    /**
+     * Normaliza un estadístico χ² con <em>m</em> cubetas: una distribución
+     * uniforme da valores cercanos a 0, y valores mayores a 3 indican que la
+     * distribución casi seguramente no es uniforme.
+     * @param chi el estadístico χ².
+     * @param m el número de cubetas.
+     * @return el estadístico normalizado.
+     */
+    public static double puntuacionZ(double chi, int m) {
+        double k = m - 1;
+        return (chi - k) / Math.sqrt(2.0 * k);
+    }
+
+    /**
+     * Calcula la sucesión de exploración lineal más larga que provocan las
+     * dispersiones al insertarlas en orden en una tabla de <em>m</em>
+     * cubetas con direccionamiento abierto.
+     * @param dispersiones las dispersiones.
+     * @param m el número de cubetas.
+     * @return la distancia más grande entre una llave y su cubeta.
+     * @throws IllegalArgumentException si hay más dispersiones que cubetas.
+     */
+    public static int exploracionMaxima(int[] dispersiones, int m) {
+        if (dispersiones.length > m)
+            throw new IllegalArgumentException("Hay más dispersiones que " +
+                                               "cubetas.");
+        boolean[] ocupada = new boolean[m];
+        int maxima = 0;
+        for (int d : dispersiones) {
+            int i = cubeta(d, m);
+            int n = 0;
+            while (ocupada[i]) {
+                i = (i + 1 == m) ? 0 : i + 1;
+                n++;
+            }
+            ocupada[i] = true;
+            maxima = Math.max(maxima, n);
+        }
+        return maxima;
+    }
+
+    /**
+     * Calcula el sesgo de avalancha de un algoritmo sobre las llaves. Para
+     * cada llave y cada uno de sus primeros bits se cambia el bit y se cuenta
+     * qué bits de la dispersión cambian; para cada pareja de bit de entrada y
+     * bit de salida, el sesgo es |2<em>p</em> - 1|, donde <em>p</em> es la
+     * proporción de veces que el bit de salida cambió. Un algoritmo ideal
+     * tiene sesgo cercano a 0; un sesgo de 1 indica que un bit de salida
+     * nunca (o siempre) depende de un bit de entrada.
+     * @param algoritmo el algoritmo a medir.
+     * @param llaves las llaves; sólo se usan las primeras.
+     * @return un arreglo con el sesgo promedio y el sesgo máximo, en ese
+     *         orden.
+     */
+    public static double[] sesgoAvalancha(AlgoritmoDispersor algoritmo,
+                                          byte[][] llaves) {
+        int[][] cambios = new int[BITS_AVALANCHA][32];
+        int[] pruebas = new int[BITS_AVALANCHA];
+        int n = Math.min(llaves.length, LLAVES_AVALANCHA);
+        for (int k = 0; k < n; k++) {
+            byte[] llave = llaves[k].clone();
+            int h = dispersa(algoritmo, llave);
+            int bits = Math.min(BITS_AVALANCHA, 8 * llave.length);
+            for (int i = 0; i < bits; i++) {
+                llave[i >> 3] ^= 1 << (i & 7);
+                int d = h ^ dispersa(algoritmo, llave);
+                llave[i >> 3] ^= 1 << (i & 7);
+                pruebas[i]++;
+                for (int j = 0; j < 32; j++)
+                    cambios[i][j] += (d >>> j) & 1;
+            }
+        }
+        double suma = 0.0, maximo = 0.0;
+        int celdas = 0;
+        for (int i = 0; i < BITS_AVALANCHA; i++) {
+            if (pruebas[i] == 0)
+                continue;
+            for (int j = 0; j < 32; j++) {
+                double p = (double)cambios[i][j] / pruebas[i];
+                double s = Math.abs(2.0 * p - 1.0);
+                suma += s;
+                maximo = Math.max(maximo, s);
+                celdas++;
+            }
+        }
+        return new double[] { celdas == 0 ? 0.0 : suma / celdas, maximo };
+    }
+
+    /**
+     * Mide el rendimiento de un algoritmo dispersando las llaves repetidas
+     * veces.
+     * @param algoritmo el algoritmo a medir.
+     * @param llaves las llaves.
+     * @param repeticiones cuántas veces dispersar todas las llaves.
+     * @return el rendimiento en megabytes por segundo.
+     */
+    public static double rendimiento(AlgoritmoDispersor algoritmo,
+                                     byte[][] llaves, int repeticiones) {
+        long bytes = 0;
+        for (byte[] llave : llaves)
+            bytes += llave.length;
+        int basura = 0;
+        for (byte[] llave : llaves)
+            basura ^= dispersa(algoritmo, llave);
+        long t = System.nanoTime();
+        for (int r = 0; r < repeticiones; r++)
+            for (byte[] llave : llaves)
+                basura ^= dispersa(algoritmo, llave);
+        t = System.nanoTime() - t;
+        sumidero = basura;
+        return (bytes * repeticiones / 1e6) / (Math.max(t, 1) / 1e9);
+    }
+
+    /* Regresa el primo más pequeño mayor o igual que n. */
+    private static int primo(int n) {
+        for (;; n++) {
+            boolean primo = n > 1;
+            for (int d = 2; primo && (long)d * d <= n; d++)
+                primo = n % d != 0;
+            if (primo)
+                return n;
+        }
+    }
+
+    /* Regresa la potencia de 2 más pequeña mayor o igual que n. */
+    private static int potencia(int n) {
+        int p = 1;
+        while (p < n)
+            p <<= 1;
+        return p;
+    }
+
+    /* Lee las llaves del archivo, o las genera si no hay archivo. */
+    private static byte[][] corpus(String[] args) throws IOException {
+        if (args.length > 0) {
+            List<String> lineas = Files.readAllLines(Paths.get(args[0]),
+                                                     StandardCharsets.UTF_8);
+            byte[][] llaves = new byte[lineas.size()][];
+            int i = 0;
+            for (String linea : lineas)
+                llaves[i++] = linea.getBytes(StandardCharsets.UTF_8);
+            return llaves;
+        }
+        byte[][] llaves = new byte[LLAVES_GENERADAS][];
+        for (int i = 0; i < llaves.length; i++)
+            llaves[i] = ("llave-" + i).getBytes(StandardCharsets.UTF_8);
+        return llaves;
+    }
+
+    /**
+     * Imprime el reporte de todos los algoritmos para las líneas del archivo
+     * recibido, o para llaves secuenciales generadas si no recibe archivo.
+     * @param args los argumentos de la línea de comandos; el primero, si
+     *        existe, es el archivo con las llaves.
+     * @throws IOException si no puede leer el archivo.
+     */
+    public static void main(String[] args) throws IOException {
+        byte[][] llaves = corpus(args);
+        int n = llaves.length;
+        int[] tamanos = { potencia(2 * n), primo(2 * n) };
+        System.out.printf("Llaves: %d\n", n);
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            int[] d = dispersiones(algoritmo, llaves);
+            System.out.printf("\n%s\n", algoritmo);
+            for (int m : tamanos) {
+                int[] c = cubetas(d, m);
+                int maxima = 0, vacias = 0;
+                for (int x : c) {
+                    maxima = Math.max(maxima, x);
+                    if (x == 0)
+                        vacias++;
+                }
+                double chi = chiCuadrada(c);
+                System.out.printf("  m = %-9d χ² = %-14.2f z = %-10.2f " +
+                                  "máxima = %-6d vacías = %5.1f%%  " +
+                                  "exploración máxima = %d\n",
+                                  m, chi, puntuacionZ(chi, m), maxima,
+                                  100.0 * vacias / m,
+                                  exploracionMaxima(d, m));
+            }
+            double[] sesgo = sesgoAvalancha(algoritmo, llaves);
+            System.out.printf("  avalancha: sesgo promedio = %.3f, " +
+                              "sesgo máximo = %.3f\n", sesgo[0], sesgo[1]);
+            System.out.printf("  rendimiento: %.1f MB/s\n",
+                              rendimiento(algoritmo, llaves, 20));
+        }
+    }
+}
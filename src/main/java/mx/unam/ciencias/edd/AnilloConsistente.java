@@ -0,0 +1,261 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para anillos de dispersión consistente. Un anillo reparte llaves
+ * entre nodos de forma que, cuando un nodo entra o sale, sólo cambia de
+ * nodo alrededor de 1/<em>n</em> de las llaves: las del nodo que sale, o
+ * las que le tocan al que entra.</p>
+ *
+ * <p>Cada nodo ocupa varias posiciones (nodos virtuales) en el anillo de los
+ * enteros de 32 bits; la posición <em>i</em> del nodo <em>x</em> es la
+ * dispersión de la cadena <em>x</em>#<em>i</em>. A una llave le toca el
+ * nodo de la primera posición mayor o igual a su dispersión, dando la
+ * vuelta al anillo si hace falta. Con más nodos virtuales la carga de los
+ * nodos es más pareja: la desviación es de alrededor de
+ * 1/√<em>v</em>.</p>
+ *
+ * <p>Las posiciones se guardan ordenadas en un arreglo de enteros largos,
+ * cada una junto con el índice de su nodo, así que buscar el nodo de una
+ * llave es una búsqueda binaria que no crea objetos; agregar o eliminar un
+ * nodo cuesta tiempo lineal en el número de posiciones. Con el dispersor
+ * por omisión, dispersar una cadena tampoco crea objetos.</p>
+ *
+ * <p>Como alternativa sin memoria adicional, {@link #cubeta} implementa la
+ * dispersión consistente por saltos de Lamping y Veach, y {@link
+ * #nodoSalto} la usa sobre los nodos en el orden en que se agregaron; con
+ * ella las cargas son casi perfectamente parejas, pero sólo se mueven
+ * 1/<em>n</em> de las llaves si entra o sale el último nodo.</p>
+ */
+public class AnilloConsistente {
+
+    /** El número de nodos virtuales por omisión. */
+    public static final int VIRTUALES = 160;
+
+    /* El dispersor de las posiciones y las llaves. */
+    private Dispersor<String> dispersor;
+    /* El número de nodos virtuales por nodo. */
+    private int virtuales;
+    /* Los nodos, en el orden en que se agregaron. */
+    private String[] nodos;
+    /* El número de nodos. */
+    private int elementos;
+    /* Las posiciones, ordenadas; cada una tiene la posición en los 32 bits
+     * altos y el índice de su nodo en los bajos. */
+    private long[] anillo;
+
+    /**
+     * Construye un anillo vacío con {@link #VIRTUALES} nodos virtuales por
+     * nodo, y el dispersor de Bob Jenkins.
+     */
+    public AnilloConsistente() {
+        this(VIRTUALES, FabricaDispersores
+             .dispersorCadena(AlgoritmoDispersor.BJ_STRING));
+    }
+
+    /**
+     * Construye un anillo vacío con el número de nodos virtuales por nodo y
+     * el dispersor recibidos. Anillos con los mismos parámetros y los
+     * mismos nodos reparten las llaves igual, sin importar el orden en que
+     * se agregaron los nodos.
+     * @param virtuales el número de nodos virtuales por nodo.
+     * @param dispersor el dispersor de las posiciones y las llaves.
+     * @throws IllegalArgumentException si el número de nodos virtuales no es
+     *         positivo o el dispersor es <code>null</code>.
+     */
+    public AnilloConsistente(int virtuales, Dispersor<String> dispersor) {
+        if (virtuales <= 0 || dispersor == null)
+            throw new IllegalArgumentException("Virtuales o dispersor " +
+                                               "inválidos.");
+        this.virtuales = virtuales;
+        this.dispersor = dispersor;
+        nodos = new String[8];
+        anillo = new long[0];
+    }
+
+    /**
+     * Agrega un nodo al anillo.
+     * @param nodo el nodo a agregar.
+     * @throws IllegalArgumentException si el nodo es <code>null</code> o ya
+     *         está en el anillo.
+     */
+    public void agrega(String nodo) {
+        if (nodo == null || indiceDe(nodo) != -1)
+            throw new IllegalArgumentException("Nodo nulo o repetido.");
+        if (elementos == nodos.length)
+            nodos = Arrays.copyOf(nodos, 2 * elementos);
+        int indice = elementos;
+        nodos[elementos++] = nodo;
+        long[] nuevas = new long[virtuales];
+        for (int i = 0; i < virtuales; i++)
+            nuevas[i] = entrada(dispersor.dispersa(nodo + "#" + i), indice);
+        Arrays.sort(nuevas);
+        long[] a = new long[anillo.length + virtuales];
+        int i = 0, j = 0, k = 0;
+        while (i < anillo.length && j < virtuales)
+            a[k++] = anillo[i] <= nuevas[j] ? anillo[i++] : nuevas[j++];
+        while (i < anillo.length)
+            a[k++] = anillo[i++];
+        while (j < virtuales)
+            a[k++] = nuevas[j++];
+        anillo = a;
+        desempata();
+    }
+
+    /**
+     * Elimina un nodo del anillo.
+     * @param nodo el nodo a eliminar.
+     * @throws NoSuchElementException si el nodo no está en el anillo.
+     */
+    public void elimina(String nodo) {
+        int indice = indiceDe(nodo);
+        if (indice == -1)
+            throw new NoSuchElementException("El nodo no está en el " +
+                                             "anillo.");
+        System.arraycopy(nodos, indice + 1, nodos, indice,
+                         elementos - indice - 1);
+        nodos[--elementos] = null;
+        long[] a = new long[anillo.length - virtuales];
+        int k = 0;
+        for (long e : anillo) {
+            int n = (int)e;
+            if (n == indice)
+                continue;
+            a[k++] = n < indice ? e : e - 1;
+        }
+        anillo = a;
+    }
+
+    /**
+     * Nos dice si un nodo está en el anillo.
+     * @param nodo el nodo que queremos ver si está en el anillo.
+     * @return <code>true</code> si el nodo está en el anillo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(String nodo) {
+        return indiceDe(nodo) != -1;
+    }
+
+    /**
+     * Regresa el nodo al que le toca una llave.
+     * @param llave la llave.
+     * @return el nodo al que le toca la llave.
+     * @throws NoSuchElementException si el anillo es vacío.
+     */
+    public String nodo(String llave) {
+        return nodo(dispersor.dispersa(llave));
+    }
+
+    /**
+     * Regresa el nodo al que le toca una dispersión: el de la primera
+     * posición mayor o igual a la dispersión, o el de la primera posición
+     * del anillo si no hay ninguna.
+     * @param dispersion la dispersión de la llave.
+     * @return el nodo al que le toca la dispersión.
+     * @throws NoSuchElementException si el anillo es vacío.
+     */
+    public String nodo(int dispersion) {
+        if (elementos == 0)
+            throw new NoSuchElementException("El anillo es vacío.");
+        long buscada = (long)dispersion << 32;
+        int a = 0, b = anillo.length;
+        while (a < b) {
+            int m = (a + b) >>> 1;
+            if (anillo[m] < buscada)
+                a = m + 1;
+            else
+                b = m;
+        }
+        if (a == anillo.length)
+            a = 0;
+        return nodos[(int)anillo[a]];
+    }
+
+    /**
+     * Regresa el nodo al que le toca una llave con la dispersión
+     * consistente por saltos, sobre los nodos en el orden en que se
+     * agregaron.
+     * @param llave la llave.
+     * @return el nodo al que le toca la llave.
+     * @throws NoSuchElementException si el anillo es vacío.
+     */
+    public String nodoSalto(String llave) {
+        if (elementos == 0)
+            throw new NoSuchElementException("El anillo es vacío.");
+        long d = dispersor.dispersa(llave) & 0xffffffffL;
+        return nodos[cubeta(d, elementos)];
+    }
+
+    /**
+     * Regresa la cubeta que le toca a una llave entre <em>n</em> cubetas,
+     * con la dispersión consistente por saltos de Lamping y Veach: al pasar
+     * de <em>n</em> a <em>n</em> + 1 cubetas, sólo se mueve a la nueva
+     * cubeta 1/(<em>n</em> + 1) de las llaves, y ninguna otra cambia. Toma
+     * tiempo <em>O</em>(log <em>n</em>) y no usa memoria.
+     * @param llave la llave.
+     * @param cubetas el número de cubetas.
+     * @return la cubeta de la llave, en [0, <em>cubetas</em>).
+     * @throws IllegalArgumentException si el número de cubetas no es
+     *         positivo.
+     */
+    public static int cubeta(long llave, int cubetas) {
+        if (cubetas <= 0)
+            throw new IllegalArgumentException("Cubetas inválidas.");
+        long b = -1, j = 0;
+        while (j < cubetas) {
+            b = j;
+            llave = llave * 2862933555777941757L + 1;
+            j = (long)((b + 1) * ((double)(1L << 31) /
+                                  ((llave >>> 33) + 1)));
+        }
+        return (int)b;
+    }
+
+    /**
+     * Regresa el número de nodos del anillo.
+     * @return el número de nodos del anillo.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número de nodos virtuales por nodo.
+     * @return el número de nodos virtuales por nodo.
+     */
+    public int getVirtuales() {
+        return virtuales;
+    }
+
+    /* Regresa la entrada del anillo de una posición y un índice. */
+    private static long entrada(int posicion, int indice) {
+        return ((long)posicion << 32) | indice;
+    }
+
+    /* Regresa el índice de un nodo, o -1 si no está. */
+    private int indiceDe(String nodo) {
+        if (nodo == null)
+            return -1;
+        for (int i = 0; i < elementos; i++)
+            if (nodos[i].equals(nodo))
+                return i;
+        return -1;
+    }
+
+    /* Ordena las entradas con la misma posición por nombre de nodo, para
+     * que el reparto no dependa del orden en que se agregaron los nodos. */
+    private void desempata() {
+        for (int i = 1; i < anillo.length; i++) {
+            long e = anillo[i];
+            int j = i;
+            while (j > 0 && (anillo[j - 1] >> 32) == (e >> 32) &&
+                   nodos[(int)anillo[j - 1]].compareTo(nodos[(int)e]) > 0) {
+                anillo[j] = anillo[j - 1];
+                j--;
+            }
+            anillo[j] = e;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para árboles BFS. Un árbol BFS guarda, para cada vértice de una
+ * {@link GraficaCongelada}, su distancia en aristas desde un origen y su
+ * padre en una trayectoria mínima desde él. Se obtiene con {@link
+ * GraficaCongelada#bfsParalelo(Object)}.</p>
+ *
+ * <p>Los vértices se numeran en el orden en que fueron agregados a la
+ * gráfica, como en {@link GraficaCongelada}; los arreglos que regresan
+ * {@link #getDistancias} y {@link #getPadres} siguen esa numeración.</p>
+ *
+ * @param <T> El tipo de los elementos de la gráfica.
+ */
+public class ArbolBFS<T> {
+
+    /* La gráfica congelada. */
+    private GraficaCongelada<T> grafica;
+    /* El índice del origen. */
+    private int origen;
+    /* La distancia de cada vértice, o -1 si no es alcanzable. */
+    private int[] distancias;
+    /* El índice del padre de cada vértice, o -1. */
+    private int[] padres;
+    /* El número de vértices alcanzables. */
+    private int alcanzados;
+    /* El número de niveles. */
+    private int niveles;
+
+    /* Construye un árbol BFS con los arreglos recibidos, que no se
+     * copian. */
+    ArbolBFS(GraficaCongelada<T> grafica, int origen, int[] distancias,
+             int[] padres, int alcanzados, int niveles) {
+        this.grafica = grafica;
+        this.origen = origen;
+        this.distancias = distancias;
+        this.padres = padres;
+        this.alcanzados = alcanzados;
+        this.niveles = niveles;
+    }
+
+    /**
+     * Regresa el elemento de origen del recorrido.
+     * @return el elemento de origen del recorrido.
+     */
+    public T getOrigen() {
+        return grafica.elemento(origen);
+    }
+
+    /**
+     * Regresa la distancia en aristas del origen al elemento.
+     * @param elemento el elemento.
+     * @return la distancia en aristas del origen al elemento, o -1 si no es
+     *         alcanzable.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int getDistancia(T elemento) {
+        return distancias[grafica.busca(elemento)];
+    }
+
+    /**
+     * Nos dice si el elemento es alcanzable desde el origen.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento es alcanzable desde el origen,
+     *         <code>false</code> en otro caso.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public boolean esAlcanzable(T elemento) {
+        return getDistancia(elemento) != -1;
+    }
+
+    /**
+     * Regresa el padre del elemento en el árbol BFS, que es el elemento
+     * anterior en una trayectoria mínima desde el origen.
+     * @param elemento el elemento.
+     * @return el padre del elemento, o <code>null</code> si el elemento es
+     *         el origen o no es alcanzable.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public T getPadre(T elemento) {
+        int p = padres[grafica.busca(elemento)];
+        return p == -1 ? null : grafica.elemento(p);
+    }
+
+    /**
+     * Regresa una trayectoria mínima del origen al elemento, siguiendo a los
+     * padres.
+     * @param destino el elemento de destino.
+     * @return una lista con los elementos de una trayectoria mínima del
+     *         origen al destino, o una lista vacía si el destino no es
+     *         alcanzable.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public Lista<T> trayectoria(T destino) {
+        Lista<T> l = new Lista<T>();
+        int v = grafica.busca(destino);
+        if (distancias[v] == -1)
+            return l;
+        for (; v != -1; v = padres[v])
+            l.agregaInicio(grafica.elemento(v));
+        return l;
+    }
+
+    /**
+     * Regresa el número de vértices alcanzables desde el origen, incluyendo
+     * al origen.
+     * @return el número de vértices alcanzables desde el origen.
+     */
+    public int getAlcanzados() {
+        return alcanzados;
+    }
+
+    /**
+     * Regresa el número de niveles del recorrido, que es uno más que la
+     * mayor distancia desde el origen.
+     * @return el número de niveles del recorrido.
+     */
+    public int getNiveles() {
+        return niveles;
+    }
+
+    /**
+     * Regresa una copia de las distancias de todos los vértices, en el orden
+     * en que fueron agregados a la gráfica; -1 para los no alcanzables.
+     * @return una copia de las distancias de todos los vértices.
+     */
+    public int[] getDistancias() {
+        return distancias.clone();
+    }
+
+    /**
+     * Regresa una copia de los índices de los padres de todos los vértices,
+     * en el orden en que fueron agregados a la gráfica; -1 para el origen y
+     * los no alcanzables.
+     * @return una copia de los índices de los padres de todos los vértices.
+     */
+    public int[] getPadres() {
+        return padres.clone();
+    }
+}
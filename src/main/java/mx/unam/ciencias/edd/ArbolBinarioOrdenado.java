@@ -48,6 +48,9 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
      */
     protected Vertice ultimoAgregado;
 
+    /* El internador de los elementos agregados, o null si no hay. */
+    private Internador<T> internador;
+
     /**
      * Constructor sin parámetros. Para no perder el constructor sin parámetros
      * de {@link ArbolBinario}.
@@ -66,12 +69,46 @@ public class ArbolBinarioOrdenado<T extends Comparable<T>>
 
     /**
      * Agrega un nuevo elemento al árbol. El árbol conserva su orden in-order.
+     * Si el árbol tiene internador, lo que se agrega es la instancia canónica
+     * del elemento.
      * @param elemento el elemento a agregar.
      */
     @Override public void agrega(T elemento) {
+        elemento = interna(elemento);
         // Aquí va su código.
     }
 
+    /**
+     * Define el internador de los elementos que se agreguen al árbol a
+     * partir de ahora; <code>null</code> para no internarlos. Varios árboles
+     * pueden compartir un internador.
+     * @param internador el internador de los elementos.
+     */
+    public void setInternador(Internador<T> internador) {
+        this.internador = internador;
+    }
+
+    /**
+     * Regresa el internador de los elementos que se agregan al árbol.
+     * @return el internador de los elementos, o <code>null</code> si no hay.
+     */
+    public Internador<T> getInternador() {
+        return internador;
+    }
+
+    /**
+     * Regresa la instancia canónica del elemento si el árbol tiene
+     * internador, o el elemento mismo si no; las clases herederas que no
+     * agreguen por medio de {@link #agrega} deben llamarlo.
+     * @param elemento el elemento.
+     * @return la instancia canónica del elemento, o el elemento.
+     */
+    protected T interna(T elemento) {
+        if (internador == null || elemento == null)
+            return elemento;
+        return internador.interna(elemento);
+    }
+
     /**
      * Elimina un elemento. Si el elemento no está en el árbol, no hace nada; si
      * está varias veces, elimina el primero que encuentre (in-order). El árbol
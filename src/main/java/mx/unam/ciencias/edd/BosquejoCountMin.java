@@ -0,0 +1,276 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para bosquejos Count-Min. Un bosquejo Count-Min estima cuántas
+ * veces aparece cada elemento en un flujo sin guardar los elementos: usa
+ * una tabla de <em>d</em> renglones por <em>w</em> columnas de contadores,
+ * y cada elemento incrementa un contador por renglón. La estimación de un
+ * elemento es el mínimo de sus <em>d</em> contadores; nunca es menor que la
+ * cuenta real, y con probabilidad 1 - <em>δ</em> no la excede por más de
+ * <em>ε</em> veces el total del flujo, si <em>w</em> = ⌈<em>e</em> /
+ * <em>ε</em>⌉ y <em>d</em> = ⌈ln (1 / <em>δ</em>)⌉.</p>
+ *
+ * <p>Con la actualización conservadora, al agregar un elemento sólo se
+ * incrementan los contadores que quedarían por debajo de la nueva
+ * estimación; esto reduce mucho el error con flujos sesgados, pero el
+ * bosquejo ya no admite cuentas negativas.</p>
+ *
+ * <p>Las columnas de cada renglón se obtienen de dos dispersiones con doble
+ * dispersión mejorada, como en {@link FiltroBloom}. Por omisión las
+ * dispersiones son las de Bob Jenkins y Daniel J. Bernstein de {@link
+ * Dispersores} con semilla sobre el contenido de las cadenas y los arreglos
+ * de bytes, así que semillas distintas dan renglones distintos; cualquier
+ * otro elemento se dispersa mezclando su {@link Object#hashCode} con la
+ * semilla, así que elementos con la misma dispersión de Java chocan en
+ * todos los renglones. Ninguna crea cadenas, y también se pueden usar
+ * dispersores propios.</p>
+ */
+public class BosquejoCountMin<T> {
+
+    /* Los contadores, renglón por renglón. */
+    private long[] contadores;
+    /* El número de columnas. */
+    private int anchura;
+    /* El número de renglones. */
+    private int profundidad;
+    /* Si la actualización es conservadora. */
+    private boolean conservador;
+    /* La suma de todas las cuentas agregadas. */
+    private long total;
+    /* El primer dispersor. */
+    private Dispersor<T> primero;
+    /* El segundo dispersor. */
+    private Dispersor<T> segundo;
+    /* Las columnas del último elemento, para no crear arreglos. */
+    private int[] columnas;
+
+    /**
+     * Construye un bosquejo con la anchura y profundidad recibidas, sin
+     * actualización conservadora y con los dispersores por omisión.
+     * @param anchura el número de columnas del bosquejo.
+     * @param profundidad el número de renglones del bosquejo.
+     * @throws IllegalArgumentException si la anchura o la profundidad no son
+     *         positivas, o si el bosquejo tendría demasiados contadores.
+     */
+    public BosquejoCountMin(int anchura, int profundidad) {
+        this(anchura, profundidad, false, 0L);
+    }
+
+    /**
+     * Construye un bosquejo con la anchura y profundidad recibidas, con los
+     * dispersores por omisión y la semilla recibida.
+     * @param anchura el número de columnas del bosquejo.
+     * @param profundidad el número de renglones del bosquejo.
+     * @param conservador si la actualización es conservadora.
+     * @param semilla la semilla de los dispersores.
+     * @throws IllegalArgumentException si la anchura o la profundidad no son
+     *         positivas, o si el bosquejo tendría demasiados contadores.
+     */
+    public BosquejoCountMin(int anchura, int profundidad, boolean conservador,
+                            long semilla) {
+        this(anchura, profundidad, conservador,
+             FabricaDispersores
+             .<T>dispersorObjeto(AlgoritmoDispersor.BJ_STRING, semilla),
+             FabricaDispersores
+             .<T>dispersorObjeto(AlgoritmoDispersor.DJB_STRING, semilla));
+    }
+
+    /**
+     * Construye un bosquejo con la anchura, profundidad y dispersores
+     * recibidos.
+     * @param anchura el número de columnas del bosquejo.
+     * @param profundidad el número de renglones del bosquejo.
+     * @param conservador si la actualización es conservadora.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor.
+     * @throws IllegalArgumentException si la anchura o la profundidad no son
+     *         positivas, si el bosquejo tendría demasiados contadores, o si
+     *         algún dispersor es <code>null</code>.
+     */
+    public BosquejoCountMin(int anchura, int profundidad, boolean conservador,
+                            Dispersor<T> primero, Dispersor<T> segundo) {
+        if (anchura <= 0 || profundidad <= 0)
+            throw new IllegalArgumentException("Anchura o profundidad " +
+                                               "inválidas.");
+        if ((long)anchura * profundidad > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Demasiados contadores.");
+        if (primero == null || segundo == null)
+            throw new IllegalArgumentException("Dispersor nulo.");
+        this.anchura = anchura;
+        this.profundidad = profundidad;
+        this.conservador = conservador;
+        this.primero = primero;
+        this.segundo = segundo;
+        contadores = new long[anchura * profundidad];
+        columnas = new int[profundidad];
+    }
+
+    /**
+     * Regresa la anchura necesaria para que el error sea a lo más
+     * <em>ε</em> veces el total: ⌈<em>e</em> / <em>ε</em>⌉.
+     * @param error el error relativo al total, <em>ε</em>.
+     * @return la anchura necesaria.
+     * @throws IllegalArgumentException si el error no está en (0, 1), o si
+     *         la anchura no cabe en un entero.
+     */
+    public static int anchura(double error) {
+        if (!(error > 0.0 && error < 1.0))
+            throw new IllegalArgumentException("Error inválido.");
+        double w = Math.ceil(Math.E / error);
+        if (w > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Demasiadas columnas.");
+        return (int)w;
+    }
+
+    /**
+     * Regresa la profundidad necesaria para que el error se cumpla con
+     * probabilidad 1 - <em>δ</em>: ⌈ln (1 / <em>δ</em>)⌉.
+     * @param probabilidad la probabilidad de fallar, <em>δ</em>.
+     * @return la profundidad necesaria, al menos 1.
+     * @throws IllegalArgumentException si la probabilidad no está en (0, 1).
+     */
+    public static int profundidad(double probabilidad) {
+        if (!(probabilidad > 0.0 && probabilidad < 1.0))
+            throw new IllegalArgumentException("Probabilidad inválida.");
+        return (int)Math.max(1, Math.ceil(-Math.log(probabilidad)));
+    }
+
+    /**
+     * Agrega una aparición de un elemento al bosquejo.
+     * @param elemento el elemento a agregar.
+     * @return la nueva estimación de la cuenta del elemento.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public long agrega(T elemento) {
+        return agrega(elemento, 1L);
+    }
+
+    /**
+     * Agrega varias apariciones de un elemento al bosquejo.
+     * @param elemento el elemento a agregar.
+     * @param cuenta el número de apariciones.
+     * @return la nueva estimación de la cuenta del elemento.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>
+     *         o la cuenta es negativa.
+     */
+    public long agrega(T elemento, long cuenta) {
+        if (elemento == null)
+            throw new IllegalArgumentException("El elemento es nulo.");
+        if (cuenta < 0)
+            throw new IllegalArgumentException("Cuenta negativa.");
+        calculaColumnas(elemento);
+        total += cuenta;
+        if (conservador) {
+            long estimacion = minimo() + cuenta;
+            for (int i = 0; i < profundidad; i++)
+                if (contadores[columnas[i]] < estimacion)
+                    contadores[columnas[i]] = estimacion;
+            return estimacion;
+        }
+        for (int i = 0; i < profundidad; i++)
+            contadores[columnas[i]] += cuenta;
+        return minimo();
+    }
+
+    /**
+     * Estima cuántas veces se ha agregado un elemento. La estimación nunca
+     * es menor que la cuenta real.
+     * @param elemento el elemento.
+     * @return la estimación de la cuenta del elemento; 0 si es
+     *         <code>null</code>.
+     */
+    public long estima(T elemento) {
+        if (elemento == null)
+            return 0L;
+        calculaColumnas(elemento);
+        return minimo();
+    }
+
+    /**
+     * Une otro bosquejo a éste, sumando sus contadores; el resultado es el
+     * bosquejo del flujo que incluye a los dos. Los dos bosquejos deben
+     * usar los mismos dispersores.
+     * @param bosquejo el bosquejo a unir.
+     * @throws IllegalArgumentException si el bosquejo es <code>null</code>
+     *         o sus dimensiones son distintas.
+     */
+    public void une(BosquejoCountMin<T> bosquejo) {
+        if (bosquejo == null || bosquejo.anchura != anchura ||
+            bosquejo.profundidad != profundidad)
+            throw new IllegalArgumentException("Bosquejo incompatible.");
+        if (bosquejo == this) {
+            for (int i = 0; i < contadores.length; i++)
+                contadores[i] <<= 1;
+            total <<= 1;
+            return;
+        }
+        for (int i = 0; i < contadores.length; i++)
+            contadores[i] += bosquejo.contadores[i];
+        total += bosquejo.total;
+    }
+
+    /**
+     * Vacía el bosquejo.
+     */
+    public void limpia() {
+        for (int i = 0; i < contadores.length; i++)
+            contadores[i] = 0L;
+        total = 0L;
+    }
+
+    /**
+     * Regresa la suma de todas las cuentas agregadas al bosquejo.
+     * @return la suma de todas las cuentas agregadas.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Regresa la anchura (el número de columnas) del bosquejo.
+     * @return la anchura del bosquejo.
+     */
+    public int getAnchura() {
+        return anchura;
+    }
+
+    /**
+     * Regresa la profundidad (el número de renglones) del bosquejo.
+     * @return la profundidad del bosquejo.
+     */
+    public int getProfundidad() {
+        return profundidad;
+    }
+
+    /**
+     * Nos dice si la actualización del bosquejo es conservadora.
+     * @return <code>true</code> si la actualización es conservadora,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esConservador() {
+        return conservador;
+    }
+
+    /* Calcula el índice en el arreglo del contador de cada renglón. La
+     * primera columna y el incremento son la parte alta del producto de cada
+     * dispersión sin signo por la anchura, y avanzan módulo la anchura como
+     * en FiltroBloom. */
+    private void calculaColumnas(T elemento) {
+        long x = ((primero.dispersa(elemento) & 0xffffffffL) * anchura) >>> 32;
+        long y = ((segundo.dispersa(elemento) & 0xffffffffL) * anchura) >>> 32;
+        for (int i = 0; i < profundidad; i++) {
+            columnas[i] = i * anchura + (int)x;
+            y = (y + i + 1) % anchura;
+            x = (x + y) % anchura;
+        }
+    }
+
+    /* Regresa el mínimo de los contadores de las últimas columnas. */
+    private long minimo() {
+        long m = Long.MAX_VALUE;
+        for (int i = 0; i < profundidad; i++)
+            if (contadores[columnas[i]] < m)
+                m = contadores[columnas[i]];
+        return m;
+    }
+}
@@ -0,0 +1,221 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * <p>Clase para buscar varios patrones de bytes a la vez en un flujo, con
+ * el algoritmo de Rabin y Karp. Los patrones se agrupan por longitud; cada
+ * grupo tiene un {@link DispersorRodante} con ventana de esa longitud y una
+ * tabla de dispersión con las dispersiones de sus patrones. Cada byte del
+ * flujo actualiza el dispersor de cada grupo en tiempo constante y busca la
+ * dispersión en su tabla; sólo cuando la dispersión coincide se comparan
+ * los bytes. Buscar cuesta <em>O</em>(<em>g</em>) por byte, con
+ * <em>g</em> el número de longitudes distintas, más el costo de confirmar
+ * las coincidencias.</p>
+ *
+ * <p>El buscador recuerda dónde se quedó, así que un flujo se puede buscar
+ * en pedazos, con varias llamadas a {@link #busca(byte[],int,int,
+ * AccionCoincidencia)}: las coincidencias que cruzan de un pedazo al
+ * siguiente también se encuentran, y las posiciones son siempre relativas
+ * al principio del flujo.</p>
+ */
+public class BuscadorPatrones {
+
+    /* El tamaño del búfer para leer flujos. */
+    private static final int BUFFER = 1 << 16;
+
+    /* Clase interna privada para los patrones de una misma longitud. */
+    private class Grupo {
+
+        /* El dispersor rodante, con ventana de la longitud del grupo. */
+        private DispersorRodante rodante;
+        /* Las dispersiones de la tabla. */
+        private int[] dispersiones;
+        /* El primer patrón con cada dispersión de la tabla, o -1. */
+        private int[] primeros;
+        /* La máscara para obtener índices a partir de dispersiones. */
+        private int mascara;
+
+        /* Construye un grupo para patrones de la longitud. */
+        public Grupo(int longitud, int patrones) {
+            rodante = new DispersorRodante(longitud);
+            int n = 4;
+            while (n < 2 * patrones)
+                n <<= 1;
+            dispersiones = new int[n];
+            primeros = new int[n];
+            Arrays.fill(primeros, -1);
+            mascara = n - 1;
+        }
+
+        /* Regresa la posición ideal de una dispersión. */
+        private int indice(int d) {
+            return (d ^ (d >>> 16)) & mascara;
+        }
+
+        /* Agrega un patrón con su dispersión; los patrones con la misma
+         * dispersión se encadenan. */
+        public void agrega(int patron, int d) {
+            int i = indice(d);
+            while (primeros[i] != -1) {
+                if (dispersiones[i] == d) {
+                    siguientes[patron] = primeros[i];
+                    primeros[i] = patron;
+                    return;
+                }
+                i = (i + 1) & mascara;
+            }
+            dispersiones[i] = d;
+            primeros[i] = patron;
+        }
+
+        /* Regresa el primer patrón con la dispersión, o -1. */
+        public int busca(int d) {
+            int i = indice(d);
+            while (primeros[i] != -1) {
+                if (dispersiones[i] == d)
+                    return primeros[i];
+                i = (i + 1) & mascara;
+            }
+            return -1;
+        }
+    }
+
+    /* Los patrones. */
+    private byte[][] patrones;
+    /* El siguiente patrón con la misma longitud y dispersión, o -1. */
+    private int[] siguientes;
+    /* Los grupos de patrones, por longitud. */
+    private Grupo[] grupos;
+    /* El número de bytes buscados desde el último reinicio. */
+    private long posicion;
+
+    /**
+     * Construye un buscador para los patrones recibidos. El índice de cada
+     * patrón en las coincidencias es su índice en el arreglo; los patrones
+     * se copian.
+     * @param patrones los patrones.
+     * @throws IllegalArgumentException si no hay patrones, o si algún
+     *         patrón es <code>null</code> o vacío.
+     */
+    public BuscadorPatrones(byte[]... patrones) {
+        if (patrones == null || patrones.length == 0)
+            throw new IllegalArgumentException("No hay patrones.");
+        int n = patrones.length;
+        this.patrones = new byte[n][];
+        int[] longitudes = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (patrones[i] == null || patrones[i].length == 0)
+                throw new IllegalArgumentException("Patrón nulo o vacío.");
+            this.patrones[i] = patrones[i].clone();
+            longitudes[i] = patrones[i].length;
+        }
+        siguientes = new int[n];
+        Arrays.fill(siguientes, -1);
+        Arrays.sort(longitudes);
+        int g = 0;
+        for (int i = 0; i < n; i++)
+            if (i == 0 || longitudes[i] != longitudes[i-1])
+                longitudes[g++] = longitudes[i];
+        grupos = new Grupo[g];
+        for (int k = 0; k < g; k++) {
+            int cuantos = 0;
+            for (byte[] p : this.patrones)
+                if (p.length == longitudes[k])
+                    cuantos++;
+            grupos[k] = new Grupo(longitudes[k], cuantos);
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            byte[] p = this.patrones[i];
+            Grupo grupo = grupos[Arrays.binarySearch(longitudes, 0, g,
+                                                     p.length)];
+            grupo.agrega(i, Dispersores.dispersaDJB(p));
+        }
+    }
+
+    /**
+     * Busca los patrones en un arreglo de bytes, como continuación del
+     * flujo buscado hasta ahora.
+     * @param texto el arreglo de bytes.
+     * @param accion la acción a realizar con cada coincidencia.
+     */
+    public void busca(byte[] texto, AccionCoincidencia accion) {
+        busca(texto, 0, texto.length, accion);
+    }
+
+    /**
+     * Busca los patrones en un rango de un arreglo de bytes, como
+     * continuación del flujo buscado hasta ahora. Las coincidencias se
+     * reportan en el orden en que terminan.
+     * @param texto el arreglo de bytes.
+     * @param desplazamiento el índice del primer byte del rango.
+     * @param longitud el número de bytes del rango.
+     * @param accion la acción a realizar con cada coincidencia.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public void busca(byte[] texto, int desplazamiento, int longitud,
+                      AccionCoincidencia accion) {
+        if (desplazamiento < 0 || longitud < 0 ||
+            desplazamiento > texto.length - longitud)
+            throw new ExcepcionIndiceInvalido("Rango inválido: " +
+                                              desplazamiento + ", " +
+                                              longitud);
+        int fin = desplazamiento + longitud;
+        for (int i = desplazamiento; i < fin; i++) {
+            byte b = texto[i];
+            posicion++;
+            for (Grupo g : grupos) {
+                int d = g.rodante.agrega(b);
+                if (!g.rodante.estaLlena())
+                    continue;
+                for (int p = g.busca(d); p != -1; p = siguientes[p])
+                    if (g.rodante.ventanaIgual(patrones[p], 0))
+                        accion.actua(p, posicion - patrones[p].length);
+            }
+        }
+    }
+
+    /**
+     * Busca los patrones en lo que queda de un flujo de entrada, como
+     * continuación del flujo buscado hasta ahora. No cierra el flujo.
+     * @param entrada el flujo de entrada.
+     * @param accion la acción a realizar con cada coincidencia.
+     * @throws IOException si no se puede leer el flujo.
+     */
+    public void busca(InputStream entrada, AccionCoincidencia accion)
+        throws IOException {
+        byte[] b = new byte[BUFFER];
+        int n;
+        while ((n = entrada.read(b)) != -1)
+            busca(b, 0, n, accion);
+    }
+
+    /**
+     * Olvida el flujo buscado hasta ahora; la siguiente búsqueda empieza en
+     * la posición 0.
+     */
+    public void reinicia() {
+        for (Grupo g : grupos)
+            g.rodante.reinicia();
+        posicion = 0;
+    }
+
+    /**
+     * Regresa el número de bytes buscados desde el último reinicio.
+     * @return el número de bytes buscados desde el último reinicio.
+     */
+    public long getPosicion() {
+        return posicion;
+    }
+
+    /**
+     * Regresa el número de patrones.
+     * @return el número de patrones.
+     */
+    public int getPatrones() {
+        return patrones.length;
+    }
+}
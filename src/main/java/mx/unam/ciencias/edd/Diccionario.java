@@ -0,0 +1,462 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios (<em>hash tables</em>) con direccionamiento
+ * abierto. Un diccionario generaliza el concepto de arreglo, mapeando un
+ * conjunto de <em>llaves</em> a una colección de <em>valores</em>.</p>
+ *
+ * <p>Las colisiones se resuelven con exploración lineal al estilo <em>Robin
+ * Hood</em>: al insertar, una entrada que está más lejos de su posición ideal
+ * desplaza a las que están más cerca de la suya. Al eliminar, las entradas
+ * que siguen se recorren hacia atrás, así que el diccionario no necesita
+ * lápidas. Las llaves, los valores y las dispersiones se guardan en tres
+ * arreglos paralelos, por lo que cada entrada no cuesta más que tres
+ * referencias o enteros.</p>
+ *
+ * <p>Los diccionarios no aceptan a <code>null</code> como llave ni como
+ * valor.</p>
+ *
+ * @param <K> El tipo de las llaves del diccionario.
+ * @param <V> El tipo de los valores del diccionario.
+ */
+public class Diccionario<K, V> implements Iterable<V> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador {
+
+        /* El índice de la siguiente entrada. */
+        private int siguiente;
+
+        /* Construye un nuevo iterador, auxiliándose de los arreglos. */
+        private Iterador() {
+            siguiente = salta(0);
+        }
+
+        /* Regresa el índice de la primera entrada a partir de i, o la
+         * capacidad si no hay. */
+        private int salta(int i) {
+            while (i < llaves.length && llaves[i] == null)
+                i++;
+            return i;
+        }
+
+        /* Nos dice si hay una siguiente entrada. */
+        public boolean hasNext() {
+            return siguiente < llaves.length;
+        }
+
+        /* Regresa el índice de la siguiente entrada. */
+        protected int siguiente() {
+            if (siguiente >= llaves.length)
+                throw new NoSuchElementException("No hay siguiente elemento.");
+            int i = siguiente;
+            siguiente = salta(i + 1);
+            return i;
+        }
+    }
+
+    /* Clase interna privada para iteradores de llaves. */
+    private class IteradorLlaves extends Iterador
+        implements Iterator<K> {
+
+        /* Regresa el siguiente elemento. */
+        @Override public K next() {
+            return llaves[siguiente()];
+        }
+    }
+
+    /* Clase interna privada para iteradores de valores. */
+    private class IteradorValores extends Iterador
+        implements Iterator<V> {
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            return valores[siguiente()];
+        }
+    }
+
+    /** Máxima carga permitida por omisión. */
+    public static final double MAXIMA_CARGA = 0.72;
+
+    /** Capacidad mínima de un diccionario. */
+    private static final int MINIMA_CAPACIDAD = 64;
+
+    /** Capacidad máxima de un diccionario. */
+    private static final int MAXIMA_CAPACIDAD = 1 << 30;
+
+    /* Dispersor. */
+    private Dispersor<K> dispersor;
+    /* La máxima carga permitida antes de crecer. */
+    private double cargaMaxima;
+    /* Las llaves; una entrada vacía tiene llave null. */
+    private K[] llaves;
+    /* Los valores. */
+    private V[] valores;
+    /* Las dispersiones de las llaves. */
+    private int[] dispersiones;
+    /* La máscara para obtener índices a partir de dispersiones. */
+    private int mascara;
+    /* El número de entradas en el diccionario. */
+    private int elementos;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked")
+    private <T> T[] nuevoArreglo(int n) {
+        return (T[])(new Object[n]);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial y dispersor
+     * predeterminados.
+     */
+    public Diccionario() {
+        this(MINIMA_CAPACIDAD, (K llave) -> llave.hashCode());
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial definida por el
+     * usuario, y un dispersor predeterminado.
+     * @param capacidad el número de entradas que esperamos tener en el
+     *                  diccionario.
+     */
+    public Diccionario(int capacidad) {
+        this(capacidad, (K llave) -> llave.hashCode());
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial predeterminada, y un
+     * dispersor definido por el usuario.
+     * @param dispersor el dispersor a utilizar.
+     */
+    public Diccionario(Dispersor<K> dispersor) {
+        this(MINIMA_CAPACIDAD, dispersor);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial y un dispersor
+     * definidos por el usuario. La carga máxima es {@link #MAXIMA_CARGA}.
+     * @param capacidad el número de entradas que esperamos tener en el
+     *                  diccionario.
+     * @param dispersor el dispersor a utilizar.
+     */
+    public Diccionario(int capacidad, Dispersor<K> dispersor) {
+        this(capacidad, dispersor, MAXIMA_CARGA);
+    }
+
+    /**
+     * Construye un diccionario con una capacidad inicial, un dispersor y una
+     * carga máxima definidos por el usuario. El diccionario crece al doble de
+     * capacidad cuando su carga rebasa la carga máxima; una carga máxima
+     * pequeña gasta más memoria a cambio de búsquedas más cortas.
+     * @param capacidad el número de entradas que esperamos tener en el
+     *                  diccionario.
+     * @param dispersor el dispersor a utilizar.
+     * @param cargaMaxima la carga máxima permitida.
+     * @throws IllegalArgumentException si la carga máxima no está en el
+     *         intervalo (0, 1), o si la capacidad requiere más de
+     *         2<sup>30</sup> entradas.
+     */
+    public Diccionario(int capacidad, Dispersor<K> dispersor,
+                       double cargaMaxima) {
+        if (!(cargaMaxima > 0.0 && cargaMaxima < 1.0))
+            throw new IllegalArgumentException("Carga máxima inválida: " +
+                                               cargaMaxima);
+        this.dispersor = dispersor;
+        this.cargaMaxima = cargaMaxima;
+        capacidad = Math.max(capacidad, MINIMA_CAPACIDAD);
+        int n = MINIMA_CAPACIDAD;
+        while (n < MAXIMA_CAPACIDAD && n * cargaMaxima < capacidad)
+            n <<= 1;
+        if (n * cargaMaxima < capacidad)
+            throw new IllegalArgumentException("Capacidad inválida: " +
+                                               capacidad);
+        inicializa(n);
+    }
+
+    /* Inicializa los arreglos con la capacidad recibida. */
+    private void inicializa(int n) {
+        llaves = nuevoArreglo(n);
+        valores = nuevoArreglo(n);
+        dispersiones = new int[n];
+        mascara = n - 1;
+        elementos = 0;
+    }
+
+    /* Regresa la posición ideal de una dispersión. Mezcla los bits altos con
+     * los bajos, porque la máscara sólo conserva los bajos. */
+    private int indice(int dispersion) {
+        return (dispersion ^ (dispersion >>> 16)) & mascara;
+    }
+
+    /* Regresa qué tan lejos de su posición ideal está la entrada en i. */
+    private int distancia(int i) {
+        return (i - indice(dispersiones[i])) & mascara;
+    }
+
+    /* Regresa el índice de la entrada con la llave, o -1 si no está. */
+    private int busca(K llave) {
+        int d = dispersor.dispersa(llave);
+        int i = indice(d);
+        for (int n = 0; llaves[i] != null && distancia(i) >= n; n++) {
+            if (dispersiones[i] == d && llaves[i].equals(llave))
+                return i;
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
+     * la llave ya había sido utilizada antes para agregar un valor, el
+     * diccionario reemplaza ese valor con el recibido aquí.
+     * @param llave la llave para agregar el valor.
+     * @param valor el valor a agregar.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     * @throws IllegalStateException si el diccionario ya tiene la capacidad
+     *         máxima y sólo le queda una entrada vacía.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException("Llave o valor nulos.");
+        if (elementos + 1 > cargaMaxima * llaves.length) {
+            if (llaves.length < MAXIMA_CAPACIDAD)
+                crece();
+            else if (elementos + 1 == llaves.length)
+                throw new IllegalStateException("Diccionario lleno.");
+        }
+        inserta(llave, valor, dispersor.dispersa(llave));
+    }
+
+    /* Inserta la entrada; supone que hay espacio. */
+    private void inserta(K llave, V valor, int d) {
+        int i = indice(d);
+        int n = 0;
+        while (llaves[i] != null) {
+            if (dispersiones[i] == d && llaves[i].equals(llave)) {
+                valores[i] = valor;
+                return;
+            }
+            int m = distancia(i);
+            if (m < n) {
+                K k = llaves[i];
+                V v = valores[i];
+                int e = dispersiones[i];
+                llaves[i] = llave;
+                valores[i] = valor;
+                dispersiones[i] = d;
+                llave = k;
+                valor = v;
+                d = e;
+                n = m;
+            }
+            i = (i + 1) & mascara;
+            n++;
+        }
+        llaves[i] = llave;
+        valores[i] = valor;
+        dispersiones[i] = d;
+        elementos++;
+    }
+
+    /* Duplica la capacidad y reinserta todas las entradas. Las dispersiones
+     * guardadas evitan volver a dispersar las llaves. */
+    private void crece() {
+        K[] ll = llaves;
+        V[] vv = valores;
+        int[] dd = dispersiones;
+        inicializa(ll.length << 1);
+        for (int i = 0; i < ll.length; i++)
+            if (ll[i] != null)
+                inserta(ll[i], vv[i], dd[i]);
+    }
+
+    /**
+     * Regresa el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor.
+     * @return el valor correspondiente a la llave.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public V get(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("Llave nula.");
+        int i = busca(llave);
+        if (i == -1)
+            throw new NoSuchElementException("La llave no está en el " +
+                                             "diccionario.");
+        return valores[i];
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <code>true</code> si la llave está en el diccionario,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        return llave != null && busca(llave) != -1;
+    }
+
+    /**
+     * Elimina el valor del diccionario asociado a la llave proporcionada.
+     * @param llave la llave para buscar el valor a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no se encuentra en
+     *         el diccionario.
+     */
+    public void elimina(K llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("Llave nula.");
+        int i = busca(llave);
+        if (i == -1)
+            throw new NoSuchElementException("La llave no está en el " +
+                                             "diccionario.");
+        int j = (i + 1) & mascara;
+        while (llaves[j] != null && distancia(j) > 0) {
+            llaves[i] = llaves[j];
+            valores[i] = valores[j];
+            dispersiones[i] = dispersiones[j];
+            i = j;
+            j = (j + 1) & mascara;
+        }
+        llaves[i] = null;
+        valores[i] = null;
+        elementos--;
+    }
+
+    /**
+     * Nos dice cuántas colisiones hay en el diccionario; es decir, cuántas
+     * entradas no están en su posición ideal.
+     * @return cuántas colisiones hay en el diccionario.
+     */
+    public int colisiones() {
+        int c = 0;
+        for (int i = 0; i < llaves.length; i++)
+            if (llaves[i] != null && distancia(i) > 0)
+                c++;
+        return c;
+    }
+
+    /**
+     * Nos dice la máxima colisión del diccionario; es decir, la distancia más
+     * grande entre una entrada y su posición ideal. Una búsqueda exitosa
+     * nunca revisa más de esta cantidad más una entradas.
+     * @return la máxima colisión del diccionario.
+     */
+    public int colisionMaxima() {
+        int m = 0;
+        for (int i = 0; i < llaves.length; i++)
+            if (llaves[i] != null)
+                m = Math.max(m, distancia(i));
+        return m;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        return (double)elementos / llaves.length;
+    }
+
+    /**
+     * Regresa el número de entradas en el diccionario.
+     * @return el número de entradas en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío.
+     */
+    public void limpia() {
+        inicializa(llaves.length);
+    }
+
+    /**
+     * Regresa una representación en cadena del diccionario.
+     * @return una representación en cadena del diccionario.
+     */
+    @Override public String toString() {
+        if (elementos == 0)
+            return "{}";
+        StringBuilder sb = new StringBuilder("{ ");
+        for (int i = 0; i < llaves.length; i++)
+            if (llaves[i] != null)
+                sb.append(String.format("'%s': '%s', ", llaves[i],
+                                        valores[i]));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Nos dice si el diccionario es igual al objeto recibido.
+     * @param o el objeto que queremos saber si es igual al diccionario.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         Diccionario, y tiene las mismas llaves asociadas a los mismos
+     *         valores.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        @SuppressWarnings("unchecked") Diccionario<K, V> d =
+            (Diccionario<K, V>)o;
+        if (elementos != d.elementos)
+            return false;
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] == null)
+                continue;
+            int j = d.busca(llaves[i]);
+            if (j == -1 || !valores[i].equals(d.valores[j]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa una dispersión del diccionario, consistente con {@link
+     * #equals}: la suma, sobre todas las entradas, de la dispersión de la
+     * llave combinada con la del valor.
+     * @return una dispersión del diccionario.
+     */
+    @Override public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < llaves.length; i++)
+            if (llaves[i] != null)
+                h += llaves[i].hashCode() ^ valores[i].hashCode();
+        return h;
+    }
+
+    /**
+     * Regresa un iterador para iterar las llaves del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar las llaves del diccionario.
+     */
+    public Iterator<K> iteradorLlaves() {
+        return new IteradorLlaves();
+    }
+
+    /**
+     * Regresa un iterador para iterar los valores del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar los valores del diccionario.
+     */
+    @Override public Iterator<V> iterator() {
+        return new IteradorValores();
+    }
+}
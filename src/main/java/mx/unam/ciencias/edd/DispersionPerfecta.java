@@ -0,0 +1,438 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>Clase para dispersiones perfectas mínimas. Una dispersión perfecta
+ * mínima de un conjunto fijo de <em>n</em> llaves manda cada llave a un
+ * índice distinto en [0, <em>n</em>), así que sirve de índice para un
+ * arreglo con los valores de las llaves, sin guardar las llaves.</p>
+ *
+ * <p>La construcción es la de BBHash (Limasset et al.). Cada llave se
+ * dispersa una sola vez con {@link Dispersores#dispersaXXH64Completa} y
+ * una semilla; de esa huella de 64 bits salen sus posiciones en una
+ * sucesión de niveles de bits. El nivel <em>i</em> tiene <em>γ</em> bits
+ * por cada llave que queda: las llaves que caen solas en su posición la
+ * encienden, y las que chocan pasan al siguiente nivel. El índice de una
+ * llave es el número de bits encendidos antes del suyo, que se calcula con
+ * un directorio de rangos cada 512 bits. Con <em>γ</em> = 1 la estructura
+ * ocupa alrededor de 3 bits por llave, y en promedio una búsqueda revisa
+ * 1.6 niveles.</p>
+ *
+ * <p>La representación serializada es la misma que se usa para las
+ * búsquedas (un encabezado, los bits y los rangos, little-endian), así que
+ * {@link #carga(Path)} mapea el archivo a memoria y lo usa sin copiarlo.</p>
+ *
+ * <p>Para una llave que no está en el conjunto, {@link #indice} regresa -1
+ * o un índice cualquiera; si eso importa, hay que guardar las llaves (o sus
+ * huellas) en el arreglo de valores y compararlas.</p>
+ */
+public class DispersionPerfecta {
+
+    /** El número de bits por llave de cada nivel por omisión, <em>γ</em>. */
+    public static final double GAMMA = 1.0;
+    /** El máximo número de niveles. */
+    public static final int MAXIMOS_NIVELES = 48;
+
+    /* El número mágico de la representación ("EDDP"). */
+    private static final int MAGIA = 0x50444445;
+    /* La versión de la representación. */
+    private static final int VERSION = 1;
+    /* El tamaño del encabezado fijo, en bytes. */
+    private static final int ENCABEZADO = 32;
+    /* El número de semillas que se intentan antes de rendirse. */
+    private static final int INTENTOS = 4;
+
+    /* Interfaz para calcular las huellas de las llaves con una semilla. */
+    @FunctionalInterface
+    private interface Huellas {
+        public void calcula(long semilla, long[] huellas);
+    }
+
+    /* La representación: encabezado, bits y rangos. */
+    private ByteBuffer datos;
+    /* La semilla de las huellas. */
+    private long semilla;
+    /* El número de llaves. */
+    private int elementos;
+    /* El número de niveles. */
+    private int niveles;
+    /* La palabra donde empieza cada nivel, y al final el total. */
+    private int[] inicios;
+    /* El byte donde empiezan los bits. */
+    private int bits;
+    /* El byte donde empiezan los rangos. */
+    private int rangos;
+    /* El dispersor de las cadenas. */
+    private Dispersor64<String> dispersor;
+
+    /* Construye una dispersión sobre su representación, revisándola. */
+    private DispersionPerfecta(ByteBuffer datos) {
+        this.datos = datos.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.datos.position(0);
+        if (this.datos.limit() < ENCABEZADO ||
+            this.datos.getInt(0) != MAGIA ||
+            this.datos.getInt(4) != VERSION)
+            throw new IllegalArgumentException("Representación inválida.");
+        semilla = this.datos.getLong(8);
+        elementos = this.datos.getInt(16);
+        niveles = this.datos.getInt(20);
+        int palabras = this.datos.getInt(24);
+        if (elementos < 0 || niveles < 0 || niveles > MAXIMOS_NIVELES ||
+            palabras < 0)
+            throw new IllegalArgumentException("Encabezado inválido.");
+        bits = inicioBits(niveles);
+        rangos = bits + 8 * palabras;
+        if ((long)rangos + 4L * bloques(palabras) != this.datos.limit())
+            throw new IllegalArgumentException("Longitud inválida.");
+        inicios = new int[niveles + 1];
+        for (int i = 0; i <= niveles; i++) {
+            inicios[i] = this.datos.getInt(ENCABEZADO + 4 * i);
+            if (inicios[i] < (i == 0 ? 0 : inicios[i-1] + 1))
+                throw new IllegalArgumentException("Niveles inválidos.");
+        }
+        if (inicios[niveles] != palabras ||
+            (palabras > 0 && rango(palabras - 1, 64) != elementos))
+            throw new IllegalArgumentException("Rangos inválidos.");
+        dispersor = FabricaDispersores
+            .dispersorCadena64(AlgoritmoDispersor.XXH64_STRING, semilla);
+    }
+
+    /**
+     * Construye la dispersión perfecta mínima de un conjunto de cadenas,
+     * con <em>γ</em> = {@link #GAMMA}.
+     * @param llaves las cadenas; no debe haber repetidas.
+     * @return la dispersión perfecta mínima de las cadenas.
+     * @throws IllegalArgumentException si hay cadenas repetidas o
+     *         <code>null</code>, o demasiadas cadenas.
+     */
+    public static DispersionPerfecta construye(String[] llaves) {
+        return construye(llaves, GAMMA);
+    }
+
+    /**
+     * Construye la dispersión perfecta mínima de un conjunto de cadenas. Las
+     * cadenas se dispersan en UTF-8, así que {@link #indice(String)} y
+     * {@link #indice(byte[])} coinciden.
+     * @param llaves las cadenas; no debe haber repetidas.
+     * @param gamma el número de bits por llave de cada nivel, en [1, 10];
+     *        uno más grande gasta más memoria a cambio de construcciones y
+     *        búsquedas más rápidas.
+     * @return la dispersión perfecta mínima de las cadenas.
+     * @throws IllegalArgumentException si hay cadenas repetidas o
+     *         <code>null</code>, si <em>γ</em> es inválida, o si hay
+     *         demasiadas cadenas.
+     */
+    public static DispersionPerfecta construye(String[] llaves,
+                                               double gamma) {
+        return construye(llaves.length, gamma, (s, huellas) -> {
+                Dispersor64<String> d = FabricaDispersores
+                    .dispersorCadena64(AlgoritmoDispersor.XXH64_STRING, s);
+                for (int i = 0; i < llaves.length; i++) {
+                    if (llaves[i] == null)
+                        throw new IllegalArgumentException("Llave nula.");
+                    huellas[i] = d.dispersa64(llaves[i]);
+                }
+            });
+    }
+
+    /**
+     * Construye la dispersión perfecta mínima de un conjunto de llaves de
+     * bytes, con <em>γ</em> = {@link #GAMMA}.
+     * @param llaves las llaves; no debe haber repetidas.
+     * @return la dispersión perfecta mínima de las llaves.
+     * @throws IllegalArgumentException si hay llaves repetidas o
+     *         <code>null</code>, o demasiadas llaves.
+     */
+    public static DispersionPerfecta construye(byte[][] llaves) {
+        return construye(llaves, GAMMA);
+    }
+
+    /**
+     * Construye la dispersión perfecta mínima de un conjunto de llaves de
+     * bytes.
+     * @param llaves las llaves; no debe haber repetidas.
+     * @param gamma el número de bits por llave de cada nivel, en [1, 10].
+     * @return la dispersión perfecta mínima de las llaves.
+     * @throws IllegalArgumentException si hay llaves repetidas o
+     *         <code>null</code>, si <em>γ</em> es inválida, o si hay
+     *         demasiadas llaves.
+     */
+    public static DispersionPerfecta construye(byte[][] llaves,
+                                               double gamma) {
+        return construye(llaves.length, gamma, (s, huellas) -> {
+                for (int i = 0; i < llaves.length; i++) {
+                    if (llaves[i] == null)
+                        throw new IllegalArgumentException("Llave nula.");
+                    huellas[i] = Dispersores
+                        .dispersaXXH64Completa(llaves[i], 0,
+                                               llaves[i].length, s);
+                }
+            });
+    }
+
+    /* Construye la dispersión de n llaves. Si quedan llaves sin colocar
+     * después del último nivel, se intenta con otra semilla; si entre ellas
+     * hay huellas repetidas con todas las semillas, hay llaves
+     * repetidas. */
+    private static DispersionPerfecta construye(int n, double gamma,
+                                                Huellas huellas) {
+        if (!(gamma >= 1.0 && gamma <= 10.0))
+            throw new IllegalArgumentException("Gamma inválida: " + gamma);
+        if (gamma * n * 3.0 > 8.0 * (Integer.MAX_VALUE - 64))
+            throw new IllegalArgumentException("Demasiadas llaves.");
+        long[] h = new long[n];
+        for (int intento = 0; intento < INTENTOS; intento++) {
+            long s = FabricaDispersores.mezcla(intento);
+            huellas.calcula(s, h);
+            long[][] nivel = new long[MAXIMOS_NIVELES][];
+            int restantes = n;
+            int l = 0;
+            while (restantes > 0 && l < MAXIMOS_NIVELES) {
+                nivel[l] = coloca(h, restantes, l, gamma);
+                restantes = quedan(h, restantes, l, nivel[l]);
+                l++;
+            }
+            if (restantes == 0)
+                return new DispersionPerfecta(representa(nivel, l, n, s));
+        }
+        throw new IllegalArgumentException("Llaves repetidas.");
+    }
+
+    /* Regresa los bits del nivel l para las primeras r huellas: encendidos
+     * donde cayó exactamente una. */
+    private static long[] coloca(long[] huellas, int r, int l,
+                                 double gamma) {
+        int palabras = (int)Math.max(1, Math.ceil(gamma * r / 64.0));
+        long m = 64L * palabras;
+        long[] vistos = new long[palabras];
+        long[] choques = new long[palabras];
+        for (int i = 0; i < r; i++) {
+            long p = posicion(huellas[i], l, m);
+            int w = (int)(p >>> 6);
+            long b = 1L << p;
+            if ((vistos[w] & b) != 0)
+                choques[w] |= b;
+            vistos[w] |= b;
+        }
+        for (int w = 0; w < palabras; w++)
+            vistos[w] &= ~choques[w];
+        return vistos;
+    }
+
+    /* Recorre al principio las huellas que no quedaron en el nivel, y
+     * regresa cuántas son. */
+    private static int quedan(long[] huellas, int r, int l, long[] nivel) {
+        long m = 64L * nivel.length;
+        int k = 0;
+        for (int i = 0; i < r; i++) {
+            long p = posicion(huellas[i], l, m);
+            if ((nivel[(int)(p >>> 6)] & (1L << p)) == 0)
+                huellas[k++] = huellas[i];
+        }
+        return k;
+    }
+
+    /* Regresa la representación de los niveles. */
+    private static ByteBuffer representa(long[][] nivel, int niveles, int n,
+                                         long semilla) {
+        int palabras = 0;
+        for (int l = 0; l < niveles; l++)
+            palabras += nivel[l].length;
+        int bits = inicioBits(niveles);
+        int rangos = bits + 8 * palabras;
+        ByteBuffer b = ByteBuffer.allocate(rangos + 4 * bloques(palabras));
+        b.order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(MAGIA).putInt(VERSION).putLong(semilla).putInt(n)
+            .putInt(niveles).putInt(palabras).putInt(0);
+        int w = 0;
+        for (int l = 0; l < niveles; l++) {
+            b.putInt(ENCABEZADO + 4 * l, w);
+            for (long x : nivel[l])
+                b.putLong(bits + 8 * w++, x);
+        }
+        b.putInt(ENCABEZADO + 4 * niveles, w);
+        int r = 0;
+        for (w = 0; w < palabras; w++) {
+            if ((w & 7) == 0)
+                b.putInt(rangos + 4 * (w >>> 3), r);
+            r += Long.bitCount(b.getLong(bits + 8 * w));
+        }
+        return b;
+    }
+
+    /* Regresa el byte donde empiezan los bits con el número de niveles:
+     * después de los inicios, alineado a 8. */
+    private static int inicioBits(int niveles) {
+        return (ENCABEZADO + 4 * (niveles + 1) + 7) & ~7;
+    }
+
+    /* Regresa el número de bloques de rangos de las palabras. */
+    private static int bloques(int palabras) {
+        return (palabras + 7) >>> 3;
+    }
+
+    /* Regresa la posición de una huella en el nivel l, de m bits. */
+    private static long posicion(long huella, int l, long m) {
+        long h = FabricaDispersores.mezcla(huella +
+                                           l * FabricaDispersores.DORADO);
+        return ((h >>> 32) * m) >>> 32;
+    }
+
+    /**
+     * Regresa el índice de una cadena.
+     * @param llave la cadena.
+     * @return el índice de la cadena, en [0, <em>n</em>) si está en el
+     *         conjunto; -1 o cualquier índice si no está.
+     */
+    public int indice(String llave) {
+        return indice(dispersor.dispersa64(llave));
+    }
+
+    /**
+     * Regresa el índice de una llave de bytes.
+     * @param llave la llave.
+     * @return el índice de la llave, en [0, <em>n</em>) si está en el
+     *         conjunto; -1 o cualquier índice si no está.
+     */
+    public int indice(byte[] llave) {
+        return indice(llave, 0, llave.length);
+    }
+
+    /**
+     * Regresa el índice de una llave en un rango de un arreglo de bytes.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return el índice de la llave, en [0, <em>n</em>) si está en el
+     *         conjunto; -1 o cualquier índice si no está.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public int indice(byte[] llave, int desplazamiento, int longitud) {
+        return indice(Dispersores.dispersaXXH64Completa(llave,
+                                                        desplazamiento,
+                                                        longitud, semilla));
+    }
+
+    /* Regresa el índice de una huella. */
+    private int indice(long huella) {
+        ByteBuffer d = datos;
+        int[] ini = inicios;
+        for (int l = 0; l < niveles; l++) {
+            int a = ini[l];
+            long p = posicion(huella, l, 64L * (ini[l+1] - a));
+            int w = a + (int)(p >>> 6);
+            long x = d.getLong(bits + 8 * w);
+            if ((x & (1L << p)) != 0) {
+                int r = d.getInt(rangos + 4 * (w >>> 3));
+                for (int v = bits + 8 * (w & ~7); v < bits + 8 * w; v += 8)
+                    r += Long.bitCount(d.getLong(v));
+                return r + Long.bitCount(x & ((1L << p) - 1));
+            }
+        }
+        return -1;
+    }
+
+    /* Regresa el número de bits encendidos antes del bit k de la palabra
+     * w. */
+    private int rango(int w, int k) {
+        int r = datos.getInt(rangos + 4 * (w >>> 3));
+        for (int v = w & ~7; v < w; v++)
+            r += Long.bitCount(datos.getLong(bits + 8 * v));
+        long x = datos.getLong(bits + 8 * w);
+        return r + Long.bitCount(k == 64 ? x : x & ((1L << k) - 1));
+    }
+
+    /**
+     * Regresa el número de llaves del conjunto.
+     * @return el número de llaves del conjunto.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número de niveles.
+     * @return el número de niveles.
+     */
+    public int getNiveles() {
+        return niveles;
+    }
+
+    /**
+     * Regresa el número de bits por llave de la representación, incluyendo
+     * el encabezado.
+     * @return el número de bits por llave de la representación.
+     */
+    public double bitsPorLlave() {
+        return 8.0 * datos.limit() / Math.max(elementos, 1);
+    }
+
+    /**
+     * Regresa la representación en bytes de la dispersión.
+     * @return la representación en bytes de la dispersión.
+     */
+    public byte[] serializa() {
+        byte[] bytes = new byte[datos.limit()];
+        datos.duplicate().position(0).get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Escribe la representación de la dispersión en un archivo. Si el
+     * archivo existe, se reemplaza.
+     * @param salida el archivo de salida.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public void escribe(Path salida) throws IOException {
+        try (FileChannel canal =
+             FileChannel.open(salida, StandardOpenOption.CREATE,
+                              StandardOpenOption.TRUNCATE_EXISTING,
+                              StandardOpenOption.WRITE)) {
+            ByteBuffer b = datos.duplicate();
+            b.position(0);
+            while (b.hasRemaining())
+                canal.write(b);
+        }
+    }
+
+    /**
+     * Carga una dispersión de su representación en un búfer, obtenida con
+     * {@link #serializa}. El búfer se usa directamente, sin copiarlo, desde
+     * el índice 0 hasta su límite; no debe modificarse después.
+     * @param buffer el búfer con la representación.
+     * @return la dispersión.
+     * @throws IllegalArgumentException si el búfer no tiene la
+     *         representación de una dispersión.
+     */
+    public static DispersionPerfecta carga(ByteBuffer buffer) {
+        return new DispersionPerfecta(buffer);
+    }
+
+    /**
+     * Carga una dispersión de un archivo escrito con {@link #escribe},
+     * mapeándolo a memoria.
+     * @param archivo el archivo con la representación.
+     * @return la dispersión.
+     * @throws IOException si no se puede leer el archivo, o si no tiene la
+     *         representación de una dispersión.
+     */
+    public static DispersionPerfecta carga(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo,
+                                                  StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE)
+                throw new IOException("Archivo inválido: " + archivo);
+            ByteBuffer b = canal.map(FileChannel.MapMode.READ_ONLY, 0,
+                                     canal.size());
+            return new DispersionPerfecta(b);
+        } catch (IllegalArgumentException iae) {
+            throw new IOException("Archivo inválido: " + archivo, iae);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Interfaz genérica para dispersores de 64 bits. Con 32 bits, entre unos
+ * cien mil objetos ya es probable que dos tengan la misma dispersión; con 64
+ * bits hacen falta miles de millones, así que la dispersión sirve como
+ * huella del objeto: se puede guardar en lugar del objeto para saber si ya
+ * se vio, con una probabilidad de error despreciable.</p>
+ *
+ * <p>Un dispersor de 64 bits también es un {@link Dispersor}: su dispersión
+ * de 32 bits son los 64 bits doblados con XOR, así que puede usarse donde
+ * se espera un dispersor normal, como en {@link Diccionario}.</p>
+ *
+ * <p>Las instancias para cadenas y búferes se obtienen con {@link
+ * FabricaDispersores#dispersorCadena64} y {@link
+ * FabricaDispersores#dispersorBuffer64}.</p>
+ */
+@FunctionalInterface
+public interface Dispersor64<T> extends Dispersor<T> {
+
+    /**
+     * Calcula la función de dispersión de 64 bits del objeto recibido.
+     * @param objeto el objeto que queremos dispersar.
+     * @return el resultado de 64 bits de dispersar el objeto recibido.
+     */
+    public long dispersa64(T objeto);
+
+    /**
+     * Calcula la función de dispersión del objeto recibido, doblando a 32
+     * bits con XOR el resultado de {@link #dispersa64}.
+     * @param objeto el objeto que queremos dispersar.
+     * @return el resultado de dispersar el objeto recibido.
+     */
+    @Override default public int dispersa(T objeto) {
+        long h = dispersa64(objeto);
+        return (int)(h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,64 @@
+package mx.unam.ciencias.edd;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Interfaz para dispersores incrementales. Un dispersor incremental recibe
+ * la llave en pedazos, por lo que puede dispersar llaves que no caben en
+ * memoria (un archivo, o lo que llega por un socket) usando memoria
+ * constante.</p>
+ *
+ * <p>Sin importar cómo se parta la llave, el resultado de {@link #digiere}
+ * es el mismo que el de la función de {@link Dispersores} correspondiente
+ * sobre la llave completa.</p>
+ *
+ * <p>Las instancias se obtienen con {@link
+ * FabricaDispersores#dispersorIncremental}, y no son seguras para usarse
+ * desde varios hilos a la vez.</p>
+ */
+public interface DispersorIncremental {
+
+    /**
+     * Agrega un rango de bytes a la llave.
+     * @param bytes el arreglo con los bytes a agregar.
+     * @param desplazamiento el índice del primer byte a agregar.
+     * @param longitud el número de bytes a agregar.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public void actualiza(byte[] bytes, int desplazamiento, int longitud);
+
+    /**
+     * Agrega todos los bytes de un arreglo a la llave.
+     * @param bytes el arreglo con los bytes a agregar.
+     */
+    default public void actualiza(byte[] bytes) {
+        actualiza(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Agrega los bytes restantes de un búfer (de su posición a su límite) a
+     * la llave. Al terminar, la posición del búfer es su límite.
+     * @param buffer el búfer con los bytes a agregar.
+     */
+    public void actualiza(ByteBuffer buffer);
+
+    /**
+     * Regresa la dispersión de todos los bytes agregados hasta ahora. El
+     * dispersor no se modifica, así que se le pueden seguir agregando bytes.
+     * @return la dispersión de todos los bytes agregados.
+     */
+    public int digiere();
+
+    /**
+     * Regresa el número de bytes agregados hasta ahora.
+     * @return el número de bytes agregados.
+     */
+    public long getLongitud();
+
+    /**
+     * Regresa el dispersor a su estado inicial, como si no se le hubiera
+     * agregado ningún byte.
+     */
+    public void reinicia();
+}
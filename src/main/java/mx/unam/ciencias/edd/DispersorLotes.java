@@ -0,0 +1,87 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Interfaz para dispersores por lotes. Un dispersor por lotes dispersa
+ * muchas llaves de bytes en una sola llamada, y deja las dispersiones en un
+ * arreglo de enteros.</p>
+ *
+ * <p>Las llaves pueden venir en un arreglo de arreglos, o empacadas una
+ * tras otra en un solo arreglo de bytes con un arreglo de desplazamientos:
+ * la llave <em>i</em> ocupa los bytes de <code>desplazamientos[i]</code> a
+ * <code>desplazamientos[i+1]</code> (sin incluir el último), así que hay un
+ * desplazamiento más que llaves.</p>
+ *
+ * <p>Cada implementación recorre el lote llamando directamente a la función
+ * de {@link Dispersores} de su algoritmo, sin pasar por {@link
+ * Dispersor#dispersa} para cada llave. Los lotes de más de {@link #UMBRAL}
+ * llaves se parten y se dispersan en paralelo en el {@link
+ * java.util.concurrent.ForkJoinPool} común. El resultado para cada llave es
+ * el mismo que el del dispersor de {@link
+ * FabricaDispersores#dispersorBuffer} con el mismo algoritmo y semilla.</p>
+ *
+ * <p>Las instancias se obtienen con {@link
+ * FabricaDispersores#dispersorLotes}, no guardan estado, y pueden usarse
+ * desde varios hilos a la vez.</p>
+ */
+public interface DispersorLotes {
+
+    /** Número de llaves a partir del cual un lote se dispersa en
+     *  paralelo. */
+    public static final int UMBRAL = 1 << 12;
+
+    /**
+     * Dispersa las llaves de un arreglo.
+     * @param llaves las llaves a dispersar.
+     * @param dispersiones el arreglo donde se dejan las dispersiones; la
+     *        dispersión de la llave <em>i</em> queda en el índice
+     *        <em>i</em>.
+     * @throws IllegalArgumentException si el arreglo de dispersiones es
+     *         más chico que el de llaves.
+     */
+    public void dispersa(byte[][] llaves, int[] dispersiones);
+
+    /**
+     * Dispersa las llaves empacadas en un arreglo de bytes.
+     * @param datos el arreglo con las llaves, una tras otra.
+     * @param desplazamientos los desplazamientos de las llaves en los datos,
+     *        con uno más al final para el fin de la última llave.
+     * @param dispersiones el arreglo donde se dejan las dispersiones; la
+     *        dispersión de la llave <em>i</em> queda en el índice
+     *        <em>i</em>.
+     * @throws IllegalArgumentException si el arreglo de dispersiones es
+     *         más chico que el número de llaves.
+     * @throws ExcepcionIndiceInvalido si algún desplazamiento está fuera
+     *         de los datos, o es menor que el anterior.
+     */
+    public void dispersa(byte[] datos, int[] desplazamientos,
+                         int[] dispersiones);
+
+    /**
+     * Dispersa las llaves de un arreglo.
+     * @param llaves las llaves a dispersar.
+     * @return un arreglo nuevo con las dispersiones de las llaves, en el
+     *         mismo orden.
+     */
+    default public int[] dispersa(byte[][] llaves) {
+        int[] dispersiones = new int[llaves.length];
+        dispersa(llaves, dispersiones);
+        return dispersiones;
+    }
+
+    /**
+     * Dispersa las llaves empacadas en un arreglo de bytes.
+     * @param datos el arreglo con las llaves, una tras otra.
+     * @param desplazamientos los desplazamientos de las llaves en los datos,
+     *        con uno más al final para el fin de la última llave.
+     * @return un arreglo nuevo con las dispersiones de las llaves, en el
+     *         mismo orden.
+     * @throws ExcepcionIndiceInvalido si algún desplazamiento está fuera
+     *         de los datos, o es menor que el anterior.
+     */
+    default public int[] dispersa(byte[] datos, int[] desplazamientos) {
+        int[] dispersiones =
+            new int[Math.max(0, desplazamientos.length - 1)];
+        dispersa(datos, desplazamientos, dispersiones);
+        return dispersiones;
+    }
+}
@@ -0,0 +1,165 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para dispersores rodantes (de Rabin y Karp). Un dispersor rodante
+ * mantiene la dispersión de una ventana de los últimos <em>w</em> bytes de
+ * un flujo: al agregar un byte, el que sale de la ventana se resta y el que
+ * entra se suma en tiempo constante, en lugar de volver a dispersar los
+ * <em>w</em> bytes.</p>
+ *
+ * <p>La dispersión es la de Daniel J. Bernstein, que es un polinomio en 33:
+ * para una ventana <em>b</em><sub>0</sub>…<em>b</em><sub><em>w</em>-1</sub>
+ * es <em>h</em><sub>0</sub>·33<sup><em>w</em></sup> + Σ
+ * <em>b<sub>i</sub></em>·33<sup><em>w</em>-1-<em>i</em></sup>, con
+ * aritmética módulo 2<sup>32</sup>. Así la dispersión de la ventana es
+ * siempre igual a la de {@link Dispersores#dispersaDJB(byte[],int,int,int)}
+ * sobre los mismos bytes y con la misma semilla; mientras la ventana no se
+ * llena, es la de los bytes que se han agregado.</p>
+ */
+public class DispersorRodante {
+
+    /* El multiplicador de la dispersión de Daniel J. Bernstein. */
+    private static final int MULTIPLICADOR = 33;
+
+    /* El tamaño de la ventana. */
+    private int ventana;
+    /* El valor inicial de la dispersión, con la semilla. */
+    private int inicial;
+    /* El multiplicador elevado al tamaño de la ventana menos uno. */
+    private int potenciaSalida;
+    /* El multiplicador elevado al número de bytes en la ventana. */
+    private int escala;
+    /* La suma de los bytes de la ventana por sus potencias. */
+    private int polinomio;
+    /* Los bytes de la ventana, en un arreglo circular. */
+    private byte[] bytes;
+    /* El índice del byte más viejo de la ventana, cuando está llena. */
+    private int siguiente;
+    /* El número de bytes agregados desde el último reinicio. */
+    private long agregados;
+
+    /**
+     * Construye un dispersor rodante con el tamaño de ventana recibido y
+     * semilla 0.
+     * @param ventana el tamaño de la ventana.
+     * @throws IllegalArgumentException si el tamaño de la ventana no es
+     *         positivo.
+     */
+    public DispersorRodante(int ventana) {
+        this(ventana, 0);
+    }
+
+    /**
+     * Construye un dispersor rodante con el tamaño de ventana y la semilla
+     * recibidos.
+     * @param ventana el tamaño de la ventana.
+     * @param semilla la semilla, como en {@link
+     *        Dispersores#dispersaDJB(byte[],int,int,int)}.
+     * @throws IllegalArgumentException si el tamaño de la ventana no es
+     *         positivo.
+     */
+    public DispersorRodante(int ventana, int semilla) {
+        if (ventana <= 0)
+            throw new IllegalArgumentException("Ventana inválida: " +
+                                               ventana);
+        this.ventana = ventana;
+        inicial = 5381 ^ semilla;
+        potenciaSalida = 1;
+        for (int i = 1; i < ventana; i++)
+            potenciaSalida *= MULTIPLICADOR;
+        bytes = new byte[ventana];
+        reinicia();
+    }
+
+    /**
+     * Vacía la ventana.
+     */
+    public void reinicia() {
+        escala = 1;
+        polinomio = 0;
+        siguiente = 0;
+        agregados = 0;
+    }
+
+    /**
+     * Agrega un byte a la ventana; si la ventana estaba llena, el byte más
+     * viejo sale de ella.
+     * @param b el byte a agregar.
+     * @return la dispersión de la ventana después de agregar el byte.
+     */
+    public int agrega(byte b) {
+        if (agregados >= ventana)
+            polinomio -= (bytes[siguiente] & 0xff) * potenciaSalida;
+        else
+            escala *= MULTIPLICADOR;
+        polinomio = polinomio * MULTIPLICADOR + (b & 0xff);
+        bytes[siguiente] = b;
+        if (++siguiente == ventana)
+            siguiente = 0;
+        agregados++;
+        return inicial * escala + polinomio;
+    }
+
+    /**
+     * Regresa la dispersión de la ventana.
+     * @return la dispersión de la ventana.
+     */
+    public int dispersion() {
+        return inicial * escala + polinomio;
+    }
+
+    /**
+     * Nos dice si la ventana está llena.
+     * @return <code>true</code> si se han agregado al menos tantos bytes
+     *         como el tamaño de la ventana desde el último reinicio,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean estaLlena() {
+        return agregados >= ventana;
+    }
+
+    /**
+     * Nos dice si la ventana llena es igual a un rango de un arreglo de
+     * bytes. Sirve para confirmar que dos dispersiones iguales vienen de los
+     * mismos bytes.
+     * @param llave el arreglo de bytes.
+     * @param desplazamiento el índice del primer byte del rango.
+     * @return <code>true</code> si la ventana está llena y sus bytes son
+     *         iguales a los del rango que empieza en el desplazamiento,
+     *         <code>false</code> en otro caso.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public boolean ventanaIgual(byte[] llave, int desplazamiento) {
+        if (desplazamiento < 0 || desplazamiento > llave.length - ventana)
+            throw new ExcepcionIndiceInvalido("Rango inválido: " +
+                                              desplazamiento + ", " +
+                                              ventana);
+        if (agregados < ventana)
+            return false;
+        int j = siguiente;
+        for (int i = 0; i < ventana; i++) {
+            if (bytes[j] != llave[desplazamiento + i])
+                return false;
+            if (++j == ventana)
+                j = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa el tamaño de la ventana.
+     * @return el tamaño de la ventana.
+     */
+    public int getVentana() {
+        return ventana;
+    }
+
+    /**
+     * Regresa el número de bytes agregados desde el último reinicio.
+     * @return el número de bytes agregados desde el último reinicio.
+     */
+    public long getAgregados() {
+        return agregados;
+    }
+}
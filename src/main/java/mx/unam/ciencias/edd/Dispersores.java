@@ -1,10 +1,41 @@
 package mx.unam.ciencias.edd;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32C;
+
 /**
  * Clase para métodos estáticos con dispersores de bytes.
  */
 public class Dispersores {
 
+    /* Vista de arreglos de bytes como enteros little-endian. */
+    private static final VarHandle ENTERO_ARREGLO =
+        MethodHandles.byteArrayViewVarHandle(int[].class,
+                                             ByteOrder.LITTLE_ENDIAN);
+    /* Vista de arreglos de bytes como enteros largos little-endian. */
+    private static final VarHandle LARGO_ARREGLO =
+        MethodHandles.byteArrayViewVarHandle(long[].class,
+                                             ByteOrder.LITTLE_ENDIAN);
+    /* Vista de búferes de bytes como enteros little-endian. */
+    private static final VarHandle ENTERO_BUFFER =
+        MethodHandles.byteBufferViewVarHandle(int[].class,
+                                              ByteOrder.LITTLE_ENDIAN);
+    /* Vista de búferes de bytes como enteros largos little-endian. */
+    private static final VarHandle LARGO_BUFFER =
+        MethodHandles.byteBufferViewVarHandle(long[].class,
+                                              ByteOrder.LITTLE_ENDIAN);
+
+    /* Los primos de xxHash32. */
+    static final int XXH32_P1 = 0x9e3779b1, XXH32_P2 = 0x85ebca77,
+        XXH32_P3 = 0xc2b2ae3d, XXH32_P4 = 0x27d4eb2f, XXH32_P5 = 0x165667b1;
+    /* Los primos de xxHash64. */
+    static final long XXH64_P1 = 0x9e3779b185ebca87L,
+        XXH64_P2 = 0xc2b2ae3d27d4eb4fL, XXH64_P3 = 0x165667b19e3779f9L,
+        XXH64_P4 = 0x85ebca77c2b2ae63L, XXH64_P5 = 0x27d4eb2f165667c5L;
+
     /* Constructor privado para evitar instanciación. */
     private Dispersores() {}
 
@@ -14,7 +45,73 @@ public class Dispersores {
      * @return la dispersión de XOR de la llave.
      */
     public static int dispersaXOR(byte[] llave) {
-        // Aquí va su código.
+        return dispersaXOR(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión XOR sobre un rango de un arreglo de bytes. El
+     * resultado es el mismo que el de {@link #dispersaXOR(byte[])} sobre una
+     * copia del rango, pero sin hacer la copia.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de XOR del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaXOR(byte[] llave, int desplazamiento,
+                                  int longitud) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        int r = 0;
+        int i = desplazamiento;
+        int fin = desplazamiento + longitud;
+        while (i < fin) {
+            r ^= (octeto(llave, i++, fin) << 24) |
+                 (octeto(llave, i++, fin) << 16) |
+                 (octeto(llave, i++, fin) << 8)  |
+                 (octeto(llave, i++, fin));
+        }
+        return r;
+    }
+
+    /**
+     * Función de dispersión XOR sobre los bytes restantes de un búfer (de su
+     * posición a su límite). No modifica la posición del búfer, y funciona
+     * igual con búferes directos o respaldados por un arreglo.
+     * @param buffer el búfer que contiene a la llave.
+     * @return la dispersión de XOR de los bytes restantes del búfer.
+     */
+    public static int dispersaXOR(ByteBuffer buffer) {
+        return dispersaXOR(buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * Función de dispersión XOR sobre un rango absoluto de un búfer. No
+     * modifica la posición del búfer.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de XOR del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static int dispersaXOR(ByteBuffer buffer, int desplazamiento,
+                                  int longitud) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return dispersaXOR(buffer.array(),
+                               buffer.arrayOffset() + desplazamiento,
+                               longitud);
+        int r = 0;
+        int i = desplazamiento;
+        int fin = desplazamiento + longitud;
+        while (i < fin) {
+            r ^= (octeto(buffer, i++, fin) << 24) |
+                 (octeto(buffer, i++, fin) << 16) |
+                 (octeto(buffer, i++, fin) << 8)  |
+                 (octeto(buffer, i++, fin));
+        }
+        return r;
     }
 
     /**
@@ -23,7 +120,168 @@ public class Dispersores {
      * @return la dispersión de Bob Jenkins de la llave.
      */
     public static int dispersaBJ(byte[] llave) {
-        // Aquí va su código.
+        return dispersaBJ(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins sobre un rango de un arreglo de
+     * bytes. El resultado es el mismo que el de {@link #dispersaBJ(byte[])}
+     * sobre una copia del rango, pero sin hacer la copia.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de Bob Jenkins del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaBJ(byte[] llave, int desplazamiento,
+                                 int longitud) {
+        return dispersaBJ(llave, desplazamiento, longitud, 0);
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins con semilla sobre un rango de un
+     * arreglo de bytes. La semilla altera el valor inicial del estado, por lo
+     * que llaves que chocan con una semilla en general no chocan con otra.
+     * Con semilla 0 el resultado es el de {@link
+     * #dispersaBJ(byte[],int,int)}.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de Bob Jenkins del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaBJ(byte[] llave, int desplazamiento,
+                                 int longitud, int semilla) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        int a = 0x9e3779b9, b = 0x9e3779b9, c = 0xffffffff ^ semilla;
+        int i = desplazamiento;
+        int n = longitud;
+        while (true) {
+            if (n >= 12) {
+                a += palabra(llave, i);
+                b += palabra(llave, i + 4);
+                c += palabra(llave, i + 8);
+                i += 12;
+                n -= 12;
+            } else {
+                c += longitud;
+                switch (n) {
+                case 11: c += (llave[i+10] & 0xff) << 24;
+                case 10: c += (llave[i+9]  & 0xff) << 16;
+                case  9: c += (llave[i+8]  & 0xff) << 8;
+                case  8: b += (llave[i+7]  & 0xff) << 24;
+                case  7: b += (llave[i+6]  & 0xff) << 16;
+                case  6: b += (llave[i+5]  & 0xff) << 8;
+                case  5: b += (llave[i+4]  & 0xff);
+                case  4: a += (llave[i+3]  & 0xff) << 24;
+                case  3: a += (llave[i+2]  & 0xff) << 16;
+                case  2: a += (llave[i+1]  & 0xff) << 8;
+                case  1: a += (llave[i]    & 0xff);
+                }
+                n = -1;
+            }
+            a -= b; a -= c; a ^= (c >>> 13);
+            b -= c; b -= a; b ^= (a << 8);
+            c -= a; c -= b; c ^= (b >>> 13);
+            a -= b; a -= c; a ^= (c >>> 12);
+            b -= c; b -= a; b ^= (a << 16);
+            c -= a; c -= b; c ^= (b >>> 5);
+            a -= b; a -= c; a ^= (c >>> 3);
+            b -= c; b -= a; b ^= (a << 10);
+            c -= a; c -= b; c ^= (b >>> 15);
+            if (n < 0)
+                return c;
+        }
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins sobre los bytes restantes de un
+     * búfer (de su posición a su límite). No modifica la posición del búfer, y
+     * funciona igual con búferes directos o respaldados por un arreglo.
+     * @param buffer el búfer que contiene a la llave.
+     * @return la dispersión de Bob Jenkins de los bytes restantes del búfer.
+     */
+    public static int dispersaBJ(ByteBuffer buffer) {
+        return dispersaBJ(buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins sobre un rango absoluto de un
+     * búfer. No modifica la posición del búfer.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de Bob Jenkins del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static int dispersaBJ(ByteBuffer buffer, int desplazamiento,
+                                 int longitud) {
+        return dispersaBJ(buffer, desplazamiento, longitud, 0);
+    }
+
+    /**
+     * Función de dispersión de Bob Jenkins con semilla sobre un rango
+     * absoluto de un búfer. No modifica la posición del búfer. Con la misma
+     * semilla, el resultado es el de {@link
+     * #dispersaBJ(byte[],int,int,int)} sobre los mismos bytes.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de Bob Jenkins del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static int dispersaBJ(ByteBuffer buffer, int desplazamiento,
+                                 int longitud, int semilla) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return dispersaBJ(buffer.array(),
+                              buffer.arrayOffset() + desplazamiento,
+                              longitud, semilla);
+        int a = 0x9e3779b9, b = 0x9e3779b9, c = 0xffffffff ^ semilla;
+        int i = desplazamiento;
+        int n = longitud;
+        while (true) {
+            if (n >= 12) {
+                a += palabra(buffer, i);
+                b += palabra(buffer, i + 4);
+                c += palabra(buffer, i + 8);
+                i += 12;
+                n -= 12;
+            } else {
+                c += longitud;
+                switch (n) {
+                case 11: c += (buffer.get(i+10) & 0xff) << 24;
+                case 10: c += (buffer.get(i+9)  & 0xff) << 16;
+                case  9: c += (buffer.get(i+8)  & 0xff) << 8;
+                case  8: b += (buffer.get(i+7)  & 0xff) << 24;
+                case  7: b += (buffer.get(i+6)  & 0xff) << 16;
+                case  6: b += (buffer.get(i+5)  & 0xff) << 8;
+                case  5: b += (buffer.get(i+4)  & 0xff);
+                case  4: a += (buffer.get(i+3)  & 0xff) << 24;
+                case  3: a += (buffer.get(i+2)  & 0xff) << 16;
+                case  2: a += (buffer.get(i+1)  & 0xff) << 8;
+                case  1: a += (buffer.get(i)    & 0xff);
+                }
+                n = -1;
+            }
+            a -= b; a -= c; a ^= (c >>> 13);
+            b -= c; b -= a; b ^= (a << 8);
+            c -= a; c -= b; c ^= (b >>> 13);
+            a -= b; a -= c; a ^= (c >>> 12);
+            b -= c; b -= a; b ^= (a << 16);
+            c -= a; c -= b; c ^= (b >>> 5);
+            a -= b; a -= c; a ^= (c >>> 3);
+            b -= c; b -= a; b ^= (a << 10);
+            c -= a; c -= b; c ^= (b >>> 15);
+            if (n < 0)
+                return c;
+        }
     }
 
     /**
@@ -32,6 +290,934 @@ public class Dispersores {
      * @return la dispersión de Daniel Bernstein de la llave.
      */
     public static int dispersaDJB(byte[] llave) {
-        // Aquí va su código.
+        return dispersaDJB(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión Daniel J. Bernstein sobre un rango de un arreglo
+     * de bytes. El resultado es el mismo que el de {@link
+     * #dispersaDJB(byte[])} sobre una copia del rango, pero sin hacer la
+     * copia.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de Daniel Bernstein del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaDJB(byte[] llave, int desplazamiento,
+                                  int longitud) {
+        return dispersaDJB(llave, desplazamiento, longitud, 0);
+    }
+
+    /**
+     * Función de dispersión Daniel J. Bernstein con semilla sobre un rango de
+     * un arreglo de bytes. La semilla altera el valor inicial, lo que cambia
+     * la cubeta de cada llave de una semilla a otra; pero dos llaves de la
+     * misma longitud que chocan lo hacen con cualquier semilla, así que para
+     * llaves controladas por un adversario es mejor {@link #dispersaSip}. Con
+     * semilla 0 el resultado es el de {@link #dispersaDJB(byte[],int,int)}.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de Daniel Bernstein del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaDJB(byte[] llave, int desplazamiento,
+                                  int longitud, int semilla) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        int h = 5381 ^ semilla;
+        int fin = desplazamiento + longitud;
+        for (int i = desplazamiento; i < fin; i++)
+            h += (h << 5) + (llave[i] & 0xff);
+        return h;
+    }
+
+    /**
+     * Función de dispersión Daniel J. Bernstein sobre los bytes restantes de
+     * un búfer (de su posición a su límite). No modifica la posición del
+     * búfer, y funciona igual con búferes directos o respaldados por un
+     * arreglo.
+     * @param buffer el búfer que contiene a la llave.
+     * @return la dispersión de Daniel Bernstein de los bytes restantes del
+     *         búfer.
+     */
+    public static int dispersaDJB(ByteBuffer buffer) {
+        return dispersaDJB(buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * Función de dispersión Daniel J. Bernstein sobre un rango absoluto de un
+     * búfer. No modifica la posición del búfer.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de Daniel Bernstein del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static int dispersaDJB(ByteBuffer buffer, int desplazamiento,
+                                  int longitud) {
+        return dispersaDJB(buffer, desplazamiento, longitud, 0);
+    }
+
+    /**
+     * Función de dispersión Daniel J. Bernstein con semilla sobre un rango
+     * absoluto de un búfer. No modifica la posición del búfer. Con la misma
+     * semilla, el resultado es el de {@link
+     * #dispersaDJB(byte[],int,int,int)} sobre los mismos bytes.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de Daniel Bernstein del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static int dispersaDJB(ByteBuffer buffer, int desplazamiento,
+                                  int longitud, int semilla) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return dispersaDJB(buffer.array(),
+                               buffer.arrayOffset() + desplazamiento,
+                               longitud, semilla);
+        int h = 5381 ^ semilla;
+        int fin = desplazamiento + longitud;
+        for (int i = desplazamiento; i < fin; i++)
+            h += (h << 5) + (buffer.get(i) & 0xff);
+        return h;
+    }
+
+    /**
+     * Función de dispersión SipHash-2-4 con llave secreta. A diferencia de las
+     * demás funciones, sin conocer la llave secreta no es factible construir
+     * llaves que choquen, por lo que resiste ataques de inundación a tablas de
+     * dispersión. El resultado son los 64 bits de SipHash-2-4 doblados a 32
+     * con XOR.
+     * @param llave la llave a dispersar.
+     * @param k0 los primeros 64 bits de la llave secreta.
+     * @param k1 los últimos 64 bits de la llave secreta.
+     * @return la dispersión SipHash-2-4 de la llave.
+     */
+    public static int dispersaSip(byte[] llave, long k0, long k1) {
+        return dispersaSip(llave, 0, llave.length, k0, k1);
+    }
+
+    /**
+     * Función de dispersión SipHash-2-4 con llave secreta sobre un rango de
+     * un arreglo de bytes. El resultado es el mismo que el de {@link
+     * #dispersaSip(byte[],long,long)} sobre una copia del rango, pero sin
+     * hacer la copia.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param k0 los primeros 64 bits de la llave secreta.
+     * @param k1 los últimos 64 bits de la llave secreta.
+     * @return la dispersión SipHash-2-4 del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaSip(byte[] llave, int desplazamiento,
+                                  int longitud, long k0, long k1) {
+        long h = sip(llave, desplazamiento, longitud, k0, k1);
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /**
+     * Función de dispersión SipHash-2-4 con llave secreta sobre un rango
+     * absoluto de un búfer. No modifica la posición del búfer, y funciona
+     * igual con búferes directos o respaldados por un arreglo.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param k0 los primeros 64 bits de la llave secreta.
+     * @param k1 los últimos 64 bits de la llave secreta.
+     * @return la dispersión SipHash-2-4 del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static int dispersaSip(ByteBuffer buffer, int desplazamiento,
+                                  int longitud, long k0, long k1) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return dispersaSip(buffer.array(),
+                               buffer.arrayOffset() + desplazamiento,
+                               longitud, k0, k1);
+        long h = sip(buffer, desplazamiento, longitud, k0, k1);
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /* Los 64 bits de SipHash-2-4. */
+    private static long sip(byte[] llave, int desplazamiento, int longitud,
+                            long k0, long k1) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+        int i = desplazamiento;
+        int fin = desplazamiento + (longitud & ~7);
+        for (; i < fin; i += 8) {
+            long m = (long)LARGO_ARREGLO.get(llave, i);
+            v3 ^= m;
+            for (int r = 0; r < 2; r++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+                v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+                v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+        long m = ((long)longitud) << 56;
+        switch (longitud & 7) {
+        case 7: m |= (llave[i+6] & 0xffL) << 48;
+        case 6: m |= (llave[i+5] & 0xffL) << 40;
+        case 5: m |= (llave[i+4] & 0xffL) << 32;
+        case 4: m |= (llave[i+3] & 0xffL) << 24;
+        case 3: m |= (llave[i+2] & 0xffL) << 16;
+        case 2: m |= (llave[i+1] & 0xffL) << 8;
+        case 1: m |= (llave[i]   & 0xffL);
+        }
+        v3 ^= m;
+        for (int r = 0; r < 2; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        v0 ^= m;
+        v2 ^= 0xff;
+        for (int r = 0; r < 4; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    /* Los 64 bits de SipHash-2-4 sobre un búfer directo; quien llama revisa
+     * el rango. */
+    private static long sip(ByteBuffer buffer, int desplazamiento,
+                            int longitud, long k0, long k1) {
+        long v0 = k0 ^ 0x736f6d6570736575L;
+        long v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+        int i = desplazamiento;
+        int fin = desplazamiento + (longitud & ~7);
+        for (; i < fin; i += 8) {
+            long m = (long)LARGO_BUFFER.get(buffer, i);
+            v3 ^= m;
+            for (int r = 0; r < 2; r++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+                v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+                v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+        long m = ((long)longitud) << 56;
+        switch (longitud & 7) {
+        case 7: m |= (buffer.get(i+6) & 0xffL) << 48;
+        case 6: m |= (buffer.get(i+5) & 0xffL) << 40;
+        case 5: m |= (buffer.get(i+4) & 0xffL) << 32;
+        case 4: m |= (buffer.get(i+3) & 0xffL) << 24;
+        case 3: m |= (buffer.get(i+2) & 0xffL) << 16;
+        case 2: m |= (buffer.get(i+1) & 0xffL) << 8;
+        case 1: m |= (buffer.get(i)   & 0xffL);
+        }
+        v3 ^= m;
+        for (int r = 0; r < 2; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        v0 ^= m;
+        v2 ^= 0xff;
+        for (int r = 0; r < 4; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    /**
+     * Función de dispersión CRC-32C (el polinomio de Castagnoli). Usa {@link
+     * CRC32C}, que la máquina virtual compila a las instrucciones de CRC del
+     * procesador cuando las hay, así que es mucho más rápida que las
+     * funciones que procesan un byte a la vez.
+     * @param llave la llave a dispersar.
+     * @return la dispersión CRC-32C de la llave.
+     */
+    public static int dispersaCRC32C(byte[] llave) {
+        return dispersaCRC32C(llave, 0, llave.length, 0);
+    }
+
+    /**
+     * Función de dispersión CRC-32C con semilla sobre un rango de un arreglo
+     * de bytes. Una semilla distinta de 0 se procesa como cuatro bytes
+     * little-endian antes de la llave; como el CRC es lineal, dos llaves de
+     * la misma longitud que chocan lo hacen con cualquier semilla, así que
+     * para llaves controladas por un adversario es mejor {@link
+     * #dispersaSip}. Con semilla 0 el resultado es el CRC-32C estándar del
+     * rango.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión CRC-32C del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaCRC32C(byte[] llave, int desplazamiento,
+                                     int longitud, int semilla) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        CRC32C crc = crc32c(semilla);
+        crc.update(llave, desplazamiento, longitud);
+        return (int)crc.getValue();
+    }
+
+    /**
+     * Función de dispersión CRC-32C con semilla sobre un rango absoluto de
+     * un búfer. No modifica la posición, el límite ni la marca del búfer,
+     * así que varios hilos pueden dispersar rangos del mismo búfer. Con la
+     * misma semilla, el resultado es el de {@link
+     * #dispersaCRC32C(byte[],int,int,int)} sobre los mismos bytes.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión CRC-32C del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static int dispersaCRC32C(ByteBuffer buffer, int desplazamiento,
+                                     int longitud, int semilla) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return dispersaCRC32C(buffer.array(),
+                                  buffer.arrayOffset() + desplazamiento,
+                                  longitud, semilla);
+        CRC32C crc = crc32c(semilla);
+        ByteBuffer vista = buffer.duplicate();
+        vista.limit(desplazamiento + longitud).position(desplazamiento);
+        crc.update(vista);
+        return (int)crc.getValue();
+    }
+
+    /**
+     * Función de dispersión xxHash32 de Yann Collet. Procesa la llave en
+     * bloques de 16 bytes con cuatro acumuladores independientes, que el
+     * procesador puede avanzar en paralelo.
+     * @param llave la llave a dispersar.
+     * @return la dispersión xxHash32 de la llave.
+     */
+    public static int dispersaXXH32(byte[] llave) {
+        return dispersaXXH32(llave, 0, llave.length, 0);
+    }
+
+    /**
+     * Función de dispersión xxHash32 con semilla sobre un rango de un arreglo
+     * de bytes. El resultado es el de la implementación de referencia con la
+     * misma semilla.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión xxHash32 del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaXXH32(byte[] llave, int desplazamiento,
+                                    int longitud, int semilla) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        int i = desplazamiento;
+        int fin = desplazamiento + longitud;
+        int h;
+        if (longitud >= 16) {
+            int v1 = semilla + XXH32_P1 + XXH32_P2;
+            int v2 = semilla + XXH32_P2;
+            int v3 = semilla;
+            int v4 = semilla - XXH32_P1;
+            for (; i + 16 <= fin; i += 16) {
+                v1 = ronda32(v1, palabra(llave, i));
+                v2 = ronda32(v2, palabra(llave, i + 4));
+                v3 = ronda32(v3, palabra(llave, i + 8));
+                v4 = ronda32(v4, palabra(llave, i + 12));
+            }
+            h = Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7) +
+                Integer.rotateLeft(v3, 12) + Integer.rotateLeft(v4, 18);
+        } else {
+            h = semilla + XXH32_P5;
+        }
+        h += longitud;
+        for (; i + 4 <= fin; i += 4)
+            h = Integer.rotateLeft(h + palabra(llave, i) * XXH32_P3, 17) *
+                XXH32_P4;
+        for (; i < fin; i++)
+            h = Integer.rotateLeft(h + (llave[i] & 0xff) * XXH32_P5, 11) *
+                XXH32_P1;
+        return avalancha32(h);
+    }
+
+    /**
+     * Función de dispersión xxHash32 con semilla sobre un rango absoluto de
+     * un búfer. No modifica la posición del búfer. Con la misma semilla, el
+     * resultado es el de {@link #dispersaXXH32(byte[],int,int,int)} sobre
+     * los mismos bytes.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión xxHash32 del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static int dispersaXXH32(ByteBuffer buffer, int desplazamiento,
+                                    int longitud, int semilla) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return dispersaXXH32(buffer.array(),
+                                 buffer.arrayOffset() + desplazamiento,
+                                 longitud, semilla);
+        int i = desplazamiento;
+        int fin = desplazamiento + longitud;
+        int h;
+        if (longitud >= 16) {
+            int v1 = semilla + XXH32_P1 + XXH32_P2;
+            int v2 = semilla + XXH32_P2;
+            int v3 = semilla;
+            int v4 = semilla - XXH32_P1;
+            for (; i + 16 <= fin; i += 16) {
+                v1 = ronda32(v1, palabra(buffer, i));
+                v2 = ronda32(v2, palabra(buffer, i + 4));
+                v3 = ronda32(v3, palabra(buffer, i + 8));
+                v4 = ronda32(v4, palabra(buffer, i + 12));
+            }
+            h = Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7) +
+                Integer.rotateLeft(v3, 12) + Integer.rotateLeft(v4, 18);
+        } else {
+            h = semilla + XXH32_P5;
+        }
+        h += longitud;
+        for (; i + 4 <= fin; i += 4)
+            h = Integer.rotateLeft(h + palabra(buffer, i) * XXH32_P3, 17) *
+                XXH32_P4;
+        for (; i < fin; i++)
+            h = Integer.rotateLeft(h + (buffer.get(i) & 0xff) * XXH32_P5,
+                                   11) * XXH32_P1;
+        return avalancha32(h);
+    }
+
+    /**
+     * Función de dispersión xxHash64 de Yann Collet. Procesa la llave en
+     * bloques de 32 bytes con cuatro acumuladores de 64 bits; en
+     * procesadores de 64 bits es la más rápida para llaves largas. El
+     * resultado son los 64 bits de xxHash64 doblados a 32 con XOR.
+     * @param llave la llave a dispersar.
+     * @return la dispersión xxHash64 de la llave.
+     */
+    public static int dispersaXXH64(byte[] llave) {
+        return dispersaXXH64(llave, 0, llave.length, 0L);
+    }
+
+    /**
+     * Función de dispersión xxHash64 con semilla sobre un rango de un arreglo
+     * de bytes, doblada a 32 bits con XOR.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión xxHash64 del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaXXH64(byte[] llave, int desplazamiento,
+                                    int longitud, long semilla) {
+        long h = xxh64(llave, desplazamiento, longitud, semilla);
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /**
+     * Función de dispersión xxHash64 con semilla sobre un rango absoluto de
+     * un búfer, doblada a 32 bits con XOR. No modifica la posición del
+     * búfer, y funciona igual con búferes directos o respaldados por un
+     * arreglo.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión xxHash64 del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static int dispersaXXH64(ByteBuffer buffer, int desplazamiento,
+                                    int longitud, long semilla) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return dispersaXXH64(buffer.array(),
+                                 buffer.arrayOffset() + desplazamiento,
+                                 longitud, semilla);
+        long h = xxh64(buffer, desplazamiento, longitud, semilla);
+        return (int)(h ^ (h >>> 32));
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Bob Jenkins: <code>hashlittle2</code>
+     * de lookup3, la sucesora de la función de {@link #dispersaBJ(byte[])}.
+     * Los 32 bits bajos del resultado son el primer valor de
+     * <code>hashlittle2</code>, que es el mejor mezclado y es igual al de
+     * <code>hashlittle</code>, y los 32 altos el segundo.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de 64 bits de Bob Jenkins de la llave.
+     */
+    public static long dispersaBJ64(byte[] llave) {
+        return dispersaBJ64(llave, 0, llave.length, 0L);
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Bob Jenkins con semilla sobre un
+     * rango de un arreglo de bytes. Los 32 bits bajos de la semilla son el
+     * valor inicial del primer resultado de <code>hashlittle2</code>, y los
+     * 32 altos el del segundo.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de 64 bits de Bob Jenkins del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static long dispersaBJ64(byte[] llave, int desplazamiento,
+                                    int longitud, long semilla) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        int a, b, c;
+        a = b = c = 0xdeadbeef + longitud + (int)semilla;
+        c += (int)(semilla >>> 32);
+        int i = desplazamiento;
+        int n = longitud;
+        while (n > 12) {
+            a += palabra(llave, i);
+            b += palabra(llave, i + 4);
+            c += palabra(llave, i + 8);
+            a -= c; a ^= Integer.rotateLeft(c, 4);  c += b;
+            b -= a; b ^= Integer.rotateLeft(a, 6);  a += c;
+            c -= b; c ^= Integer.rotateLeft(b, 8);  b += a;
+            a -= c; a ^= Integer.rotateLeft(c, 16); c += b;
+            b -= a; b ^= Integer.rotateLeft(a, 19); a += c;
+            c -= b; c ^= Integer.rotateLeft(b, 4);  b += a;
+            i += 12;
+            n -= 12;
+        }
+        switch (n) {
+        case 12: c += (llave[i+11] & 0xff) << 24;
+        case 11: c += (llave[i+10] & 0xff) << 16;
+        case 10: c += (llave[i+9]  & 0xff) << 8;
+        case  9: c += (llave[i+8]  & 0xff);
+        case  8: b += (llave[i+7]  & 0xff) << 24;
+        case  7: b += (llave[i+6]  & 0xff) << 16;
+        case  6: b += (llave[i+5]  & 0xff) << 8;
+        case  5: b += (llave[i+4]  & 0xff);
+        case  4: a += (llave[i+3]  & 0xff) << 24;
+        case  3: a += (llave[i+2]  & 0xff) << 16;
+        case  2: a += (llave[i+1]  & 0xff) << 8;
+        case  1: a += (llave[i]    & 0xff);
+            return finalBJ64(a, b, c);
+        default:
+            return ((long)b << 32) | (c & 0xffffffffL);
+        }
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Bob Jenkins con semilla sobre un
+     * rango absoluto de un búfer. No modifica la posición del búfer. Con la
+     * misma semilla, el resultado es el de {@link
+     * #dispersaBJ64(byte[],int,int,long)} sobre los mismos bytes.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de 64 bits de Bob Jenkins del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static long dispersaBJ64(ByteBuffer buffer, int desplazamiento,
+                                    int longitud, long semilla) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return dispersaBJ64(buffer.array(),
+                                buffer.arrayOffset() + desplazamiento,
+                                longitud, semilla);
+        int a, b, c;
+        a = b = c = 0xdeadbeef + longitud + (int)semilla;
+        c += (int)(semilla >>> 32);
+        int i = desplazamiento;
+        int n = longitud;
+        while (n > 12) {
+            a += palabra(buffer, i);
+            b += palabra(buffer, i + 4);
+            c += palabra(buffer, i + 8);
+            a -= c; a ^= Integer.rotateLeft(c, 4);  c += b;
+            b -= a; b ^= Integer.rotateLeft(a, 6);  a += c;
+            c -= b; c ^= Integer.rotateLeft(b, 8);  b += a;
+            a -= c; a ^= Integer.rotateLeft(c, 16); c += b;
+            b -= a; b ^= Integer.rotateLeft(a, 19); a += c;
+            c -= b; c ^= Integer.rotateLeft(b, 4);  b += a;
+            i += 12;
+            n -= 12;
+        }
+        switch (n) {
+        case 12: c += (buffer.get(i+11) & 0xff) << 24;
+        case 11: c += (buffer.get(i+10) & 0xff) << 16;
+        case 10: c += (buffer.get(i+9)  & 0xff) << 8;
+        case  9: c += (buffer.get(i+8)  & 0xff);
+        case  8: b += (buffer.get(i+7)  & 0xff) << 24;
+        case  7: b += (buffer.get(i+6)  & 0xff) << 16;
+        case  6: b += (buffer.get(i+5)  & 0xff) << 8;
+        case  5: b += (buffer.get(i+4)  & 0xff);
+        case  4: a += (buffer.get(i+3)  & 0xff) << 24;
+        case  3: a += (buffer.get(i+2)  & 0xff) << 16;
+        case  2: a += (buffer.get(i+1)  & 0xff) << 8;
+        case  1: a += (buffer.get(i)    & 0xff);
+            return finalBJ64(a, b, c);
+        default:
+            return ((long)b << 32) | (c & 0xffffffffL);
+        }
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Daniel J. Bernstein: la misma
+     * recurrencia que {@link #dispersaDJB(byte[])} en aritmética de 64 bits,
+     * así que con semilla 0 los 32 bits bajos del resultado son la
+     * dispersión de 32 bits. Los bits altos dejan de ser cero desde los 4
+     * bytes, pero con llaves cortas los determina casi sólo la longitud: los
+     * bytes de la llave sólo los alcanzan por acarreos de las
+     * multiplicaciones por 33, así que todas las llaves de hasta 5 bytes con
+     * la misma longitud tienen los mismos bits altos, y con unos cuantos
+     * bytes más siguen repitiéndose mucho. Para huellas de llaves cortas es
+     * mejor {@link #dispersaBJ64(byte[])}.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de 64 bits de Daniel Bernstein de la llave.
+     */
+    public static long dispersaDJB64(byte[] llave) {
+        return dispersaDJB64(llave, 0, llave.length, 0L);
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Daniel J. Bernstein con semilla
+     * sobre un rango de un arreglo de bytes.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de 64 bits de Daniel Bernstein del rango de la
+     *         llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static long dispersaDJB64(byte[] llave, int desplazamiento,
+                                     int longitud, long semilla) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        long h = 5381L ^ semilla;
+        int fin = desplazamiento + longitud;
+        for (int i = desplazamiento; i < fin; i++)
+            h += (h << 5) + (llave[i] & 0xff);
+        return h;
+    }
+
+    /**
+     * Función de dispersión de 64 bits de Daniel J. Bernstein con semilla
+     * sobre un rango absoluto de un búfer. No modifica la posición del
+     * búfer.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de 64 bits de Daniel Bernstein del rango del
+     *         búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static long dispersaDJB64(ByteBuffer buffer, int desplazamiento,
+                                     int longitud, long semilla) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return dispersaDJB64(buffer.array(),
+                                 buffer.arrayOffset() + desplazamiento,
+                                 longitud, semilla);
+        long h = 5381L ^ semilla;
+        int fin = desplazamiento + longitud;
+        for (int i = desplazamiento; i < fin; i++)
+            h += (h << 5) + (buffer.get(i) & 0xff);
+        return h;
+    }
+
+    /**
+     * Función de dispersión SipHash-2-4 con llave secreta sobre un rango de
+     * un arreglo de bytes, con los 64 bits completos. Doblado a 32 bits con
+     * XOR, el resultado es el de {@link
+     * #dispersaSip(byte[],int,int,long,long)}.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param k0 los primeros 64 bits de la llave secreta.
+     * @param k1 los últimos 64 bits de la llave secreta.
+     * @return los 64 bits de SipHash-2-4 del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static long dispersaSip64(byte[] llave, int desplazamiento,
+                                     int longitud, long k0, long k1) {
+        return sip(llave, desplazamiento, longitud, k0, k1);
+    }
+
+    /**
+     * Función de dispersión SipHash-2-4 con llave secreta sobre un rango
+     * absoluto de un búfer, con los 64 bits completos. No modifica la
+     * posición del búfer.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param k0 los primeros 64 bits de la llave secreta.
+     * @param k1 los últimos 64 bits de la llave secreta.
+     * @return los 64 bits de SipHash-2-4 del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static long dispersaSip64(ByteBuffer buffer, int desplazamiento,
+                                     int longitud, long k0, long k1) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return sip(buffer.array(), buffer.arrayOffset() + desplazamiento,
+                       longitud, k0, k1);
+        return sip(buffer, desplazamiento, longitud, k0, k1);
+    }
+
+    /**
+     * Función de dispersión xxHash64 con semilla sobre un rango de un
+     * arreglo de bytes, con los 64 bits completos. El resultado es el de la
+     * implementación de referencia con la misma semilla; doblado a 32 bits
+     * con XOR, es el de {@link #dispersaXXH64(byte[],int,int,long)}.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return los 64 bits de xxHash64 del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static long dispersaXXH64Completa(byte[] llave, int desplazamiento,
+                                             int longitud, long semilla) {
+        return xxh64(llave, desplazamiento, longitud, semilla);
+    }
+
+    /**
+     * Función de dispersión xxHash64 con semilla sobre un rango absoluto de
+     * un búfer, con los 64 bits completos. No modifica la posición del
+     * búfer.
+     * @param buffer el búfer que contiene a la llave.
+     * @param desplazamiento el índice absoluto del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return los 64 bits de xxHash64 del rango del búfer.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         límite del búfer.
+     */
+    public static long dispersaXXH64Completa(ByteBuffer buffer,
+                                             int desplazamiento, int longitud,
+                                             long semilla) {
+        revisaRango(buffer.limit(), desplazamiento, longitud);
+        if (buffer.hasArray())
+            return xxh64(buffer.array(), buffer.arrayOffset() + desplazamiento,
+                         longitud, semilla);
+        return xxh64(buffer, desplazamiento, longitud, semilla);
+    }
+
+    /* La mezcla final de lookup3; regresa el segundo resultado en los 32
+     * bits altos y el primero en los bajos. */
+    private static long finalBJ64(int a, int b, int c) {
+        c ^= b; c -= Integer.rotateLeft(b, 14);
+        a ^= c; a -= Integer.rotateLeft(c, 11);
+        b ^= a; b -= Integer.rotateLeft(a, 25);
+        c ^= b; c -= Integer.rotateLeft(b, 16);
+        a ^= c; a -= Integer.rotateLeft(c, 4);
+        b ^= a; b -= Integer.rotateLeft(a, 14);
+        c ^= b; c -= Integer.rotateLeft(b, 24);
+        return ((long)b << 32) | (c & 0xffffffffL);
+    }
+
+    /* Los 64 bits de xxHash64. */
+    private static long xxh64(byte[] llave, int desplazamiento, int longitud,
+                              long semilla) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        int i = desplazamiento;
+        int fin = desplazamiento + longitud;
+        long h;
+        if (longitud >= 32) {
+            long v1 = semilla + XXH64_P1 + XXH64_P2;
+            long v2 = semilla + XXH64_P2;
+            long v3 = semilla;
+            long v4 = semilla - XXH64_P1;
+            for (; i + 32 <= fin; i += 32) {
+                v1 = ronda64(v1, (long)LARGO_ARREGLO.get(llave, i));
+                v2 = ronda64(v2, (long)LARGO_ARREGLO.get(llave, i + 8));
+                v3 = ronda64(v3, (long)LARGO_ARREGLO.get(llave, i + 16));
+                v4 = ronda64(v4, (long)LARGO_ARREGLO.get(llave, i + 24));
+            }
+            h = acumula64(v1, v2, v3, v4);
+        } else {
+            h = semilla + XXH64_P5;
+        }
+        h += longitud;
+        for (; i + 8 <= fin; i += 8) {
+            long k = ronda64(0, (long)LARGO_ARREGLO.get(llave, i));
+            h = Long.rotateLeft(h ^ k, 27) * XXH64_P1 + XXH64_P4;
+        }
+        if (i + 4 <= fin) {
+            h = Long.rotateLeft(h ^ (palabra(llave, i) & 0xffffffffL) *
+                                XXH64_P1, 23) * XXH64_P2 + XXH64_P3;
+            i += 4;
+        }
+        for (; i < fin; i++)
+            h = Long.rotateLeft(h ^ (llave[i] & 0xffL) * XXH64_P5, 11) *
+                XXH64_P1;
+        return avalancha64(h);
+    }
+
+    /* Los 64 bits de xxHash64 sobre un búfer directo; quien llama revisa el
+     * rango. */
+    private static long xxh64(ByteBuffer buffer, int desplazamiento,
+                              int longitud, long semilla) {
+        int i = desplazamiento;
+        int fin = desplazamiento + longitud;
+        long h;
+        if (longitud >= 32) {
+            long v1 = semilla + XXH64_P1 + XXH64_P2;
+            long v2 = semilla + XXH64_P2;
+            long v3 = semilla;
+            long v4 = semilla - XXH64_P1;
+            for (; i + 32 <= fin; i += 32) {
+                v1 = ronda64(v1, (long)LARGO_BUFFER.get(buffer, i));
+                v2 = ronda64(v2, (long)LARGO_BUFFER.get(buffer, i + 8));
+                v3 = ronda64(v3, (long)LARGO_BUFFER.get(buffer, i + 16));
+                v4 = ronda64(v4, (long)LARGO_BUFFER.get(buffer, i + 24));
+            }
+            h = acumula64(v1, v2, v3, v4);
+        } else {
+            h = semilla + XXH64_P5;
+        }
+        h += longitud;
+        for (; i + 8 <= fin; i += 8) {
+            long k = ronda64(0, (long)LARGO_BUFFER.get(buffer, i));
+            h = Long.rotateLeft(h ^ k, 27) * XXH64_P1 + XXH64_P4;
+        }
+        if (i + 4 <= fin) {
+            h = Long.rotateLeft(h ^ (palabra(buffer, i) & 0xffffffffL) *
+                                XXH64_P1, 23) * XXH64_P2 + XXH64_P3;
+            i += 4;
+        }
+        for (; i < fin; i++)
+            h = Long.rotateLeft(h ^ (buffer.get(i) & 0xffL) * XXH64_P5, 11) *
+                XXH64_P1;
+        return avalancha64(h);
+    }
+
+    /* Regresa un CRC-32C que ya procesó la semilla, si no es 0. */
+    static CRC32C crc32c(int semilla) {
+        CRC32C crc = new CRC32C();
+        if (semilla != 0)
+            for (int i = 0; i < 32; i += 8)
+                crc.update(semilla >>> i);
+        return crc;
+    }
+
+    /* Una ronda de xxHash32 sobre un acumulador. */
+    static int ronda32(int acumulador, int palabra) {
+        return Integer.rotateLeft(acumulador + palabra * XXH32_P2, 13) *
+            XXH32_P1;
+    }
+
+    /* La mezcla final de xxHash32. */
+    static int avalancha32(int h) {
+        h ^= h >>> 15;
+        h *= XXH32_P2;
+        h ^= h >>> 13;
+        h *= XXH32_P3;
+        return h ^ (h >>> 16);
+    }
+
+    /* Una ronda de xxHash64 sobre un acumulador. */
+    static long ronda64(long acumulador, long palabra) {
+        return Long.rotateLeft(acumulador + palabra * XXH64_P2, 31) *
+            XXH64_P1;
+    }
+
+    /* Junta los cuatro acumuladores de xxHash64. */
+    static long acumula64(long v1, long v2, long v3, long v4) {
+        long h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) +
+            Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+        h = (h ^ ronda64(0, v1)) * XXH64_P1 + XXH64_P4;
+        h = (h ^ ronda64(0, v2)) * XXH64_P1 + XXH64_P4;
+        h = (h ^ ronda64(0, v3)) * XXH64_P1 + XXH64_P4;
+        return (h ^ ronda64(0, v4)) * XXH64_P1 + XXH64_P4;
+    }
+
+    /* La mezcla final de xxHash64. */
+    static long avalancha64(long h) {
+        h ^= h >>> 33;
+        h *= XXH64_P2;
+        h ^= h >>> 29;
+        h *= XXH64_P3;
+        return h ^ (h >>> 32);
+    }
+
+    /* Revisa que el rango esté contenido en [0, total). */
+    private static void revisaRango(int total, int desplazamiento,
+                                    int longitud) {
+        if (desplazamiento < 0 || longitud < 0 ||
+            desplazamiento > total - longitud)
+            throw new ExcepcionIndiceInvalido("Rango inválido: " +
+                                              desplazamiento + ", " +
+                                              longitud);
+    }
+
+    /* Regresa el byte sin signo en el índice, o 0 si ya se pasó del fin. */
+    private static int octeto(byte[] llave, int i, int fin) {
+        return i < fin ? llave[i] & 0xff : 0;
+    }
+
+    /* Regresa el byte sin signo en el índice, o 0 si ya se pasó del fin. */
+    private static int octeto(ByteBuffer buffer, int i, int fin) {
+        return i < fin ? buffer.get(i) & 0xff : 0;
+    }
+
+    /* Regresa la palabra little-endian que empieza en el índice, leyéndola
+     * de un golpe; el índice no necesita estar alineado. */
+    private static int palabra(byte[] llave, int i) {
+        return (int)ENTERO_ARREGLO.get(llave, i);
+    }
+
+    /* Regresa la palabra little-endian que empieza en el índice absoluto,
+     * leyéndola de un golpe; el índice no necesita estar alineado. */
+    private static int palabra(ByteBuffer buffer, int i) {
+        return (int)ENTERO_BUFFER.get(buffer, i);
     }
 }
@@ -0,0 +1,544 @@
+package mx.unam.ciencias.edd;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32C;
+
+/**
+ * Clase con las implementaciones de {@link DispersorIncremental} para cada
+ * función de {@link Dispersores}. Las instancias se obtienen con {@link
+ * FabricaDispersores#dispersorIncremental}.
+ */
+class DispersoresIncrementales {
+
+    /* Vista de arreglos de bytes como enteros big-endian. */
+    private static final VarHandle ENTERO_BE =
+        MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    /* Vista de arreglos de bytes como enteros little-endian. */
+    private static final VarHandle ENTERO_LE =
+        MethodHandles.byteArrayViewVarHandle(int[].class,
+                                             ByteOrder.LITTLE_ENDIAN);
+    /* Vista de arreglos de bytes como enteros largos little-endian. */
+    private static final VarHandle LARGO_LE =
+        MethodHandles.byteArrayViewVarHandle(long[].class,
+                                             ByteOrder.LITTLE_ENDIAN);
+
+    /* Constructor privado para evitar instanciación. */
+    private DispersoresIncrementales() {}
+
+    /* Clase abstracta para los dispersores incrementales; lleva la cuenta de
+     * los bytes y copia los búferes directos a un arreglo auxiliar. */
+    abstract static class Base implements DispersorIncremental {
+
+        /* Tamaño del arreglo auxiliar para búferes directos. */
+        private static final int AUXILIAR = 1 << 13;
+
+        /* El número de bytes agregados. */
+        protected long longitud;
+        /* Arreglo auxiliar para búferes directos; se crea la primera vez que
+         * se necesita. */
+        private byte[] auxiliar;
+
+        /* Agrega el rango; las clases concretas implementan este método. */
+        protected abstract void agrega(byte[] bytes, int desplazamiento,
+                                       int longitud);
+
+        /* Regresa el dispersor a su estado inicial, sin tocar la longitud. */
+        protected abstract void inicializa();
+
+        /* Agrega un rango de bytes a la llave. */
+        @Override public void actualiza(byte[] bytes, int desplazamiento,
+                                        int longitud) {
+            if (desplazamiento < 0 || longitud < 0 ||
+                desplazamiento > bytes.length - longitud)
+                throw new ExcepcionIndiceInvalido("Rango inválido: " +
+                                                  desplazamiento + ", " +
+                                                  longitud);
+            agrega(bytes, desplazamiento, longitud);
+            this.longitud += longitud;
+        }
+
+        /* Agrega los bytes restantes del búfer a la llave. */
+        @Override public void actualiza(ByteBuffer buffer) {
+            int n = buffer.remaining();
+            if (buffer.hasArray()) {
+                actualiza(buffer.array(),
+                          buffer.arrayOffset() + buffer.position(), n);
+                buffer.position(buffer.limit());
+                return;
+            }
+            if (auxiliar == null)
+                auxiliar = new byte[AUXILIAR];
+            while (n > 0) {
+                int m = Math.min(n, auxiliar.length);
+                buffer.get(auxiliar, 0, m);
+                actualiza(auxiliar, 0, m);
+                n -= m;
+            }
+        }
+
+        /* Regresa el número de bytes agregados. */
+        @Override public long getLongitud() {
+            return longitud;
+        }
+
+        /* Regresa el dispersor a su estado inicial. */
+        @Override public void reinicia() {
+            longitud = 0;
+            inicializa();
+        }
+    }
+
+    /* Dispersor incremental XOR. */
+    static class XOR extends Base {
+
+        /* El resultado parcial. */
+        private int r;
+
+        /* Agrega el rango; los bytes alineados se agregan por palabras. */
+        @Override protected void agrega(byte[] bytes, int desplazamiento,
+                                        int n) {
+            int i = desplazamiento;
+            int fin = desplazamiento + n;
+            long p = longitud;
+            while (i < fin && (p & 3) != 0)
+                r ^= (bytes[i++] & 0xff) << (24 - 8 * (int)(p++ & 3));
+            for (; i + 4 <= fin; i += 4)
+                r ^= (int)ENTERO_BE.get(bytes, i);
+            while (i < fin)
+                r ^= (bytes[i++] & 0xff) << (24 - 8 * (int)(p++ & 3));
+        }
+
+        /* Regresa el resultado. */
+        @Override public int digiere() {
+            return r;
+        }
+
+        /* Regresa el dispersor a su estado inicial. */
+        @Override protected void inicializa() {
+            r = 0;
+        }
+    }
+
+    /* Dispersor incremental de Bob Jenkins. */
+    static class BJ extends Base {
+
+        /* La semilla. */
+        private final int semilla;
+        /* El estado. */
+        private int a, b, c;
+        /* Los bytes pendientes de formar un bloque. */
+        private final byte[] pendientes = new byte[12];
+        /* El número de bytes pendientes. */
+        private int n;
+
+        /* Crea un dispersor con la semilla recibida. */
+        BJ(int semilla) {
+            this.semilla = semilla;
+            inicializa();
+        }
+
+        /* Agrega el rango; cada bloque completo de 12 bytes se mezcla en
+         * cuanto se tiene, igual que en la versión de un golpe. */
+        @Override protected void agrega(byte[] bytes, int desplazamiento,
+                                        int longitud) {
+            int i = desplazamiento;
+            int fin = desplazamiento + longitud;
+            if (n > 0) {
+                int m = Math.min(12 - n, fin - i);
+                System.arraycopy(bytes, i, pendientes, n, m);
+                n += m;
+                i += m;
+                if (n < 12)
+                    return;
+                bloque(pendientes, 0);
+                n = 0;
+            }
+            for (; i + 12 <= fin; i += 12)
+                bloque(bytes, i);
+            n = fin - i;
+            System.arraycopy(bytes, i, pendientes, 0, n);
+        }
+
+        /* Mezcla un bloque de 12 bytes. */
+        private void bloque(byte[] k, int i) {
+            a += (int)ENTERO_LE.get(k, i);
+            b += (int)ENTERO_LE.get(k, i + 4);
+            c += (int)ENTERO_LE.get(k, i + 8);
+            a -= b; a -= c; a ^= (c >>> 13);
+            b -= c; b -= a; b ^= (a << 8);
+            c -= a; c -= b; c ^= (b >>> 13);
+            a -= b; a -= c; a ^= (c >>> 12);
+            b -= c; b -= a; b ^= (a << 16);
+            c -= a; c -= b; c ^= (b >>> 5);
+            a -= b; a -= c; a ^= (c >>> 3);
+            b -= c; b -= a; b ^= (a << 10);
+            c -= a; c -= b; c ^= (b >>> 15);
+        }
+
+        /* Regresa el resultado, mezclando los bytes pendientes sobre una
+         * copia del estado. */
+        @Override public int digiere() {
+            int a = this.a, b = this.b, c = this.c + (int)longitud;
+            byte[] k = pendientes;
+            switch (n) {
+            case 11: c += (k[10] & 0xff) << 24;
+            case 10: c += (k[9]  & 0xff) << 16;
+            case  9: c += (k[8]  & 0xff) << 8;
+            case  8: b += (k[7]  & 0xff) << 24;
+            case  7: b += (k[6]  & 0xff) << 16;
+            case  6: b += (k[5]  & 0xff) << 8;
+            case  5: b += (k[4]  & 0xff);
+            case  4: a += (k[3]  & 0xff) << 24;
+            case  3: a += (k[2]  & 0xff) << 16;
+            case  2: a += (k[1]  & 0xff) << 8;
+            case  1: a += (k[0]  & 0xff);
+            }
+            a -= b; a -= c; a ^= (c >>> 13);
+            b -= c; b -= a; b ^= (a << 8);
+            c -= a; c -= b; c ^= (b >>> 13);
+            a -= b; a -= c; a ^= (c >>> 12);
+            b -= c; b -= a; b ^= (a << 16);
+            c -= a; c -= b; c ^= (b >>> 5);
+            a -= b; a -= c; a ^= (c >>> 3);
+            b -= c; b -= a; b ^= (a << 10);
+            c -= a; c -= b; c ^= (b >>> 15);
+            return c;
+        }
+
+        /* Regresa el dispersor a su estado inicial. */
+        @Override protected void inicializa() {
+            a = b = 0x9e3779b9;
+            c = 0xffffffff ^ semilla;
+            n = 0;
+        }
+    }
+
+    /* Dispersor incremental de Daniel J. Bernstein. */
+    static class DJB extends Base {
+
+        /* La semilla. */
+        private final int semilla;
+        /* El resultado parcial. */
+        private int h;
+
+        /* Crea un dispersor con la semilla recibida. */
+        DJB(int semilla) {
+            this.semilla = semilla;
+            inicializa();
+        }
+
+        /* Agrega el rango. */
+        @Override protected void agrega(byte[] bytes, int desplazamiento,
+                                        int longitud) {
+            int h = this.h;
+            int fin = desplazamiento + longitud;
+            for (int i = desplazamiento; i < fin; i++)
+                h += (h << 5) + (bytes[i] & 0xff);
+            this.h = h;
+        }
+
+        /* Regresa el resultado. */
+        @Override public int digiere() {
+            return h;
+        }
+
+        /* Regresa el dispersor a su estado inicial. */
+        @Override protected void inicializa() {
+            h = 5381 ^ semilla;
+        }
+    }
+
+    /* Dispersor incremental SipHash-2-4. */
+    static class Sip extends Base {
+
+        /* La llave secreta. */
+        private final long k0, k1;
+        /* El estado. */
+        private long v0, v1, v2, v3;
+        /* Los bytes pendientes de formar un bloque. */
+        private final byte[] pendientes = new byte[8];
+        /* El número de bytes pendientes. */
+        private int n;
+
+        /* Crea un dispersor con la llave secreta recibida. */
+        Sip(long k0, long k1) {
+            this.k0 = k0;
+            this.k1 = k1;
+            inicializa();
+        }
+
+        /* Agrega el rango; cada bloque completo de 8 bytes se comprime en
+         * cuanto se tiene. */
+        @Override protected void agrega(byte[] bytes, int desplazamiento,
+                                        int longitud) {
+            int i = desplazamiento;
+            int fin = desplazamiento + longitud;
+            if (n > 0) {
+                int m = Math.min(8 - n, fin - i);
+                System.arraycopy(bytes, i, pendientes, n, m);
+                n += m;
+                i += m;
+                if (n < 8)
+                    return;
+                comprime((long)LARGO_LE.get(pendientes, 0));
+                n = 0;
+            }
+            for (; i + 8 <= fin; i += 8)
+                comprime((long)LARGO_LE.get(bytes, i));
+            n = fin - i;
+            System.arraycopy(bytes, i, pendientes, 0, n);
+        }
+
+        /* Comprime un bloque de 8 bytes con dos rondas. */
+        private void comprime(long m) {
+            long v0 = this.v0, v1 = this.v1, v2 = this.v2, v3 = this.v3 ^ m;
+            for (int r = 0; r < 2; r++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+                v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+                v2 = Long.rotateLeft(v2, 32);
+            }
+            this.v0 = v0 ^ m; this.v1 = v1; this.v2 = v2; this.v3 = v3;
+        }
+
+        /* Regresa el resultado, comprimiendo el último bloque y finalizando
+         * sobre una copia del estado. */
+        @Override public int digiere() {
+            long v0 = this.v0, v1 = this.v1, v2 = this.v2, v3 = this.v3;
+            long m = longitud << 56;
+            for (int i = 0; i < n; i++)
+                m |= (pendientes[i] & 0xffL) << (8 * i);
+            v3 ^= m;
+            for (int r = 0; r < 6; r++) {
+                if (r == 2) {
+                    v0 ^= m;
+                    v2 ^= 0xff;
+                }
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0;
+                v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2;
+                v2 = Long.rotateLeft(v2, 32);
+            }
+            long h = v0 ^ v1 ^ v2 ^ v3;
+            return (int)(h ^ (h >>> 32));
+        }
+
+        /* Regresa el dispersor a su estado inicial. */
+        @Override protected void inicializa() {
+            v0 = k0 ^ 0x736f6d6570736575L;
+            v1 = k1 ^ 0x646f72616e646f6dL;
+            v2 = k0 ^ 0x6c7967656e657261L;
+            v3 = k1 ^ 0x7465646279746573L;
+            n = 0;
+        }
+    }
+
+    /* Dispersor incremental CRC-32C. */
+    static class CRC extends Base {
+
+        /* La semilla. */
+        private final int semilla;
+        /* El CRC parcial. */
+        private CRC32C crc;
+
+        /* Crea un dispersor con la semilla recibida. */
+        CRC(int semilla) {
+            this.semilla = semilla;
+            inicializa();
+        }
+
+        /* Agrega el rango. */
+        @Override protected void agrega(byte[] bytes, int desplazamiento,
+                                        int longitud) {
+            crc.update(bytes, desplazamiento, longitud);
+        }
+
+        /* Agrega los bytes restantes del búfer sin copiarlos, aunque sea
+         * directo. */
+        @Override public void actualiza(ByteBuffer buffer) {
+            longitud += buffer.remaining();
+            crc.update(buffer);
+        }
+
+        /* Regresa el resultado. */
+        @Override public int digiere() {
+            return (int)crc.getValue();
+        }
+
+        /* Regresa el dispersor a su estado inicial. */
+        @Override protected void inicializa() {
+            crc = Dispersores.crc32c(semilla);
+        }
+    }
+
+    /* Dispersor incremental xxHash32. */
+    static class XXH32 extends Base {
+
+        /* La semilla. */
+        private final int semilla;
+        /* Los acumuladores. */
+        private int v1, v2, v3, v4;
+        /* Los bytes pendientes de formar un bloque. */
+        private final byte[] pendientes = new byte[16];
+        /* El número de bytes pendientes. */
+        private int n;
+
+        /* Crea un dispersor con la semilla recibida. */
+        XXH32(int semilla) {
+            this.semilla = semilla;
+            inicializa();
+        }
+
+        /* Agrega el rango; cada bloque completo de 16 bytes se procesa en
+         * cuanto se tiene. */
+        @Override protected void agrega(byte[] bytes, int desplazamiento,
+                                        int longitud) {
+            int i = desplazamiento;
+            int fin = desplazamiento + longitud;
+            if (n > 0) {
+                int m = Math.min(16 - n, fin - i);
+                System.arraycopy(bytes, i, pendientes, n, m);
+                n += m;
+                i += m;
+                if (n < 16)
+                    return;
+                bloque(pendientes, 0);
+                n = 0;
+            }
+            for (; i + 16 <= fin; i += 16)
+                bloque(bytes, i);
+            n = fin - i;
+            System.arraycopy(bytes, i, pendientes, 0, n);
+        }
+
+        /* Procesa un bloque de 16 bytes. */
+        private void bloque(byte[] k, int i) {
+            v1 = Dispersores.ronda32(v1, (int)ENTERO_LE.get(k, i));
+            v2 = Dispersores.ronda32(v2, (int)ENTERO_LE.get(k, i + 4));
+            v3 = Dispersores.ronda32(v3, (int)ENTERO_LE.get(k, i + 8));
+            v4 = Dispersores.ronda32(v4, (int)ENTERO_LE.get(k, i + 12));
+        }
+
+        /* Regresa el resultado, procesando los bytes pendientes sobre una
+         * copia del estado. */
+        @Override public int digiere() {
+            int h = longitud >= 16 ?
+                Integer.rotateLeft(v1, 1) + Integer.rotateLeft(v2, 7) +
+                Integer.rotateLeft(v3, 12) + Integer.rotateLeft(v4, 18) :
+                semilla + Dispersores.XXH32_P5;
+            h += (int)longitud;
+            int i = 0;
+            for (; i + 4 <= n; i += 4)
+                h = Integer.rotateLeft(h + (int)ENTERO_LE.get(pendientes, i) *
+                                       Dispersores.XXH32_P3, 17) *
+                    Dispersores.XXH32_P4;
+            for (; i < n; i++)
+                h = Integer.rotateLeft(h + (pendientes[i] & 0xff) *
+                                       Dispersores.XXH32_P5, 11) *
+                    Dispersores.XXH32_P1;
+            return Dispersores.avalancha32(h);
+        }
+
+        /* Regresa el dispersor a su estado inicial. */
+        @Override protected void inicializa() {
+            v1 = semilla + Dispersores.XXH32_P1 + Dispersores.XXH32_P2;
+            v2 = semilla + Dispersores.XXH32_P2;
+            v3 = semilla;
+            v4 = semilla - Dispersores.XXH32_P1;
+            n = 0;
+        }
+    }
+
+    /* Dispersor incremental xxHash64. */
+    static class XXH64 extends Base {
+
+        /* La semilla. */
+        private final long semilla;
+        /* Los acumuladores. */
+        private long v1, v2, v3, v4;
+        /* Los bytes pendientes de formar un bloque. */
+        private final byte[] pendientes = new byte[32];
+        /* El número de bytes pendientes. */
+        private int n;
+
+        /* Crea un dispersor con la semilla recibida. */
+        XXH64(long semilla) {
+            this.semilla = semilla;
+            inicializa();
+        }
+
+        /* Agrega el rango; cada bloque completo de 32 bytes se procesa en
+         * cuanto se tiene. */
+        @Override protected void agrega(byte[] bytes, int desplazamiento,
+                                        int longitud) {
+            int i = desplazamiento;
+            int fin = desplazamiento + longitud;
+            if (n > 0) {
+                int m = Math.min(32 - n, fin - i);
+                System.arraycopy(bytes, i, pendientes, n, m);
+                n += m;
+                i += m;
+                if (n < 32)
+                    return;
+                bloque(pendientes, 0);
+                n = 0;
+            }
+            for (; i + 32 <= fin; i += 32)
+                bloque(bytes, i);
+            n = fin - i;
+            System.arraycopy(bytes, i, pendientes, 0, n);
+        }
+
+        /* Procesa un bloque de 32 bytes. */
+        private void bloque(byte[] k, int i) {
+            v1 = Dispersores.ronda64(v1, (long)LARGO_LE.get(k, i));
+            v2 = Dispersores.ronda64(v2, (long)LARGO_LE.get(k, i + 8));
+            v3 = Dispersores.ronda64(v3, (long)LARGO_LE.get(k, i + 16));
+            v4 = Dispersores.ronda64(v4, (long)LARGO_LE.get(k, i + 24));
+        }
+
+        /* Regresa el resultado, procesando los bytes pendientes sobre una
+         * copia del estado y doblándolo a 32 bits. */
+        @Override public int digiere() {
+            long h = longitud >= 32 ?
+                Dispersores.acumula64(v1, v2, v3, v4) :
+                semilla + Dispersores.XXH64_P5;
+            h += longitud;
+            int i = 0;
+            for (; i + 8 <= n; i += 8) {
+                long k = Dispersores.ronda64(0, (long)LARGO_LE.get(pendientes,
+                                                                   i));
+                h = Long.rotateLeft(h ^ k, 27) * Dispersores.XXH64_P1 +
+                    Dispersores.XXH64_P4;
+            }
+            if (i + 4 <= n) {
+                long k = (int)ENTERO_LE.get(pendientes, i) & 0xffffffffL;
+                h = Long.rotateLeft(h ^ k * Dispersores.XXH64_P1, 23) *
+                    Dispersores.XXH64_P2 + Dispersores.XXH64_P3;
+                i += 4;
+            }
+            for (; i < n; i++)
+                h = Long.rotateLeft(h ^ (pendientes[i] & 0xffL) *
+                                    Dispersores.XXH64_P5, 11) *
+                    Dispersores.XXH64_P1;
+            h = Dispersores.avalancha64(h);
+            return (int)(h ^ (h >>> 32));
+        }
+
+        /* Regresa el dispersor a su estado inicial. */
+        @Override protected void inicializa() {
+            v1 = semilla + Dispersores.XXH64_P1 + Dispersores.XXH64_P2;
+            v2 = semilla + Dispersores.XXH64_P2;
+            v3 = semilla;
+            v4 = semilla - Dispersores.XXH64_P1;
+            n = 0;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Clase con las implementaciones de {@link DispersorLotes} para cada
+ * función de {@link Dispersores}. Las instancias se obtienen con {@link
+ * FabricaDispersores#dispersorLotes}.
+ */
+class DispersoresLotes {
+
+    /* Constructor privado para evitar instanciación. */
+    private DispersoresLotes() {}
+
+    /* Clase abstracta para los dispersores por lotes; revisa los
+     * argumentos y parte los lotes grandes. Las clases concretas sólo
+     * recorren un rango del lote, para que cada ciclo llame siempre a la
+     * misma función de Dispersores y el compilador pueda pegarla dentro. */
+    abstract static class Base implements DispersorLotes {
+
+        /* Clase interna privada para dispersar un rango de un lote en el
+         * ForkJoinPool. */
+        private class Tarea extends RecursiveAction {
+
+            /* Versión para la serialización. */
+            private static final long serialVersionUID = 1L;
+
+            /* Las llaves, si vienen en arreglos. */
+            private byte[][] llaves;
+            /* Los datos, si las llaves vienen empacadas. */
+            private byte[] datos;
+            /* Los desplazamientos, si las llaves vienen empacadas. */
+            private int[] desplazamientos;
+            /* Las dispersiones. */
+            private int[] dispersiones;
+            /* El índice de la primera llave del rango. */
+            private int desde;
+            /* El índice siguiente a la última llave del rango. */
+            private int hasta;
+
+            /* Construye una tarea para el rango. */
+            private Tarea(byte[][] llaves, byte[] datos,
+                          int[] desplazamientos, int[] dispersiones,
+                          int desde, int hasta) {
+                this.llaves = llaves;
+                this.datos = datos;
+                this.desplazamientos = desplazamientos;
+                this.dispersiones = dispersiones;
+                this.desde = desde;
+                this.hasta = hasta;
+            }
+
+            /* Dispersa el rango, o lo parte a la mitad. */
+            @Override protected void compute() {
+                if (hasta - desde <= UMBRAL) {
+                    if (llaves != null)
+                        lote(llaves, desde, hasta, dispersiones);
+                    else
+                        lote(datos, desplazamientos, desde, hasta,
+                             dispersiones);
+                    return;
+                }
+                int m = (desde + hasta) >>> 1;
+                invokeAll(new Tarea(llaves, datos, desplazamientos,
+                                    dispersiones, desde, m),
+                          new Tarea(llaves, datos, desplazamientos,
+                                    dispersiones, m, hasta));
+            }
+        }
+
+        /* Dispersa las llaves en [desde, hasta) de un arreglo. */
+        protected abstract void lote(byte[][] llaves, int desde, int hasta,
+                                     int[] dispersiones);
+
+        /* Dispersa las llaves empacadas en [desde, hasta). */
+        protected abstract void lote(byte[] datos, int[] desplazamientos,
+                                     int desde, int hasta,
+                                     int[] dispersiones);
+
+        /* Dispersa las llaves de un arreglo. */
+        @Override public void dispersa(byte[][] llaves, int[] dispersiones) {
+            revisaDispersiones(llaves.length, dispersiones);
+            if (llaves.length <= UMBRAL)
+                lote(llaves, 0, llaves.length, dispersiones);
+            else
+                ForkJoinPool.commonPool().invoke(
+                    new Tarea(llaves, null, null, dispersiones,
+                              0, llaves.length));
+        }
+
+        /* Dispersa las llaves empacadas en un arreglo de bytes. */
+        @Override public void dispersa(byte[] datos, int[] desplazamientos,
+                                       int[] dispersiones) {
+            int n = Math.max(0, desplazamientos.length - 1);
+            revisaDispersiones(n, dispersiones);
+            if (n <= UMBRAL)
+                lote(datos, desplazamientos, 0, n, dispersiones);
+            else
+                ForkJoinPool.commonPool().invoke(
+                    new Tarea(null, datos, desplazamientos, dispersiones,
+                              0, n));
+        }
+
+        /* Revisa que quepan n dispersiones en el arreglo. */
+        private void revisaDispersiones(int n, int[] dispersiones) {
+            if (dispersiones.length < n)
+                throw new IllegalArgumentException("No caben " + n +
+                                                   " dispersiones.");
+        }
+    }
+
+    /* Dispersor por lotes XOR. */
+    static class XOR extends Base {
+
+        @Override protected void lote(byte[][] llaves, int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++)
+                dispersiones[i] = Dispersores.dispersaXOR(llaves[i]);
+        }
+
+        @Override protected void lote(byte[] datos, int[] desplazamientos,
+                                      int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++) {
+                int d = desplazamientos[i];
+                dispersiones[i] =
+                    Dispersores.dispersaXOR(datos, d,
+                                            desplazamientos[i+1] - d);
+            }
+        }
+    }
+
+    /* Dispersor por lotes de Bob Jenkins. */
+    static class BJ extends Base {
+
+        /* La semilla. */
+        private int semilla;
+
+        /* Construye el dispersor con la semilla. */
+        BJ(int semilla) {
+            this.semilla = semilla;
+        }
+
+        @Override protected void lote(byte[][] llaves, int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++)
+                dispersiones[i] =
+                    Dispersores.dispersaBJ(llaves[i], 0, llaves[i].length,
+                                           semilla);
+        }
+
+        @Override protected void lote(byte[] datos, int[] desplazamientos,
+                                      int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++) {
+                int d = desplazamientos[i];
+                dispersiones[i] =
+                    Dispersores.dispersaBJ(datos, d,
+                                           desplazamientos[i+1] - d,
+                                           semilla);
+            }
+        }
+    }
+
+    /* Dispersor por lotes de Daniel J. Bernstein. */
+    static class DJB extends Base {
+
+        /* La semilla. */
+        private int semilla;
+
+        /* Construye el dispersor con la semilla. */
+        DJB(int semilla) {
+            this.semilla = semilla;
+        }
+
+        @Override protected void lote(byte[][] llaves, int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++)
+                dispersiones[i] =
+                    Dispersores.dispersaDJB(llaves[i], 0, llaves[i].length,
+                                            semilla);
+        }
+
+        @Override protected void lote(byte[] datos, int[] desplazamientos,
+                                      int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++) {
+                int d = desplazamientos[i];
+                dispersiones[i] =
+                    Dispersores.dispersaDJB(datos, d,
+                                            desplazamientos[i+1] - d,
+                                            semilla);
+            }
+        }
+    }
+
+    /* Dispersor por lotes SipHash-2-4. */
+    static class Sip extends Base {
+
+        /* Los primeros 64 bits de la llave secreta. */
+        private long k0;
+        /* Los últimos 64 bits de la llave secreta. */
+        private long k1;
+
+        /* Construye el dispersor con la llave secreta. */
+        Sip(long k0, long k1) {
+            this.k0 = k0;
+            this.k1 = k1;
+        }
+
+        @Override protected void lote(byte[][] llaves, int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++)
+                dispersiones[i] =
+                    Dispersores.dispersaSip(llaves[i], 0, llaves[i].length,
+                                            k0, k1);
+        }
+
+        @Override protected void lote(byte[] datos, int[] desplazamientos,
+                                      int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++) {
+                int d = desplazamientos[i];
+                dispersiones[i] =
+                    Dispersores.dispersaSip(datos, d,
+                                            desplazamientos[i+1] - d,
+                                            k0, k1);
+            }
+        }
+    }
+
+    /* Dispersor por lotes CRC-32C. */
+    static class CRC extends Base {
+
+        /* La semilla. */
+        private int semilla;
+
+        /* Construye el dispersor con la semilla. */
+        CRC(int semilla) {
+            this.semilla = semilla;
+        }
+
+        @Override protected void lote(byte[][] llaves, int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++)
+                dispersiones[i] =
+                    Dispersores.dispersaCRC32C(llaves[i], 0, llaves[i].length,
+                                               semilla);
+        }
+
+        @Override protected void lote(byte[] datos, int[] desplazamientos,
+                                      int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++) {
+                int d = desplazamientos[i];
+                dispersiones[i] =
+                    Dispersores.dispersaCRC32C(datos, d,
+                                               desplazamientos[i+1] - d,
+                                               semilla);
+            }
+        }
+    }
+
+    /* Dispersor por lotes xxHash32. */
+    static class XXH32 extends Base {
+
+        /* La semilla. */
+        private int semilla;
+
+        /* Construye el dispersor con la semilla. */
+        XXH32(int semilla) {
+            this.semilla = semilla;
+        }
+
+        @Override protected void lote(byte[][] llaves, int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++)
+                dispersiones[i] =
+                    Dispersores.dispersaXXH32(llaves[i], 0, llaves[i].length,
+                                              semilla);
+        }
+
+        @Override protected void lote(byte[] datos, int[] desplazamientos,
+                                      int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++) {
+                int d = desplazamientos[i];
+                dispersiones[i] =
+                    Dispersores.dispersaXXH32(datos, d,
+                                              desplazamientos[i+1] - d,
+                                              semilla);
+            }
+        }
+    }
+
+    /* Dispersor por lotes xxHash64. */
+    static class XXH64 extends Base {
+
+        /* La semilla. */
+        private long semilla;
+
+        /* Construye el dispersor con la semilla. */
+        XXH64(long semilla) {
+            this.semilla = semilla;
+        }
+
+        @Override protected void lote(byte[][] llaves, int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++)
+                dispersiones[i] =
+                    Dispersores.dispersaXXH64(llaves[i], 0, llaves[i].length,
+                                              semilla);
+        }
+
+        @Override protected void lote(byte[] datos, int[] desplazamientos,
+                                      int desde, int hasta,
+                                      int[] dispersiones) {
+            for (int i = desde; i < hasta; i++) {
+                int d = desplazamientos[i];
+                dispersiones[i] =
+                    Dispersores.dispersaXXH64(datos, d,
+                                              desplazamientos[i+1] - d,
+                                              semilla);
+            }
+        }
+    }
+}
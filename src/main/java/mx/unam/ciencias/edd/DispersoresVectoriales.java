@@ -0,0 +1,153 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para métodos estáticos con versiones vectoriales de los
+ * dispersores XOR y de Daniel J. Bernstein. Los resultados son siempre los
+ * mismos que los de {@link Dispersores#dispersaXOR(byte[],int,int)} y
+ * {@link Dispersores#dispersaDJB(byte[],int,int,int)}; sólo cambia la
+ * velocidad con llaves largas.</p>
+ *
+ * <p>El núcleo vectorial usa la API de vectores incubada en
+ * <code>jdk.incubator.vector</code>, y vive en un directorio de fuentes
+ * aparte (<code>src/vector/java</code>) que sólo se compila con el perfil
+ * <code>vector</code> de Maven, con Java 17 o posterior. Para usarlo hay que
+ * correr la máquina virtual con <code>--add-modules
+ * jdk.incubator.vector</code>. Si el núcleo no se compiló, el módulo no está
+ * disponible, o el procesador no tiene vectores de al menos 128 bits, la
+ * clase usa en su lugar las funciones escalares de {@link Dispersores}, sin
+ * que el código que la llama tenga que enterarse.</p>
+ */
+public class DispersoresVectoriales {
+
+    /**
+     * Interfaz para los núcleos de los dispersores. Los métodos reciben
+     * rangos ya revisados.
+     */
+    interface Nucleo {
+
+        /**
+         * Función de dispersión XOR sobre un rango de un arreglo de bytes.
+         * @param llave el arreglo que contiene a la llave.
+         * @param desplazamiento el índice del primer byte de la llave.
+         * @param longitud el número de bytes de la llave.
+         * @return la dispersión de XOR del rango de la llave.
+         */
+        int dispersaXOR(byte[] llave, int desplazamiento, int longitud);
+
+        /**
+         * Función de dispersión de Daniel J. Bernstein con semilla sobre un
+         * rango de un arreglo de bytes.
+         * @param llave el arreglo que contiene a la llave.
+         * @param desplazamiento el índice del primer byte de la llave.
+         * @param longitud el número de bytes de la llave.
+         * @param semilla la semilla.
+         * @return la dispersión de Daniel Bernstein del rango de la llave.
+         */
+        int dispersaDJB(byte[] llave, int desplazamiento, int longitud,
+                        int semilla);
+    }
+
+    /* El nombre de la clase del núcleo vectorial. */
+    private static final String VECTORIAL =
+        "mx.unam.ciencias.edd.NucleoVectorial";
+
+    /* El núcleo escalar. */
+    private static final Nucleo ESCALAR = new Nucleo() {
+            @Override public int dispersaXOR(byte[] llave, int desplazamiento,
+                                             int longitud) {
+                return Dispersores.dispersaXOR(llave, desplazamiento,
+                                               longitud);
+            }
+            @Override public int dispersaDJB(byte[] llave, int desplazamiento,
+                                             int longitud, int semilla) {
+                return Dispersores.dispersaDJB(llave, desplazamiento,
+                                               longitud, semilla);
+            }
+        };
+
+    /* El núcleo que se usa. */
+    private static final Nucleo NUCLEO = cargaNucleo();
+
+    /* Constructor privado para evitar instanciación. */
+    private DispersoresVectoriales() {}
+
+    /* Carga el núcleo vectorial, o regresa el escalar si no se puede. */
+    private static Nucleo cargaNucleo() {
+        try {
+            Class<?> clase = Class.forName(VECTORIAL);
+            return (Nucleo)clase.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError |
+                 UnsupportedOperationException e) {
+            return ESCALAR;
+        }
+    }
+
+    /**
+     * Nos dice si los dispersores usan el núcleo vectorial.
+     * @return <code>true</code> si los dispersores usan el núcleo vectorial,
+     *         <code>false</code> si usan las funciones escalares.
+     */
+    public static boolean esVectorial() {
+        return NUCLEO != ESCALAR;
+    }
+
+    /**
+     * Función de dispersión XOR.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de XOR de la llave.
+     */
+    public static int dispersaXOR(byte[] llave) {
+        return NUCLEO.dispersaXOR(llave, 0, llave.length);
+    }
+
+    /**
+     * Función de dispersión XOR sobre un rango de un arreglo de bytes.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de XOR del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaXOR(byte[] llave, int desplazamiento,
+                                  int longitud) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        return NUCLEO.dispersaXOR(llave, desplazamiento, longitud);
+    }
+
+    /**
+     * Función de dispersión de Daniel J. Bernstein.
+     * @param llave la llave a dispersar.
+     * @return la dispersión de Daniel Bernstein de la llave.
+     */
+    public static int dispersaDJB(byte[] llave) {
+        return NUCLEO.dispersaDJB(llave, 0, llave.length, 0);
+    }
+
+    /**
+     * Función de dispersión de Daniel J. Bernstein con semilla sobre un
+     * rango de un arreglo de bytes.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de Daniel Bernstein del rango de la llave.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public static int dispersaDJB(byte[] llave, int desplazamiento,
+                                  int longitud, int semilla) {
+        revisaRango(llave.length, desplazamiento, longitud);
+        return NUCLEO.dispersaDJB(llave, desplazamiento, longitud, semilla);
+    }
+
+    /* Revisa que el rango esté contenido en el total. */
+    private static void revisaRango(int total, int desplazamiento,
+                                    int longitud) {
+        if (desplazamiento < 0 || longitud < 0 ||
+            desplazamiento > total - longitud)
+            throw new ExcepcionIndiceInvalido("Rango inválido: " +
+                                              desplazamiento + ", " +
+                                              longitud);
+    }
+}
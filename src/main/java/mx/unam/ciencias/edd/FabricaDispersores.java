@@ -1,15 +1,75 @@
 package mx.unam.ciencias.edd;
 
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+
 /**
  * Clase para fabricar dispersores.
  */
 public class FabricaDispersores {
 
+    /* Clase estática privada para búferes de codificación UTF-8. Cada hilo
+     * tiene el suyo, que reutiliza en cada dispersión. */
+    private static class BufferUTF8 {
+
+        /* Los bytes del búfer. */
+        private byte[] bytes = new byte[64];
+
+        /* Codifica la cadena en UTF-8 en el búfer y regresa el número de
+         * bytes escritos. Los sustitutos sin pareja se codifican como '?',
+         * igual que String.getBytes(StandardCharsets.UTF_8). */
+        private int codifica(String cadena) {
+            int n = cadena.length();
+            if (bytes.length < 3 * n)
+                bytes = new byte[Math.max(3 * n, 2 * bytes.length)];
+            int j = 0;
+            for (int i = 0; i < n; i++) {
+                char c = cadena.charAt(i);
+                if (c < 0x80) {
+                    bytes[j++] = (byte)c;
+                } else if (c < 0x800) {
+                    bytes[j++] = (byte)(0xc0 | (c >> 6));
+                    bytes[j++] = (byte)(0x80 | (c & 0x3f));
+                } else if (!Character.isSurrogate(c)) {
+                    bytes[j++] = (byte)(0xe0 | (c >> 12));
+                    bytes[j++] = (byte)(0x80 | ((c >> 6) & 0x3f));
+                    bytes[j++] = (byte)(0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < n &&
+                           Character.isLowSurrogate(cadena.charAt(i+1))) {
+                    int p = Character.toCodePoint(c, cadena.charAt(++i));
+                    bytes[j++] = (byte)(0xf0 | (p >> 18));
+                    bytes[j++] = (byte)(0x80 | ((p >> 12) & 0x3f));
+                    bytes[j++] = (byte)(0x80 | ((p >> 6) & 0x3f));
+                    bytes[j++] = (byte)(0x80 | (p & 0x3f));
+                } else {
+                    bytes[j++] = (byte)'?';
+                }
+            }
+            return j;
+        }
+    }
+
+    /* La razón dorada en 64 bits, para derivar la segunda mitad de las
+     * llaves de SipHash. */
+    static final long DORADO = 0x9e3779b97f4a7c15L;
+
+    /* Generador de semillas aleatorias. */
+    private static final SecureRandom SEMILLAS = new SecureRandom();
+
+    /* Los búferes de codificación de cada hilo. */
+    private static final ThreadLocal<BufferUTF8> BUFFERS =
+        ThreadLocal.withInitial(BufferUTF8::new);
+
     /* Constructor privado para evitar instanciación. */
     private FabricaDispersores() {}
 
     /**
-     * Regresa una instancia de {@link Dispersor} para cadenas.
+     * Regresa una instancia de {@link Dispersor} para cadenas. Las cadenas se
+     * dispersan sobre su codificación en UTF-8, independientemente de la
+     * codificación de la plataforma; la codificación se hace en un búfer
+     * reutilizable de cada hilo, por lo que dispersar una cadena no crea
+     * objetos nuevos. El dispersor es el mismo que regresa {@link
+     * #dispersorCadena(AlgoritmoDispersor,long)} con semilla 0.
      * @param algoritmo el algoritmo de dispersor que se desea.
      * @return una instancia de {@link Dispersor} para cadenas.
      * @throws IllegalArgumentException si recibe un identificador no
@@ -17,14 +77,376 @@ public class FabricaDispersores {
      */
     public static Dispersor<String>
     dispersorCadena(AlgoritmoDispersor algoritmo) {
+        return dispersorCadena(algoritmo, 0L);
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor} para cadenas con la semilla
+     * recibida. Dispersores con semillas distintas reparten las cadenas de
+     * forma distinta, así que cada tabla puede usar la suya. Para {@link
+     * AlgoritmoDispersor#SIP_STRING} la semilla determina la llave secreta de
+     * 128 bits; es el único algoritmo en el que no es factible construir
+     * cadenas que choquen sin conocer la semilla.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param semilla la semilla del dispersor.
+     * @return una instancia de {@link Dispersor} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o una semilla distinta de 0 para {@link
+     *         AlgoritmoDispersor#XOR_STRING}, que no admite semillas.
+     */
+    public static Dispersor<String>
+    dispersorCadena(AlgoritmoDispersor algoritmo, long semilla) {
+        int s = semilla32(semilla);
+        switch (algoritmo) {
+        case XOR_STRING:
+            if (semilla != 0L)
+                throw new IllegalArgumentException("El algoritmo XOR no " +
+                                                   "admite semilla.");
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaXOR(b.bytes, 0, n);
+            };
+        case BJ_STRING:
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaBJ(b.bytes, 0, n, s);
+            };
+        case DJB_STRING:
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaDJB(b.bytes, 0, n, s);
+            };
+        case SIP_STRING:
+            long k0 = mezcla(semilla);
+            long k1 = mezcla(semilla + DORADO);
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaSip(b.bytes, 0, n, k0, k1);
+            };
+        case CRC32C_STRING:
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaCRC32C(b.bytes, 0, n, s);
+            };
+        case XXH32_STRING:
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaXXH32(b.bytes, 0, n, s);
+            };
+        case XXH64_STRING:
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaXXH64(b.bytes, 0, n, semilla);
+            };
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor} para cadenas con una semilla
+     * aleatoria, obtenida de un generador criptográficamente seguro.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @return una instancia de {@link Dispersor} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o {@link AlgoritmoDispersor#XOR_STRING}, que no
+     *         admite semillas.
+     */
+    public static Dispersor<String>
+    dispersorCadenaAleatorio(AlgoritmoDispersor algoritmo) {
+        long semilla;
+        do {
+            semilla = SEMILLAS.nextLong();
+        } while (semilla == 0L);
+        return dispersorCadena(algoritmo, semilla);
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor} para búferes de bytes con el
+     * algoritmo y la semilla recibidos. El dispersor dispersa los bytes
+     * restantes del búfer (de su posición a su límite) sin copiarlos ni
+     * modificar la posición, así que sirve para búferes directos o mapeados
+     * a memoria. Con la misma semilla, dispersa los bytes igual que el
+     * dispersor de {@link #dispersorCadena(AlgoritmoDispersor,long)}
+     * dispersa la codificación en UTF-8 de una cadena.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param semilla la semilla del dispersor.
+     * @return una instancia de {@link Dispersor} para búferes de bytes.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o una semilla distinta de 0 para {@link
+     *         AlgoritmoDispersor#XOR_STRING}, que no admite semillas.
+     */
+    public static Dispersor<ByteBuffer>
+    dispersorBuffer(AlgoritmoDispersor algoritmo, long semilla) {
+        int s = semilla32(semilla);
         switch (algoritmo) {
         case XOR_STRING:
-            return c -> Dispersores.dispersaXOR(c.getBytes());
+            if (semilla != 0L)
+                throw new IllegalArgumentException("El algoritmo XOR no " +
+                                                   "admite semilla.");
+            return b -> Dispersores.dispersaXOR(b, b.position(),
+                                                b.remaining());
         case BJ_STRING:
-            return c -> Dispersores.dispersaBJ(c.getBytes());
+            return b -> Dispersores.dispersaBJ(b, b.position(),
+                                               b.remaining(), s);
         case DJB_STRING:
-            return c -> Dispersores.dispersaDJB(c.getBytes());
+            return b -> Dispersores.dispersaDJB(b, b.position(),
+                                                b.remaining(), s);
+        case SIP_STRING:
+            long k0 = mezcla(semilla);
+            long k1 = mezcla(semilla + DORADO);
+            return b -> Dispersores.dispersaSip(b, b.position(),
+                                                b.remaining(), k0, k1);
+        case CRC32C_STRING:
+            return b -> Dispersores.dispersaCRC32C(b, b.position(),
+                                                   b.remaining(), s);
+        case XXH32_STRING:
+            return b -> Dispersores.dispersaXXH32(b, b.position(),
+                                                  b.remaining(), s);
+        case XXH64_STRING:
+            return b -> Dispersores.dispersaXXH64(b, b.position(),
+                                                  b.remaining(), semilla);
         default: throw new IllegalArgumentException("Algoritmo inválido");
         }
     }
+
+    /* Regresa un dispersor para cualquier objeto con el algoritmo y la
+     * semilla: las cadenas y los arreglos de bytes se dispersan con el
+     * algoritmo sobre su contenido, y los demás objetos mezclando su
+     * hashCode con la semilla y el algoritmo, así que para ellos dos objetos
+     * con el mismo hashCode siempre chocan. */
+    static <T> Dispersor<T> dispersorObjeto(AlgoritmoDispersor algoritmo,
+                                            long semilla) {
+        Dispersor<String> cadena = dispersorCadena(algoritmo, semilla);
+        Dispersor<ByteBuffer> bytes = dispersorBuffer(algoritmo, semilla);
+        long k = mezcla(semilla + (algoritmo.ordinal() + 1) * DORADO);
+        return e -> {
+            if (e instanceof String)
+                return cadena.dispersa((String)e);
+            if (e instanceof byte[])
+                return bytes.dispersa(ByteBuffer.wrap((byte[])e));
+            return (int)mezcla(e.hashCode() ^ k);
+        };
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor64} para cadenas. El
+     * dispersor es el mismo que regresa {@link
+     * #dispersorCadena64(AlgoritmoDispersor,long)} con semilla 0.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @return una instancia de {@link Dispersor64} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o un algoritmo sin versión de 64 bits.
+     */
+    public static Dispersor64<String>
+    dispersorCadena64(AlgoritmoDispersor algoritmo) {
+        return dispersorCadena64(algoritmo, 0L);
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor64} para cadenas con la
+     * semilla recibida. Las cadenas se dispersan sobre su codificación en
+     * UTF-8 sin crear objetos nuevos, igual que con {@link
+     * #dispersorCadena(AlgoritmoDispersor,long)}. Tienen versión de 64 bits
+     * {@link AlgoritmoDispersor#BJ_STRING} (con lookup3, la sucesora de la
+     * función de 32 bits), {@link AlgoritmoDispersor#DJB_STRING}, {@link
+     * AlgoritmoDispersor#SIP_STRING} y {@link
+     * AlgoritmoDispersor#XXH64_STRING}; para estos dos últimos, la
+     * dispersión de 32 bits del dispersor es la misma que la del dispersor
+     * de {@link #dispersorCadena(AlgoritmoDispersor,long)}.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param semilla la semilla del dispersor.
+     * @return una instancia de {@link Dispersor64} para cadenas.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o un algoritmo sin versión de 64 bits.
+     */
+    public static Dispersor64<String>
+    dispersorCadena64(AlgoritmoDispersor algoritmo, long semilla) {
+        switch (algoritmo) {
+        case BJ_STRING:
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaBJ64(b.bytes, 0, n, semilla);
+            };
+        case DJB_STRING:
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaDJB64(b.bytes, 0, n, semilla);
+            };
+        case SIP_STRING:
+            long k0 = mezcla(semilla);
+            long k1 = mezcla(semilla + DORADO);
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaSip64(b.bytes, 0, n, k0, k1);
+            };
+        case XXH64_STRING:
+            return c -> {
+                BufferUTF8 b = BUFFERS.get();
+                int n = b.codifica(c);
+                return Dispersores.dispersaXXH64Completa(b.bytes, 0, n,
+                                                         semilla);
+            };
+        default: throw new IllegalArgumentException("Algoritmo sin versión " +
+                                                    "de 64 bits");
+        }
+    }
+
+    /**
+     * Regresa una instancia de {@link Dispersor64} para búferes de bytes con
+     * el algoritmo y la semilla recibidos. El dispersor dispersa los bytes
+     * restantes del búfer sin copiarlos ni modificar la posición; con la
+     * misma semilla, dispersa los bytes igual que el dispersor de {@link
+     * #dispersorCadena64(AlgoritmoDispersor,long)} dispersa la codificación
+     * en UTF-8 de una cadena.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param semilla la semilla del dispersor.
+     * @return una instancia de {@link Dispersor64} para búferes de bytes.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o un algoritmo sin versión de 64 bits.
+     */
+    public static Dispersor64<ByteBuffer>
+    dispersorBuffer64(AlgoritmoDispersor algoritmo, long semilla) {
+        switch (algoritmo) {
+        case BJ_STRING:
+            return b -> Dispersores.dispersaBJ64(b, b.position(),
+                                                 b.remaining(), semilla);
+        case DJB_STRING:
+            return b -> Dispersores.dispersaDJB64(b, b.position(),
+                                                  b.remaining(), semilla);
+        case SIP_STRING:
+            long k0 = mezcla(semilla);
+            long k1 = mezcla(semilla + DORADO);
+            return b -> Dispersores.dispersaSip64(b, b.position(),
+                                                  b.remaining(), k0, k1);
+        case XXH64_STRING:
+            return b -> Dispersores.dispersaXXH64Completa(b, b.position(),
+                                                          b.remaining(),
+                                                          semilla);
+        default: throw new IllegalArgumentException("Algoritmo sin versión " +
+                                                    "de 64 bits");
+        }
+    }
+
+    /**
+     * Regresa un {@link DispersorIncremental} con el algoritmo recibido. Su
+     * resultado es el mismo que el de la función de {@link Dispersores}
+     * correspondiente sobre todos los bytes agregados.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @return un nuevo dispersor incremental.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     */
+    public static DispersorIncremental
+    dispersorIncremental(AlgoritmoDispersor algoritmo) {
+        return dispersorIncremental(algoritmo, 0L);
+    }
+
+    /**
+     * Regresa un {@link DispersorIncremental} con el algoritmo y la semilla
+     * recibidos. Con la misma semilla, dispersa los bytes agregados igual
+     * que el dispersor de {@link #dispersorCadena(AlgoritmoDispersor,long)}
+     * dispersa la codificación en UTF-8 de una cadena.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param semilla la semilla del dispersor.
+     * @return un nuevo dispersor incremental.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o una semilla distinta de 0 para {@link
+     *         AlgoritmoDispersor#XOR_STRING}, que no admite semillas.
+     */
+    public static DispersorIncremental
+    dispersorIncremental(AlgoritmoDispersor algoritmo, long semilla) {
+        switch (algoritmo) {
+        case XOR_STRING:
+            if (semilla != 0L)
+                throw new IllegalArgumentException("El algoritmo XOR no " +
+                                                   "admite semilla.");
+            return new DispersoresIncrementales.XOR();
+        case BJ_STRING:
+            return new DispersoresIncrementales.BJ(semilla32(semilla));
+        case DJB_STRING:
+            return new DispersoresIncrementales.DJB(semilla32(semilla));
+        case SIP_STRING:
+            return new DispersoresIncrementales.Sip(mezcla(semilla),
+                                                    mezcla(semilla + DORADO));
+        case CRC32C_STRING:
+            return new DispersoresIncrementales.CRC(semilla32(semilla));
+        case XXH32_STRING:
+            return new DispersoresIncrementales.XXH32(semilla32(semilla));
+        case XXH64_STRING:
+            return new DispersoresIncrementales.XXH64(semilla);
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /**
+     * Regresa un {@link DispersorLotes} con el algoritmo recibido. El
+     * dispersor es el mismo que regresa {@link
+     * #dispersorLotes(AlgoritmoDispersor,long)} con semilla 0.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @return un dispersor por lotes.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido.
+     */
+    public static DispersorLotes
+    dispersorLotes(AlgoritmoDispersor algoritmo) {
+        return dispersorLotes(algoritmo, 0L);
+    }
+
+    /**
+     * Regresa un {@link DispersorLotes} con el algoritmo y la semilla
+     * recibidos. Con la misma semilla, dispersa cada llave igual que el
+     * dispersor de {@link #dispersorBuffer}.
+     * @param algoritmo el algoritmo de dispersor que se desea.
+     * @param semilla la semilla del dispersor.
+     * @return un dispersor por lotes.
+     * @throws IllegalArgumentException si recibe un identificador no
+     *         reconocido, o una semilla distinta de 0 para {@link
+     *         AlgoritmoDispersor#XOR_STRING}, que no admite semillas.
+     */
+    public static DispersorLotes
+    dispersorLotes(AlgoritmoDispersor algoritmo, long semilla) {
+        switch (algoritmo) {
+        case XOR_STRING:
+            if (semilla != 0L)
+                throw new IllegalArgumentException("El algoritmo XOR no " +
+                                                   "admite semilla.");
+            return new DispersoresLotes.XOR();
+        case BJ_STRING:
+            return new DispersoresLotes.BJ(semilla32(semilla));
+        case DJB_STRING:
+            return new DispersoresLotes.DJB(semilla32(semilla));
+        case SIP_STRING:
+            return new DispersoresLotes.Sip(mezcla(semilla),
+                                            mezcla(semilla + DORADO));
+        case CRC32C_STRING:
+            return new DispersoresLotes.CRC(semilla32(semilla));
+        case XXH32_STRING:
+            return new DispersoresLotes.XXH32(semilla32(semilla));
+        case XXH64_STRING:
+            return new DispersoresLotes.XXH64(semilla);
+        default: throw new IllegalArgumentException("Algoritmo inválido");
+        }
+    }
+
+    /* Reduce una semilla a 32 bits. */
+    private static int semilla32(long semilla) {
+        return (int)(semilla ^ (semilla >>> 32));
+    }
+
+    /* Mezcla los bits de un entero largo (el finalizador de SplitMix64). */
+    static long mezcla(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
 }
@@ -0,0 +1,303 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para filtros de Bloom. Un filtro de Bloom representa un conjunto
+ * de forma aproximada: puede decir que contiene un elemento que nunca se le
+ * agregó (un falso positivo), pero nunca dice que no contiene un elemento
+ * que sí se le agregó. A cambio, usa unos cuantos bits por elemento y
+ * agregar o buscar cuesta unos cuantos accesos a memoria, así que sirve para
+ * descartar rápido los elementos que casi nunca están antes de buscarlos en
+ * una estructura más cara.</p>
+ *
+ * <p>Cada elemento prende <em>k</em> de las <em>m</em> casillas del filtro.
+ * Los <em>k</em> índices se obtienen de sólo dos dispersiones
+ * <em>h<sub>1</sub></em> y <em>h<sub>2</sub></em> con doble dispersión
+ * mejorada, módulo <em>m</em>: el primer índice <em>x</em> sale de
+ * <em>h<sub>1</sub></em> y un incremento <em>y</em> de
+ * <em>h<sub>2</sub></em>; en el paso <em>i</em> = 1, 2, … el incremento
+ * crece en <em>i</em> y el índice avanza el incremento. Así, aunque
+ * <em>h<sub>2</sub></em> sea constante, los índices de un elemento son
+ * <em>x</em>, <em>x</em> + 1, <em>x</em> + 4, <em>x</em> + 10, …, que no se
+ * repiten mientras no den la vuelta al filtro.</p>
+ *
+ * <p>Por omisión las dispersiones son las de Bob Jenkins y Daniel J.
+ * Bernstein de {@link Dispersores} sobre el contenido de las cadenas y los
+ * arreglos de bytes; cualquier otro elemento se dispersa mezclando su
+ * {@link Object#hashCode} a 64 bits, así que elementos con la misma
+ * dispersión de Java comparten todas sus casillas. Ninguna crea cadenas, y
+ * también se pueden usar dispersores propios.</p>
+ *
+ * <p>Las casillas se guardan en un arreglo de enteros largos.</p>
+ */
+public class FiltroBloom<T> {
+
+    /* Los bits de las casillas. */
+    protected long[] bits;
+    /* El número de casillas. */
+    protected int casillas;
+    /* El número de funciones de dispersión. */
+    protected int funciones;
+    /* El número de elementos agregados. */
+    protected long elementos;
+    /* El primer dispersor. */
+    private Dispersor<T> primero;
+    /* El segundo dispersor. */
+    private Dispersor<T> segundo;
+
+    /**
+     * Construye un filtro de Bloom para el número de elementos esperado y la
+     * probabilidad de falsos positivos deseada, con los dispersores por
+     * omisión.
+     * @param elementos el número de elementos que se espera agregar.
+     * @param probabilidad la probabilidad de falsos positivos deseada con
+     *        ese número de elementos.
+     * @throws IllegalArgumentException si el número de elementos no es
+     *         positivo, o la probabilidad no está en (0, 1).
+     */
+    public FiltroBloom(long elementos, double probabilidad) {
+        this(elementos, probabilidad, null, null);
+    }
+
+    /**
+     * Construye un filtro de Bloom para el número de elementos esperado y la
+     * probabilidad de falsos positivos deseada, con los dispersores
+     * recibidos.
+     * @param elementos el número de elementos que se espera agregar.
+     * @param probabilidad la probabilidad de falsos positivos deseada con
+     *        ese número de elementos.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor.
+     * @throws IllegalArgumentException si el número de elementos no es
+     *         positivo, o la probabilidad no está en (0, 1).
+     */
+    public FiltroBloom(long elementos, double probabilidad,
+                       Dispersor<T> primero, Dispersor<T> segundo) {
+        this(casillas(elementos, probabilidad),
+             funciones(elementos, casillas(elementos, probabilidad)),
+             primero, segundo);
+    }
+
+    /**
+     * Construye un filtro de Bloom con el número de casillas y de funciones
+     * de dispersión recibidos.
+     * @param casillas el número de casillas (bits) del filtro.
+     * @param funciones el número de funciones de dispersión.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor.
+     * @throws IllegalArgumentException si el número de casillas o de
+     *         funciones no es positivo.
+     */
+    public FiltroBloom(int casillas, int funciones,
+                       Dispersor<T> primero, Dispersor<T> segundo) {
+        this(casillas, funciones, 1, primero, segundo);
+    }
+
+    /**
+     * Construye un filtro de Bloom con casillas de la anchura recibida; las
+     * clases herederas con casillas de más de un bit deben usar este
+     * constructor y sobrecargar {@link #prende} y {@link #prendida}. Si algún
+     * dispersor es <code>null</code>, se usan los dispersores por omisión.
+     * @param casillas el número de casillas del filtro.
+     * @param funciones el número de funciones de dispersión.
+     * @param anchura el número de bits por casilla; debe dividir a 64.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor.
+     * @throws IllegalArgumentException si el número de casillas o de
+     *         funciones no es positivo, o si la anchura no divide a 64.
+     */
+    protected FiltroBloom(int casillas, int funciones, int anchura,
+                          Dispersor<T> primero, Dispersor<T> segundo) {
+        if (casillas <= 0 || funciones <= 0)
+            throw new IllegalArgumentException("Casillas o funciones " +
+                                               "inválidas.");
+        if (anchura <= 0 || 64 % anchura != 0)
+            throw new IllegalArgumentException("Anchura inválida.");
+        this.casillas = casillas;
+        this.funciones = funciones;
+        bits = new long[(int)(((long)casillas * anchura + 63) / 64)];
+        if (primero == null || segundo == null) {
+            primero = FabricaDispersores
+                .dispersorObjeto(AlgoritmoDispersor.BJ_STRING, 0L);
+            segundo = FabricaDispersores
+                .dispersorObjeto(AlgoritmoDispersor.DJB_STRING, 0L);
+        }
+        this.primero = primero;
+        this.segundo = segundo;
+    }
+
+    /**
+     * Regresa el número de casillas óptimo para el número de elementos y la
+     * probabilidad de falsos positivos: -<em>n</em> ln <em>p</em> / (ln
+     * 2)<sup>2</sup>.
+     * @param elementos el número de elementos que se espera agregar.
+     * @param probabilidad la probabilidad de falsos positivos deseada.
+     * @return el número de casillas óptimo.
+     * @throws IllegalArgumentException si el número de elementos no es
+     *         positivo, la probabilidad no está en (0, 1), o si el número de
+     *         casillas no cabe en un entero.
+     */
+    public static int casillas(long elementos, double probabilidad) {
+        if (elementos <= 0 || !(probabilidad > 0.0 && probabilidad < 1.0))
+            throw new IllegalArgumentException("Elementos o probabilidad " +
+                                               "inválidos.");
+        double m = Math.ceil(-elementos * Math.log(probabilidad) /
+                             (Math.log(2) * Math.log(2)));
+        if (m > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Demasiadas casillas.");
+        return (int)m;
+    }
+
+    /**
+     * Regresa el número de funciones de dispersión óptimo para el número de
+     * elementos y de casillas: (<em>m</em>/<em>n</em>) ln 2, redondeado.
+     * @param elementos el número de elementos que se espera agregar.
+     * @param casillas el número de casillas.
+     * @return el número de funciones de dispersión óptimo, al menos 1.
+     * @throws IllegalArgumentException si el número de elementos no es
+     *         positivo.
+     */
+    public static int funciones(long elementos, int casillas) {
+        if (elementos <= 0)
+            throw new IllegalArgumentException("Elementos inválidos.");
+        return (int)Math.max(1, Math.round((double)casillas / elementos *
+                                           Math.log(2)));
+    }
+
+    /**
+     * Agrega un elemento al filtro.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public void agrega(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("El elemento es nulo.");
+        int x = indice(primero.dispersa(elemento));
+        int y = indice(segundo.dispersa(elemento));
+        for (int i = 1; i <= funciones; i++) {
+            prende(x);
+            y = suma(y, i);
+            x = suma(x, y);
+        }
+        elementos++;
+    }
+
+    /**
+     * Nos dice si el filtro posiblemente contiene un elemento. Si regresa
+     * <code>false</code>, el elemento seguro nunca se agregó; si regresa
+     * <code>true</code>, el elemento se agregó o es un falso positivo.
+     * @param elemento el elemento que queremos saber si está.
+     * @return <code>true</code> si el elemento posiblemente está en el
+     *         filtro, <code>false</code> si seguro no está.
+     */
+    public boolean contiene(T elemento) {
+        if (elemento == null)
+            return false;
+        int x = indice(primero.dispersa(elemento));
+        int y = indice(segundo.dispersa(elemento));
+        for (int i = 1; i <= funciones; i++) {
+            if (!prendida(x))
+                return false;
+            y = suma(y, i);
+            x = suma(x, y);
+        }
+        return true;
+    }
+
+    /**
+     * Vacía el filtro.
+     */
+    public void limpia() {
+        for (int i = 0; i < bits.length; i++)
+            bits[i] = 0L;
+        elementos = 0;
+    }
+
+    /**
+     * Regresa el número de casillas del filtro.
+     * @return el número de casillas del filtro.
+     */
+    public int getCasillas() {
+        return casillas;
+    }
+
+    /**
+     * Regresa el número de funciones de dispersión del filtro.
+     * @return el número de funciones de dispersión del filtro.
+     */
+    public int getFunciones() {
+        return funciones;
+    }
+
+    /**
+     * Regresa el número de veces que se ha agregado un elemento al filtro.
+     * @return el número de elementos agregados.
+     */
+    public long getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Estima la probabilidad actual de falsos positivos, a partir de la
+     * proporción de casillas prendidas.
+     * @return la probabilidad estimada de falsos positivos.
+     */
+    public double probabilidadFalsos() {
+        long prendidas = 0;
+        for (int i = 0; i < casillas; i++)
+            if (prendida(i))
+                prendidas++;
+        return Math.pow((double)prendidas / casillas, funciones);
+    }
+
+    /**
+     * Regresa los índices de las casillas que le corresponden a un
+     * elemento, en el orden en que se prenden.
+     * @param elemento el elemento.
+     * @return un arreglo con los índices de las casillas del elemento.
+     */
+    protected int[] indices(T elemento) {
+        int[] indices = new int[funciones];
+        int x = indice(primero.dispersa(elemento));
+        int y = indice(segundo.dispersa(elemento));
+        for (int i = 1; i <= funciones; i++) {
+            indices[i-1] = x;
+            y = suma(y, i);
+            x = suma(x, y);
+        }
+        return indices;
+    }
+
+    /**
+     * Prende una casilla.
+     * @param indice el índice de la casilla.
+     */
+    protected void prende(int indice) {
+        bits[indice >>> 6] |= 1L << indice;
+    }
+
+    /**
+     * Nos dice si una casilla está prendida.
+     * @param indice el índice de la casilla.
+     * @return <code>true</code> si la casilla está prendida,
+     *         <code>false</code> en otro caso.
+     */
+    protected boolean prendida(int indice) {
+        return (bits[indice >>> 6] & (1L << indice)) != 0;
+    }
+
+    /**
+     * Regresa la casilla que le corresponde a una dispersión. Se toma la
+     * parte alta del producto de la dispersión sin signo por el número de
+     * casillas, lo que reparte uniformemente sin usar módulo.
+     * @param dispersion la dispersión.
+     * @return el índice de la casilla de la dispersión.
+     */
+    protected int indice(int dispersion) {
+        return (int)(((dispersion & 0xffffffffL) * casillas) >>> 32);
+    }
+
+    /* Suma dos enteros no negativos módulo el número de casillas. */
+    private int suma(int a, int b) {
+        return (int)(((long)a + b) % casillas);
+    }
+}
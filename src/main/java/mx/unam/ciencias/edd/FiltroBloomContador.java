@@ -0,0 +1,117 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para filtros de Bloom con contadores. Cada casilla es un
+ * contador de 4 bits en lugar de un bit, así que además de agregar
+ * elementos se pueden eliminar; a cambio, el filtro usa cuatro veces más
+ * memoria que un {@link FiltroBloom} con las mismas casillas.</p>
+ *
+ * <p>Un contador que llega a {@link #MAXIMO} ya no cambia, ni al agregar ni
+ * al eliminar, para no provocar falsos negativos; con el número óptimo de
+ * funciones esto casi nunca ocurre. Eliminar un elemento que nunca se
+ * agregó pero que el filtro cree contener (un falso positivo) sí puede
+ * provocar falsos negativos, así que sólo deben eliminarse elementos que se
+ * sabe que se agregaron.</p>
+ */
+public class FiltroBloomContador<T> extends FiltroBloom<T> {
+
+    /** El valor máximo de un contador. */
+    public static final int MAXIMO = 15;
+
+    /**
+     * Construye un filtro de Bloom con contadores para el número de
+     * elementos esperado y la probabilidad de falsos positivos deseada, con
+     * los dispersores por omisión.
+     * @param elementos el número de elementos que se espera agregar.
+     * @param probabilidad la probabilidad de falsos positivos deseada con
+     *        ese número de elementos.
+     * @throws IllegalArgumentException si el número de elementos no es
+     *         positivo, o la probabilidad no está en (0, 1).
+     */
+    public FiltroBloomContador(long elementos, double probabilidad) {
+        this(elementos, probabilidad, null, null);
+    }
+
+    /**
+     * Construye un filtro de Bloom con contadores para el número de
+     * elementos esperado y la probabilidad de falsos positivos deseada, con
+     * los dispersores recibidos.
+     * @param elementos el número de elementos que se espera agregar.
+     * @param probabilidad la probabilidad de falsos positivos deseada con
+     *        ese número de elementos.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor.
+     * @throws IllegalArgumentException si el número de elementos no es
+     *         positivo, o la probabilidad no está en (0, 1).
+     */
+    public FiltroBloomContador(long elementos, double probabilidad,
+                               Dispersor<T> primero, Dispersor<T> segundo) {
+        this(casillas(elementos, probabilidad),
+             funciones(elementos, casillas(elementos, probabilidad)),
+             primero, segundo);
+    }
+
+    /**
+     * Construye un filtro de Bloom con contadores con el número de casillas
+     * y de funciones de dispersión recibidos.
+     * @param casillas el número de casillas (contadores) del filtro.
+     * @param funciones el número de funciones de dispersión.
+     * @param primero el primer dispersor.
+     * @param segundo el segundo dispersor.
+     * @throws IllegalArgumentException si el número de casillas o de
+     *         funciones no es positivo.
+     */
+    public FiltroBloomContador(int casillas, int funciones,
+                               Dispersor<T> primero, Dispersor<T> segundo) {
+        super(casillas, funciones, 4, primero, segundo);
+    }
+
+    /**
+     * Elimina un elemento del filtro.
+     * @param elemento el elemento a eliminar; debe haberse agregado antes.
+     * @throws NoSuchElementException si el filtro seguro no contiene al
+     *         elemento.
+     */
+    public void elimina(T elemento) {
+        if (!contiene(elemento))
+            throw new NoSuchElementException("El elemento no está en el " +
+                                             "filtro.");
+        for (int indice : indices(elemento))
+            if (contador(indice) < MAXIMO)
+                bits[indice >>> 4] -= 1L << ((indice & 15) << 2);
+        elementos--;
+    }
+
+    /**
+     * Regresa el valor del contador de una casilla.
+     * @param indice el índice de la casilla.
+     * @return el valor del contador de la casilla.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public int contador(int indice) {
+        if (indice < 0 || indice >= casillas)
+            throw new ExcepcionIndiceInvalido("Índice inválido: " + indice);
+        return (int)(bits[indice >>> 4] >>> ((indice & 15) << 2)) & 0xf;
+    }
+
+    /**
+     * Incrementa el contador de una casilla, si no ha llegado al máximo.
+     * @param indice el índice de la casilla.
+     */
+    @Override protected void prende(int indice) {
+        if (contador(indice) < MAXIMO)
+            bits[indice >>> 4] += 1L << ((indice & 15) << 2);
+    }
+
+    /**
+     * Nos dice si el contador de una casilla es distinto de cero.
+     * @param indice el índice de la casilla.
+     * @return <code>true</code> si el contador es distinto de cero,
+     *         <code>false</code> en otro caso.
+     */
+    @Override protected boolean prendida(int indice) {
+        return (bits[indice >>> 4] & (0xfL << ((indice & 15) << 2))) != 0;
+    }
+}
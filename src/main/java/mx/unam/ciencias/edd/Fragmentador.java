@@ -0,0 +1,199 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+
+/**
+ * <p>Clase para fragmentar flujos de bytes según su contenido (<em>content
+ * defined chunking</em>), para deduplicarlos. Los cortes dependen sólo de
+ * los bytes cercanos, así que insertar o borrar bytes en un flujo sólo
+ * cambia los fragmentos alrededor del cambio; los demás fragmentos se
+ * repiten igual y se pueden deduplicar por su huella.</p>
+ *
+ * <p>Los cortes siguen a FastCDC (Xia et al.). La dispersión es la de
+ * engranes: <em>h</em> ← 2<em>h</em> + <em>G</em>[<em>b</em>], con una
+ * tabla <em>G</em> de 256 enteros largos aleatorios. Es una dispersión
+ * rodante como la de {@link DispersorRodante}, con multiplicador 2: cada
+ * byte sale solo de los 64 bits después de 64 corrimientos, así que no hay
+ * que restarlo. Se corta después de un byte cuando los bits altos
+ * seleccionados por una máscara son cero, y nunca antes del mínimo. Como
+ * la dispersión sólo depende de los últimos 64 bytes, de los primeros
+ * bytes de cada fragmento sólo se dispersan los 64 anteriores al mínimo,
+ * para que al llegar a él la dispersión sea la misma que si se hubieran
+ * dispersado todos; los anteriores se saltan. La normalización
+ * usa una máscara con más bits antes del tamaño promedio y una con menos
+ * después, lo que concentra los tamaños alrededor del promedio. Nunca se
+ * pasa del máximo.</p>
+ *
+ * <p>El fragmentador recuerda el fragmento en curso, así que un flujo se
+ * puede procesar en pedazos con {@link #corta}.</p>
+ */
+public class Fragmentador {
+
+    /** El tamaño mínimo de fragmento por omisión. */
+    public static final int MINIMO = 2048;
+    /** El tamaño promedio de fragmento por omisión. */
+    public static final int PROMEDIO = 8192;
+    /** El tamaño máximo de fragmento por omisión. */
+    public static final int MAXIMO = 65536;
+
+    /* Los bits que la normalización agrega o quita a la máscara. */
+    private static final int NORMALIZACION = 2;
+
+    /* El tamaño mínimo de fragmento. */
+    private int minimo;
+    /* El tamaño promedio de fragmento. */
+    private int promedio;
+    /* El tamaño máximo de fragmento. */
+    private int maximo;
+    /* La tabla de engranes. */
+    private long[] engranes;
+    /* La máscara antes del tamaño promedio. */
+    private long mascaraChica;
+    /* La máscara después del tamaño promedio. */
+    private long mascaraGrande;
+    /* La dispersión del fragmento en curso. */
+    private long h;
+    /* El tamaño del fragmento en curso. */
+    private int actual;
+
+    /**
+     * Construye un fragmentador con los tamaños por omisión y semilla 0.
+     */
+    public Fragmentador() {
+        this(MINIMO, PROMEDIO, MAXIMO, 0L);
+    }
+
+    /**
+     * Construye un fragmentador con los tamaños y la semilla recibidos.
+     * Fragmentadores con los mismos parámetros cortan igual.
+     * @param minimo el tamaño mínimo de fragmento.
+     * @param promedio el tamaño promedio de fragmento esperado.
+     * @param maximo el tamaño máximo de fragmento.
+     * @param semilla la semilla de la tabla de engranes.
+     * @throws IllegalArgumentException si no se cumple que 0 &lt;
+     *         <em>mínimo</em> &lt; <em>promedio</em> &lt;
+     *         <em>máximo</em>.
+     */
+    public Fragmentador(int minimo, int promedio, int maximo, long semilla) {
+        if (minimo <= 0 || minimo >= promedio || promedio >= maximo)
+            throw new IllegalArgumentException("Tamaños inválidos: " +
+                                               minimo + ", " + promedio +
+                                               ", " + maximo);
+        this.minimo = minimo;
+        this.promedio = promedio;
+        this.maximo = maximo;
+        engranes = new long[256];
+        for (int i = 0; i < 256; i++)
+            engranes[i] = FabricaDispersores
+                .mezcla(semilla + (i + 1) * FabricaDispersores.DORADO);
+        int bits = 31 - Integer.numberOfLeadingZeros(promedio);
+        if (promedio - (1 << bits) > (1 << bits) / 2)
+            bits++;
+        mascaraChica = mascara(Math.min(bits + NORMALIZACION, 63));
+        mascaraGrande = mascara(Math.max(bits - NORMALIZACION, 1));
+    }
+
+    /* Regresa la máscara con los bits más altos encendidos. */
+    private static long mascara(int bits) {
+        return -1L << (64 - bits);
+    }
+
+    /**
+     * Busca el siguiente corte en un rango de un arreglo de bytes, como
+     * continuación del fragmento en curso. Si hay un corte, el fragmento en
+     * curso termina ahí y el siguiente empieza después; si no, todo el rango
+     * pasa a ser parte del fragmento en curso.
+     * @param datos el arreglo de bytes.
+     * @param desplazamiento el índice del primer byte del rango.
+     * @param longitud el número de bytes del rango.
+     * @return el número de bytes del rango que terminan el fragmento en
+     *         curso, o -1 si el fragmento no termina en el rango.
+     * @throws ExcepcionIndiceInvalido si el rango no está contenido en el
+     *         arreglo.
+     */
+    public int corta(byte[] datos, int desplazamiento, int longitud) {
+        if (desplazamiento < 0 || longitud < 0 ||
+            desplazamiento > datos.length - longitud)
+            throw new ExcepcionIndiceInvalido("Rango inválido: " +
+                                              desplazamiento + ", " +
+                                              longitud);
+        int i = desplazamiento;
+        int fin = desplazamiento + longitud;
+        int salto = Math.min(minimo - 64 - actual, fin - i);
+        if (salto > 0) {
+            i += salto;
+            actual += salto;
+        }
+        while (i < fin) {
+            h = (h << 1) + engranes[datos[i++] & 0xff];
+            actual++;
+            if (actual < minimo)
+                continue;
+            long m = actual < promedio ? mascaraChica : mascaraGrande;
+            if ((h & m) == 0 || actual >= maximo) {
+                termina();
+                return i - desplazamiento;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Termina el fragmento en curso, como al final de un flujo.
+     * @return el tamaño del fragmento en curso, que puede ser menor que el
+     *         mínimo.
+     */
+    public int termina() {
+        int n = actual;
+        h = 0;
+        actual = 0;
+        return n;
+    }
+
+    /**
+     * Fragmenta un arreglo de bytes completo, desde un fragmento nuevo.
+     * @param datos el arreglo de bytes.
+     * @return los índices donde termina cada fragmento, en orden; el último
+     *         es la longitud del arreglo, salvo si el arreglo es vacío.
+     */
+    public int[] fragmenta(byte[] datos) {
+        termina();
+        int[] cortes = new int[16];
+        int n = 0;
+        int i = 0;
+        while (i < datos.length) {
+            int c = corta(datos, i, datos.length - i);
+            i = c == -1 ? datos.length : i + c;
+            if (c == -1)
+                termina();
+            if (n == cortes.length)
+                cortes = Arrays.copyOf(cortes, 2 * n);
+            cortes[n++] = i;
+        }
+        return Arrays.copyOf(cortes, n);
+    }
+
+    /**
+     * Regresa el tamaño mínimo de fragmento.
+     * @return el tamaño mínimo de fragmento.
+     */
+    public int getMinimo() {
+        return minimo;
+    }
+
+    /**
+     * Regresa el tamaño promedio de fragmento esperado.
+     * @return el tamaño promedio de fragmento esperado.
+     */
+    public int getPromedio() {
+        return promedio;
+    }
+
+    /**
+     * Regresa el tamaño máximo de fragmento.
+     * @return el tamaño máximo de fragmento.
+     */
+    public int getMaximo() {
+        return maximo;
+    }
+}
@@ -1,14 +1,33 @@
 package mx.unam.ciencias.edd;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
- * Clase para gráficas. Una gráfica es un conjunto de vértices y aristas, tales
- * que las aristas son un subconjunto del producto cruz de los vértices.
+ * <p>Clase para gráficas. Una gráfica es un conjunto de vértices y aristas,
+ * tales que las aristas son un subconjunto del producto cruz de los
+ * vértices.</p>
+ *
+ * <p>Además de la lista de vértices, que conserva el orden en que fueron
+ * agregados, la gráfica tiene un {@link Diccionario} de sus elementos a sus
+ * vértices, así que encontrar el vértice de un elemento toma tiempo
+ * constante esperado en lugar de recorrer la lista.</p>
+ *
+ * <p>Los recorridos y las trayectorias no guardan su estado en los
+ * vértices: cada vértice tiene un número, y cada consulta usa arreglos
+ * indexados por esos números, tomados de una reserva de memorias de
+ * recorrido. Así varios hilos pueden recorrer la gráfica o calcular
+ * trayectorias a la vez, siempre que ninguno la modifique mientras
+ * tanto.</p>
  */
 public class Grafica<T> implements Coleccion<T> {
 
+    /* La fracción de todas las aristas posibles a partir de la cual
+     * dijkstra usa un montículo de arreglo. */
+    private static final double DENSA = 0.9;
+
     /* Clase interna privada para iteradores. */
     private class Iterador implements Iterator<T> {
 
@@ -17,73 +36,57 @@ public class Grafica<T> implements Coleccion<T> {
 
         /* Construye un nuevo iterador, auxiliándose de la lista de vértices. */
         public Iterador() {
-            // Aquí va su código.
+            iterador = vertices.iterator();
         }
 
         /* Nos dice si hay un siguiente elemento. */
         @Override public boolean hasNext() {
-            // Aquí va su código.
+            return iterador.hasNext();
         }
 
         /* Regresa el siguiente elemento. */
         @Override public T next() {
-            // Aquí va su código.
+            return iterador.next().elemento;
         }
     }
 
     /* Clase interna privada para vértices. */
-    private class Vertice implements VerticeGrafica<T>,
-                          ComparableIndexable<Vertice> {
+    private class Vertice implements VerticeGrafica<T> {
 
         /* El elemento del vértice. */
         private T elemento;
         /* El color del vértice. */
         private Color color;
-        /* La distancia del vértice. */
-        private double distancia;
-        /* El índice del vértice. */
-        private int indice;
+        /* El número del vértice, para indexar las memorias de recorrido. */
+        private int numero;
         /* La lista de vecinos del vértice. */
         private Lista<Vecino> vecinos;
 
         /* Crea un nuevo vértice a partir de un elemento. */
         public Vertice(T elemento) {
-            // Aquí va su código.
+            this.elemento = elemento;
+            color = Color.NINGUNO;
+            vecinos = new Lista<Vecino>();
         }
 
         /* Regresa el elemento del vértice. */
         @Override public T get() {
-            // Aquí va su código.
+            return elemento;
         }
 
         /* Regresa el grado del vértice. */
         @Override public int getGrado() {
-            // Aquí va su código.
+            return vecinos.getElementos();
         }
 
         /* Regresa el color del vértice. */
         @Override public Color getColor() {
-            // Aquí va su código.
+            return color;
         }
 
         /* Regresa un iterable para los vecinos. */
         @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
-            // Aquí va su código.
-        }
-
-        /* Define el índice del vértice. */
-        @Override public void setIndice(int indice) {
-            // Aquí va su código.
-        }
-
-        /* Regresa el índice del vértice. */
-        @Override public int getIndice() {
-            // Aquí va su código.
-        }
-
-        /* Compara dos vértices por distancia. */
-        @Override public int compareTo(Vertice vertice) {
-            // Aquí va su código.
+            return vecinos;
         }
     }
 
@@ -98,48 +101,174 @@ public class Grafica<T> implements Coleccion<T> {
         /* Construye un nuevo vecino con el vértice recibido como vecino y el
          * peso especificado. */
         public Vecino(Vertice vecino, double peso) {
-            // Aquí va su código.
+            this.vecino = vecino;
+            this.peso = peso;
         }
 
         /* Regresa el elemento del vecino. */
         @Override public T get() {
-            // Aquí va su código.
+            return vecino.elemento;
         }
 
         /* Regresa el grado del vecino. */
         @Override public int getGrado() {
-            // Aquí va su código.
+            return vecino.getGrado();
         }
 
         /* Regresa el color del vecino. */
         @Override public Color getColor() {
-            // Aquí va su código.
+            return vecino.color;
         }
 
         /* Regresa un iterable para los vecinos del vecino. */
         @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
-            // Aquí va su código.
+            return vecino.vecinos;
+        }
+    }
+
+    /* Clase interna privada para las distancias de los vértices en el
+     * algoritmo de Dijkstra; son los elementos del montículo. */
+    private class Distancia implements ComparableIndexable<Distancia> {
+
+        /* El vértice. */
+        private Vertice vertice;
+        /* La distancia al vértice desde el origen. */
+        private double distancia;
+        /* El índice en el montículo. */
+        private int indice;
+        /* La distancia del vértice anterior en la trayectoria, o null. */
+        private Distancia anterior;
+
+        /* Define el índice en el montículo. */
+        @Override public void setIndice(int indice) {
+            this.indice = indice;
+        }
+
+        /* Regresa el índice en el montículo. */
+        @Override public int getIndice() {
+            return indice;
+        }
+
+        /* Compara dos distancias. */
+        @Override public int compareTo(Distancia d) {
+            return Double.compare(distancia, d.distancia);
         }
     }
 
-    /* Interface para poder usar lambdas al buscar el elemento que sigue al
-     * reconstruir un camino. */
-    @FunctionalInterface
-    private interface BuscadorCamino<T> {
-        /* Regresa true si el vértice se sigue del vecino. */
-        public boolean seSiguen(Grafica<T>.Vertice v, Grafica<T>.Vecino a);
+    /* Clase interna privada para memorias de recorrido: arreglos indexados
+     * por los números de los vértices, que usa una sola consulta a la vez.
+     * Una marca sólo cuenta si es igual a la época del recorrido actual, así
+     * que preparar una memoria usada para otro recorrido no tiene que
+     * limpiar sus arreglos. Sólo los recorridos BFS registran anteriores
+     * distintos de null, y como su cola nunca sobreescribe una entrada, al
+     * terminar basta con limpiar las primeras entradas de los pendientes
+     * (tantas como vértices marcados) y los anteriores de esos vértices. */
+    private class Recorrido {
+
+        /* Las marcas de los vértices visitados. */
+        private int[] marcas;
+        /* La época del recorrido actual. */
+        private int epoca;
+        /* El vértice anterior a cada vértice visitado. */
+        private Vertice[] anteriores;
+        /* Los vértices pendientes, como cola o como pila. */
+        private Vertice[] pendientes;
+        /* Las distancias de los vértices en el algoritmo de Dijkstra. */
+        private Distancia[] distancias;
+        /* El número de vértices marcados en el recorrido actual. */
+        private int marcados;
+
+        /* Prepara la memoria para un recorrido nuevo de la gráfica. */
+        public void prepara() {
+            if (marcas == null || marcas.length < numeros) {
+                int n = Math.max(numeros, 2 * (marcas == null ? 8 :
+                                               marcas.length));
+                marcas = new int[n];
+                anteriores = nuevoArregloVertices(n);
+                pendientes = nuevoArregloVertices(n);
+                distancias = null;
+                epoca = 0;
+            }
+            if (++epoca == 0) {
+                Arrays.fill(marcas, 0);
+                epoca = 1;
+            }
+            marcados = 0;
+        }
+
+        /* Marca al vértice como visitado desde el anterior; regresa false
+         * si ya estaba marcado. */
+        public boolean marca(Vertice vertice, Vertice anterior) {
+            if (marcas[vertice.numero] == epoca)
+                return false;
+            marcas[vertice.numero] = epoca;
+            anteriores[vertice.numero] = anterior;
+            marcados++;
+            return true;
+        }
+
+        /* Nos dice si el vértice ya fue visitado. */
+        public boolean marcado(Vertice vertice) {
+            return marcas[vertice.numero] == epoca;
+        }
+
+        /* Regresa la distancia del vértice, creándola si no existe. */
+        public Distancia distancia(Vertice vertice) {
+            if (distancias == null)
+                distancias = nuevoArregloDistancias(marcas.length);
+            Distancia d = distancias[vertice.numero];
+            if (d == null)
+                d = distancias[vertice.numero] = new Distancia();
+            d.vertice = vertice;
+            return d;
+        }
+
+        /* Olvida los vértices del recorrido, para no retenerlos; toca sólo
+         * las entradas que pudo usar el recorrido. */
+        public void olvida() {
+            for (int i = 0; i < marcados; i++) {
+                if (pendientes[i] == null)
+                    continue;
+                anteriores[pendientes[i].numero] = null;
+                pendientes[i] = null;
+            }
+            marcados = 0;
+        }
+
+        /* Olvida los vértices y anteriores de las distancias recibidas. */
+        public void olvida(Lista<Distancia> distancias) {
+            for (Distancia d : distancias) {
+                d.vertice = null;
+                d.anterior = null;
+            }
+        }
     }
 
     /* Vértices. */
     private Lista<Vertice> vertices;
+    /* El número de números de vértice repartidos. */
+    private int numeros;
+    /* Los números de vértices eliminados, para reusarlos. */
+    private int[] libres;
+    /* El número de números en libres. */
+    private int totalLibres;
+    /* Las memorias de recorrido disponibles. */
+    private ConcurrentLinkedQueue<Recorrido> recorridos;
+    /* Índice de los vértices por elemento. */
+    private Diccionario<T, Vertice> indice;
     /* Número de aristas. */
     private int aristas;
+    /* El internador de los elementos agregados, o null si no hay. */
+    private Internador<T> internador;
 
     /**
      * Constructor único.
      */
     public Grafica() {
-        // Aquí va su código.
+        indice = new Diccionario<T, Vertice>();
+        libres = new int[8];
+        recorridos = new ConcurrentLinkedQueue<Recorrido>();
+        vertices = new Lista<Vertice>();
     }
 
     /**
@@ -148,7 +277,7 @@ public class Grafica<T> implements Coleccion<T> {
      * @return el número de elementos en la gráfica.
      */
     @Override public int getElementos() {
-        // Aquí va su código.
+        return vertices.getElementos();
     }
 
     /**
@@ -156,17 +285,100 @@ public class Grafica<T> implements Coleccion<T> {
      * @return el número de aristas.
      */
     public int getAristas() {
-        // Aquí va su código.
+        return aristas;
     }
 
     /**
-     * Agrega un nuevo elemento a la gráfica.
+     * Agrega un nuevo elemento a la gráfica. Si la gráfica tiene internador,
+     * lo que se agrega es la instancia canónica del elemento.
      * @param elemento el elemento a agregar.
-     * @throws IllegalArgumentException si el elemento ya había sido agregado a
-     *         la gráfica.
+     * @throws IllegalArgumentException si el elemento es <code>null</code> o
+     *         ya había sido agregado a la gráfica.
      */
     @Override public void agrega(T elemento) {
-        // Aquí va su código.
+        if (elemento == null || indice.contiene(elemento))
+            throw new IllegalArgumentException("Elemento nulo o repetido.");
+        if (internador != null)
+            elemento = internador.interna(elemento);
+        Vertice vertice = new Vertice(elemento);
+        vertice.numero = totalLibres > 0 ? libres[--totalLibres] : numeros++;
+        vertices.agrega(vertice);
+        indice.agrega(elemento, vertice);
+    }
+
+    /* Toma una memoria de recorrido de la reserva, o crea una nueva. */
+    private Recorrido tomaRecorrido() {
+        Recorrido recorrido = recorridos.poll();
+        if (recorrido == null)
+            recorrido = new Recorrido();
+        recorrido.prepara();
+        return recorrido;
+    }
+
+    /* Regresa una memoria de recorrido a la reserva, olvidando antes sus
+     * vértices. */
+    private void devuelveRecorrido(Recorrido recorrido) {
+        recorrido.olvida();
+        recorridos.offer(recorrido);
+    }
+
+    /* Regresa un arreglo de vértices de tamaño n. */
+    @SuppressWarnings({"unchecked","rawtypes"})
+    private Vertice[] nuevoArregloVertices(int n) {
+        return (Vertice[])(new Grafica.Vertice[n]);
+    }
+
+    /* Regresa un arreglo de distancias de tamaño n. */
+    @SuppressWarnings({"unchecked","rawtypes"})
+    private Distancia[] nuevoArregloDistancias(int n) {
+        return (Distancia[])(new Grafica.Distancia[n]);
+    }
+
+    /* Regresa el vértice del elemento, en tiempo constante esperado. */
+    private Vertice busca(T elemento) {
+        if (elemento == null || !indice.contiene(elemento))
+            throw new NoSuchElementException("El elemento no está en la " +
+                                             "gráfica.");
+        return indice.get(elemento);
+    }
+
+    /* Regresa el vecino de u que apunta a v, o null si no son vecinos. */
+    private Vecino buscaVecino(Vertice u, Vertice v) {
+        for (Vecino vecino : u.vecinos)
+            if (vecino.vecino == v)
+                return vecino;
+        return null;
+    }
+
+    /* Regresa el vértice de la gráfica detrás del vértice recibido. */
+    private Vertice valida(VerticeGrafica<T> vertice) {
+        if (vertice == null || (vertice.getClass() != Vertice.class &&
+                                vertice.getClass() != Vecino.class))
+            throw new IllegalArgumentException("Vértice inválido.");
+        Vertice v =
+            vertice.getClass() == Vertice.class ? (Vertice)vertice :
+            ((Vecino)vertice).vecino;
+        if (!indice.contiene(v.elemento) || indice.get(v.elemento) != v)
+            throw new IllegalArgumentException("Vértice inválido.");
+        return v;
+    }
+
+    /**
+     * Define el internador de los elementos que se agreguen a la gráfica a
+     * partir de ahora; <code>null</code> para no internarlos. Varias
+     * gráficas pueden compartir un internador.
+     * @param internador el internador de los elementos.
+     */
+    public void setInternador(Internador<T> internador) {
+        this.internador = internador;
+    }
+
+    /**
+     * Regresa el internador de los elementos que se agregan a la gráfica.
+     * @return el internador de los elementos, o <code>null</code> si no hay.
+     */
+    public Internador<T> getInternador() {
+        return internador;
     }
 
     /**
@@ -179,7 +391,7 @@ public class Grafica<T> implements Coleccion<T> {
      *         igual a b.
      */
     public void conecta(T a, T b) {
-        // Aquí va su código.
+        conecta(a, b, 1);
     }
 
     /**
@@ -193,7 +405,15 @@ public class Grafica<T> implements Coleccion<T> {
      *         igual a b, o si el peso es no positivo.
      */
     public void conecta(T a, T b, double peso) {
-        // Aquí va su código.
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        if (va == vb || buscaVecino(va, vb) != null || peso <= 0)
+            throw new IllegalArgumentException("Elementos iguales o ya " +
+                                               "conectados, o peso no " +
+                                               "positivo.");
+        va.vecinos.agrega(new Vecino(vb, peso));
+        vb.vecinos.agrega(new Vecino(va, peso));
+        aristas++;
     }
 
     /**
@@ -205,7 +425,15 @@ public class Grafica<T> implements Coleccion<T> {
      * @throws IllegalArgumentException si a o b no están conectados.
      */
     public void desconecta(T a, T b) {
-        // Aquí va su código.
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        Vecino ab = buscaVecino(va, vb);
+        if (ab == null)
+            throw new IllegalArgumentException("Los elementos no están " +
+                                               "conectados.");
+        va.vecinos.elimina(ab);
+        vb.vecinos.elimina(buscaVecino(vb, va));
+        aristas--;
     }
 
     /**
@@ -214,7 +442,7 @@ public class Grafica<T> implements Coleccion<T> {
      *         <code>false</code> en otro caso.
      */
     @Override public boolean contiene(T elemento) {
-        // Aquí va su código.
+        return indice.contiene(elemento);
     }
 
     /**
@@ -225,7 +453,17 @@ public class Grafica<T> implements Coleccion<T> {
      *         gráfica.
      */
     @Override public void elimina(T elemento) {
-        // Aquí va su código.
+        Vertice vertice = busca(elemento);
+        indice.elimina(elemento);
+        if (totalLibres == libres.length)
+            libres = Arrays.copyOf(libres, 2 * totalLibres);
+        libres[totalLibres++] = vertice.numero;
+        for (Vecino vecino : vertice.vecinos) {
+            Vertice u = vecino.vecino;
+            u.vecinos.elimina(buscaVecino(u, vertice));
+            aristas--;
+        }
+        vertices.elimina(vertice);
     }
 
     /**
@@ -237,7 +475,7 @@ public class Grafica<T> implements Coleccion<T> {
      * @throws NoSuchElementException si a o b no son elementos de la gráfica.
      */
     public boolean sonVecinos(T a, T b) {
-        // Aquí va su código.
+        return buscaVecino(busca(a), busca(b)) != null;
     }
 
     /**
@@ -251,7 +489,11 @@ public class Grafica<T> implements Coleccion<T> {
      * @throws IllegalArgumentException si a o b no están conectados.
      */
     public double getPeso(T a, T b) {
-        // Aquí va su código.
+        Vecino ab = buscaVecino(busca(a), busca(b));
+        if (ab == null)
+            throw new IllegalArgumentException("Los elementos no están " +
+                                               "conectados.");
+        return ab.peso;
     }
 
     /**
@@ -266,7 +508,14 @@ public class Grafica<T> implements Coleccion<T> {
      *         es menor o igual que cero.
      */
     public void setPeso(T a, T b, double peso) {
-        // Aquí va su código.
+        Vertice va = busca(a);
+        Vertice vb = busca(b);
+        Vecino ab = buscaVecino(va, vb);
+        if (ab == null || peso <= 0)
+            throw new IllegalArgumentException("Elementos no conectados, o " +
+                                               "peso no positivo.");
+        ab.peso = peso;
+        buscaVecino(vb, va).peso = peso;
     }
 
     /**
@@ -276,7 +525,7 @@ public class Grafica<T> implements Coleccion<T> {
      * @return el vértice correspondiente el elemento recibido.
      */
     public VerticeGrafica<T> vertice(T elemento) {
-        // Aquí va su código.
+        return busca(elemento);
     }
 
     /**
@@ -286,7 +535,8 @@ public class Grafica<T> implements Coleccion<T> {
      * @throws IllegalArgumentException si el vértice no es válido.
      */
     public void setColor(VerticeGrafica<T> vertice, Color color) {
-        // Aquí va su código.
+        Vertice v = valida(vertice);
+        v.color = color;
     }
 
     /**
@@ -295,7 +545,15 @@ public class Grafica<T> implements Coleccion<T> {
      *         otro caso.
      */
     public boolean esConexa() {
-        // Aquí va su código.
+        if (vertices.esVacia())
+            return true;
+        Recorrido recorrido = tomaRecorrido();
+        try {
+            return recorre(recorrido, vertices.getPrimero(), v -> {}, true) ==
+                vertices.getElementos();
+        } finally {
+            devuelveRecorrido(recorrido);
+        }
     }
 
     /**
@@ -304,35 +562,107 @@ public class Grafica<T> implements Coleccion<T> {
      * @param accion la acción a realizar.
      */
     public void paraCadaVertice(AccionVerticeGrafica<T> accion) {
-        // Aquí va su código.
+        for (Vertice vertice : vertices)
+            accion.actua(vertice);
     }
 
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por BFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El recorrido no modifica los colores de los
+     * vértices.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
      * @throws NoSuchElementException si el elemento no está en la gráfica.
      */
     public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
-        // Aquí va su código.
+        Vertice inicio = busca(elemento);
+        Recorrido recorrido = tomaRecorrido();
+        try {
+            recorre(recorrido, inicio, accion, true);
+        } finally {
+            devuelveRecorrido(recorrido);
+        }
     }
 
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por DFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El recorrido no modifica los colores de los
+     * vértices.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
      * @throws NoSuchElementException si el elemento no está en la gráfica.
      */
     public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
-        // Aquí va su código.
+        Vertice inicio = busca(elemento);
+        Recorrido recorrido = tomaRecorrido();
+        try {
+            recorre(recorrido, inicio, accion, false);
+        } finally {
+            devuelveRecorrido(recorrido);
+        }
+    }
+
+    /* Recorre los vértices alcanzables desde el inicio, con los pendientes
+     * de la memoria como cola (BFS) o como pila (DFS); regresa el número de
+     * vértices recorridos. */
+    private int recorre(Recorrido recorrido, Vertice inicio,
+                        AccionVerticeGrafica<T> accion, boolean cola) {
+        Vertice[] pendientes = recorrido.pendientes;
+        int cabeza = 0, rabo = 0, n = 0;
+        recorrido.marca(inicio, null);
+        pendientes[rabo++] = inicio;
+        while (cabeza < rabo) {
+            Vertice u = cola ? pendientes[cabeza++] : pendientes[--rabo];
+            accion.actua(u);
+            n++;
+            for (Vecino vecino : u.vecinos)
+                if (recorrido.marca(vecino.vecino, null))
+                    pendientes[rabo++] = vecino.vecino;
+        }
+        return n;
+    }
+
+    /**
+     * Regresa una copia congelada de la gráfica, que guarda los vecinos de
+     * todos los vértices en arreglos contiguos de primitivos. La copia no
+     * cambia si la gráfica cambia después; los vértices conservan el orden
+     * en que fueron agregados, y los vecinos el de cada vértice.
+     * @return una copia congelada de la gráfica.
+     */
+    public GraficaCongelada<T> congela() {
+        int n = vertices.getElementos();
+        T[] elementos = nuevoArreglo(n);
+        int[] desplazamientos = new int[n + 1];
+        int[] indices = new int[numeros];
+        int i = 0;
+        for (Vertice vertice : vertices) {
+            indices[vertice.numero] = i;
+            elementos[i] = vertice.elemento;
+            desplazamientos[i + 1] = desplazamientos[i] +
+                vertice.vecinos.getElementos();
+            i++;
+        }
+        int[] destinos = new int[desplazamientos[n]];
+        double[] pesos = new double[desplazamientos[n]];
+        int j = 0;
+        for (Vertice vertice : vertices) {
+            for (Vecino vecino : vertice.vecinos) {
+                destinos[j] = indices[vecino.vecino.numero];
+                pesos[j++] = vecino.peso;
+            }
+        }
+        return new GraficaCongelada<T>(elementos, desplazamientos, destinos,
+                                       pesos);
+    }
+
+    /* Regresa un arreglo genérico de tamaño n. */
+    @SuppressWarnings("unchecked")
+    private T[] nuevoArreglo(int n) {
+        return (T[])(new Object[n]);
     }
 
     /**
@@ -341,14 +671,19 @@ public class Grafica<T> implements Coleccion<T> {
      *         otro caso.
      */
     @Override public boolean esVacia() {
-        // Aquí va su código.
+        return vertices.esVacia();
     }
 
     /**
      * Limpia la gráfica de vértices y aristas, dejándola vacía.
      */
     @Override public void limpia() {
-        // Aquí va su código.
+        indice.limpia();
+        numeros = 0;
+        totalLibres = 0;
+        recorridos.clear();
+        vertices.limpia();
+        aristas = 0;
     }
 
     /**
@@ -356,7 +691,23 @@ public class Grafica<T> implements Coleccion<T> {
      * @return una representación en cadena de la gráfica.
      */
     @Override public String toString() {
-        // Aquí va su código.
+        StringBuilder sb = new StringBuilder("{");
+        for (Vertice vertice : vertices)
+            sb.append(vertice.elemento).append(", ");
+        sb.append("}, {");
+        Recorrido recorrido = tomaRecorrido();
+        try {
+            for (Vertice vertice : vertices) {
+                recorrido.marca(vertice, null);
+                for (Vecino vecino : vertice.vecinos)
+                    if (!recorrido.marcado(vecino.vecino))
+                        sb.append("(").append(vertice.elemento).append(", ")
+                          .append(vecino.vecino.elemento).append("), ");
+            }
+        } finally {
+            devuelveRecorrido(recorrido);
+        }
+        return sb.append("}").toString();
     }
 
     /**
@@ -369,7 +720,18 @@ public class Grafica<T> implements Coleccion<T> {
         if (objeto == null || getClass() != objeto.getClass())
             return false;
         @SuppressWarnings("unchecked") Grafica<T> grafica = (Grafica<T>)objeto;
-        // Aquí va su código.
+        if (getElementos() != grafica.getElementos() ||
+            aristas != grafica.aristas)
+            return false;
+        for (Vertice vertice : vertices) {
+            if (!grafica.contiene(vertice.elemento))
+                return false;
+            for (Vecino vecino : vertice.vecinos)
+                if (!grafica.sonVecinos(vertice.elemento,
+                                        vecino.vecino.elemento))
+                    return false;
+        }
+        return true;
     }
 
     /**
@@ -393,7 +755,30 @@ public class Grafica<T> implements Coleccion<T> {
      *         la gráfica.
      */
     public Lista<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino) {
-        // Aquí va su código.
+        Vertice s = busca(origen);
+        Vertice t = busca(destino);
+        Recorrido recorrido = tomaRecorrido();
+        try {
+            Vertice[] pendientes = recorrido.pendientes;
+            int cabeza = 0, rabo = 0;
+            recorrido.marca(s, null);
+            pendientes[rabo++] = s;
+            while (cabeza < rabo && !recorrido.marcado(t)) {
+                Vertice u = pendientes[cabeza++];
+                for (Vecino vecino : u.vecinos)
+                    if (recorrido.marca(vecino.vecino, u))
+                        pendientes[rabo++] = vecino.vecino;
+            }
+            Lista<VerticeGrafica<T>> trayectoria =
+                new Lista<VerticeGrafica<T>>();
+            if (recorrido.marcado(t))
+                for (Vertice v = t; v != null;
+                     v = recorrido.anteriores[v.numero])
+                    trayectoria.agregaInicio(v);
+            return trayectoria;
+        } finally {
+            devuelveRecorrido(recorrido);
+        }
     }
 
     /**
@@ -408,6 +793,99 @@ public class Grafica<T> implements Coleccion<T> {
      *         la gráfica.
      */
     public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino) {
-        // Aquí va su código.
+        return dijkstra(origen, destino, TipoMonticulo.AUTOMATICO);
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino, usando el tipo de montículo recibido. Con {@link
+     * TipoMonticulo#AUTOMATICO} se usa un {@link MonticuloArreglo} si la
+     * gráfica es casi completa, y un {@link MonticuloMinimo} si no: el
+     * arreglo cuesta <i>O</i>(<i>n</i>²) siempre, mientras que el montículo
+     * mínimo sólo paga <i>O</i>(log <i>n</i>) por las distancias que mejoran,
+     * que con pesos aleatorios son muchas menos que las aristas.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param tipo el tipo de montículo a usar.
+     * @return una trayectoria de peso mínimo entre el vértice
+     *         <code>origen</code> y el vértice <code>destino</code>. Si los
+     *         vértices están en componentes conexas distintas, regresa una
+     *         lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     * @throws IllegalArgumentException si el tipo es {@link
+     *         TipoMonticulo#RADIX} y alguna arista revisada tiene peso no
+     *         entero.
+     */
+    public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino,
+                                             TipoMonticulo tipo) {
+        Vertice s = busca(origen);
+        Vertice t = busca(destino);
+        Recorrido recorrido = tomaRecorrido();
+        Lista<Distancia> distancias = new Lista<Distancia>();
+        try {
+            for (Vertice vertice : vertices) {
+                Distancia d = recorrido.distancia(vertice);
+                d.distancia = vertice == s ? 0 : Double.POSITIVE_INFINITY;
+                d.anterior = null;
+                distancias.agrega(d);
+            }
+            if (tipo == TipoMonticulo.AUTOMATICO)
+                tipo = eligeMonticulo();
+            boolean enteros = tipo == TipoMonticulo.RADIX;
+            MonticuloDijkstra<Distancia> monticulo =
+                nuevoMonticulo(tipo, distancias);
+            while (!monticulo.esVacia()) {
+                Distancia u = monticulo.elimina();
+                if (u.vertice == t || u.distancia == Double.POSITIVE_INFINITY)
+                    break;
+                for (Vecino vecino : u.vertice.vecinos) {
+                    if (enteros && vecino.peso != Math.rint(vecino.peso))
+                        throw new IllegalArgumentException("El montículo " +
+                                                           "radix requiere " +
+                                                           "pesos enteros.");
+                    Distancia v = recorrido.distancia(vecino.vecino);
+                    if (u.distancia + vecino.peso < v.distancia) {
+                        v.distancia = u.distancia + vecino.peso;
+                        v.anterior = u;
+                        monticulo.reordena(v);
+                    }
+                }
+            }
+            Lista<VerticeGrafica<T>> trayectoria =
+                new Lista<VerticeGrafica<T>>();
+            Distancia d = recorrido.distancia(t);
+            if (d.distancia != Double.POSITIVE_INFINITY)
+                for (; d != null; d = d.anterior)
+                    trayectoria.agregaInicio(d.vertice);
+            return trayectoria;
+        } finally {
+            recorrido.olvida(distancias);
+            devuelveRecorrido(recorrido);
+        }
+    }
+
+    /* Elige el montículo para dijkstra según la densidad de la gráfica. */
+    private TipoMonticulo eligeMonticulo() {
+        double n = vertices.getElementos();
+        return aristas > DENSA * n * (n - 1) / 2 ?
+            TipoMonticulo.ARREGLO : TipoMonticulo.MINIMO;
+    }
+
+    /* Crea el montículo del tipo recibido con las distancias. */
+    private MonticuloDijkstra<Distancia>
+    nuevoMonticulo(TipoMonticulo tipo, Lista<Distancia> distancias) {
+        int n = distancias.getElementos();
+        switch (tipo) {
+        case ARREGLO:
+            return new MonticuloArreglo<Distancia>(distancias, n);
+        case EMPAREJAMIENTO:
+            return new MonticuloEmparejamiento<Distancia>(distancias, n);
+        case RADIX:
+            return new MonticuloRadix<Distancia>(distancias, n,
+                                                 d -> (long)d.distancia);
+        default:
+            return new MonticuloMinimo<Distancia>(distancias, n);
+        }
     }
 }
@@ -0,0 +1,734 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Clase para gráficas congeladas. Una gráfica congelada es una copia
+ * inmutable de una {@link Grafica}, obtenida con {@link Grafica#congela},
+ * guardada como renglones dispersos comprimidos (<em>compressed sparse
+ * row</em>): los vértices se numeran en el orden en que fueron agregados,
+ * y los vecinos del vértice <em>i</em> son los destinos en las posiciones
+ * [<code>desplazamientos[i]</code>, <code>desplazamientos[i+1]</code>),
+ * con los pesos en las mismas posiciones de otro arreglo.</p>
+ *
+ * <p>Los recorridos y las trayectorias se calculan sobre arreglos de
+ * primitivos contiguos en lugar de seguir nodos de listas por el montículo,
+ * y cada arista ocupa 24 bytes (cuatro del destino y ocho del peso en cada
+ * sentido) en lugar de dos vecinos con sus nodos. Los vértices no tienen
+ * color ni distancia: cada consulta usa sus propios arreglos auxiliares, así
+ * que una gráfica congelada puede consultarse desde varios hilos a la
+ * vez.</p>
+ *
+ * <p>Los vértices que reciben las acciones y que regresan las trayectorias
+ * son vistas ligeras de la gráfica congelada; su color es siempre {@link
+ * Color#NINGUNO}.</p>
+ *
+ * <p>Para gráficas grandes, {@link #bfsParalelo(Object,ForkJoinPool)}
+ * recorre por niveles en paralelo, con fronteras en conjuntos de bits, y
+ * regresa las distancias y los padres en un {@link ArbolBFS}.</p>
+ *
+ * @param <T> El tipo de los elementos de la gráfica.
+ */
+public class GraficaCongelada<T> implements Iterable<T> {
+
+    /* Clase interna privada para vistas de vértices. */
+    private class Vista implements VerticeGrafica<T> {
+
+        /* El índice del vértice. */
+        private int indice;
+
+        /* Construye una vista del vértice con el índice. */
+        public Vista(int indice) {
+            this.indice = indice;
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public T get() {
+            return elementos[indice];
+        }
+
+        /* Regresa el grado del vértice. */
+        @Override public int getGrado() {
+            return desplazamientos[indice + 1] - desplazamientos[indice];
+        }
+
+        /* Regresa el color del vértice, que siempre es ninguno. */
+        @Override public Color getColor() {
+            return Color.NINGUNO;
+        }
+
+        /* Regresa un iterable para los vecinos. */
+        @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
+            return () -> new Iterator<VerticeGrafica<T>>() {
+                private int i = desplazamientos[indice];
+                @Override public boolean hasNext() {
+                    return i < desplazamientos[indice + 1];
+                }
+                @Override public VerticeGrafica<T> next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException("No hay vecinos.");
+                    return new Vista(destinos[i++]);
+                }
+            };
+        }
+
+        /* Regresa la gráfica congelada del vértice. */
+        private GraficaCongelada<T> grafica() {
+            return GraficaCongelada.this;
+        }
+
+        /* Nos dice si la vista es del mismo vértice que el objeto. */
+        @Override public boolean equals(Object objeto) {
+            if (objeto == null || getClass() != objeto.getClass())
+                return false;
+            @SuppressWarnings("unchecked") Vista vista = (Vista)objeto;
+            return indice == vista.indice &&
+                grafica() == vista.grafica();
+        }
+
+        /* Regresa la dispersión del vértice. */
+        @Override public int hashCode() {
+            return indice;
+        }
+    }
+
+    /* Clase interna privada para montículos mínimos de índices de vértices,
+     * ordenados por su distancia. */
+    private static class Monticulo {
+
+        /* Los índices de los vértices. */
+        private int[] arbol;
+        /* La posición de cada vértice en el árbol, o -1. */
+        private int[] posiciones;
+        /* Las distancias de los vértices. */
+        private double[] distancias;
+        /* El número de vértices en el montículo. */
+        private int elementos;
+
+        /* Construye un montículo vacío para las distancias. */
+        public Monticulo(double[] distancias) {
+            this.distancias = distancias;
+            arbol = new int[distancias.length];
+            posiciones = new int[distancias.length];
+            Arrays.fill(posiciones, -1);
+        }
+
+        /* Nos dice si el montículo es vacío. */
+        public boolean esVacia() {
+            return elementos == 0;
+        }
+
+        /* Agrega el vértice, o lo reordena si ya estaba porque su distancia
+         * disminuyó. */
+        public void agrega(int v) {
+            if (posiciones[v] == -1) {
+                arbol[elementos] = v;
+                posiciones[v] = elementos++;
+            }
+            sube(posiciones[v]);
+        }
+
+        /* Elimina y regresa el vértice de menor distancia. */
+        public int elimina() {
+            int v = arbol[0];
+            posiciones[v] = -1;
+            if (--elementos > 0) {
+                arbol[0] = arbol[elementos];
+                posiciones[arbol[0]] = 0;
+                baja(0);
+            }
+            return v;
+        }
+
+        /* Sube el vértice en la posición i mientras sea menor que su
+         * padre. */
+        private void sube(int i) {
+            int v = arbol[i];
+            while (i > 0) {
+                int p = (i - 1) / 2;
+                if (distancias[arbol[p]] <= distancias[v])
+                    break;
+                arbol[i] = arbol[p];
+                posiciones[arbol[i]] = i;
+                i = p;
+            }
+            arbol[i] = v;
+            posiciones[v] = i;
+        }
+
+        /* Baja el vértice en la posición i mientras sea mayor que alguno de
+         * sus hijos. */
+        private void baja(int i) {
+            int v = arbol[i];
+            while (2 * i + 1 < elementos) {
+                int h = 2 * i + 1;
+                if (h + 1 < elementos &&
+                    distancias[arbol[h + 1]] < distancias[arbol[h]])
+                    h++;
+                if (distancias[v] <= distancias[arbol[h]])
+                    break;
+                arbol[i] = arbol[h];
+                posiciones[arbol[i]] = i;
+                i = h;
+            }
+            arbol[i] = v;
+            posiciones[v] = i;
+        }
+    }
+
+    /* Clase interna privada para el estado de un recorrido BFS paralelo.
+     * Los conjuntos de bits usan un bit por vértice, en palabras de 64. */
+    private class Busqueda {
+
+        /* Los vértices visitados; los bits después del último vértice
+         * empiezan encendidos para que nunca se visiten. */
+        private AtomicLongArray visitados;
+        /* La frontera del nivel actual. */
+        private AtomicLongArray frontera;
+        /* La frontera del siguiente nivel. */
+        private AtomicLongArray siguiente;
+        /* Las distancias de los vértices, o -1. */
+        private int[] distancias;
+        /* Los padres de los vértices, o -1. */
+        private int[] padres;
+        /* El nivel que se está descubriendo. */
+        private int nivel;
+        /* Si el paso actual es de abajo hacia arriba. */
+        private boolean ascendente;
+
+        /* Construye el estado para un recorrido. */
+        public Busqueda() {
+            int n = elementos.length;
+            int palabras = (n + 63) >>> 6;
+            visitados = new AtomicLongArray(palabras);
+            frontera = new AtomicLongArray(palabras);
+            siguiente = new AtomicLongArray(palabras);
+            if ((n & 63) != 0)
+                visitados.set(palabras - 1, -1L << (n & 63));
+            distancias = new int[n];
+            padres = new int[n];
+            Arrays.fill(distancias, -1);
+            Arrays.fill(padres, -1);
+        }
+
+        /* Descubre el vértice v desde u en el paso de arriba hacia abajo;
+         * regresa el grado de v si este hilo lo descubrió, o -1 si ya
+         * estaba visitado. */
+        public int descubre(int u, int v) {
+            if (!marca(visitados, v))
+                return -1;
+            marca(siguiente, v);
+            padres[v] = u;
+            distancias[v] = nivel;
+            return desplazamientos[v + 1] - desplazamientos[v];
+        }
+
+        /* Recorre de arriba hacia abajo los vértices de la frontera en las
+         * palabras [inicio, fin); regresa la suma de los grados de los
+         * vértices descubiertos. */
+        public long desciende(int inicio, int fin) {
+            long grados = 0;
+            for (int w = inicio; w < fin; w++) {
+                long bits = frontera.get(w);
+                while (bits != 0) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int f = desplazamientos[u + 1];
+                    for (int i = desplazamientos[u]; i < f; i++) {
+                        int g = descubre(u, destinos[i]);
+                        if (g != -1)
+                            grados += g;
+                    }
+                }
+            }
+            return grados;
+        }
+
+        /* Recorre de abajo hacia arriba los vértices no visitados en las
+         * palabras [inicio, fin), buscando un vecino en la frontera; regresa
+         * la suma de los grados de los vértices descubiertos. Cada tarea es
+         * dueña de sus palabras, así que no hay que marcar atómicamente. */
+        public long asciende(int inicio, int fin) {
+            long grados = 0;
+            for (int w = inicio; w < fin; w++) {
+                long vistos = visitados.get(w);
+                long libres = ~vistos;
+                long nuevos = 0;
+                while (libres != 0) {
+                    long bit = libres & -libres;
+                    int v = (w << 6) + Long.numberOfTrailingZeros(libres);
+                    libres ^= bit;
+                    int f = desplazamientos[v + 1];
+                    for (int i = desplazamientos[v]; i < f; i++) {
+                        int u = destinos[i];
+                        if ((frontera.get(u >>> 6) & (1L << u)) != 0) {
+                            padres[v] = u;
+                            distancias[v] = nivel;
+                            nuevos |= bit;
+                            grados += f - desplazamientos[v];
+                            break;
+                        }
+                    }
+                }
+                if (nuevos != 0) {
+                    visitados.set(w, vistos | nuevos);
+                    siguiente.set(w, nuevos);
+                }
+            }
+            return grados;
+        }
+    }
+
+    /* Clase interna privada para los pasos de un recorrido BFS paralelo
+     * sobre un rango de palabras de los conjuntos de bits. */
+    private class Paso extends RecursiveTask<Long> {
+
+        /* Versión para la serialización. */
+        private static final long serialVersionUID = 1L;
+
+        /* El estado del recorrido. */
+        private Busqueda busqueda;
+        /* La primera palabra del rango. */
+        private int inicio;
+        /* La palabra después de la última del rango. */
+        private int fin;
+
+        /* Construye un paso para el rango de palabras. */
+        public Paso(Busqueda busqueda, int inicio, int fin) {
+            this.busqueda = busqueda;
+            this.inicio = inicio;
+            this.fin = fin;
+        }
+
+        /* Recorre el rango, partiéndolo si es grande; regresa la suma de
+         * los grados de los vértices descubiertos. */
+        @Override protected Long compute() {
+            if (fin - inicio <= PALABRAS_POR_TAREA)
+                return busqueda.ascendente ? busqueda.asciende(inicio, fin) :
+                    busqueda.desciende(inicio, fin);
+            int mitad = (inicio + fin) >>> 1;
+            Paso izquierdo = new Paso(busqueda, inicio, mitad);
+            izquierdo.fork();
+            long derecho = new Paso(busqueda, mitad, fin).compute();
+            return derecho + izquierdo.join();
+        }
+    }
+
+    /** Divisor de las aristas no visitadas para cambiar a pasos de abajo
+     *  hacia arriba, como en Beamer et al. */
+    public static final int ALFA = 14;
+    /** Divisor de los vértices para regresar a pasos de arriba hacia
+     *  abajo, como en Beamer et al. */
+    public static final int BETA = 24;
+
+    /* Las palabras de 64 vértices que procesa cada tarea sin partirse. */
+    private static final int PALABRAS_POR_TAREA = 64;
+
+    /* Los elementos, en el orden en que fueron agregados. */
+    private T[] elementos;
+    /* El inicio de los vecinos de cada vértice, más el final del último. */
+    private int[] desplazamientos;
+    /* Los índices de los vecinos. */
+    private int[] destinos;
+    /* Los pesos de las aristas a los vecinos. */
+    private double[] pesos;
+    /* La tabla de índices de los elementos, más uno; cero si está vacía. */
+    private int[] tabla;
+    /* La máscara para obtener índices de la tabla. */
+    private int mascara;
+
+    /* Construye una gráfica congelada con los arreglos recibidos, que no se
+     * copian; desplazamientos tiene un elemento más que elementos. */
+    GraficaCongelada(T[] elementos, int[] desplazamientos, int[] destinos,
+                     double[] pesos) {
+        this.elementos = elementos;
+        this.desplazamientos = desplazamientos;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        int n = 2;
+        while (n < 2 * elementos.length)
+            n <<= 1;
+        tabla = new int[n];
+        mascara = n - 1;
+        for (int i = 0; i < elementos.length; i++) {
+            int j = posicion(elementos[i]);
+            while (tabla[j] != 0)
+                j = (j + 1) & mascara;
+            tabla[j] = i + 1;
+        }
+    }
+
+    /* Regresa la posición ideal del elemento en la tabla. */
+    private int posicion(T elemento) {
+        int d = elemento.hashCode();
+        return (d ^ (d >>> 16)) & mascara;
+    }
+
+    /* Regresa el índice del elemento, o -1 si no está. */
+    private int indice(T elemento) {
+        if (elemento == null)
+            return -1;
+        int j = posicion(elemento);
+        while (tabla[j] != 0) {
+            if (elementos[tabla[j] - 1].equals(elemento))
+                return tabla[j] - 1;
+            j = (j + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /* Regresa el índice del elemento. */
+    int busca(T elemento) {
+        int i = indice(elemento);
+        if (i == -1)
+            throw new NoSuchElementException("El elemento no está en la " +
+                                             "gráfica.");
+        return i;
+    }
+
+    /* Regresa el elemento con el índice. */
+    T elemento(int i) {
+        return elementos[i];
+    }
+
+    /* Regresa la posición de la arista de a a b, o -1 si no son vecinos. */
+    private int arista(int a, int b) {
+        for (int i = desplazamientos[a]; i < desplazamientos[a + 1]; i++)
+            if (destinos[i] == b)
+                return i;
+        return -1;
+    }
+
+    /**
+     * Regresa el número de elementos en la gráfica, que es igual al número
+     * de vértices.
+     * @return el número de elementos en la gráfica.
+     */
+    public int getElementos() {
+        return elementos.length;
+    }
+
+    /**
+     * Regresa el número de aristas.
+     * @return el número de aristas.
+     */
+    public int getAristas() {
+        return destinos.length / 2;
+    }
+
+    /**
+     * Nos dice si la gráfica es vacía.
+     * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esVacia() {
+        return elementos.length == 0;
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @param elemento el elemento a buscar.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return indice(elemento) != -1;
+    }
+
+    /**
+     * Regresa el vértice correspondiente al elemento recibido.
+     * @param elemento el elemento del que queremos el vértice.
+     * @return el vértice correspondiente al elemento recibido.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public VerticeGrafica<T> vertice(T elemento) {
+        return new Vista(busca(elemento));
+    }
+
+    /**
+     * Nos dice si dos elementos de la gráfica están conectados.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si a y b son vecinos, <code>false</code> en
+     *         otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la
+     *         gráfica.
+     */
+    public boolean sonVecinos(T a, T b) {
+        return arista(busca(a), busca(b)) != -1;
+    }
+
+    /**
+     * Regresa el peso de la arista que comparten los vértices que contienen
+     * a los elementos recibidos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return el peso de la arista entre a y b.
+     * @throws NoSuchElementException si a o b no son elementos de la
+     *         gráfica.
+     * @throws IllegalArgumentException si a o b no están conectados.
+     */
+    public double getPeso(T a, T b) {
+        int i = arista(busca(a), busca(b));
+        if (i == -1)
+            throw new IllegalArgumentException("Los elementos no están " +
+                                               "conectados.");
+        return pesos[i];
+    }
+
+    /**
+     * Realiza la acción recibida en cada uno de los vértices de la gráfica,
+     * en el orden en que fueron agregados.
+     * @param accion la acción a realizar.
+     */
+    public void paraCadaVertice(AccionVerticeGrafica<T> accion) {
+        for (int i = 0; i < elementos.length; i++)
+            accion.actua(new Vista(i));
+    }
+
+    /**
+     * Realiza la acción recibida en los vértices alcanzables desde el
+     * elemento recibido, en el orden determinado por BFS; es el mismo orden
+     * que el de {@link Grafica#bfs} en la gráfica original.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
+        int s = busca(elemento);
+        int[] cola = new int[elementos.length];
+        boolean[] vistos = new boolean[elementos.length];
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = s;
+        vistos[s] = true;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            accion.actua(new Vista(u));
+            for (int i = desplazamientos[u]; i < desplazamientos[u + 1]; i++)
+                if (!vistos[destinos[i]]) {
+                    vistos[destinos[i]] = true;
+                    cola[rabo++] = destinos[i];
+                }
+        }
+    }
+
+    /**
+     * Realiza la acción recibida en los vértices alcanzables desde el
+     * elemento recibido, en el orden determinado por DFS; es el mismo orden
+     * que el de {@link Grafica#dfs} en la gráfica original.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
+        int s = busca(elemento);
+        int[] pila = new int[elementos.length];
+        boolean[] vistos = new boolean[elementos.length];
+        int tope = 0;
+        pila[tope++] = s;
+        vistos[s] = true;
+        while (tope > 0) {
+            int u = pila[--tope];
+            accion.actua(new Vista(u));
+            for (int i = desplazamientos[u]; i < desplazamientos[u + 1]; i++)
+                if (!vistos[destinos[i]]) {
+                    vistos[destinos[i]] = true;
+                    pila[tope++] = destinos[i];
+                }
+        }
+    }
+
+    /**
+     * Nos dice si la gráfica es conexa.
+     * @return <code>true</code> si la gráfica es conexa, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esConexa() {
+        if (elementos.length == 0)
+            return true;
+        int[] alcanzados = { 0 };
+        bfs(elementos[0], v -> alcanzados[0]++);
+        return alcanzados[0] == elementos.length;
+    }
+
+    /* Regresa la trayectoria de s a t siguiendo a los predecesores, o una
+     * lista vacía si t no es alcanzable. */
+    private Lista<VerticeGrafica<T>> trayectoria(int s, int t,
+                                                 int[] predecesores) {
+        Lista<VerticeGrafica<T>> l = new Lista<VerticeGrafica<T>>();
+        if (t != s && predecesores[t] == -1)
+            return l;
+        for (int v = t; v != s; v = predecesores[v])
+            l.agregaInicio(new Vista(v));
+        l.agregaInicio(new Vista(s));
+        return l;
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos vértices.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con vértices de la gráfica que forman una
+     *         trayectoria de distancia mínima entre los vértices de origen y
+     *         destino, o una lista vacía si están en componentes conexas
+     *         distintas.
+     * @throws NoSuchElementException si alguno de los dos elementos no está
+     *         en la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino) {
+        int s = busca(origen);
+        int t = busca(destino);
+        int[] predecesores = new int[elementos.length];
+        Arrays.fill(predecesores, -1);
+        int[] cola = new int[elementos.length];
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = s;
+        while (cabeza < rabo && predecesores[t] == -1) {
+            int u = cola[cabeza++];
+            for (int i = desplazamientos[u]; i < desplazamientos[u + 1]; i++) {
+                int v = destinos[i];
+                if (v != s && predecesores[v] == -1) {
+                    predecesores[v] = u;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+        return trayectoria(s, t, predecesores);
+    }
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos vértices, con el
+     * algoritmo de Dijkstra sobre un montículo de índices.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con vértices de la gráfica que forman una
+     *         trayectoria de peso mínimo entre los vértices de origen y
+     *         destino, o una lista vacía si están en componentes conexas
+     *         distintas.
+     * @throws NoSuchElementException si alguno de los dos elementos no está
+     *         en la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino) {
+        int s = busca(origen);
+        int t = busca(destino);
+        double[] distancias = new double[elementos.length];
+        Arrays.fill(distancias, Double.POSITIVE_INFINITY);
+        int[] predecesores = new int[elementos.length];
+        Arrays.fill(predecesores, -1);
+        Monticulo monticulo = new Monticulo(distancias);
+        distancias[s] = 0;
+        monticulo.agrega(s);
+        while (!monticulo.esVacia()) {
+            int u = monticulo.elimina();
+            if (u == t)
+                break;
+            for (int i = desplazamientos[u]; i < desplazamientos[u + 1]; i++) {
+                int v = destinos[i];
+                double d = distancias[u] + pesos[i];
+                if (d < distancias[v]) {
+                    distancias[v] = d;
+                    predecesores[v] = u;
+                    monticulo.agrega(v);
+                }
+            }
+        }
+        return trayectoria(s, t, predecesores);
+    }
+
+    /* Enciende atómicamente el bit del vértice; regresa true si estaba
+     * apagado. */
+    private static boolean marca(AtomicLongArray bits, int v) {
+        int w = v >>> 6;
+        long bit = 1L << v;
+        long x = bits.get(w);
+        while ((x & bit) == 0) {
+            if (bits.compareAndSet(w, x, x | bit))
+                return true;
+            x = bits.get(w);
+        }
+        return false;
+    }
+
+    /**
+     * Recorre la gráfica por niveles desde el elemento recibido, en paralelo
+     * en la alberca común de {@link ForkJoinPool}.
+     * @param origen el elemento de origen.
+     * @return el árbol BFS con las distancias y los padres de los vértices.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public ArbolBFS<T> bfsParalelo(T origen) {
+        return bfsParalelo(origen, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Recorre la gráfica por niveles desde el elemento recibido, en paralelo
+     * en la alberca recibida. Cada nivel es un paso de arriba hacia abajo,
+     * que revisa los vecinos de la frontera y los reclama atómicamente, o de
+     * abajo hacia arriba, que revisa los vértices no visitados hasta
+     * encontrar un vecino en la frontera. Se cambia de abajo hacia arriba
+     * cuando las aristas de la frontera son más que las no visitadas entre
+     * {@link #ALFA}, y se regresa cuando la frontera tiene menos vértices
+     * que el total entre {@link #BETA} (Beamer, Asanović y Patterson). Los
+     * visitados y las fronteras se guardan en conjuntos de bits fuera de los
+     * vértices, así que varios recorridos pueden correr a la vez.
+     * @param origen el elemento de origen.
+     * @param alberca la alberca de hilos a usar.
+     * @return el árbol BFS con las distancias y los padres de los vértices;
+     *         los padres pueden ser cualquiera de los vecinos en el nivel
+     *         anterior.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public ArbolBFS<T> bfsParalelo(T origen, ForkJoinPool alberca) {
+        int s = busca(origen);
+        int n = elementos.length;
+        Busqueda busqueda = new Busqueda();
+        int palabras = busqueda.visitados.length();
+        marca(busqueda.visitados, s);
+        marca(busqueda.frontera, s);
+        busqueda.distancias[s] = 0;
+        long aristasFrontera = desplazamientos[s + 1] - desplazamientos[s];
+        long aristasLibres = destinos.length - aristasFrontera;
+        int verticesFrontera = 1;
+        int alcanzados = 1;
+        int niveles = 1;
+        while (verticesFrontera > 0) {
+            if (!busqueda.ascendente)
+                busqueda.ascendente = aristasFrontera > aristasLibres / ALFA;
+            else
+                busqueda.ascendente = verticesFrontera >= n / BETA;
+            busqueda.nivel = niveles;
+            long grados = alberca.invoke(new Paso(busqueda, 0, palabras));
+            AtomicLongArray anterior = busqueda.frontera;
+            busqueda.frontera = busqueda.siguiente;
+            busqueda.siguiente = anterior;
+            verticesFrontera = 0;
+            for (int w = 0; w < palabras; w++) {
+                verticesFrontera += Long.bitCount(busqueda.frontera.get(w));
+                anterior.set(w, 0);
+            }
+            aristasFrontera = grados;
+            aristasLibres -= grados;
+            alcanzados += verticesFrontera;
+            if (verticesFrontera > 0)
+                niveles++;
+        }
+        return new ArbolBFS<T>(this, s, busqueda.distancias, busqueda.padres,
+                               alcanzados, niveles);
+    }
+
+    /**
+     * Regresa un iterador para iterar la gráfica, en el orden en que fueron
+     * agregados sus elementos.
+     * @return un iterador para iterar la gráfica.
+     */
+    @Override public Iterator<T> iterator() {
+        return Arrays.asList(elementos).iterator();
+    }
+}
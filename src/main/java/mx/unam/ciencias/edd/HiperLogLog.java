@@ -0,0 +1,403 @@
+package mx.unam.ciencias.edd;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>Clase para estimar cuántos elementos distintos hay en un flujo con el
+ * algoritmo HyperLogLog, usando memoria constante: 2<sup><em>p</em></sup>
+ * bytes para precisión <em>p</em> (4 KB con la precisión por omisión), con
+ * error relativo típico de 1.04/√2<sup><em>p</em></sup> (1.6% con la
+ * precisión por omisión).</p>
+ *
+ * <p>Mientras hay pocos elementos distintos, el estimador usa una
+ * representación dispersa: guarda ordenadas las dispersiones truncadas a
+ * 25 bits, lo que da estimaciones casi exactas. Cuando la representación
+ * dispersa ocuparía más memoria que los registros, se convierte a la
+ * representación densa de 2<sup><em>p</em></sup> registros.</p>
+ *
+ * <p>Los elementos se dispersan con el {@link Dispersor64} recibido, y la
+ * dispersión de 64 bits se mezcla antes de usarse, así que funciona incluso
+ * con dispersores cuyos bits altos no están bien repartidos. Con 64 bits el
+ * estimador no se satura con miles de millones de elementos distintos.</p>
+ *
+ * <p>Dos estimadores con la misma precisión y el mismo dispersor se pueden
+ * unir con {@link #une}; el resultado es el mismo que si todos los
+ * elementos se hubieran agregado a uno solo, así que cada hilo o cada
+ * archivo puede tener el suyo. Con {@link #serializa} y {@link
+ * #deserializa} los estimadores se pueden guardar y unir después.</p>
+ */
+public class HiperLogLog<T> {
+
+    /** La precisión por omisión. */
+    public static final int PRECISION = 12;
+    /** La precisión mínima. */
+    public static final int MINIMA_PRECISION = 4;
+    /** La precisión máxima. */
+    public static final int MAXIMA_PRECISION = 16;
+
+    /* La precisión de la representación dispersa. */
+    private static final int PRECISION_DISPERSA = 25;
+    /* Bits para el rango en una entrada dispersa. */
+    private static final int BITS_RANGO = 6;
+    /* La constante α∞ = 1/(2 ln 2) del estimador. */
+    private static final double ALFA = 1.0 / (2.0 * Math.log(2.0));
+    /* Marca de la representación densa al serializar; las marcas 0 y 1
+     * eran las de los estimadores de 32 bits, que ya no se aceptan. */
+    private static final byte DENSA = 2;
+    /* Marca de la representación dispersa al serializar. */
+    private static final byte DISPERSA = 3;
+
+    /* La precisión. */
+    private int precision;
+    /* El número de registros. */
+    private int m;
+    /* Los registros; null mientras la representación es dispersa. */
+    private byte[] registros;
+    /* Las entradas dispersas, ordenadas y sin índices repetidos. */
+    private int[] dispersas;
+    /* El número de entradas dispersas. */
+    private int nDispersas;
+    /* Las entradas dispersas que no se han ordenado. */
+    private int[] temporales;
+    /* El número de entradas dispersas sin ordenar. */
+    private int nTemporales;
+    /* El dispersor. */
+    private Dispersor64<T> dispersor;
+
+    /**
+     * Construye un estimador con la precisión por omisión.
+     * @param dispersor el dispersor para los elementos.
+     */
+    public HiperLogLog(Dispersor64<T> dispersor) {
+        this(PRECISION, dispersor);
+    }
+
+    /**
+     * Construye un estimador con la precisión recibida.
+     * @param precision la precisión; el estimador usa
+     *        2<sup><em>precision</em></sup> registros.
+     * @param dispersor el dispersor para los elementos.
+     * @throws IllegalArgumentException si la precisión no está entre
+     *         {@link #MINIMA_PRECISION} y {@link #MAXIMA_PRECISION}.
+     */
+    public HiperLogLog(int precision, Dispersor64<T> dispersor) {
+        if (precision < MINIMA_PRECISION || precision > MAXIMA_PRECISION)
+            throw new IllegalArgumentException("Precisión inválida: " +
+                                               precision);
+        this.precision = precision;
+        this.dispersor = dispersor;
+        m = 1 << precision;
+        limpia();
+    }
+
+    /**
+     * Agrega un elemento al estimador.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public void agrega(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("El elemento es nulo.");
+        agregaDispersion(dispersor.dispersa64(elemento));
+    }
+
+    /**
+     * Agrega al estimador un elemento ya dispersado. La dispersión debe ser
+     * la de 64 bits del mismo dispersor que usa el estimador; con
+     * dispersiones de 32 bits, como las huellas de {@link HuellasArchivo},
+     * el estimador deja de distinguir elementos cuando hay del orden de
+     * 2<sup>32</sup> distintos.
+     * @param dispersion la dispersión de 64 bits del elemento.
+     */
+    public void agregaDispersion(long dispersion) {
+        long h = FabricaDispersores.mezcla(dispersion);
+        if (registros != null) {
+            int j = (int)(h >>> (64 - precision));
+            int r = Long.numberOfLeadingZeros((h << precision) |
+                                              (1L << (precision - 1))) + 1;
+            if (r > registros[j])
+                registros[j] = (byte)r;
+            return;
+        }
+        int r = Long.numberOfLeadingZeros((h << PRECISION_DISPERSA) |
+                                          (1L << (PRECISION_DISPERSA-1)));
+        temporales[nTemporales++] =
+            ((int)(h >>> (64 - PRECISION_DISPERSA)) << BITS_RANGO) | (r + 1);
+        if (nTemporales == temporales.length)
+            consolida();
+    }
+
+    /**
+     * Regresa el número estimado de elementos distintos agregados.
+     * @return el número estimado de elementos distintos.
+     */
+    public long cardinalidad() {
+        if (registros != null) {
+            int q = 64 - precision;
+            int[] c = new int[q + 2];
+            for (byte r : registros)
+                c[r]++;
+            return Math.round(estima(c, m, q));
+        }
+        consolida();
+        int q = 64 - PRECISION_DISPERSA;
+        int[] c = new int[q + 2];
+        c[0] = (1 << PRECISION_DISPERSA) - nDispersas;
+        for (int i = 0; i < nDispersas; i++)
+            c[rango(dispersas[i])]++;
+        return Math.round(estima(c, 1 << PRECISION_DISPERSA, q));
+    }
+
+    /**
+     * Une otro estimador a éste. Después de la unión, éste estima los
+     * elementos distintos agregados a cualquiera de los dos. Los dos deben
+     * usar el mismo dispersor.
+     * @param otro el estimador a unir.
+     * @throws IllegalArgumentException si el otro estimador tiene otra
+     *         precisión.
+     */
+    public void une(HiperLogLog<T> otro) {
+        if (otro.precision != precision)
+            throw new IllegalArgumentException("Las precisiones son " +
+                                               "distintas.");
+        if (otro == this)
+            return;
+        otro.consolida();
+        consolida();
+        if (registros == null && otro.registros == null) {
+            dispersas = combina(dispersas, nDispersas,
+                                otro.dispersas, otro.nDispersas);
+            nDispersas = dispersas.length;
+            if (nDispersas > m / 4)
+                densifica();
+            return;
+        }
+        if (registros == null)
+            densifica();
+        if (otro.registros != null) {
+            for (int j = 0; j < m; j++)
+                if (otro.registros[j] > registros[j])
+                    registros[j] = otro.registros[j];
+        } else {
+            for (int i = 0; i < otro.nDispersas; i++)
+                registra(otro.dispersas[i]);
+        }
+    }
+
+    /**
+     * Vacía el estimador.
+     */
+    public void limpia() {
+        registros = null;
+        dispersas = new int[0];
+        nDispersas = 0;
+        temporales = new int[Math.max(16, m / 16)];
+        nTemporales = 0;
+    }
+
+    /**
+     * Regresa la precisión del estimador.
+     * @return la precisión del estimador.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Nos dice si el estimador usa la representación dispersa.
+     * @return <code>true</code> si el estimador usa la representación
+     *         dispersa, <code>false</code> si usa la densa.
+     */
+    public boolean esDisperso() {
+        consolida();
+        return registros == null;
+    }
+
+    /**
+     * Regresa una representación en bytes del estimador, sin el dispersor.
+     * @return una representación en bytes del estimador.
+     */
+    public byte[] serializa() {
+        consolida();
+        if (registros != null) {
+            ByteBuffer b = ByteBuffer.allocate(2 + m);
+            b.put((byte)precision).put(DENSA).put(registros);
+            return b.array();
+        }
+        ByteBuffer b = ByteBuffer.allocate(6 + 4 * nDispersas);
+        b.put((byte)precision).put(DISPERSA).putInt(nDispersas);
+        b.asIntBuffer().put(dispersas, 0, nDispersas);
+        return b.array();
+    }
+
+    /**
+     * Reconstruye un estimador a partir de su representación en bytes.
+     * @param <T> el tipo de los elementos del estimador.
+     * @param bytes la representación en bytes, obtenida con {@link
+     *        #serializa}.
+     * @param dispersor el dispersor del estimador; debe ser el mismo con el
+     *        que se construyó el estimador serializado.
+     * @return el estimador reconstruido.
+     * @throws IllegalArgumentException si los bytes no son la
+     *         representación de un estimador.
+     */
+    public static <T> HiperLogLog<T> deserializa(byte[] bytes,
+                                                 Dispersor64<T> dispersor) {
+        try {
+            ByteBuffer b = ByteBuffer.wrap(bytes);
+            HiperLogLog<T> hll = new HiperLogLog<T>(b.get(), dispersor);
+            byte tipo = b.get();
+            if (tipo == DENSA) {
+                hll.registros = new byte[hll.m];
+                b.get(hll.registros);
+                for (byte r : hll.registros)
+                    if (r < 0 || r > 65 - hll.precision)
+                        throw new IllegalArgumentException("Registro " +
+                                                           "inválido.");
+            } else if (tipo == DISPERSA) {
+                int n = b.getInt();
+                if (n < 0 || n > b.remaining() / 4)
+                    throw new IllegalArgumentException("Longitud " +
+                                                       "inválida.");
+                hll.dispersas = new int[n];
+                b.asIntBuffer().get(hll.dispersas);
+                b.position(b.position() + 4 * n);
+                hll.nDispersas = n;
+                for (int i = 0; i < n; i++) {
+                    int r = rango(hll.dispersas[i]);
+                    if (hll.dispersas[i] < 0 || r < 1 ||
+                        r > 65 - PRECISION_DISPERSA ||
+                        (i > 0 && indice(hll.dispersas[i]) <=
+                         indice(hll.dispersas[i-1])))
+                        throw new IllegalArgumentException("Entrada " +
+                                                           "inválida.");
+                }
+            } else {
+                throw new IllegalArgumentException("Tipo inválido.");
+            }
+            if (b.hasRemaining())
+                throw new IllegalArgumentException("Bytes sobrantes.");
+            return hll;
+        } catch (BufferUnderflowException bue) {
+            throw new IllegalArgumentException("Representación truncada.");
+        }
+    }
+
+    /* Ordena las entradas temporales y las mezcla con las dispersas; si
+     * la representación dispersa crece demasiado, la convierte en densa. */
+    private void consolida() {
+        if (registros != null || nTemporales == 0)
+            return;
+        Arrays.sort(temporales, 0, nTemporales);
+        int n = 0;
+        for (int i = 0; i < nTemporales; i++) {
+            if (n > 0 && indice(temporales[n-1]) == indice(temporales[i]))
+                n--;
+            temporales[n++] = temporales[i];
+        }
+        dispersas = combina(dispersas, nDispersas, temporales, n);
+        nDispersas = dispersas.length;
+        nTemporales = 0;
+        if (nDispersas > m / 4)
+            densifica();
+    }
+
+    /* Convierte la representación dispersa en densa. */
+    private void densifica() {
+        consolida();
+        if (registros != null)
+            return;
+        registros = new byte[m];
+        for (int i = 0; i < nDispersas; i++)
+            registra(dispersas[i]);
+        dispersas = null;
+        temporales = null;
+        nDispersas = 0;
+    }
+
+    /* Actualiza los registros con una entrada dispersa. Los bits del índice
+     * disperso que siguen a los del índice denso determinan el rango; si
+     * son todos 0, el rango continúa con el de la entrada. */
+    private void registra(int entrada) {
+        int indice = indice(entrada);
+        int resto = PRECISION_DISPERSA - precision;
+        int j = indice >>> resto;
+        int bits = indice & ((1 << resto) - 1);
+        int r = bits != 0 ?
+            Integer.numberOfLeadingZeros(bits) - (32 - resto) + 1 :
+            resto + rango(entrada);
+        if (r > registros[j])
+            registros[j] = (byte)r;
+    }
+
+    /* Mezcla dos arreglos ordenados de entradas sin índices repetidos;
+     * para un índice que está en ambos se queda el rango mayor. */
+    private static int[] combina(int[] a, int na, int[] b, int nb) {
+        int[] c = new int[na + nb];
+        int i = 0, j = 0, k = 0;
+        while (i < na && j < nb) {
+            int ia = indice(a[i]), ib = indice(b[j]);
+            if (ia < ib)
+                c[k++] = a[i++];
+            else if (ib < ia)
+                c[k++] = b[j++];
+            else
+                c[k++] = Math.max(a[i++], b[j++]);
+        }
+        while (i < na)
+            c[k++] = a[i++];
+        while (j < nb)
+            c[k++] = b[j++];
+        return k == c.length ? c : Arrays.copyOf(c, k);
+    }
+
+    /* Regresa el índice disperso de una entrada. */
+    private static int indice(int entrada) {
+        return entrada >>> BITS_RANGO;
+    }
+
+    /* Regresa el rango de una entrada. */
+    private static int rango(int entrada) {
+        return entrada & ((1 << BITS_RANGO) - 1);
+    }
+
+    /* El estimador de Ertl para m registros con rangos hasta q + 1, a
+     * partir del número de registros con cada rango. */
+    private static double estima(int[] c, int m, int q) {
+        double z = m * tau(1.0 - (double)c[q+1] / m);
+        for (int k = q; k >= 1; k--)
+            z = 0.5 * (z + c[k]);
+        z += m * sigma((double)c[0] / m);
+        return ALFA * m * m / z;
+    }
+
+    /* La función σ del estimador de Ertl. */
+    private static double sigma(double x) {
+        if (x == 1.0)
+            return Double.POSITIVE_INFINITY;
+        double y = 1.0, z = x, anterior;
+        do {
+            x *= x;
+            anterior = z;
+            z += x * y;
+            y += y;
+        } while (z != anterior);
+        return z;
+    }
+
+    /* La función τ del estimador de Ertl. */
+    private static double tau(double x) {
+        if (x == 0.0 || x == 1.0)
+            return 0.0;
+        double y = 1.0, z = 1.0 - x, anterior;
+        do {
+            x = Math.sqrt(x);
+            anterior = z;
+            y *= 0.5;
+            z -= (1.0 - x) * (1.0 - x) * y;
+        } while (z != anterior);
+        return z / 3.0;
+    }
+}
@@ -0,0 +1,328 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * <p>Clase para calcular las huellas (dispersiones) de todos los registros
+ * de un archivo.</p>
+ *
+ * <p>Los registros pueden ser de tamaño fijo, o líneas terminadas en
+ * <code>'\n'</code>. El archivo se mapea a memoria con {@link
+ * FileChannel#map} y cada registro se dispersa directamente sobre la región
+ * mapeada, sin copiarlo a un arreglo ni convertirlo en cadena. El archivo se
+ * divide en rangos de bytes que se procesan en paralelo, uno por
+ * procesador; cada rango empieza y termina en un límite de registro.</p>
+ *
+ * <p>La huella de cada registro es la misma que regresa el dispersor de
+ * {@link FabricaDispersores#dispersorBuffer} sobre los bytes del registro,
+ * y por lo tanto la misma que regresa el de {@link
+ * FabricaDispersores#dispersorCadena(AlgoritmoDispersor,long)} sobre la
+ * línea leída como cadena en UTF-8.</p>
+ */
+public class HuellasArchivo {
+
+    /* Tamaño máximo de una región mapeada. */
+    private static final long MAXIMA_REGION = Integer.MAX_VALUE;
+    /* Tamaño mínimo de un rango para que valga la pena otro hilo. */
+    private static final long MINIMO_RANGO = 1L << 20;
+    /* Tamaño del búfer para escribir huellas y buscar saltos de línea. */
+    private static final int BUFFER = 1 << 16;
+    /* Ocho bytes con el salto de línea. */
+    private static final long SALTOS = 0x0a0a0a0a0a0a0a0aL;
+    /* Ocho bytes con el bit más bajo prendido. */
+    private static final long BAJOS = 0x0101010101010101L;
+    /* Ocho bytes con el bit más alto prendido. */
+    private static final long ALTOS = 0x8080808080808080L;
+
+    /* Vista de búferes de bytes como enteros largos little-endian. */
+    private static final VarHandle LARGO_BUFFER =
+        MethodHandles.byteBufferViewVarHandle(long[].class,
+                                              ByteOrder.LITTLE_ENDIAN);
+
+    /* Constructor privado para evitar instanciación. */
+    private HuellasArchivo() {}
+
+    /**
+     * Calcula las huellas de los registros de tamaño fijo de un archivo. Si
+     * el tamaño del archivo no es múltiplo del tamaño de registro, el último
+     * registro es más corto.
+     * @param archivo el archivo.
+     * @param tamano el tamaño en bytes de cada registro.
+     * @param algoritmo el algoritmo de dispersión.
+     * @param semilla la semilla del dispersor.
+     * @return las huellas de los registros, en el orden del archivo.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el tamaño no es positivo, si el
+     *         archivo tiene demasiados registros para un arreglo, o si el
+     *         algoritmo no admite la semilla.
+     */
+    public static int[] huellasFijas(Path archivo, int tamano,
+                                     AlgoritmoDispersor algoritmo,
+                                     long semilla) throws IOException {
+        if (tamano <= 0)
+            throw new IllegalArgumentException("Tamaño de registro " +
+                                               "inválido: " + tamano);
+        Dispersor<ByteBuffer> dispersor =
+            FabricaDispersores.dispersorBuffer(algoritmo, semilla);
+        try (FileChannel canal = FileChannel.open(archivo,
+                                                  StandardOpenOption.READ)) {
+            long bytes = canal.size();
+            long registros = (bytes + tamano - 1) / tamano;
+            if (registros > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("Demasiados registros: " +
+                                                   registros);
+            int[] huellas = new int[(int)registros];
+            if (registros == 0)
+                return huellas;
+            int partes = partes(bytes);
+            long porRango = (registros + partes - 1) / partes;
+            porRango = Math.max(1, Math.min(porRango, MAXIMA_REGION / tamano));
+            int rangos = (int)((registros + porRango - 1) / porRango);
+            long k = porRango;
+            paralelo(rangos, r -> {
+                    long primero = r * k;
+                    long inicio = primero * tamano;
+                    long fin = Math.min(inicio + k * tamano, bytes);
+                    ByteBuffer b = mapea(canal, inicio, fin);
+                    int i = (int)primero;
+                    for (int p = 0; p < b.capacity(); p += tamano) {
+                        b.limit(Math.min(p + tamano, b.capacity()));
+                        b.position(p);
+                        huellas[i++] = dispersor.dispersa(b);
+                    }
+                });
+            return huellas;
+        }
+    }
+
+    /**
+     * Calcula las huellas de las líneas de un archivo. Las líneas terminan
+     * en <code>'\n'</code> o en <code>"\r\n"</code>, y el terminador no
+     * forma parte de la línea; igual que con {@link
+     * java.io.BufferedReader#readLine}, la última línea puede no tener
+     * terminador, y un terminador al final del archivo no crea una línea
+     * vacía.
+     * @param archivo el archivo.
+     * @param algoritmo el algoritmo de dispersión.
+     * @param semilla la semilla del dispersor.
+     * @return las huellas de las líneas, en el orden del archivo.
+     * @throws IOException si no se puede leer el archivo, o si tiene una
+     *         línea de más de 2 GB.
+     * @throws IllegalArgumentException si el algoritmo no admite la
+     *         semilla.
+     */
+    public static int[] huellasLineas(Path archivo,
+                                      AlgoritmoDispersor algoritmo,
+                                      long semilla) throws IOException {
+        Dispersor<ByteBuffer> dispersor =
+            FabricaDispersores.dispersorBuffer(algoritmo, semilla);
+        try (FileChannel canal = FileChannel.open(archivo,
+                                                  StandardOpenOption.READ)) {
+            long bytes = canal.size();
+            int rangos = partes(bytes);
+            long[] cortes = new long[rangos + 1];
+            for (int r = 1; r < rangos; r++)
+                cortes[r] = Math.max(cortes[r-1],
+                                     finDeLinea(canal, r * (bytes / rangos)));
+            cortes[rangos] = bytes;
+            int[][] parciales = new int[rangos][];
+            int[] cuentas = new int[rangos];
+            paralelo(rangos, r -> {
+                    if (cortes[r+1] - cortes[r] > MAXIMA_REGION)
+                        throw new IOException("Línea de más de 2 GB cerca " +
+                                              "del byte " + cortes[r]);
+                    ByteBuffer b = mapea(canal, cortes[r], cortes[r+1]);
+                    int n = b.capacity();
+                    int c = 0;
+                    for (int i = 0; i < n; c++)
+                        i = salto(b, i, n) + 1;
+                    int[] h = new int[c];
+                    c = 0;
+                    for (int i = 0; i < n;) {
+                        int j = salto(b, i, n);
+                        int fin = (j > i && b.get(j-1) == '\r') ? j - 1 : j;
+                        b.limit(fin);
+                        b.position(i);
+                        h[c++] = dispersor.dispersa(b);
+                        b.limit(n);
+                        i = j + 1;
+                    }
+                    parciales[r] = h;
+                    cuentas[r] = c;
+                });
+            long total = 0;
+            for (int c : cuentas)
+                total += c;
+            if (total > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("Demasiadas líneas: " +
+                                                   total);
+            int[] huellas = new int[(int)total];
+            int k = 0;
+            for (int r = 0; r < rangos; r++) {
+                System.arraycopy(parciales[r], 0, huellas, k, cuentas[r]);
+                k += cuentas[r];
+            }
+            return huellas;
+        }
+    }
+
+    /**
+     * Escribe huellas en un archivo, como enteros de 32 bits
+     * little-endian. Si el archivo existe, se reemplaza.
+     * @param huellas las huellas.
+     * @param salida el archivo de salida.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public static void escribe(int[] huellas, Path salida)
+        throws IOException {
+        try (FileChannel canal =
+             FileChannel.open(salida, StandardOpenOption.CREATE,
+                              StandardOpenOption.TRUNCATE_EXISTING,
+                              StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocateDirect(BUFFER);
+            b.order(ByteOrder.LITTLE_ENDIAN);
+            IntBuffer enteros = b.asIntBuffer();
+            for (int i = 0; i < huellas.length; i += enteros.capacity()) {
+                int n = Math.min(enteros.capacity(), huellas.length - i);
+                enteros.clear();
+                enteros.put(huellas, i, n);
+                b.clear();
+                b.limit(4 * n);
+                while (b.hasRemaining())
+                    canal.write(b);
+            }
+        }
+    }
+
+    /**
+     * Lee huellas escritas por {@link #escribe}.
+     * @param archivo el archivo con las huellas.
+     * @return las huellas.
+     * @throws IOException si no se puede leer el archivo, o si su tamaño
+     *         no es múltiplo de 4.
+     */
+    public static int[] lee(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo,
+                                                  StandardOpenOption.READ)) {
+            long bytes = canal.size();
+            if (bytes % 4 != 0 || bytes > MAXIMA_REGION)
+                throw new IOException("Archivo de huellas inválido: " +
+                                      archivo);
+            int[] huellas = new int[(int)(bytes / 4)];
+            ByteBuffer b = mapea(canal, 0, bytes);
+            b.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(huellas);
+            return huellas;
+        }
+    }
+
+    /* Interfaz para el trabajo de un rango, que puede lanzar IOException. */
+    @FunctionalInterface
+    private interface Rango {
+        public void procesa(int rango) throws IOException;
+    }
+
+    /* Procesa los rangos en paralelo. */
+    private static void paralelo(int rangos, Rango rango) throws IOException {
+        try {
+            IntStream.range(0, rangos).parallel().forEach(r -> {
+                    try {
+                        rango.procesa(r);
+                    } catch (IOException ioe) {
+                        throw new UncheckedIOException(ioe);
+                    }
+                });
+        } catch (UncheckedIOException uioe) {
+            throw uioe.getCause();
+        }
+    }
+
+    /* Regresa en cuántos rangos dividir un archivo de n bytes. */
+    private static int partes(long n) {
+        long p = Math.min(n / MINIMO_RANGO,
+                          Runtime.getRuntime().availableProcessors());
+        p = Math.max(p, (n + MAXIMA_REGION - 1) / MAXIMA_REGION);
+        return (int)Math.max(p, 1);
+    }
+
+    /* Mapea la región [inicio, fin) del archivo. */
+    private static MappedByteBuffer mapea(FileChannel canal, long inicio,
+                                          long fin) throws IOException {
+        return canal.map(FileChannel.MapMode.READ_ONLY, inicio, fin - inicio);
+    }
+
+    /* Regresa la posición siguiente al primer salto de línea en o después
+     * de la posición recibida, o el tamaño del archivo si no hay. */
+    private static long finDeLinea(FileChannel canal, long posicion)
+        throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(BUFFER);
+        while (true) {
+            b.clear();
+            int n = canal.read(b, posicion);
+            if (n < 0)
+                return canal.size();
+            for (int i = 0; i < n; i++)
+                if (b.get(i) == '\n')
+                    return posicion + i + 1;
+            posicion += n;
+        }
+    }
+
+    /* Regresa el índice del primer salto de línea en [i, fin) del búfer, o
+     * fin si no hay. Revisa ocho bytes a la vez: un byte de x es 0
+     * exactamente cuando el byte correspondiente es '\n', y el primer byte
+     * en 0 de x prende el bit alto de ese byte en (x - 0x01..) & ~x. */
+    private static int salto(ByteBuffer b, int i, int fin) {
+        for (; i + 8 <= fin; i += 8) {
+            long x = (long)LARGO_BUFFER.get(b, i) ^ SALTOS;
+            long ceros = (x - BAJOS) & ~x & ALTOS;
+            if (ceros != 0)
+                return i + (Long.numberOfTrailingZeros(ceros) >>> 3);
+        }
+        for (; i < fin; i++)
+            if (b.get(i) == '\n')
+                return i;
+        return fin;
+    }
+
+    /**
+     * Calcula las huellas de un archivo y las escribe en otro.
+     * @param args el archivo de registros, el archivo de salida,
+     *        opcionalmente el nombre del algoritmo (por omisión {@link
+     *        AlgoritmoDispersor#BJ_STRING}) y opcionalmente el tamaño de
+     *        registro; sin tamaño, los registros son líneas.
+     * @throws IOException si no se puede leer o escribir un archivo.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: HuellasArchivo <archivo> <salida> " +
+                               "[algoritmo] [tamaño de registro]");
+            System.exit(1);
+        }
+        Path archivo = Paths.get(args[0]);
+        AlgoritmoDispersor algoritmo = args.length > 2 ?
+            AlgoritmoDispersor.valueOf(args[2]) :
+            AlgoritmoDispersor.BJ_STRING;
+        long t = System.nanoTime();
+        int[] huellas = args.length > 3 ?
+            huellasFijas(archivo, Integer.parseInt(args[3]), algoritmo, 0L) :
+            huellasLineas(archivo, algoritmo, 0L);
+        t = System.nanoTime() - t;
+        escribe(huellas, Paths.get(args[1]));
+        double mb = archivo.toFile().length() / 1e6;
+        System.out.printf("%d registros, %.1f MB en %.3f s (%.1f MB/s)\n",
+                          huellas.length, mb, t / 1e9,
+                          mb / Math.max(t / 1e9, 1e-9));
+    }
+}
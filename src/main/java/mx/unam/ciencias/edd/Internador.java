@@ -0,0 +1,300 @@
+package mx.unam.ciencias.edd;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+
+/**
+ * <p>Clase para internadores (<em>hash consing</em>). Un internador guarda
+ * una instancia canónica de cada elemento, y {@link #interna} regresa la
+ * instancia canónica igual al elemento recibido; si las estructuras guardan
+ * la instancia canónica en lugar de la recibida, los elementos repetidos
+ * ocupan memoria una sola vez. {@link Grafica} y {@link
+ * ArbolBinarioOrdenado} pueden usar un internador al agregar elementos.</p>
+ *
+ * <p>Las instancias se guardan con referencias débiles o suaves, así que el
+ * internador no impide que el recolector de basura se lleve una instancia
+ * que ya nadie más usa: las referencias débiles se limpian en cuanto la
+ * instancia deja de usarse, y las suaves sólo cuando hace falta memoria.</p>
+ *
+ * <p>La tabla usa direccionamiento abierto con exploración lineal; las
+ * referencias y las dispersiones se guardan en dos arreglos paralelos, como
+ * en {@link Diccionario}. Una entrada cuya referencia ya se limpió sigue
+ * ocupando su lugar, y las búsquedas simplemente la saltan; cuando hay
+ * demasiadas, la tabla se reconstruye sólo con las entradas vivas.</p>
+ *
+ * <p>Los internadores no son seguros para usarse desde varios hilos, y no
+ * aceptan a <code>null</code>.</p>
+ *
+ * @param <T> El tipo de los elementos del internador.
+ */
+public class Internador<T> {
+
+    /* Interfaz para referencias que recuerdan la dispersión de su
+     * elemento, para encontrarlas en la tabla después de limpiadas. */
+    private interface Entrada {
+        /* Regresa la dispersión del elemento de la referencia. */
+        public int dispersion();
+    }
+
+    /* Clase interna privada para referencias débiles. */
+    private static class Debil<T> extends WeakReference<T>
+        implements Entrada {
+
+        /* La dispersión del elemento. */
+        private int dispersion;
+
+        /* Construye una referencia débil al elemento. */
+        public Debil(T elemento, int dispersion, ReferenceQueue<T> cola) {
+            super(elemento, cola);
+            this.dispersion = dispersion;
+        }
+
+        /* Regresa la dispersión del elemento. */
+        @Override public int dispersion() {
+            return dispersion;
+        }
+    }
+
+    /* Clase interna privada para referencias suaves. */
+    private static class Suave<T> extends SoftReference<T>
+        implements Entrada {
+
+        /* La dispersión del elemento. */
+        private int dispersion;
+
+        /* Construye una referencia suave al elemento. */
+        public Suave(T elemento, int dispersion, ReferenceQueue<T> cola) {
+            super(elemento, cola);
+            this.dispersion = dispersion;
+        }
+
+        /* Regresa la dispersión del elemento. */
+        @Override public int dispersion() {
+            return dispersion;
+        }
+    }
+
+    /** Máxima carga permitida, contando las entradas limpiadas. */
+    public static final double MAXIMA_CARGA = 0.6;
+
+    /* Capacidad mínima de un internador. */
+    private static final int MINIMA_CAPACIDAD = 64;
+
+    /* Dispersor. */
+    private Dispersor<T> dispersor;
+    /* Si las referencias son suaves. */
+    private boolean suaves;
+    /* Las referencias; una entrada vacía es null. */
+    private Reference<T>[] referencias;
+    /* Las dispersiones de los elementos. */
+    private int[] dispersiones;
+    /* La máscara para obtener índices a partir de dispersiones. */
+    private int mascara;
+    /* El número de entradas ocupadas, vivas o limpiadas. */
+    private int ocupadas;
+    /* El número de entradas limpiadas que siguen en la tabla. */
+    private int limpiadas;
+    /* La cola donde el recolector deja las referencias limpiadas. */
+    private ReferenceQueue<T> cola;
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings({"unchecked","rawtypes"})
+    private Reference<T>[] nuevoArreglo(int n) {
+        return (Reference<T>[])new Reference[n];
+    }
+
+    /**
+     * Construye un internador con referencias débiles que usa {@link
+     * Object#hashCode} como dispersor.
+     */
+    public Internador() {
+        this(e -> e.hashCode(), false);
+    }
+
+    /**
+     * Construye un internador con referencias débiles y el dispersor
+     * recibido.
+     * @param dispersor el dispersor a utilizar.
+     * @throws IllegalArgumentException si el dispersor es <code>null</code>.
+     */
+    public Internador(Dispersor<T> dispersor) {
+        this(dispersor, false);
+    }
+
+    /**
+     * Construye un internador con el dispersor recibido, y referencias
+     * débiles o suaves.
+     * @param dispersor el dispersor a utilizar.
+     * @param suaves si las referencias son suaves en lugar de débiles.
+     * @throws IllegalArgumentException si el dispersor es <code>null</code>.
+     */
+    public Internador(Dispersor<T> dispersor, boolean suaves) {
+        if (dispersor == null)
+            throw new IllegalArgumentException("Dispersor nulo.");
+        this.dispersor = dispersor;
+        this.suaves = suaves;
+        cola = new ReferenceQueue<T>();
+        inicializa(MINIMA_CAPACIDAD);
+    }
+
+    /* Inicializa los arreglos con la capacidad recibida. */
+    private void inicializa(int n) {
+        referencias = nuevoArreglo(n);
+        dispersiones = new int[n];
+        mascara = n - 1;
+        ocupadas = limpiadas = 0;
+    }
+
+    /* Regresa la posición ideal de una dispersión. */
+    private int indice(int dispersion) {
+        return (dispersion ^ (dispersion >>> 16)) & mascara;
+    }
+
+    /**
+     * Regresa la instancia canónica igual al elemento recibido. Si no hay
+     * ninguna, el elemento se vuelve la instancia canónica y se regresa.
+     * @param elemento el elemento a internar.
+     * @return la instancia canónica igual al elemento.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public T interna(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("El elemento es nulo.");
+        int d = dispersor.dispersa(elemento);
+        int i = indice(d);
+        while (referencias[i] != null) {
+            if (dispersiones[i] == d) {
+                T e = referencias[i].get();
+                if (e != null && e.equals(elemento))
+                    return e;
+            }
+            i = (i + 1) & mascara;
+        }
+        if (ocupadas + 1 > MAXIMA_CARGA * referencias.length) {
+            reconstruye();
+            i = indice(d);
+            while (referencias[i] != null)
+                i = (i + 1) & mascara;
+        }
+        referencias[i] = referencia(elemento, d);
+        dispersiones[i] = d;
+        ocupadas++;
+        return elemento;
+    }
+
+    /* Regresa una nueva referencia al elemento, registrada en la cola. */
+    private Reference<T> referencia(T elemento, int dispersion) {
+        if (suaves)
+            return new Suave<T>(elemento, dispersion, cola);
+        return new Debil<T>(elemento, dispersion, cola);
+    }
+
+    /**
+     * Nos dice si hay una instancia canónica igual al elemento recibido.
+     * @param elemento el elemento que queremos ver si está en el internador.
+     * @return <code>true</code> si hay una instancia canónica igual al
+     *         elemento, <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        if (elemento == null)
+            return false;
+        int d = dispersor.dispersa(elemento);
+        int i = indice(d);
+        while (referencias[i] != null) {
+            if (dispersiones[i] == d) {
+                T e = referencias[i].get();
+                if (e != null && e.equals(elemento))
+                    return true;
+            }
+            i = (i + 1) & mascara;
+        }
+        return false;
+    }
+
+    /**
+     * Regresa el número de instancias canónicas en el internador. Puede
+     * contar instancias que el recolector de basura ya limpió, pero cuyas
+     * referencias todavía no llegan a la cola.
+     * @return el número de instancias canónicas en el internador.
+     */
+    public int getElementos() {
+        purga();
+        return ocupadas - limpiadas;
+    }
+
+    /**
+     * Regresa la capacidad de la tabla del internador.
+     * @return la capacidad de la tabla del internador.
+     */
+    public int getCapacidad() {
+        return referencias.length;
+    }
+
+    /**
+     * Nos dice si el internador usa referencias suaves.
+     * @return <code>true</code> si el internador usa referencias suaves,
+     *         <code>false</code> si usa referencias débiles.
+     */
+    public boolean usaSuaves() {
+        return suaves;
+    }
+
+    /**
+     * Limpia el internador, dejándolo vacío.
+     */
+    public void limpia() {
+        purga();
+        inicializa(MINIMA_CAPACIDAD);
+    }
+
+    /* Cuenta las referencias que el recolector dejó en la cola. Sólo las
+     * que siguen en la tabla se cuentan como limpiadas. */
+    private void purga() {
+        Reference<? extends T> r;
+        while ((r = cola.poll()) != null)
+            if (estaEnTabla(r))
+                limpiadas++;
+    }
+
+    /* Nos dice si la referencia sigue en la tabla; puede no estar si la
+     * tabla se reconstruyó después de que se limpiara. */
+    private boolean estaEnTabla(Reference<? extends T> r) {
+        int i = indice(((Entrada)r).dispersion());
+        while (referencias[i] != null) {
+            if (referencias[i] == r)
+                return true;
+            i = (i + 1) & mascara;
+        }
+        return false;
+    }
+
+    /* Reconstruye la tabla con las entradas vivas, creciendo si después de
+     * quitar las limpiadas la carga sigue siendo más de la mitad de la
+     * máxima. */
+    private void reconstruye() {
+        while (cola.poll() != null)
+            ;
+        Reference<T>[] rr = referencias;
+        int[] dd = dispersiones;
+        int vivas = 0;
+        for (Reference<T> r : rr)
+            if (r != null && r.get() != null)
+                vivas++;
+        int n = rr.length;
+        if (vivas + 1 > MAXIMA_CARGA * n / 2)
+            n <<= 1;
+        inicializa(n);
+        for (int i = 0; i < rr.length; i++) {
+            if (rr[i] == null || rr[i].get() == null)
+                continue;
+            int j = indice(dd[i]);
+            while (referencias[j] != null)
+                j = (j + 1) & mascara;
+            referencias[j] = rr[i];
+            dispersiones[j] = dd[i];
+            ocupadas++;
+        }
+    }
+}
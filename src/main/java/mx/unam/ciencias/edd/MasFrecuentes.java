@@ -0,0 +1,137 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para encontrar los <em>k</em> elementos más frecuentes de un
+ * flujo en memoria acotada. Las cuentas se estiman con un {@link
+ * BosquejoCountMin}, y los <em>k</em> elementos con la mayor estimación se
+ * mantienen en un {@link MonticuloMinimo} de {@link ValorIndexable}, con un
+ * {@link Diccionario} para encontrar en tiempo constante la entrada de un
+ * elemento que ya está en el montículo.</p>
+ *
+ * <p>Cada vez que se agrega un elemento se actualiza su estimación; si ya
+ * está entre los <em>k</em> más frecuentes se reordena en el montículo, y si
+ * no, entra en lugar del menos frecuente cuando su estimación es mayor.
+ * Agregar un elemento cuesta <em>O</em>(<em>d</em> + log <em>k</em>), con
+ * <em>d</em> la profundidad del bosquejo.</p>
+ */
+public class MasFrecuentes<T> {
+
+    /* El bosquejo con las cuentas. */
+    private BosquejoCountMin<T> bosquejo;
+    /* El número de elementos a mantener. */
+    private int k;
+    /* Los elementos más frecuentes, con el menos frecuente en la raíz. */
+    private MonticuloMinimo<ValorIndexable<T>> monticulo;
+    /* Las entradas del montículo, por elemento. */
+    private Diccionario<T, ValorIndexable<T>> entradas;
+
+    /**
+     * Construye un buscador de los <em>k</em> elementos más frecuentes con
+     * un bosquejo conservador de la anchura y profundidad recibidas.
+     * @param k el número de elementos a mantener.
+     * @param anchura la anchura del bosquejo.
+     * @param profundidad la profundidad del bosquejo.
+     * @throws IllegalArgumentException si <em>k</em>, la anchura o la
+     *         profundidad no son positivos.
+     */
+    public MasFrecuentes(int k, int anchura, int profundidad) {
+        this(k, new BosquejoCountMin<T>(anchura, profundidad, true, 0L));
+    }
+
+    /**
+     * Construye un buscador de los <em>k</em> elementos más frecuentes con
+     * el bosquejo recibido. El bosquejo debe estar vacío, y no debe
+     * modificarse por fuera.
+     * @param k el número de elementos a mantener.
+     * @param bosquejo el bosquejo para estimar las cuentas.
+     * @throws IllegalArgumentException si <em>k</em> no es positivo o el
+     *         bosquejo es <code>null</code>.
+     */
+    public MasFrecuentes(int k, BosquejoCountMin<T> bosquejo) {
+        if (k <= 0 || bosquejo == null)
+            throw new IllegalArgumentException("k o bosquejo inválidos.");
+        this.k = k;
+        this.bosquejo = bosquejo;
+        monticulo = new MonticuloMinimo<ValorIndexable<T>>();
+        entradas = new Diccionario<T, ValorIndexable<T>>(k);
+    }
+
+    /**
+     * Agrega una aparición de un elemento.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>.
+     */
+    public void agrega(T elemento) {
+        agrega(elemento, 1L);
+    }
+
+    /**
+     * Agrega varias apariciones de un elemento.
+     * @param elemento el elemento a agregar.
+     * @param cuenta el número de apariciones.
+     * @throws IllegalArgumentException si el elemento es <code>null</code>
+     *         o la cuenta es negativa.
+     */
+    public void agrega(T elemento, long cuenta) {
+        long estimacion = bosquejo.agrega(elemento, cuenta);
+        if (entradas.contiene(elemento)) {
+            ValorIndexable<T> v = entradas.get(elemento);
+            v.setValor(estimacion);
+            monticulo.reordena(v);
+            return;
+        }
+        if (monticulo.getElementos() == k) {
+            if (estimacion <= monticulo.get(0).getValor())
+                return;
+            entradas.elimina(monticulo.elimina().getElemento());
+        }
+        ValorIndexable<T> v = new ValorIndexable<T>(elemento, estimacion);
+        monticulo.agrega(v);
+        entradas.agrega(elemento, v);
+    }
+
+    /**
+     * Estima cuántas veces se ha agregado un elemento.
+     * @param elemento el elemento.
+     * @return la estimación de la cuenta del elemento.
+     */
+    public long estima(T elemento) {
+        return bosquejo.estima(elemento);
+    }
+
+    /**
+     * Regresa los elementos más frecuentes con sus estimaciones, del más al
+     * menos frecuente. Los valores de la lista son copias, así que
+     * modificarlos no afecta al buscador.
+     * @return una lista con a lo más <em>k</em> elementos y sus
+     *         estimaciones.
+     */
+    public Lista<ValorIndexable<T>> frecuentes() {
+        Lista<ValorIndexable<T>> copias = new Lista<ValorIndexable<T>>();
+        for (ValorIndexable<T> v : monticulo)
+            copias.agrega(new ValorIndexable<T>(v.getElemento(),
+                                                v.getValor()));
+        Lista<ValorIndexable<T>> frecuentes =
+            new Lista<ValorIndexable<T>>();
+        for (ValorIndexable<T> v : MonticuloMinimo.heapSort(copias))
+            frecuentes.agregaInicio(v);
+        return frecuentes;
+    }
+
+    /**
+     * Vacía el buscador y su bosquejo.
+     */
+    public void limpia() {
+        bosquejo.limpia();
+        monticulo.limpia();
+        entradas.limpia();
+    }
+
+    /**
+     * Regresa el número de elementos que se mantienen.
+     * @return el número de elementos que se mantienen.
+     */
+    public int getK() {
+        return k;
+    }
+}
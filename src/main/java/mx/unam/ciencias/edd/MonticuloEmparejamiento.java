@@ -0,0 +1,197 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para montículos de emparejamiento (<i>pairing heaps</i>) de
+ * Fredman, Sedgewick, Sleator y Tarjan. Un montículo de emparejamiento es
+ * un árbol general donde cada nodo es menor o igual que sus hijos; unir dos
+ * montículos es colgar la raíz mayor como primer hijo de la menor, en
+ * tiempo constante. Eliminar el mínimo une a los hijos de la raíz en dos
+ * pasadas: por parejas de izquierda a derecha, y luego los resultados de
+ * derecha a izquierda.</p>
+ *
+ * <p>Reordenar un elemento cuyo valor disminuyó corta su subárbol y lo une
+ * con la raíz, en tiempo constante; por eso en el algoritmo de Dijkstra,
+ * donde las distancias sólo disminuyen, suele ser más rápido que {@link
+ * MonticuloMinimo}. El índice de cada elemento es su posición en el
+ * arreglo de nodos del montículo.</p>
+ */
+public class MonticuloEmparejamiento<T extends ComparableIndexable<T>>
+    implements MonticuloDijkstra<T> {
+
+    /* Clase estática privada para nodos. */
+    private static class Nodo<T> {
+
+        /* El elemento del nodo. */
+        private T elemento;
+        /* El primer hijo del nodo. */
+        private Nodo<T> hijo;
+        /* El siguiente hermano del nodo. */
+        private Nodo<T> hermano;
+        /* El hermano anterior del nodo, o su padre si es el primer hijo. */
+        private Nodo<T> anterior;
+
+        /* Construye un nodo con el elemento. */
+        public Nodo(T elemento) {
+            this.elemento = elemento;
+        }
+    }
+
+    /* La raíz del montículo. */
+    private Nodo<T> raiz;
+    /* Los nodos del montículo, en la posición del índice de su elemento. */
+    private Nodo<T>[] nodos;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings({"unchecked","rawtypes"})
+    private Nodo<T>[] nuevoArreglo(int n) {
+        return (Nodo<T>[])(new Nodo[n]);
+    }
+
+    /**
+     * Constructor para montículo de emparejamiento a partir de una
+     * colección.
+     * @param coleccion la colección a partir de la cuál queremos construir
+     *                  el montículo.
+     */
+    public MonticuloEmparejamiento(Coleccion<T> coleccion) {
+        this(coleccion, coleccion.getElementos());
+    }
+
+    /**
+     * Constructor para montículo de emparejamiento a partir de un iterable y
+     * el número de elementos en el mismo, en tiempo <i>O</i>(<i>n</i>).
+     * @param iterable el iterable a partir de la cuál queremos construir el
+     *                 montículo.
+     * @param n el número de elementos en el iterable.
+     */
+    public MonticuloEmparejamiento(Iterable<T> iterable, int n) {
+        nodos = nuevoArreglo(n);
+        for (T elemento : iterable) {
+            Nodo<T> nodo = new Nodo<T>(elemento);
+            elemento.setIndice(elementos);
+            nodos[elementos++] = nodo;
+            raiz = une(raiz, nodo);
+        }
+    }
+
+    /* Une dos montículos y regresa la raíz del resultado. */
+    private Nodo<T> une(Nodo<T> a, Nodo<T> b) {
+        if (a == null)
+            return b;
+        if (b == null)
+            return a;
+        if (b.elemento.compareTo(a.elemento) < 0) {
+            Nodo<T> c = a;
+            a = b;
+            b = c;
+        }
+        b.anterior = a;
+        b.hermano = a.hijo;
+        if (a.hijo != null)
+            a.hijo.anterior = b;
+        a.hijo = b;
+        a.hermano = null;
+        a.anterior = null;
+        return a;
+    }
+
+    /* Une en dos pasadas a la lista de hermanos que empieza en el nodo, y
+     * regresa la raíz del resultado. */
+    private Nodo<T> unePasadas(Nodo<T> primero) {
+        Nodo<T> parejas = null;
+        Nodo<T> nodo = primero;
+        while (nodo != null) {
+            Nodo<T> a = nodo;
+            Nodo<T> b = a.hermano;
+            nodo = b == null ? null : b.hermano;
+            a.hermano = a.anterior = null;
+            if (b != null)
+                b.hermano = b.anterior = null;
+            Nodo<T> u = une(a, b);
+            u.hermano = parejas;
+            parejas = u;
+        }
+        Nodo<T> r = null;
+        while (parejas != null) {
+            Nodo<T> siguiente = parejas.hermano;
+            parejas.hermano = null;
+            r = une(r, parejas);
+            parejas = siguiente;
+        }
+        return r;
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException("El montículo es vacío.");
+        Nodo<T> minimo = raiz;
+        raiz = unePasadas(minimo.hijo);
+        int i = minimo.elemento.getIndice();
+        nodos[i] = nodos[--elementos];
+        nodos[i].elemento.setIndice(i);
+        nodos[elementos] = null;
+        minimo.elemento.setIndice(-1);
+        return minimo.elemento;
+    }
+
+    /**
+     * Reordena un elemento en el montículo. El valor del elemento debe haber
+     * disminuido, como en el algoritmo de Dijkstra.
+     * @param elemento el elemento que hay que reordenar.
+     */
+    @Override public void reordena(T elemento) {
+        int i = elemento.getIndice();
+        if (i < 0 || i >= elementos || nodos[i].elemento != elemento)
+            return;
+        Nodo<T> nodo = nodos[i];
+        if (nodo == raiz)
+            return;
+        if (nodo.anterior.hijo == nodo)
+            nodo.anterior.hijo = nodo.hermano;
+        else
+            nodo.anterior.hermano = nodo.hermano;
+        if (nodo.hermano != null)
+            nodo.hermano.anterior = nodo.anterior;
+        nodo.hermano = nodo.anterior = null;
+        raiz = une(raiz, nodo);
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del arreglo de nodos.
+     * @param i el índice del elemento que queremos.
+     * @return el <i>i</i>-ésimo elemento del arreglo de nodos.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= elementos)
+            throw new NoSuchElementException("Índice inválido: " + i);
+        return nodos[i].elemento;
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+}
@@ -0,0 +1,206 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>Clase para montículos radix (de Ahuja, Mehlhorn, Orlin y Tarjan), para
+ * elementos con llaves enteras no negativas. Un montículo radix es
+ * monótono: ninguna llave puede ser menor que la última eliminada, lo que
+ * se cumple en el algoritmo de Dijkstra con pesos enteros.</p>
+ *
+ * <p>Los elementos se guardan en 65 cubetas: la cubeta de una llave es la
+ * posición del bit más alto en que difiere de la última llave eliminada, o
+ * 0 si son iguales. Eliminar el mínimo saca un elemento de la cubeta 0; si
+ * está vacía, la siguiente cubeta no vacía se redistribuye en las cubetas
+ * menores a partir de su mínimo. Cada elemento sólo baja de cubeta, así que
+ * cada uno se mueve a lo más 64 veces en total, y no se hace ninguna
+ * comparación entre elementos.</p>
+ *
+ * <p>El índice de cada elemento codifica su cubeta y su posición en ella,
+ * así que el montículo admite a lo más {@link Integer#MAX_VALUE} / 65
+ * elementos.</p>
+ */
+public class MonticuloRadix<T extends ComparableIndexable<T>>
+    implements MonticuloDijkstra<T> {
+
+    /* El número de cubetas. */
+    private static final int CUBETAS = 65;
+
+    /* Las cubetas. */
+    private T[][] cubetas;
+    /* El número de elementos en cada cubeta. */
+    private int[] ocupadas;
+    /* La última llave eliminada. */
+    private long ultima;
+    /* La función para obtener la llave de los elementos. */
+    private ToLongFunction<T> llave;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings({"unchecked","rawtypes"})
+    private T[][] nuevoArreglo(int n) {
+        return (T[][])(new ComparableIndexable[n][]);
+    }
+
+    /* Truco para crear arreglos genéricos. */
+    @SuppressWarnings({"unchecked","rawtypes"})
+    private T[] nuevaCubeta(int n) {
+        return (T[])(new ComparableIndexable[n]);
+    }
+
+    /**
+     * Constructor para montículo radix a partir de una colección.
+     * @param coleccion la colección a partir de la cuál queremos construir
+     *                  el montículo.
+     * @param llave la función para obtener la llave entera de los
+     *              elementos.
+     * @throws IllegalArgumentException si alguna llave es negativa.
+     */
+    public MonticuloRadix(Coleccion<T> coleccion, ToLongFunction<T> llave) {
+        this(coleccion, coleccion.getElementos(), llave);
+    }
+
+    /**
+     * Constructor para montículo radix a partir de un iterable y el número
+     * de elementos en el mismo.
+     * @param iterable el iterable a partir de la cuál queremos construir el
+     *                 montículo.
+     * @param n el número de elementos en el iterable.
+     * @param llave la función para obtener la llave entera de los
+     *              elementos.
+     * @throws IllegalArgumentException si hay demasiados elementos, o si
+     *         alguna llave es negativa.
+     */
+    public MonticuloRadix(Iterable<T> iterable, int n,
+                          ToLongFunction<T> llave) {
+        if (n > Integer.MAX_VALUE / CUBETAS)
+            throw new IllegalArgumentException("Demasiados elementos: " + n);
+        this.llave = llave;
+        cubetas = nuevoArreglo(CUBETAS);
+        ocupadas = new int[CUBETAS];
+        for (T elemento : iterable) {
+            mete(elemento);
+            elementos++;
+        }
+    }
+
+    /* Regresa la cubeta de la llave. */
+    private int cubeta(long k) {
+        return k == ultima ? 0 : 64 - Long.numberOfLeadingZeros(k ^ ultima);
+    }
+
+    /* Mete el elemento en la cubeta de su llave. */
+    private void mete(T elemento) {
+        long k = llave.applyAsLong(elemento);
+        if (k < ultima)
+            throw new IllegalArgumentException("Llave inválida: " + k);
+        int c = cubeta(k);
+        if (cubetas[c] == null)
+            cubetas[c] = nuevaCubeta(4);
+        else if (ocupadas[c] == cubetas[c].length)
+            cubetas[c] = Arrays.copyOf(cubetas[c], 2 * ocupadas[c]);
+        cubetas[c][ocupadas[c]] = elemento;
+        elemento.setIndice(ocupadas[c]++ * CUBETAS + c);
+    }
+
+    /* Saca el elemento de su cubeta, moviendo al último a su lugar. */
+    private void saca(T elemento) {
+        int c = elemento.getIndice() % CUBETAS;
+        int p = elemento.getIndice() / CUBETAS;
+        T ultimo = cubetas[c][--ocupadas[c]];
+        cubetas[c][p] = ultimo;
+        ultimo.setIndice(p * CUBETAS + c);
+        cubetas[c][ocupadas[c]] = null;
+        elemento.setIndice(-1);
+    }
+
+    /**
+     * Elimina el elemento con la llave mínima del montículo.
+     * @return el elemento con la llave mínima del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException("El montículo es vacío.");
+        if (ocupadas[0] == 0) {
+            int c = 1;
+            while (ocupadas[c] == 0)
+                c++;
+            T[] cubeta = cubetas[c];
+            int n = ocupadas[c];
+            long minima = Long.MAX_VALUE;
+            for (int i = 0; i < n; i++)
+                minima = Math.min(minima, llave.applyAsLong(cubeta[i]));
+            ultima = minima;
+            ocupadas[c] = 0;
+            for (int i = 0; i < n; i++) {
+                T elemento = cubeta[i];
+                cubeta[i] = null;
+                mete(elemento);
+            }
+        }
+        T minimo = cubetas[0][ocupadas[0] - 1];
+        saca(minimo);
+        elementos--;
+        return minimo;
+    }
+
+    /**
+     * Reordena un elemento en el montículo, moviéndolo a la cubeta de su
+     * llave actual.
+     * @param elemento el elemento que hay que reordenar.
+     * @throws IllegalArgumentException si la llave del elemento es menor que
+     *         la última eliminada.
+     */
+    @Override public void reordena(T elemento) {
+        int i = elemento.getIndice();
+        if (i < 0)
+            return;
+        int c = i % CUBETAS;
+        int p = i / CUBETAS;
+        if (p >= ocupadas[c] || cubetas[c][p] != elemento)
+            return;
+        long k = llave.applyAsLong(elemento);
+        if (k < ultima)
+            throw new IllegalArgumentException("Llave inválida: " + k);
+        saca(elemento);
+        mete(elemento);
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del montículo, recorriendo las
+     * cubetas en orden.
+     * @param i el índice del elemento que queremos.
+     * @return el <i>i</i>-ésimo elemento del montículo.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= elementos)
+            throw new NoSuchElementException("Índice inválido: " + i);
+        int c = 0;
+        while (i >= ocupadas[c])
+            i -= ocupadas[c++];
+        return cubetas[c][i];
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+}
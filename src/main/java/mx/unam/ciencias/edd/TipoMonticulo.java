@@ -0,0 +1,19 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Enumeración para los montículos que puede usar {@link
+ * Grafica#dijkstra(Object,Object,TipoMonticulo)}.
+ */
+public enum TipoMonticulo {
+    /** Elige entre {@link #ARREGLO} y {@link #MINIMO} según la densidad de
+     *  la gráfica. */
+    AUTOMATICO,
+    /** {@link MonticuloArreglo}, para gráficas casi completas. */
+    ARREGLO,
+    /** {@link MonticuloMinimo}, para gráficas dispersas. */
+    MINIMO,
+    /** {@link MonticuloEmparejamiento}, con reordenamientos baratos. */
+    EMPAREJAMIENTO,
+    /** {@link MonticuloRadix}, sólo para pesos enteros. */
+    RADIX;
+}
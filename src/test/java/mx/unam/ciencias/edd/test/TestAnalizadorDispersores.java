@@ -0,0 +1,118 @@
+package mx.unam.ciencias.edd.test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.AnalizadorDispersores;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link AnalizadorDispersores}.
+ */
+public class TestAnalizadorDispersores {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Las llaves. */
+    private byte[][] llaves;
+
+    /**
+     * Crea llaves aleatorias para cada prueba.
+     */
+    public TestAnalizadorDispersores() {
+        random = new Random();
+        llaves = new byte[100 + random.nextInt(500)][];
+        for (int i = 0; i < llaves.length; i++) {
+            llaves[i] = new byte[1 + random.nextInt(32)];
+            random.nextBytes(llaves[i]);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link AnalizadorDispersores#cubetas}.
+     */
+    @Test public void testCubetas() {
+        int m = 1 + random.nextInt(100);
+        int[] d = new int[m * 10];
+        for (int i = 0; i < d.length; i++)
+            d[i] = i;
+        int[] c = AnalizadorDispersores.cubetas(d, m);
+        for (int x : c)
+            Assert.assertTrue(x == 10);
+        Assert.assertTrue(AnalizadorDispersores.cubeta(-1, 16) == 15);
+        Assert.assertTrue(AnalizadorDispersores.cubeta(-1, 17) ==
+                          (int)(0xffffffffL % 17));
+    }
+
+    /**
+     * Prueba unitaria para {@link AnalizadorDispersores#chiCuadrada}.
+     */
+    @Test public void testChiCuadrada() {
+        Assert.assertTrue(AnalizadorDispersores.chiCuadrada(
+                              new int[] { 5, 5, 5, 5 }) == 0.0);
+        Assert.assertTrue(AnalizadorDispersores.chiCuadrada(
+                              new int[] { 20, 0, 0, 0 }) == 60.0);
+    }
+
+    /**
+     * Prueba unitaria para {@link AnalizadorDispersores#exploracionMaxima}.
+     */
+    @Test public void testExploracionMaxima() {
+        int n = 1 + random.nextInt(100);
+        int[] iguales = new int[n];
+        Assert.assertTrue(AnalizadorDispersores.exploracionMaxima(iguales, n)
+                          == n - 1);
+        int[] distintas = new int[n];
+        for (int i = 0; i < n; i++)
+            distintas[i] = i;
+        Assert.assertTrue(AnalizadorDispersores.exploracionMaxima(distintas, n)
+                          == 0);
+        try {
+            AnalizadorDispersores.exploracionMaxima(iguales, n - 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link AnalizadorDispersores#sesgoAvalancha}. La
+     * dispersión XOR nunca propaga un bit de entrada a otro de salida, y la
+     * de Bob Jenkins tiene poco sesgo.
+     */
+    @Test public void testSesgoAvalancha() {
+        double[] xor =
+            AnalizadorDispersores.sesgoAvalancha(AlgoritmoDispersor.XOR_STRING,
+                                                 llaves);
+        Assert.assertTrue(xor[1] == 1.0);
+        double[] bj =
+            AnalizadorDispersores.sesgoAvalancha(AlgoritmoDispersor.BJ_STRING,
+                                                 llaves);
+        Assert.assertTrue(bj[0] < 0.2);
+        Assert.assertTrue(bj[0] < xor[0]);
+    }
+
+    /**
+     * Prueba unitaria para {@link AnalizadorDispersores#dispersa}. Cada
+     * algoritmo debe coincidir con el dispersor de cadenas de la fábrica.
+     */
+    @Test public void testDispersa() {
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            Dispersor<String> d =
+                FabricaDispersores.dispersorCadena(algoritmo);
+            for (int i = 0; i < 100; i++) {
+                String c = String.valueOf(random.nextInt());
+                byte[] llave = c.getBytes(StandardCharsets.UTF_8);
+                Assert.assertTrue(AnalizadorDispersores.dispersa(algoritmo,
+                                                                 llave) ==
+                                  d.dispersa(c));
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.AnilloConsistente;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link AnilloConsistente}.
+ */
+public class TestAnilloConsistente {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Número de llaves a repartir. */
+    private static final int LLAVES = 50000;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número de nodos. */
+    private int total;
+    /* El anillo. */
+    private AnilloConsistente anillo;
+    /* Las llaves. */
+    private String[] llaves;
+
+    /**
+     * Crea un anillo con nodos y llaves aleatorias para cada prueba.
+     */
+    public TestAnilloConsistente() {
+        random = new Random();
+        total = 5 + random.nextInt(10);
+        anillo = new AnilloConsistente();
+        for (int i = 0; i < total; i++)
+            anillo.agrega("nodo" + i);
+        llaves = new String[LLAVES];
+        for (int i = 0; i < LLAVES; i++)
+            llaves[i] = "llave" + random.nextLong();
+    }
+
+    /* Regresa el nodo de cada llave. */
+    private String[] reparto() {
+        String[] r = new String[LLAVES];
+        for (int i = 0; i < LLAVES; i++)
+            r[i] = anillo.nodo(llaves[i]);
+        return r;
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#AnilloConsistente}.
+     */
+    @Test public void testConstructor() {
+        AnilloConsistente a = new AnilloConsistente();
+        Assert.assertTrue(a.getElementos() == 0);
+        Assert.assertTrue(a.getVirtuales() == AnilloConsistente.VIRTUALES);
+        try {
+            a.nodo("llave");
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            a.nodoSalto("llave");
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            new AnilloConsistente(0, FabricaDispersores.dispersorCadena(
+                                      AlgoritmoDispersor.BJ_STRING));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#agrega} y {@link
+     * AnilloConsistente#contiene}.
+     */
+    @Test public void testAgrega() {
+        Assert.assertTrue(anillo.getElementos() == total);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(anillo.contiene("nodo" + i));
+        Assert.assertFalse(anillo.contiene("nodo" + total));
+        Assert.assertFalse(anillo.contiene(null));
+        try {
+            anillo.agrega("nodo0");
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            anillo.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#nodo}: las cargas son
+     * parejas, y el reparto no depende del orden en que se agregan los
+     * nodos.
+     */
+    @Test public void testNodo() {
+        int[] cargas = new int[total];
+        for (String nodo : reparto())
+            cargas[Integer.parseInt(nodo.substring(4))]++;
+        double promedio = (double)LLAVES / total;
+        for (int c : cargas)
+            Assert.assertTrue(Math.abs(c - promedio) < 0.5 * promedio);
+        AnilloConsistente otro = new AnilloConsistente();
+        for (int i = total - 1; i >= 0; i--)
+            otro.agrega("nodo" + i);
+        for (String llave : llaves)
+            Assert.assertTrue(otro.nodo(llave).equals(anillo.nodo(llave)));
+        AnilloConsistente uno = new AnilloConsistente(1, n -> 0);
+        uno.agrega("b");
+        uno.agrega("a");
+        Assert.assertTrue(uno.nodo(0).equals("a"));
+        Assert.assertTrue(uno.nodo(1).equals("a"));
+        Assert.assertTrue(uno.nodo(-1).equals("a"));
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#agrega} y {@link
+     * AnilloConsistente#elimina}: al entrar un nodo sólo se mueven llaves
+     * hacia él, y al salir sólo se mueven las suyas, alrededor de
+     * 1/<em>n</em> en cada caso.
+     */
+    @Test public void testMovimientos() {
+        String[] antes = reparto();
+        anillo.agrega("nuevo");
+        String[] despues = reparto();
+        int movidas = 0;
+        for (int i = 0; i < LLAVES; i++) {
+            if (antes[i].equals(despues[i]))
+                continue;
+            Assert.assertTrue(despues[i].equals("nuevo"));
+            movidas++;
+        }
+        double esperadas = (double)LLAVES / (total + 1);
+        Assert.assertTrue(Math.abs(movidas - esperadas) < 0.5 * esperadas);
+        String victima = "nodo" + random.nextInt(total);
+        anillo.elimina(victima);
+        Assert.assertFalse(anillo.contiene(victima));
+        String[] finales = reparto();
+        for (int i = 0; i < LLAVES; i++)
+            if (!despues[i].equals(victima))
+                Assert.assertTrue(finales[i].equals(despues[i]));
+        try {
+            anillo.elimina(victima);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        anillo.elimina("nuevo");
+        anillo.agrega(victima);
+        String[] originales = reparto();
+        for (int i = 0; i < LLAVES; i++)
+            Assert.assertTrue(originales[i].equals(antes[i]));
+    }
+
+    /**
+     * Prueba unitaria para {@link AnilloConsistente#cubeta}: al agregar una
+     * cubeta las llaves se quedan donde estaban o se mueven a la nueva, y
+     * las cargas son parejas.
+     */
+    @Test public void testCubeta() {
+        int n = 1 + random.nextInt(20);
+        int[] cargas = new int[n + 1];
+        int movidas = 0;
+        for (int i = 0; i < LLAVES; i++) {
+            long llave = random.nextLong();
+            int c = AnilloConsistente.cubeta(llave, n);
+            Assert.assertTrue(c >= 0 && c < n);
+            int d = AnilloConsistente.cubeta(llave, n + 1);
+            Assert.assertTrue(d == c || d == n);
+            if (d != c)
+                movidas++;
+            cargas[d]++;
+        }
+        double promedio = (double)LLAVES / (n + 1);
+        for (int c : cargas)
+            Assert.assertTrue(Math.abs(c - promedio) < 0.2 * promedio);
+        Assert.assertTrue(Math.abs(movidas - promedio) < 0.2 * promedio);
+        Assert.assertTrue(AnilloConsistente.cubeta(random.nextLong(), 1) == 0);
+        try {
+            AnilloConsistente.cubeta(0L, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        anillo.agrega("ultimo");
+        String nodo = anillo.nodoSalto(llaves[0]);
+        anillo.elimina("ultimo");
+        Assert.assertTrue(nodo.equals("ultimo") ||
+                          nodo.equals(anillo.nodoSalto(llaves[0])));
+    }
+}
@@ -0,0 +1,144 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import mx.unam.ciencias.edd.ArbolBFS;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCongelada;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ArbolBFS} y de {@link
+ * GraficaCongelada#bfsParalelo}.
+ */
+public class TestArbolBFS {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba, con pocas aristas para
+     * que tenga varias componentes conexas.
+     */
+    public TestArbolBFS() {
+        random = new Random();
+        total = 50 + random.nextInt(500);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        conecta(total);
+    }
+
+    /* Conecta pares aleatorios de vértices de la gráfica. */
+    private void conecta(int aristas) {
+        for (int i = 0; i < aristas; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+    }
+
+    /* Revisa el árbol contra las trayectorias mínimas de la gráfica. */
+    private void revisa(GraficaCongelada<Integer> congelada,
+                        ArbolBFS<Integer> arbol, int origen) {
+        Assert.assertTrue(arbol.getOrigen() == origen);
+        Assert.assertTrue(arbol.getDistancia(origen) == 0);
+        Assert.assertTrue(arbol.getPadre(origen) == null);
+        int[] alcanzados = { 0 };
+        congelada.bfs(origen, v -> alcanzados[0]++);
+        Assert.assertTrue(arbol.getAlcanzados() == alcanzados[0]);
+        int maxima = 0;
+        for (int v = 0; v < total; v++) {
+            int esperada = congelada.trayectoriaMinima(origen, v)
+                .getLongitud() - 1;
+            Assert.assertTrue(arbol.getDistancia(v) == esperada);
+            Assert.assertTrue(arbol.esAlcanzable(v) == (esperada != -1));
+            maxima = Math.max(maxima, esperada);
+            Integer p = arbol.getPadre(v);
+            if (esperada > 0) {
+                Assert.assertTrue(congelada.sonVecinos(p, v));
+                Assert.assertTrue(arbol.getDistancia(p) == esperada - 1);
+            } else {
+                Assert.assertTrue(p == null);
+            }
+            Lista<Integer> t = arbol.trayectoria(v);
+            Assert.assertTrue(t.getLongitud() == esperada + 1);
+        }
+        Assert.assertTrue(arbol.getNiveles() == maxima + 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#bfsParalelo(Object)}.
+     */
+    @Test public void testBfsParalelo() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        int origen = random.nextInt(total);
+        revisa(congelada, congelada.bfsParalelo(origen), origen);
+        conecta(10 * total);
+        congelada = grafica.congela();
+        revisa(congelada, congelada.bfsParalelo(origen), origen);
+        try {
+            congelada.bfsParalelo(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#bfsParalelo(Object,
+     * ForkJoinPool)} en una gráfica grande, con varios hilos y con uno.
+     */
+    @Test public void testBfsParaleloGrande() {
+        total = 50000 + random.nextInt(50000);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < 4 * total; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        int origen = random.nextInt(total);
+        ForkJoinPool uno = new ForkJoinPool(1);
+        ForkJoinPool varios = new ForkJoinPool(4);
+        try {
+            ArbolBFS<Integer> a = congelada.bfsParalelo(origen, uno);
+            ArbolBFS<Integer> b = congelada.bfsParalelo(origen, varios);
+            int[] da = a.getDistancias();
+            int[] db = b.getDistancias();
+            int[] pb = b.getPadres();
+            Assert.assertTrue(Arrays.equals(da, db));
+            Assert.assertTrue(a.getAlcanzados() == b.getAlcanzados());
+            Assert.assertTrue(a.getNiveles() == b.getNiveles());
+            for (int v = 0; v < total; v++) {
+                if (v == origen || db[v] == -1) {
+                    Assert.assertTrue(pb[v] == -1);
+                    continue;
+                }
+                Assert.assertTrue(congelada.sonVecinos(pb[v], v));
+                Assert.assertTrue(db[pb[v]] == db[v] - 1);
+            }
+            int[] alcanzados = { 0 };
+            congelada.bfs(origen, v -> alcanzados[0]++);
+            Assert.assertTrue(b.getAlcanzados() == alcanzados[0]);
+        } finally {
+            uno.shutdown();
+            varios.shutdown();
+        }
+    }
+}
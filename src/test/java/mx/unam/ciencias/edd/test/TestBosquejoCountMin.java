@@ -0,0 +1,218 @@
+package mx.unam.ciencias.edd.test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import mx.unam.ciencias.edd.BosquejoCountMin;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link BosquejoCountMin}.
+ */
+public class TestBosquejoCountMin {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Error relativo al total deseado. */
+    private static final double ERROR = 0.001;
+    /* Probabilidad de fallar deseada. */
+    private static final double PROBABILIDAD = 0.01;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número de elementos distintos. */
+    private int total;
+    /* Las cuentas reales de cada elemento. */
+    private int[] cuentas;
+
+    /**
+     * Crea cuentas aleatorias sesgadas para cada prueba: el elemento
+     * <em>i</em> aparece alrededor de <em>total</em>/(<em>i</em> + 1)
+     * veces.
+     */
+    public TestBosquejoCountMin() {
+        random = new Random();
+        total = 1000 + random.nextInt(1000);
+        cuentas = new int[total];
+        for (int i = 0; i < total; i++)
+            cuentas[i] = 1 + random.nextInt(total / (i + 1) + 1);
+    }
+
+    /* Regresa un bosquejo con las cuentas agregadas una por una. */
+    private BosquejoCountMin<Integer> bosquejo(boolean conservador) {
+        BosquejoCountMin<Integer> b =
+            new BosquejoCountMin<Integer>(BosquejoCountMin.anchura(ERROR),
+                                          BosquejoCountMin
+                                          .profundidad(PROBABILIDAD),
+                                          conservador, random.nextLong());
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < cuentas[i]; j++)
+                b.agrega(i);
+        return b;
+    }
+
+    /* Revisa que las estimaciones no sean menores a las cuentas reales, y
+     * que casi todas estén dentro del error. */
+    private void revisa(BosquejoCountMin<Integer> b) {
+        long limite = (long)Math.ceil(ERROR * b.getTotal());
+        int fuera = 0;
+        for (int i = 0; i < total; i++) {
+            long e = b.estima(i);
+            Assert.assertTrue(e >= cuentas[i]);
+            if (e - cuentas[i] > limite)
+                fuera++;
+        }
+        Assert.assertTrue(fuera <= 2 * PROBABILIDAD * total + 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link BosquejoCountMin#BosquejoCountMin} y el
+     * cálculo de las dimensiones.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(BosquejoCountMin.anchura(0.01) == 272);
+        Assert.assertTrue(BosquejoCountMin.profundidad(0.01) == 5);
+        Assert.assertTrue(BosquejoCountMin.profundidad(0.9) == 1);
+        BosquejoCountMin<Integer> b = new BosquejoCountMin<Integer>(100, 4);
+        Assert.assertTrue(b.getAnchura() == 100);
+        Assert.assertTrue(b.getProfundidad() == 4);
+        Assert.assertFalse(b.esConservador());
+        Assert.assertTrue(b.getTotal() == 0);
+        try {
+            new BosquejoCountMin<Integer>(0, 4);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new BosquejoCountMin<Integer>(1 << 16, 1 << 16);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new BosquejoCountMin<Integer>(100, 4, false, n -> n, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            BosquejoCountMin.anchura(0.0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link BosquejoCountMin#agrega} y {@link
+     * BosquejoCountMin#estima}.
+     */
+    @Test public void testAgregaEstima() {
+        BosquejoCountMin<Integer> b = bosquejo(false);
+        long suma = 0;
+        for (int c : cuentas)
+            suma += c;
+        Assert.assertTrue(b.getTotal() == suma);
+        revisa(b);
+        Assert.assertTrue(b.estima(null) == 0);
+        long e = b.estima(0);
+        Assert.assertTrue(b.agrega(0, 10) >= e + 10);
+        try {
+            b.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            b.agrega(0, -1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link BosquejoCountMin#estima} con los
+     * dispersores por omisión: cadenas con el mismo {@link String#hashCode}
+     * se cuentan por separado con cualquier semilla, y los arreglos de
+     * bytes se cuentan por su contenido.
+     */
+    @Test public void testDispersoresPorOmision() {
+        Assert.assertTrue("Aa".hashCode() == "BB".hashCode());
+        for (int i = 0; i < 10; i++) {
+            BosquejoCountMin<String> b =
+                new BosquejoCountMin<String>(1 << 12, 5, false,
+                                             random.nextLong());
+            b.agrega("Aa", 100);
+            Assert.assertTrue(b.estima("Aa") == 100);
+            Assert.assertTrue(b.estima("BB") == 0);
+        }
+        BosquejoCountMin<byte[]> b =
+            new BosquejoCountMin<byte[]>(1 << 12, 5, false, random.nextLong());
+        for (int i = 0; i < total; i++)
+            b.agrega(String.valueOf(i).getBytes(StandardCharsets.UTF_8),
+                     cuentas[i]);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(b.estima(String.valueOf(i).getBytes(
+                                           StandardCharsets.UTF_8)) >=
+                              cuentas[i]);
+    }
+
+    /**
+     * Prueba unitaria para {@link BosquejoCountMin#agrega} con
+     * actualización conservadora: las estimaciones nunca son mayores que
+     * sin ella.
+     */
+    @Test public void testConservador() {
+        long semilla = random.nextLong();
+        int w = 64, d = 4;
+        BosquejoCountMin<Integer> normal =
+            new BosquejoCountMin<Integer>(w, d, false, semilla);
+        BosquejoCountMin<Integer> conservador =
+            new BosquejoCountMin<Integer>(w, d, true, semilla);
+        Assert.assertTrue(conservador.esConservador());
+        for (int i = 0; i < total; i++) {
+            long a = normal.agrega(i, cuentas[i]);
+            long b = conservador.agrega(i, cuentas[i]);
+            Assert.assertTrue(b <= a);
+        }
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(conservador.estima(i) >= cuentas[i]);
+            Assert.assertTrue(conservador.estima(i) <= normal.estima(i));
+        }
+        revisa(bosquejo(true));
+    }
+
+    /**
+     * Prueba unitaria para {@link BosquejoCountMin#une}.
+     */
+    @Test public void testUne() {
+        long semilla = random.nextLong();
+        int w = BosquejoCountMin.anchura(ERROR);
+        int d = BosquejoCountMin.profundidad(PROBABILIDAD);
+        BosquejoCountMin<Integer> todos =
+            new BosquejoCountMin<Integer>(w, d, false, semilla);
+        BosquejoCountMin<Integer> pares =
+            new BosquejoCountMin<Integer>(w, d, false, semilla);
+        BosquejoCountMin<Integer> nones =
+            new BosquejoCountMin<Integer>(w, d, false, semilla);
+        for (int i = 0; i < total; i++) {
+            todos.agrega(i, cuentas[i]);
+            (i % 2 == 0 ? pares : nones).agrega(i, cuentas[i]);
+        }
+        pares.une(nones);
+        Assert.assertTrue(pares.getTotal() == todos.getTotal());
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(pares.estima(i) == todos.estima(i));
+        long e = todos.estima(0);
+        todos.une(todos);
+        Assert.assertTrue(todos.estima(0) == 2 * e);
+        try {
+            todos.une(new BosquejoCountMin<Integer>(w + 1, d));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link BosquejoCountMin#limpia}.
+     */
+    @Test public void testLimpia() {
+        BosquejoCountMin<Integer> b = bosquejo(false);
+        b.limpia();
+        Assert.assertTrue(b.getTotal() == 0);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(b.estima(i) == 0);
+    }
+}
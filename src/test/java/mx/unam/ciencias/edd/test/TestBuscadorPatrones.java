@@ -0,0 +1,150 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import mx.unam.ciencias.edd.BuscadorPatrones;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link BuscadorPatrones}.
+ */
+public class TestBuscadorPatrones {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El texto, con un alfabeto pequeño para que haya coincidencias. */
+    private byte[] texto;
+    /* Los patrones. */
+    private byte[][] patrones;
+
+    /**
+     * Crea un texto y unos patrones aleatorios para cada prueba.
+     */
+    public TestBuscadorPatrones() {
+        random = new Random();
+        texto = new byte[5000 + random.nextInt(5000)];
+        for (int i = 0; i < texto.length; i++)
+            texto[i] = (byte)('a' + random.nextInt(3));
+        patrones = new byte[10 + random.nextInt(20)][];
+        for (int i = 0; i < patrones.length; i++) {
+            int n = 1 + random.nextInt(8);
+            int inicio = random.nextInt(texto.length - n);
+            patrones[i] = new byte[n];
+            System.arraycopy(texto, inicio, patrones[i], 0, n);
+        }
+        patrones[patrones.length - 1] = patrones[0].clone();
+    }
+
+    /* Regresa las coincidencias ingenuas, en el orden en que terminan. */
+    private List<Long> ingenuas() {
+        List<Long> l = new ArrayList<Long>();
+        for (int f = 1; f <= texto.length; f++)
+            for (int p = 0; p < patrones.length; p++) {
+                int i = f - patrones[p].length;
+                if (i < 0)
+                    continue;
+                boolean igual = true;
+                for (int j = 0; j < patrones[p].length && igual; j++)
+                    igual = texto[i + j] == patrones[p][j];
+                if (igual)
+                    l.add(((long)i << 16) | p);
+            }
+        return l;
+    }
+
+    /* Ordena las coincidencias de cada final por patrón. */
+    private List<Long> ordena(List<Long> l) {
+        List<Long> r = new ArrayList<Long>(l);
+        r.sort((a, b) -> {
+                long fa = (a >> 16) + patrones[(int)(a & 0xffff)].length;
+                long fb = (b >> 16) + patrones[(int)(b & 0xffff)].length;
+                if (fa != fb)
+                    return Long.compare(fa, fb);
+                return Long.compare(a & 0xffff, b & 0xffff);
+            });
+        return r;
+    }
+
+    /**
+     * Prueba unitaria para {@link BuscadorPatrones#busca(byte[],
+     * mx.unam.ciencias.edd.AccionCoincidencia)}.
+     */
+    @Test public void testBusca() {
+        BuscadorPatrones buscador = new BuscadorPatrones(patrones);
+        Assert.assertTrue(buscador.getPatrones() == patrones.length);
+        List<Long> l = new ArrayList<Long>();
+        buscador.busca(texto, (p, i) -> l.add((i << 16) | p));
+        Assert.assertTrue(buscador.getPosicion() == texto.length);
+        Assert.assertTrue(ordena(l).equals(ingenuas()));
+        patrones[0][0]++;
+        List<Long> r = new ArrayList<Long>();
+        buscador.reinicia();
+        Assert.assertTrue(buscador.getPosicion() == 0);
+        buscador.busca(texto, (p, i) -> r.add((i << 16) | p));
+        Assert.assertTrue(r.equals(l));
+    }
+
+    /**
+     * Prueba unitaria para {@link BuscadorPatrones#busca(byte[],int,int,
+     * mx.unam.ciencias.edd.AccionCoincidencia)} en pedazos.
+     */
+    @Test public void testBuscaPedazos() {
+        BuscadorPatrones buscador = new BuscadorPatrones(patrones);
+        List<Long> l = new ArrayList<Long>();
+        int i = 0;
+        while (i < texto.length) {
+            int n = Math.min(random.nextInt(10), texto.length - i);
+            buscador.busca(texto, i, n, (p, j) -> l.add((j << 16) | p));
+            i += n;
+        }
+        Assert.assertTrue(ordena(l).equals(ingenuas()));
+        try {
+            buscador.busca(texto, texto.length, 1, (p, j) -> {});
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link BuscadorPatrones#busca(
+     * java.io.InputStream,mx.unam.ciencias.edd.AccionCoincidencia)}.
+     * @throws IOException si no se puede leer el flujo.
+     */
+    @Test public void testBuscaFlujo() throws IOException {
+        BuscadorPatrones buscador = new BuscadorPatrones(patrones);
+        List<Long> l = new ArrayList<Long>();
+        buscador.busca(new ByteArrayInputStream(texto),
+                       (p, i) -> l.add((i << 16) | p));
+        Assert.assertTrue(ordena(l).equals(ingenuas()));
+    }
+
+    /**
+     * Prueba unitaria para patrones inválidos en {@link
+     * BuscadorPatrones#BuscadorPatrones}.
+     */
+    @Test public void testPatronesInvalidos() {
+        try {
+            new BuscadorPatrones();
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        patrones[random.nextInt(patrones.length)] = new byte[0];
+        try {
+            new BuscadorPatrones(patrones);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        patrones[0] = null;
+        try {
+            new BuscadorPatrones(patrones);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
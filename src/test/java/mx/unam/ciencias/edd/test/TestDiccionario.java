@@ -0,0 +1,228 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Diccionario}.
+ */
+public class TestDiccionario {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El diccionario. */
+    private Diccionario<String, Integer> diccionario;
+
+    /**
+     * Crea un diccionario para cada prueba.
+     */
+    public TestDiccionario() {
+        random = new Random();
+        total = 100 + random.nextInt(1000);
+        Dispersor<String> dispersor =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.BJ_STRING);
+        diccionario = new Diccionario<String, Integer>(dispersor);
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#Diccionario}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(diccionario.esVacia());
+        Assert.assertTrue(diccionario.getElementos() == 0);
+        Assert.assertTrue(diccionario.carga() == 0.0);
+        try {
+            new Diccionario<String, Integer>(10, s -> 0, 1.0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new Diccionario<String, Integer>(10, s -> 0, 0.0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new Diccionario<String, Integer>(Integer.MAX_VALUE, s -> 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#agrega}.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total; i++) {
+            diccionario.agrega(String.valueOf(i), i);
+            Assert.assertTrue(diccionario.getElementos() == i+1);
+            Assert.assertTrue(diccionario.carga() < Diccionario.MAXIMA_CARGA);
+        }
+        for (int i = 0; i < total; i++) {
+            diccionario.agrega(String.valueOf(i), -i);
+            Assert.assertTrue(diccionario.getElementos() == total);
+        }
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(diccionario.get(String.valueOf(i)) == -i);
+        try {
+            diccionario.agrega(null, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            diccionario.agrega("a", null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#get}.
+     */
+    @Test public void testGet() {
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(String.valueOf(i), i);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(diccionario.get(String.valueOf(i)) == i);
+        try {
+            diccionario.get(String.valueOf(total));
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#contiene}.
+     */
+    @Test public void testContiene() {
+        for (int i = 0; i < total; i += 2)
+            diccionario.agrega(String.valueOf(i), i);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(diccionario.contiene(String.valueOf(i)) ==
+                              (i % 2 == 0));
+        Assert.assertFalse(diccionario.contiene(null));
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#elimina}, intercalando
+     * eliminaciones y agregados con un dispersor que provoca muchas
+     * colisiones.
+     */
+    @Test public void testElimina() {
+        Diccionario<Integer, Integer> d =
+            new Diccionario<Integer, Integer>(16, n -> n / 7, 0.9);
+        boolean[] esta = new boolean[total];
+        int n = 0;
+        for (int i = 0; i < 20 * total; i++) {
+            int k = random.nextInt(total);
+            if (esta[k]) {
+                d.elimina(k);
+                n--;
+            } else {
+                d.agrega(k, 2 * k);
+                n++;
+            }
+            esta[k] = !esta[k];
+            Assert.assertTrue(d.getElementos() == n);
+        }
+        for (int k = 0; k < total; k++) {
+            Assert.assertTrue(d.contiene(k) == esta[k]);
+            if (esta[k])
+                Assert.assertTrue(d.get(k) == 2 * k);
+        }
+        try {
+            diccionario.elimina("a");
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#colisiones} y {@link
+     * Diccionario#colisionMaxima}.
+     */
+    @Test public void testColisiones() {
+        Diccionario<Integer, Integer> d =
+            new Diccionario<Integer, Integer>(total, n -> 0);
+        d.agrega(0, 0);
+        Assert.assertTrue(d.colisiones() == 0);
+        Assert.assertTrue(d.colisionMaxima() == 0);
+        for (int i = 1; i < 10; i++)
+            d.agrega(i, i);
+        Assert.assertTrue(d.colisiones() == 9);
+        Assert.assertTrue(d.colisionMaxima() == 9);
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(String.valueOf(i), i);
+        diccionario.limpia();
+        Assert.assertTrue(diccionario.esVacia());
+        for (int i = 0; i < total; i++)
+            Assert.assertFalse(diccionario.contiene(String.valueOf(i)));
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#toString}.
+     */
+    @Test public void testToString() {
+        Assert.assertTrue(diccionario.toString().equals("{}"));
+        diccionario.agrega("a", 1);
+        Assert.assertTrue(diccionario.toString().equals("{ 'a': '1', }"));
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#equals} y {@link
+     * Diccionario#hashCode}.
+     */
+    @Test public void testEquals() {
+        Diccionario<String, Integer> d = new Diccionario<String, Integer>();
+        Assert.assertTrue(diccionario.equals(d));
+        Assert.assertTrue(diccionario.hashCode() == d.hashCode());
+        for (int i = 0; i < total; i++) {
+            diccionario.agrega(String.valueOf(i), i);
+            d.agrega(String.valueOf(total - i - 1), total - i - 1);
+        }
+        Assert.assertTrue(diccionario.equals(d));
+        Assert.assertTrue(diccionario.hashCode() == d.hashCode());
+        d.agrega("0", -1);
+        Assert.assertFalse(diccionario.equals(d));
+        Assert.assertFalse(diccionario.equals(null));
+    }
+
+    /**
+     * Prueba unitaria para {@link Diccionario#iterator} y {@link
+     * Diccionario#iteradorLlaves}.
+     */
+    @Test public void testIteradores() {
+        for (int i = 0; i < total; i++)
+            diccionario.agrega(String.valueOf(i), i);
+        boolean[] vistas = new boolean[total];
+        Iterator<String> llaves = diccionario.iteradorLlaves();
+        int n = 0;
+        while (llaves.hasNext()) {
+            int i = Integer.parseInt(llaves.next());
+            Assert.assertFalse(vistas[i]);
+            vistas[i] = true;
+            n++;
+        }
+        Assert.assertTrue(n == total);
+        int suma = 0;
+        for (Integer v : diccionario)
+            suma += v;
+        Assert.assertTrue(suma == total * (total - 1) / 2);
+        try {
+            llaves.next();
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
@@ -0,0 +1,196 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import mx.unam.ciencias.edd.DispersionPerfecta;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DispersionPerfecta}.
+ */
+public class TestDispersionPerfecta {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Las llaves. */
+    private String[] llaves;
+
+    /**
+     * Crea un conjunto de llaves distintas para cada prueba.
+     */
+    public TestDispersionPerfecta() {
+        random = new Random();
+        int n = 50000 + random.nextInt(50000);
+        llaves = new String[n];
+        int base = random.nextInt(1 << 20);
+        for (int i = 0; i < n; i++)
+            llaves[i] = "llave-" + (base + i);
+    }
+
+    /* Regresa las llaves en UTF-8. */
+    private byte[][] bytes(String[] cadenas) {
+        byte[][] b = new byte[cadenas.length][];
+        for (int i = 0; i < cadenas.length; i++)
+            b[i] = cadenas[i].getBytes(StandardCharsets.UTF_8);
+        return b;
+    }
+
+    /* Revisa que la dispersión mande las llaves a una permutación de
+     * [0, n). */
+    private void revisaPermutacion(DispersionPerfecta dp, String[] cadenas) {
+        Assert.assertTrue(dp.getElementos() == cadenas.length);
+        boolean[] usados = new boolean[cadenas.length];
+        for (String c : cadenas) {
+            int i = dp.indice(c);
+            Assert.assertTrue(i >= 0 && i < cadenas.length);
+            Assert.assertFalse(usados[i]);
+            usados[i] = true;
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersionPerfecta#construye(String[])}.
+     */
+    @Test public void testConstruye() {
+        DispersionPerfecta dp = DispersionPerfecta.construye(llaves);
+        revisaPermutacion(dp, llaves);
+        Assert.assertTrue(dp.bitsPorLlave() < 3.5);
+        Assert.assertTrue(dp.getNiveles() <= DispersionPerfecta
+                          .MAXIMOS_NIVELES);
+        for (int i = 0; i < 1000; i++) {
+            int k = dp.indice("ajena-" + random.nextInt());
+            Assert.assertTrue(k >= -1 && k < llaves.length);
+        }
+        for (int n = 0; n < 100; n++) {
+            String[] pocas = new String[n];
+            System.arraycopy(llaves, 0, pocas, 0, n);
+            revisaPermutacion(DispersionPerfecta.construye(pocas), pocas);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersionPerfecta#construye(String[],
+     * double)} con varias <em>γ</em>: más bits por llave dan menos niveles.
+     */
+    @Test public void testGamma() {
+        DispersionPerfecta uno = DispersionPerfecta.construye(llaves, 1.0);
+        DispersionPerfecta dos = DispersionPerfecta.construye(llaves, 2.0);
+        revisaPermutacion(dos, llaves);
+        Assert.assertTrue(dos.bitsPorLlave() > uno.bitsPorLlave());
+        Assert.assertTrue(dos.getNiveles() <= uno.getNiveles());
+        try {
+            DispersionPerfecta.construye(llaves, 0.5);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            DispersionPerfecta.construye(llaves, Double.NaN);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersionPerfecta#construye(byte[][])}:
+     * coincide con las cadenas en UTF-8.
+     */
+    @Test public void testConstruyeBytes() {
+        byte[][] b = bytes(llaves);
+        DispersionPerfecta dp = DispersionPerfecta.construye(b);
+        DispersionPerfecta dc = DispersionPerfecta.construye(llaves);
+        byte[] arreglo = new byte[64];
+        for (int i = 0; i < llaves.length; i++) {
+            Assert.assertTrue(dp.indice(b[i]) == dc.indice(llaves[i]));
+            Assert.assertTrue(dc.indice(b[i]) == dc.indice(llaves[i]));
+            System.arraycopy(b[i], 0, arreglo, 7, b[i].length);
+            Assert.assertTrue(dp.indice(arreglo, 7, b[i].length) ==
+                              dp.indice(b[i]));
+        }
+    }
+
+    /**
+     * Prueba unitaria para llaves repetidas o nulas en {@link
+     * DispersionPerfecta#construye(String[])}.
+     */
+    @Test public void testLlavesInvalidas() {
+        llaves[random.nextInt(llaves.length)] = llaves[0];
+        try {
+            DispersionPerfecta.construye(llaves);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        llaves[0] = null;
+        try {
+            DispersionPerfecta.construye(llaves);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersionPerfecta#serializa} y {@link
+     * DispersionPerfecta#carga(ByteBuffer)}.
+     */
+    @Test public void testSerializa() {
+        DispersionPerfecta dp = DispersionPerfecta.construye(llaves);
+        byte[] bytes = dp.serializa();
+        DispersionPerfecta copia =
+            DispersionPerfecta.carga(ByteBuffer.wrap(bytes));
+        ByteBuffer directo = ByteBuffer.allocateDirect(bytes.length);
+        directo.put(bytes).flip();
+        DispersionPerfecta directa = DispersionPerfecta.carga(directo);
+        for (String c : llaves) {
+            Assert.assertTrue(copia.indice(c) == dp.indice(c));
+            Assert.assertTrue(directa.indice(c) == dp.indice(c));
+        }
+        byte[] truncados = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncados, 0, truncados.length);
+        try {
+            DispersionPerfecta.carga(ByteBuffer.wrap(truncados));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        bytes[0]++;
+        try {
+            DispersionPerfecta.carga(ByteBuffer.wrap(bytes));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        bytes[0]--;
+        bytes[bytes.length - 1] ^= 1;
+        try {
+            DispersionPerfecta.carga(ByteBuffer.wrap(bytes));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersionPerfecta#escribe} y {@link
+     * DispersionPerfecta#carga(Path)}.
+     * @throws IOException si no se puede usar el archivo temporal.
+     */
+    @Test public void testEscribe() throws IOException {
+        DispersionPerfecta dp = DispersionPerfecta.construye(llaves);
+        Path archivo = Files.createTempFile("perfecta", ".bin");
+        try {
+            dp.escribe(archivo);
+            Assert.assertTrue(Files.size(archivo) ==
+                              dp.serializa().length);
+            DispersionPerfecta mapeada = DispersionPerfecta.carga(archivo);
+            revisaPermutacion(mapeada, llaves);
+            for (String c : llaves)
+                Assert.assertTrue(mapeada.indice(c) == dp.indice(c));
+            Files.write(archivo, new byte[] { 1, 2, 3 });
+            try {
+                DispersionPerfecta.carga(archivo);
+                Assert.fail();
+            } catch (IOException ioe) {}
+        } finally {
+            Files.delete(archivo);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package mx.unam.ciencias.edd.test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.DispersorIncremental;
+import mx.unam.ciencias.edd.Dispersores;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la interfaz {@link DispersorIncremental}.
+ */
+public class TestDispersorIncremental {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea el generador de números aleatorios para cada prueba.
+     */
+    public TestDispersorIncremental() {
+        random = new Random();
+    }
+
+    /* Regresa una cadena aleatoria. */
+    private String cadena() {
+        StringBuilder sb = new StringBuilder();
+        int n = random.nextInt(2000);
+        for (int i = 0; i < n; i++)
+            sb.append((char)(0x20 + random.nextInt(0x200)));
+        return sb.toString();
+    }
+
+    /* Agrega los bytes al dispersor en pedazos aleatorios, algunos vacíos. */
+    private void agregaEnPedazos(DispersorIncremental d, byte[] bytes) {
+        int i = 0;
+        while (i < bytes.length) {
+            int n = Math.min(bytes.length - i, random.nextInt(30));
+            d.actualiza(bytes, i, n);
+            i += n;
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersorIncremental#digiere}: sin importar
+     * cómo se parta la llave, el resultado es el de la versión de un golpe.
+     */
+    @Test public void testDigiere() {
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            long semilla = algoritmo == AlgoritmoDispersor.XOR_STRING ?
+                0L : random.nextLong();
+            Dispersor<String> dispersor =
+                FabricaDispersores.dispersorCadena(algoritmo, semilla);
+            for (int i = 0; i < 50; i++) {
+                String c = cadena();
+                byte[] bytes = c.getBytes(StandardCharsets.UTF_8);
+                DispersorIncremental d =
+                    FabricaDispersores.dispersorIncremental(algoritmo,
+                                                            semilla);
+                agregaEnPedazos(d, bytes);
+                Assert.assertTrue(d.digiere() == dispersor.dispersa(c));
+                Assert.assertTrue(d.getLongitud() == bytes.length);
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersorIncremental#digiere} sin semilla,
+     * contra las funciones de {@link Dispersores}.
+     */
+    @Test public void testDigiereSinSemilla() {
+        byte[] bytes = new byte[random.nextInt(1000)];
+        random.nextBytes(bytes);
+        DispersorIncremental xor = FabricaDispersores.
+            dispersorIncremental(AlgoritmoDispersor.XOR_STRING);
+        DispersorIncremental bj = FabricaDispersores.
+            dispersorIncremental(AlgoritmoDispersor.BJ_STRING);
+        DispersorIncremental djb = FabricaDispersores.
+            dispersorIncremental(AlgoritmoDispersor.DJB_STRING);
+        agregaEnPedazos(xor, bytes);
+        agregaEnPedazos(bj, bytes);
+        agregaEnPedazos(djb, bytes);
+        Assert.assertTrue(xor.digiere() == Dispersores.dispersaXOR(bytes));
+        Assert.assertTrue(bj.digiere() == Dispersores.dispersaBJ(bytes));
+        Assert.assertTrue(djb.digiere() == Dispersores.dispersaDJB(bytes));
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersorIncremental#actualiza(ByteBuffer)}
+     * con búferes directos y respaldados por arreglos.
+     */
+    @Test public void testActualizaBuffer() {
+        byte[] bytes = new byte[20000 + random.nextInt(20000)];
+        random.nextBytes(bytes);
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            DispersorIncremental a =
+                FabricaDispersores.dispersorIncremental(algoritmo);
+            DispersorIncremental b =
+                FabricaDispersores.dispersorIncremental(algoritmo);
+            DispersorIncremental c =
+                FabricaDispersores.dispersorIncremental(algoritmo);
+            a.actualiza(bytes);
+            ByteBuffer directo = ByteBuffer.allocateDirect(bytes.length);
+            directo.put(bytes).flip();
+            b.actualiza(directo);
+            Assert.assertFalse(directo.hasRemaining());
+            c.actualiza(ByteBuffer.wrap(bytes));
+            Assert.assertTrue(a.digiere() == b.digiere());
+            Assert.assertTrue(a.digiere() == c.digiere());
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersorIncremental#reinicia}, y para que
+     * {@link DispersorIncremental#digiere} no modifique al dispersor.
+     */
+    @Test public void testReinicia() {
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            DispersorIncremental d =
+                FabricaDispersores.dispersorIncremental(algoritmo);
+            int vacio = d.digiere();
+            byte[] bytes = new byte[1 + random.nextInt(100)];
+            random.nextBytes(bytes);
+            d.actualiza(bytes, 0, bytes.length / 2);
+            d.digiere();
+            d.actualiza(bytes, bytes.length / 2,
+                        bytes.length - bytes.length / 2);
+            int r = d.digiere();
+            Assert.assertTrue(r == d.digiere());
+            d.reinicia();
+            Assert.assertTrue(d.getLongitud() == 0);
+            Assert.assertTrue(d.digiere() == vacio);
+            d.actualiza(bytes);
+            Assert.assertTrue(d.digiere() == r);
+            try {
+                d.actualiza(bytes, 1, bytes.length);
+                Assert.fail();
+            } catch (ExcepcionIndiceInvalido eii) {}
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package mx.unam.ciencias.edd.test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.DispersorLotes;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la interfaz {@link DispersorLotes}.
+ */
+public class TestDispersorLotes {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* La semilla de los dispersores. */
+    private long semilla;
+    /* Las llaves. */
+    private byte[][] llaves;
+
+    /**
+     * Crea llaves aleatorias para cada prueba; hay más que {@link
+     * DispersorLotes#UMBRAL}, para que el lote se parta.
+     */
+    public TestDispersorLotes() {
+        random = new Random();
+        semilla = random.nextLong() | 1L;
+        llaves = new byte[3 * DispersorLotes.UMBRAL + random.nextInt(1000)][];
+        for (int i = 0; i < llaves.length; i++) {
+            llaves[i] = new byte[random.nextInt(50)];
+            random.nextBytes(llaves[i]);
+        }
+    }
+
+    /* Regresa la semilla para el algoritmo. */
+    private long semilla(AlgoritmoDispersor algoritmo) {
+        return algoritmo == AlgoritmoDispersor.XOR_STRING ? 0L : semilla;
+    }
+
+    /* Regresa las dispersiones de las llaves una por una. */
+    private int[] dispersiones(AlgoritmoDispersor algoritmo, int n) {
+        Dispersor<ByteBuffer> dispersor =
+            FabricaDispersores.dispersorBuffer(algoritmo, semilla(algoritmo));
+        int[] d = new int[n];
+        for (int i = 0; i < n; i++)
+            d[i] = dispersor.dispersa(ByteBuffer.wrap(llaves[i]));
+        return d;
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersorLotes#dispersa(byte[][],int[])},
+     * con lotes chicos y grandes.
+     */
+    @Test public void testDispersaArreglos() {
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            DispersorLotes lotes =
+                FabricaDispersores.dispersorLotes(algoritmo,
+                                                  semilla(algoritmo));
+            int[] esperadas = dispersiones(algoritmo, llaves.length);
+            int[] d = lotes.dispersa(llaves);
+            Assert.assertTrue(d.length == llaves.length);
+            for (int i = 0; i < llaves.length; i++)
+                Assert.assertTrue(d[i] == esperadas[i]);
+            byte[][] pocas = new byte[10][];
+            System.arraycopy(llaves, 0, pocas, 0, pocas.length);
+            int[] e = new int[pocas.length + 1];
+            e[pocas.length] = 17;
+            lotes.dispersa(pocas, e);
+            for (int i = 0; i < pocas.length; i++)
+                Assert.assertTrue(e[i] == esperadas[i]);
+            Assert.assertTrue(e[pocas.length] == 17);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * DispersorLotes#dispersa(byte[],int[],int[])}, con las llaves
+     * empacadas.
+     */
+    @Test public void testDispersaEmpacadas() {
+        int total = 0;
+        for (byte[] llave : llaves)
+            total += llave.length;
+        byte[] datos = new byte[total];
+        int[] desplazamientos = new int[llaves.length + 1];
+        for (int i = 0; i < llaves.length; i++) {
+            System.arraycopy(llaves[i], 0, datos, desplazamientos[i],
+                             llaves[i].length);
+            desplazamientos[i+1] = desplazamientos[i] + llaves[i].length;
+        }
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            DispersorLotes lotes =
+                FabricaDispersores.dispersorLotes(algoritmo,
+                                                  semilla(algoritmo));
+            int[] esperadas = dispersiones(algoritmo, llaves.length);
+            int[] d = lotes.dispersa(datos, desplazamientos);
+            Assert.assertTrue(d.length == llaves.length);
+            for (int i = 0; i < llaves.length; i++)
+                Assert.assertTrue(d[i] == esperadas[i]);
+        }
+        Assert.assertTrue(FabricaDispersores
+                          .dispersorLotes(AlgoritmoDispersor.BJ_STRING)
+                          .dispersa(datos, new int[0]).length == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersorLotes} con argumentos inválidos.
+     */
+    @Test public void testArgumentosInvalidos() {
+        DispersorLotes lotes =
+            FabricaDispersores.dispersorLotes(AlgoritmoDispersor.BJ_STRING);
+        try {
+            lotes.dispersa(llaves, new int[llaves.length - 1]);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        byte[] datos = new byte[10];
+        try {
+            lotes.dispersa(datos, new int[] { 0, 5, 11 });
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            lotes.dispersa(datos, new int[] { 0, 5, 3 });
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            FabricaDispersores.dispersorLotes(AlgoritmoDispersor.XOR_STRING,
+                                              1L);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
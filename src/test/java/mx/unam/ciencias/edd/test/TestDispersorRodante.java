@@ -0,0 +1,112 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Dispersores;
+import mx.unam.ciencias.edd.DispersorRodante;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DispersorRodante}.
+ */
+public class TestDispersorRodante {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El texto. */
+    private byte[] texto;
+    /* El tamaño de la ventana. */
+    private int ventana;
+
+    /**
+     * Crea un texto y un tamaño de ventana aleatorios para cada prueba.
+     */
+    public TestDispersorRodante() {
+        random = new Random();
+        texto = new byte[1000 + random.nextInt(1000)];
+        random.nextBytes(texto);
+        ventana = 1 + random.nextInt(64);
+    }
+
+    /* Revisa el dispersor contra la dispersión completa de cada ventana. */
+    private void revisa(DispersorRodante rodante, int semilla) {
+        for (int i = 0; i < texto.length; i++) {
+            int d = rodante.agrega(texto[i]);
+            int inicio = Math.max(0, i + 1 - ventana);
+            int esperada = Dispersores.dispersaDJB(texto, inicio,
+                                                   i + 1 - inicio,
+                                                   semilla);
+            Assert.assertTrue(d == esperada);
+            Assert.assertTrue(rodante.dispersion() == esperada);
+            Assert.assertTrue(rodante.estaLlena() == (i + 1 >= ventana));
+        }
+        Assert.assertTrue(rodante.getAgregados() == texto.length);
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersorRodante#agrega}.
+     */
+    @Test public void testAgrega() {
+        DispersorRodante rodante = new DispersorRodante(ventana);
+        Assert.assertTrue(rodante.getVentana() == ventana);
+        Assert.assertTrue(rodante.dispersion() ==
+                          Dispersores.dispersaDJB(new byte[0]));
+        revisa(rodante, 0);
+        int semilla = random.nextInt();
+        revisa(new DispersorRodante(ventana, semilla), semilla);
+        try {
+            new DispersorRodante(0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersorRodante#reinicia}.
+     */
+    @Test public void testReinicia() {
+        DispersorRodante rodante = new DispersorRodante(ventana);
+        for (int i = 0; i < 100; i++)
+            rodante.agrega((byte)random.nextInt());
+        rodante.reinicia();
+        Assert.assertFalse(rodante.estaLlena());
+        Assert.assertTrue(rodante.getAgregados() == 0);
+        revisa(rodante, 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersorRodante#ventanaIgual}.
+     */
+    @Test public void testVentanaIgual() {
+        DispersorRodante rodante = new DispersorRodante(ventana);
+        byte[] copia = new byte[texto.length + 1];
+        System.arraycopy(texto, 0, copia, 1, texto.length);
+        for (int i = 0; i < texto.length; i++) {
+            rodante.agrega(texto[i]);
+            int inicio = i + 1 - ventana;
+            if (inicio < 0) {
+                Assert.assertFalse(rodante.ventanaIgual(texto, 0));
+                continue;
+            }
+            Assert.assertTrue(rodante.ventanaIgual(texto, inicio));
+            Assert.assertTrue(rodante.ventanaIgual(copia, inicio + 1));
+        }
+        byte[] distinta = new byte[ventana];
+        System.arraycopy(texto, texto.length - ventana, distinta, 0, ventana);
+        distinta[random.nextInt(ventana)]++;
+        Assert.assertFalse(rodante.ventanaIgual(distinta, 0));
+        try {
+            rodante.ventanaIgual(texto, texto.length - ventana + 1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            rodante.ventanaIgual(texto, -1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+}
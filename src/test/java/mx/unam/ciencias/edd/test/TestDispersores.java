@@ -1,6 +1,9 @@
 package mx.unam.ciencias.edd.test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
 import mx.unam.ciencias.edd.Dispersores;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -15,6 +18,9 @@ public class TestDispersores {
     /** Expiración para que ninguna prueba tarde más de 5 segundos. */
     @Rule public Timeout expiracion = Timeout.seconds(5);
 
+    /* Bytes de basura alrededor de las llaves en rangos. */
+    private static final int BASURA = 7;
+
     /* Arreglo de bytes aleatorios. */
     private static final byte[] ARREGLO = {
             (byte)0x33, (byte)0xf0, (byte)0x28, (byte)0x9e,
@@ -116,6 +122,11 @@ public class TestDispersores {
         0xea5b748b, 0x35ca067d, 0xef0ad6a0, 0xd065aacb
     };
 
+    /* Mensajes para los valores de referencia de xxHash. */
+    private static final String[] MENSAJES = {
+        "", "a", "abc", "Nobody inspects the spammish repetition"
+    };
+
     /* Regresa un subarreglo del arreglo. */
     private byte[] subArreglo(int n) {
         byte[] sub = new byte[n];
@@ -124,6 +135,28 @@ public class TestDispersores {
         return sub;
     }
 
+    /* Regresa un arreglo con los primeros n bytes del arreglo, rodeados de
+     * basura. */
+    private byte[] conBasura(int n) {
+        byte[] a = new byte[n + 2*BASURA];
+        Random random = new Random();
+        random.nextBytes(a);
+        for (int i = 0; i < n; i++)
+            a[BASURA + i] = ARREGLO[i];
+        return a;
+    }
+
+    /* Regresa un búfer directo con los primeros n bytes del arreglo, rodeados
+     * de basura. */
+    private ByteBuffer bufferDirecto(int n) {
+        byte[] a = conBasura(n);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(a.length);
+        buffer.put(a);
+        buffer.position(BASURA);
+        buffer.limit(BASURA + n);
+        return buffer;
+    }
+
     /**
      * Prueba unitaria para {@link Dispersores#dispersaXOR}.
      */
@@ -156,4 +189,435 @@ public class TestDispersores {
             Assert.assertTrue(RESULTADOS_DJB[i-1] == r);
         }
     }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXOR(byte[],int,int)}.
+     */
+    @Test public void testDispersaXORRango() {
+        for (int i = 1; i < ARREGLO.length; i++) {
+            byte[] a = conBasura(i);
+            int r = Dispersores.dispersaXOR(a, BASURA, i);
+            Assert.assertTrue(RESULTADOS_XOR[i-1] == r);
+        }
+        try {
+            Dispersores.dispersaXOR(ARREGLO, 1, ARREGLO.length);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXOR(ByteBuffer)}.
+     */
+    @Test public void testDispersaXORBuffer() {
+        for (int i = 1; i < ARREGLO.length; i++) {
+            ByteBuffer heap = ByteBuffer.wrap(conBasura(i), BASURA, i);
+            Assert.assertTrue(RESULTADOS_XOR[i-1] ==
+                              Dispersores.dispersaXOR(heap.slice()));
+            Assert.assertTrue(RESULTADOS_XOR[i-1] ==
+                              Dispersores.dispersaXOR(heap));
+            ByteBuffer directo = bufferDirecto(i);
+            Assert.assertTrue(RESULTADOS_XOR[i-1] ==
+                              Dispersores.dispersaXOR(directo));
+            Assert.assertTrue(directo.position() == BASURA);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaBJ(byte[],int,int)}.
+     */
+    @Test public void testDispersaBJRango() {
+        for (int i = 1; i < ARREGLO.length; i++) {
+            byte[] a = conBasura(i);
+            int r = Dispersores.dispersaBJ(a, BASURA, i);
+            Assert.assertTrue(RESULTADOS_BJ[i-1] == r);
+        }
+        try {
+            Dispersores.dispersaBJ(ARREGLO, 1, ARREGLO.length);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaBJ(ByteBuffer)}.
+     */
+    @Test public void testDispersaBJBuffer() {
+        for (int i = 1; i < ARREGLO.length; i++) {
+            ByteBuffer heap = ByteBuffer.wrap(conBasura(i), BASURA, i);
+            Assert.assertTrue(RESULTADOS_BJ[i-1] ==
+                              Dispersores.dispersaBJ(heap.slice()));
+            Assert.assertTrue(RESULTADOS_BJ[i-1] ==
+                              Dispersores.dispersaBJ(heap));
+            ByteBuffer directo = bufferDirecto(i);
+            Assert.assertTrue(RESULTADOS_BJ[i-1] ==
+                              Dispersores.dispersaBJ(directo));
+            Assert.assertTrue(directo.position() == BASURA);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaDJB(byte[],int,int)}.
+     */
+    @Test public void testDispersaDJBRango() {
+        for (int i = 1; i < ARREGLO.length; i++) {
+            byte[] a = conBasura(i);
+            int r = Dispersores.dispersaDJB(a, BASURA, i);
+            Assert.assertTrue(RESULTADOS_DJB[i-1] == r);
+        }
+        try {
+            Dispersores.dispersaDJB(ARREGLO, 1, ARREGLO.length);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaDJB(ByteBuffer)}.
+     */
+    @Test public void testDispersaDJBBuffer() {
+        for (int i = 1; i < ARREGLO.length; i++) {
+            ByteBuffer heap = ByteBuffer.wrap(conBasura(i), BASURA, i);
+            Assert.assertTrue(RESULTADOS_DJB[i-1] ==
+                              Dispersores.dispersaDJB(heap.slice()));
+            Assert.assertTrue(RESULTADOS_DJB[i-1] ==
+                              Dispersores.dispersaDJB(heap));
+            ByteBuffer directo = bufferDirecto(i);
+            Assert.assertTrue(RESULTADOS_DJB[i-1] ==
+                              Dispersores.dispersaDJB(directo));
+            Assert.assertTrue(directo.position() == BASURA);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXOR(ByteBuffer,int,int)},
+     * {@link Dispersores#dispersaBJ(ByteBuffer,int,int)} y {@link
+     * Dispersores#dispersaDJB(ByteBuffer,int,int)} con rangos fuera del
+     * límite de una rebanada de un búfer respaldado por un arreglo.
+     */
+    @Test public void testDispersaBufferRangoInvalido() {
+        ByteBuffer heap = ByteBuffer.wrap(conBasura(8), BASURA, 8).slice();
+        int[][] rangos = { { -8, 8 }, { -1, 1 }, { 0, 9 }, { 1, 8 },
+                           { 0, -1 }, { 9, 0 } };
+        for (int[] r : rangos) {
+            try {
+                Dispersores.dispersaXOR(heap, r[0], r[1]);
+                Assert.fail();
+            } catch (ExcepcionIndiceInvalido eii) {}
+            try {
+                Dispersores.dispersaBJ(heap, r[0], r[1]);
+                Assert.fail();
+            } catch (ExcepcionIndiceInvalido eii) {}
+            try {
+                Dispersores.dispersaDJB(heap, r[0], r[1]);
+                Assert.fail();
+            } catch (ExcepcionIndiceInvalido eii) {}
+        }
+        Assert.assertTrue(RESULTADOS_DJB[7] ==
+                          Dispersores.dispersaDJB(heap, 0, 8));
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaBJ} con llaves largas
+     * en desplazamientos no alineados, que deben dispersarse igual en
+     * arreglos, búferes directos y copias.
+     */
+    @Test public void testDispersaBJLlavesLargas() {
+        Random random = new Random();
+        byte[] llave = new byte[1 << 16];
+        random.nextBytes(llave);
+        ByteBuffer directo = ByteBuffer.allocateDirect(llave.length);
+        directo.put(llave);
+        for (int i = 0; i < 100; i++) {
+            int d = random.nextInt(8);
+            int n = random.nextInt(llave.length - d);
+            byte[] copia = new byte[n];
+            System.arraycopy(llave, d, copia, 0, n);
+            int r = Dispersores.dispersaBJ(copia);
+            Assert.assertTrue(r == Dispersores.dispersaBJ(llave, d, n));
+            Assert.assertTrue(r == Dispersores.dispersaBJ(directo, d, n));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaSip}, con los vectores
+     * de referencia de SipHash-2-4 (llave secreta 00 01 ... 0f, mensaje 00
+     * 01 ... de la longitud correspondiente), doblados a 32 bits.
+     */
+    @Test public void testDispersaSip() {
+        int[] longitudes = { 0, 1, 2, 3, 15 };
+        long[] vectores = {
+            0x726fdb47dd0e0e31L, 0x74f839c593dc67fdL, 0x0d6c8009d9a94f5aL,
+            0x85676696d7fb7e2dL, 0xa129ca6149be45e5L
+        };
+        long k0 = 0x0706050403020100L, k1 = 0x0f0e0d0c0b0a0908L;
+        byte[] mensaje = new byte[16];
+        for (int i = 0; i < mensaje.length; i++)
+            mensaje[i] = (byte)i;
+        for (int i = 0; i < longitudes.length; i++) {
+            int esperado = (int)(vectores[i] ^ (vectores[i] >>> 32));
+            byte[] sub = new byte[longitudes[i]];
+            System.arraycopy(mensaje, 0, sub, 0, sub.length);
+            Assert.assertTrue(Dispersores.dispersaSip(sub, k0, k1) ==
+                              esperado);
+            Assert.assertTrue(Dispersores.dispersaSip(mensaje, 0,
+                                                      longitudes[i], k0, k1) ==
+                              esperado);
+        }
+        Assert.assertFalse(Dispersores.dispersaSip(mensaje, k0, k1) ==
+                           Dispersores.dispersaSip(mensaje, k0, k1 + 1));
+        ByteBuffer heap = ByteBuffer.wrap(mensaje, 1, 8).slice();
+        try {
+            Dispersores.dispersaSip(heap, -1, 8, k0, k1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            Dispersores.dispersaSip(heap, 0, 9, k0, k1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaBJ(byte[],int,int,int)}
+     * y {@link Dispersores#dispersaDJB(byte[],int,int,int)}: con semilla 0
+     * son iguales a las versiones sin semilla, y con otras semillas cambian.
+     */
+    @Test public void testDispersaConSemilla() {
+        Random random = new Random();
+        for (int i = 1; i < ARREGLO.length; i++) {
+            int s = random.nextInt() | 1;
+            Assert.assertTrue(Dispersores.dispersaBJ(ARREGLO, 0, i, 0) ==
+                              RESULTADOS_BJ[i-1]);
+            Assert.assertTrue(Dispersores.dispersaDJB(ARREGLO, 0, i, 0) ==
+                              RESULTADOS_DJB[i-1]);
+            Assert.assertFalse(Dispersores.dispersaBJ(ARREGLO, 0, i, s) ==
+                               RESULTADOS_BJ[i-1]);
+            Assert.assertFalse(Dispersores.dispersaDJB(ARREGLO, 0, i, s) ==
+                               RESULTADOS_DJB[i-1]);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaCRC32C}, con el valor
+     * de referencia de CRC-32C, y la semilla.
+     */
+    @Test public void testDispersaCRC32C() {
+        byte[] digitos = "123456789".getBytes(StandardCharsets.US_ASCII);
+        Assert.assertTrue(Dispersores.dispersaCRC32C(digitos) == 0xe3069283);
+        Assert.assertTrue(Dispersores.dispersaCRC32C(new byte[0]) == 0);
+        Assert.assertTrue(Dispersores.dispersaCRC32C(digitos, 0,
+                                                     digitos.length, 0) ==
+                          0xe3069283);
+        Assert.assertFalse(Dispersores.dispersaCRC32C(digitos, 0,
+                                                      digitos.length, 1) ==
+                           0xe3069283);
+        try {
+            Dispersores.dispersaCRC32C(ARREGLO, 1, ARREGLO.length, 0);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXXH32}, con los
+     * valores de referencia de xxHash32 con semilla 0.
+     */
+    @Test public void testDispersaXXH32() {
+        int[] vectores = {
+            0x02cc5d05, 0x550d7456, 0x32d153ff, 0xe2293b2f
+        };
+        for (int i = 0; i < MENSAJES.length; i++) {
+            byte[] m = MENSAJES[i].getBytes(StandardCharsets.US_ASCII);
+            Assert.assertTrue(Dispersores.dispersaXXH32(m) == vectores[i]);
+        }
+        Assert.assertFalse(Dispersores.dispersaXXH32(ARREGLO, 0, 5, 0) ==
+                           Dispersores.dispersaXXH32(ARREGLO, 0, 5, 1));
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaXXH64}, con los
+     * valores de referencia de xxHash64 con semilla 0, doblados a 32 bits.
+     */
+    @Test public void testDispersaXXH64() {
+        long[] vectores = {
+            0xef46db3751d8e999L, 0xd24ec4f1a98c6e5bL, 0x44bc2cf5ad770999L,
+            0xfbcea83c8a378bf1L
+        };
+        for (int i = 0; i < MENSAJES.length; i++) {
+            byte[] m = MENSAJES[i].getBytes(StandardCharsets.US_ASCII);
+            int esperado = (int)(vectores[i] ^ (vectores[i] >>> 32));
+            Assert.assertTrue(Dispersores.dispersaXXH64(m) == esperado);
+        }
+        Assert.assertFalse(Dispersores.dispersaXXH64(ARREGLO, 0, 5, 0L) ==
+                           Dispersores.dispersaXXH64(ARREGLO, 0, 5, 1L));
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaCRC32C}, {@link
+     * Dispersores#dispersaXXH32} y {@link Dispersores#dispersaXXH64} con
+     * llaves largas en desplazamientos no alineados, que deben dispersarse
+     * igual en arreglos, búferes directos y copias, sin cambiar la posición,
+     * el límite ni la marca del búfer.
+     */
+    @Test public void testDispersaRapidasLlavesLargas() {
+        Random random = new Random();
+        byte[] llave = new byte[1 << 16];
+        random.nextBytes(llave);
+        ByteBuffer directo = ByteBuffer.allocateDirect(llave.length);
+        directo.put(llave);
+        directo.position(3);
+        directo.limit(llave.length - 5);
+        directo.mark();
+        for (int i = 0; i < 100; i++) {
+            int d = random.nextInt(8);
+            int n = random.nextInt(llave.length - d - 5);
+            int s = random.nextInt();
+            byte[] copia = new byte[n];
+            System.arraycopy(llave, d, copia, 0, n);
+            int r = Dispersores.dispersaCRC32C(copia, 0, n, s);
+            Assert.assertTrue(r == Dispersores.dispersaCRC32C(llave, d, n, s));
+            Assert.assertTrue(r == Dispersores.dispersaCRC32C(directo, d, n,
+                                                              s));
+            r = Dispersores.dispersaXXH32(copia, 0, n, s);
+            Assert.assertTrue(r == Dispersores.dispersaXXH32(llave, d, n, s));
+            Assert.assertTrue(r == Dispersores.dispersaXXH32(directo, d, n,
+                                                             s));
+            r = Dispersores.dispersaXXH64(copia, 0, n, s);
+            Assert.assertTrue(r == Dispersores.dispersaXXH64(llave, d, n, s));
+            Assert.assertTrue(r == Dispersores.dispersaXXH64(directo, d, n,
+                                                             s));
+            Assert.assertTrue(directo.position() == 3);
+            Assert.assertTrue(directo.limit() == llave.length - 5);
+            directo.position(4);
+            directo.reset();
+            Assert.assertTrue(directo.position() == 3);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaCRC32C}, {@link
+     * Dispersores#dispersaXXH32} y {@link Dispersores#dispersaXXH64} con
+     * rangos fuera del límite de una rebanada de un búfer respaldado por un
+     * arreglo.
+     */
+    @Test public void testDispersaRapidasBufferRangoInvalido() {
+        ByteBuffer heap = ByteBuffer.wrap(conBasura(8), BASURA, 8).slice();
+        int[][] rangos = { { -8, 8 }, { 0, 9 }, { 4, 5 } };
+        for (int[] r : rangos) {
+            try {
+                Dispersores.dispersaCRC32C(heap, r[0], r[1], 0);
+                Assert.fail();
+            } catch (ExcepcionIndiceInvalido eii) {}
+            try {
+                Dispersores.dispersaXXH32(heap, r[0], r[1], 0);
+                Assert.fail();
+            } catch (ExcepcionIndiceInvalido eii) {}
+            try {
+                Dispersores.dispersaXXH64(heap, r[0], r[1], 0L);
+                Assert.fail();
+            } catch (ExcepcionIndiceInvalido eii) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaBJ64}, con los valores
+     * de referencia de <code>hashlittle2</code> de lookup3.
+     */
+    @Test public void testDispersaBJ64() {
+        byte[] vacio = new byte[0];
+        byte[] frase = "Four score and seven years ago"
+            .getBytes(StandardCharsets.US_ASCII);
+        Assert.assertTrue(Dispersores.dispersaBJ64(vacio) ==
+                          0xdeadbeefdeadbeefL);
+        Assert.assertTrue(Dispersores.dispersaBJ64(vacio, 0, 0,
+                                                   0xdeadbeefL << 32) ==
+                          0xdeadbeefbd5b7ddeL);
+        Assert.assertTrue(Dispersores.dispersaBJ64(frase) ==
+                          0xce7226e617770551L);
+        Assert.assertTrue(Dispersores.dispersaBJ64(frase, 0, frase.length,
+                                                   1L << 32) ==
+                          0xbd371de4e3607caeL);
+        Assert.assertTrue(Dispersores.dispersaBJ64(frase, 0, frase.length,
+                                                   1L) ==
+                          0x6cbea4b3cd628161L);
+        for (int i = 1; i < ARREGLO.length; i++) {
+            long r = Dispersores.dispersaBJ64(subArreglo(i));
+            Assert.assertTrue(r == Dispersores.dispersaBJ64(conBasura(i),
+                                                            BASURA, i, 0L));
+            Assert.assertTrue(r == Dispersores.dispersaBJ64(bufferDirecto(i),
+                                                            BASURA, i, 0L));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaDJB64}: sin semilla,
+     * los 32 bits bajos son la dispersión de {@link
+     * Dispersores#dispersaDJB(byte[])}.
+     */
+    @Test public void testDispersaDJB64() {
+        for (int i = 1; i < ARREGLO.length; i++) {
+            long r = Dispersores.dispersaDJB64(subArreglo(i));
+            Assert.assertTrue((int)r == RESULTADOS_DJB[i-1]);
+            Assert.assertTrue(r == Dispersores.dispersaDJB64(conBasura(i),
+                                                             BASURA, i, 0L));
+            Assert.assertTrue(r == Dispersores.dispersaDJB64(bufferDirecto(i),
+                                                             BASURA, i, 0L));
+        }
+        Assert.assertTrue(Dispersores.dispersaDJB64(ARREGLO) >>> 32 != 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link Dispersores#dispersaSip64} y {@link
+     * Dispersores#dispersaXXH64Completa}, con los valores de referencia.
+     */
+    @Test public void testDispersa64Completas() {
+        long k0 = 0x0706050403020100L, k1 = 0x0f0e0d0c0b0a0908L;
+        byte[] mensaje = new byte[15];
+        for (int i = 0; i < mensaje.length; i++)
+            mensaje[i] = (byte)i;
+        Assert.assertTrue(Dispersores.dispersaSip64(mensaje, 0, 15, k0, k1) ==
+                          0xa129ca6149be45e5L);
+        ByteBuffer directo = ByteBuffer.allocateDirect(15);
+        directo.put(mensaje);
+        Assert.assertTrue(Dispersores.dispersaSip64(directo, 0, 15, k0, k1) ==
+                          0xa129ca6149be45e5L);
+        byte[] frase = MENSAJES[3].getBytes(StandardCharsets.US_ASCII);
+        Assert.assertTrue(Dispersores.dispersaXXH64Completa(frase, 0,
+                                                            frase.length,
+                                                            0L) ==
+                          0xfbcea83c8a378bf1L);
+        directo = ByteBuffer.allocateDirect(frase.length);
+        directo.put(frase);
+        Assert.assertTrue(Dispersores.dispersaXXH64Completa(directo, 0,
+                                                            frase.length,
+                                                            0L) ==
+                          0xfbcea83c8a378bf1L);
+    }
+
+    /**
+     * Prueba unitaria para los dispersores de 64 bits sobre búferes, con
+     * rangos fuera del límite de búferes directos y de rebanadas de búferes
+     * respaldados por un arreglo.
+     */
+    @Test public void testDispersa64BufferRangoInvalido() {
+        ByteBuffer heap = ByteBuffer.wrap(conBasura(8), BASURA, 8).slice();
+        ByteBuffer directo = bufferDirecto(8).slice();
+        int[][] rangos = { { -8, 8 }, { 0, 9 }, { 4, 5 } };
+        for (ByteBuffer b : new ByteBuffer[] { heap, directo }) {
+            for (int[] r : rangos) {
+                try {
+                    Dispersores.dispersaBJ64(b, r[0], r[1], 0L);
+                    Assert.fail();
+                } catch (ExcepcionIndiceInvalido eii) {}
+                try {
+                    Dispersores.dispersaDJB64(b, r[0], r[1], 0L);
+                    Assert.fail();
+                } catch (ExcepcionIndiceInvalido eii) {}
+                try {
+                    Dispersores.dispersaSip64(b, r[0], r[1], 0L, 0L);
+                    Assert.fail();
+                } catch (ExcepcionIndiceInvalido eii) {}
+                try {
+                    Dispersores.dispersaXXH64Completa(b, r[0], r[1], 0L);
+                    Assert.fail();
+                } catch (ExcepcionIndiceInvalido eii) {}
+            }
+        }
+    }
 }
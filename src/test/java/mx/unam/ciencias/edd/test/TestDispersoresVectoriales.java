@@ -0,0 +1,102 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Dispersores;
+import mx.unam.ciencias.edd.DispersoresVectoriales;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DispersoresVectoriales}.
+ * Las pruebas comparan con las funciones escalares de {@link Dispersores},
+ * así que valen igual con el núcleo vectorial (perfil <code>vector</code>)
+ * que sin él.
+ */
+public class TestDispersoresVectoriales {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Un arreglo aleatorio de bytes. */
+    private byte[] arreglo;
+
+    /**
+     * Crea un arreglo aleatorio de bytes para cada prueba.
+     */
+    public TestDispersoresVectoriales() {
+        random = new Random();
+        arreglo = new byte[5000];
+        random.nextBytes(arreglo);
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersoresVectoriales#dispersaXOR}: da lo
+     * mismo que {@link Dispersores#dispersaXOR} en todas las longitudes
+     * cortas y en rangos largos con cualquier desplazamiento.
+     */
+    @Test public void testDispersaXOR() {
+        for (int n = 0; n <= 300; n++)
+            Assert.assertTrue(DispersoresVectoriales.dispersaXOR(arreglo, 0,
+                                                                  n) ==
+                              Dispersores.dispersaXOR(arreglo, 0, n));
+        for (int k = 0; k < 1000; k++) {
+            int d = random.nextInt(100);
+            int n = random.nextInt(arreglo.length - d);
+            Assert.assertTrue(DispersoresVectoriales.dispersaXOR(arreglo, d,
+                                                                  n) ==
+                              Dispersores.dispersaXOR(arreglo, d, n));
+        }
+        Assert.assertTrue(DispersoresVectoriales.dispersaXOR(arreglo) ==
+                          Dispersores.dispersaXOR(arreglo));
+    }
+
+    /**
+     * Prueba unitaria para {@link DispersoresVectoriales#dispersaDJB}: da lo
+     * mismo que {@link Dispersores#dispersaDJB} en todas las longitudes
+     * cortas y en rangos largos con cualquier desplazamiento y semilla.
+     */
+    @Test public void testDispersaDJB() {
+        for (int n = 0; n <= 300; n++)
+            Assert.assertTrue(DispersoresVectoriales.dispersaDJB(arreglo, 0,
+                                                                  n, 0) ==
+                              Dispersores.dispersaDJB(arreglo, 0, n));
+        for (int k = 0; k < 1000; k++) {
+            int d = random.nextInt(100);
+            int n = random.nextInt(arreglo.length - d);
+            int s = random.nextInt();
+            Assert.assertTrue(DispersoresVectoriales.dispersaDJB(arreglo, d,
+                                                                  n, s) ==
+                              Dispersores.dispersaDJB(arreglo, d, n, s));
+        }
+        Assert.assertTrue(DispersoresVectoriales.dispersaDJB(arreglo) ==
+                          Dispersores.dispersaDJB(arreglo));
+    }
+
+    /**
+     * Prueba unitaria para los rangos inválidos de {@link
+     * DispersoresVectoriales}.
+     */
+    @Test public void testRangoInvalido() {
+        try {
+            DispersoresVectoriales.dispersaXOR(arreglo, -1, 10);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            DispersoresVectoriales.dispersaXOR(arreglo, 10, arreglo.length);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            DispersoresVectoriales.dispersaDJB(arreglo, 0, -1, 0);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            DispersoresVectoriales.dispersaDJB(arreglo, arreglo.length, 1, 0);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+}
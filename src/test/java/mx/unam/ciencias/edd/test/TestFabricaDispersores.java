@@ -1,9 +1,14 @@
 package mx.unam.ciencias.edd.test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Random;
 import mx.unam.ciencias.edd.AlgoritmoDispersor;
 import mx.unam.ciencias.edd.FabricaDispersores;
 import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.Dispersor64;
+import mx.unam.ciencias.edd.Dispersores;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -115,4 +120,240 @@ public class TestFabricaDispersores {
         for (String mensaje : MENSAJES)
             Assert.assertTrue(djb.dispersa(mensaje) == DISPERSORES_DJB[i++]);
     }
+
+    /* Regresa una cadena aleatoria con caracteres de uno a cuatro bytes en
+     * UTF-8, y posiblemente sustitutos sin pareja. */
+    private String cadenaAleatoria(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int n = random.nextInt(300);
+        for (int i = 0; i < n; i++) {
+            switch (random.nextInt(5)) {
+            case 0: sb.append((char)random.nextInt(0x80)); break;
+            case 1: sb.append((char)(0x80 + random.nextInt(0x780))); break;
+            case 2: sb.append((char)(0x800 + random.nextInt(0xd000))); break;
+            case 3: sb.appendCodePoint(0x10000 + random.nextInt(0x100000));
+                    break;
+            case 4: sb.append((char)(0xd800 + random.nextInt(0x800))); break;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena} con
+     * cadenas arbitrarias, que deben dispersarse sobre su codificación en
+     * UTF-8.
+     */
+    @Test public void testDispersorCadenaUTF8() {
+        Random random = new Random();
+        Dispersor<String> xor =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.XOR_STRING);
+        Dispersor<String> bj =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.BJ_STRING);
+        Dispersor<String> djb =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.DJB_STRING);
+        Dispersor<String> crc = FabricaDispersores
+            .dispersorCadena(AlgoritmoDispersor.CRC32C_STRING);
+        Dispersor<String> xxh32 = FabricaDispersores
+            .dispersorCadena(AlgoritmoDispersor.XXH32_STRING);
+        Dispersor<String> xxh64 = FabricaDispersores
+            .dispersorCadena(AlgoritmoDispersor.XXH64_STRING);
+        for (int i = 0; i < 1000; i++) {
+            String cadena = cadenaAleatoria(random);
+            byte[] utf8 = cadena.getBytes(StandardCharsets.UTF_8);
+            Assert.assertTrue(xor.dispersa(cadena) ==
+                              Dispersores.dispersaXOR(utf8));
+            Assert.assertTrue(bj.dispersa(cadena) ==
+                              Dispersores.dispersaBJ(utf8));
+            Assert.assertTrue(djb.dispersa(cadena) ==
+                              Dispersores.dispersaDJB(utf8));
+            Assert.assertTrue(crc.dispersa(cadena) ==
+                              Dispersores.dispersaCRC32C(utf8));
+            Assert.assertTrue(xxh32.dispersa(cadena) ==
+                              Dispersores.dispersaXXH32(utf8));
+            Assert.assertTrue(xxh64.dispersa(cadena) ==
+                              Dispersores.dispersaXXH64(utf8));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena} con
+     * semilla: la semilla 0 no cambia nada, semillas distintas dan
+     * dispersores distintos, y XOR no admite semilla.
+     */
+    @Test public void testDispersorCadenaSemilla() {
+        Random random = new Random();
+        long semilla = random.nextLong() | 1L;
+        AlgoritmoDispersor[] algoritmos = {
+            AlgoritmoDispersor.BJ_STRING, AlgoritmoDispersor.DJB_STRING,
+            AlgoritmoDispersor.SIP_STRING, AlgoritmoDispersor.CRC32C_STRING,
+            AlgoritmoDispersor.XXH32_STRING, AlgoritmoDispersor.XXH64_STRING
+        };
+        for (AlgoritmoDispersor algoritmo : algoritmos) {
+            Dispersor<String> d = FabricaDispersores.dispersorCadena(algoritmo);
+            Dispersor<String> d0 =
+                FabricaDispersores.dispersorCadena(algoritmo, 0L);
+            Dispersor<String> ds =
+                FabricaDispersores.dispersorCadena(algoritmo, semilla);
+            Dispersor<String> da =
+                FabricaDispersores.dispersorCadenaAleatorio(algoritmo);
+            int distintas = 0;
+            for (String mensaje : MENSAJES) {
+                Assert.assertTrue(d.dispersa(mensaje) == d0.dispersa(mensaje));
+                if (d.dispersa(mensaje) != ds.dispersa(mensaje))
+                    distintas++;
+                if (d.dispersa(mensaje) != da.dispersa(mensaje))
+                    distintas++;
+            }
+            Assert.assertTrue(distintas > MENSAJES.length);
+        }
+        try {
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.XOR_STRING,
+                                               semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena} con
+     * SipHash: el dispersor es determinista, y cambia con la semilla.
+     */
+    @Test public void testDispersorCadenaSip() {
+        Dispersor<String> sip =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.SIP_STRING);
+        Dispersor<String> otro =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.SIP_STRING,
+                                               1L);
+        for (String mensaje : MENSAJES) {
+            Assert.assertTrue(sip.dispersa(mensaje) == sip.dispersa(mensaje));
+            Assert.assertFalse(sip.dispersa(mensaje) == otro.dispersa(mensaje));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorBuffer}: con
+     * búferes directos o respaldados por un arreglo, el dispersor coincide
+     * con el de cadenas con la misma semilla, y no modifica el búfer.
+     */
+    @Test public void testDispersorBuffer() {
+        Random random = new Random();
+        long semilla = random.nextLong() | 1L;
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            long s = algoritmo == AlgoritmoDispersor.XOR_STRING ? 0L : semilla;
+            Dispersor<String> cadenas =
+                FabricaDispersores.dispersorCadena(algoritmo, s);
+            Dispersor<ByteBuffer> buffers =
+                FabricaDispersores.dispersorBuffer(algoritmo, s);
+            for (int i = 0; i < 100; i++) {
+                String cadena = cadenaAleatoria(random);
+                byte[] utf8 = cadena.getBytes(StandardCharsets.UTF_8);
+                ByteBuffer directo = ByteBuffer.allocateDirect(utf8.length + 6);
+                directo.position(3);
+                directo.put(utf8);
+                directo.position(3);
+                directo.limit(3 + utf8.length);
+                ByteBuffer heap = ByteBuffer.wrap(utf8);
+                int h = cadenas.dispersa(cadena);
+                Assert.assertTrue(buffers.dispersa(directo) == h);
+                Assert.assertTrue(buffers.dispersa(heap) == h);
+                Assert.assertTrue(directo.position() == 3);
+                Assert.assertTrue(heap.position() == 0);
+            }
+        }
+        try {
+            FabricaDispersores.dispersorBuffer(AlgoritmoDispersor.XOR_STRING,
+                                               semilla);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena64} y
+     * {@link FabricaDispersores#dispersorBuffer64}: coinciden con las
+     * funciones de {@link Dispersores} y entre sí, la dispersión de 32 bits
+     * son los 64 bits doblados, y los algoritmos sin versión de 64 bits se
+     * rechazan.
+     */
+    @Test public void testDispersorCadena64() {
+        Random random = new Random();
+        long semilla = random.nextLong();
+        AlgoritmoDispersor[] algoritmos = {
+            AlgoritmoDispersor.BJ_STRING, AlgoritmoDispersor.DJB_STRING,
+            AlgoritmoDispersor.SIP_STRING, AlgoritmoDispersor.XXH64_STRING
+        };
+        for (AlgoritmoDispersor algoritmo : algoritmos) {
+            Dispersor64<String> cadenas =
+                FabricaDispersores.dispersorCadena64(algoritmo, semilla);
+            Dispersor64<ByteBuffer> buffers =
+                FabricaDispersores.dispersorBuffer64(algoritmo, semilla);
+            for (int i = 0; i < 100; i++) {
+                String cadena = cadenaAleatoria(random);
+                byte[] utf8 = cadena.getBytes(StandardCharsets.UTF_8);
+                ByteBuffer directo = ByteBuffer.allocateDirect(utf8.length);
+                directo.put(utf8).flip();
+                long h = cadenas.dispersa64(cadena);
+                Assert.assertTrue(buffers.dispersa64(directo) == h);
+                Assert.assertTrue(buffers.dispersa64(ByteBuffer.wrap(utf8)) ==
+                                  h);
+                Assert.assertTrue(cadenas.dispersa(cadena) ==
+                                  (int)(h ^ (h >>> 32)));
+            }
+        }
+        Dispersor64<String> bj =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.BJ_STRING);
+        Dispersor64<String> djb =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.DJB_STRING);
+        Dispersor<String> djb32 =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.DJB_STRING);
+        for (String mensaje : MENSAJES) {
+            byte[] utf8 = mensaje.getBytes(StandardCharsets.UTF_8);
+            Assert.assertTrue(bj.dispersa64(mensaje) ==
+                              Dispersores.dispersaBJ64(utf8));
+            Assert.assertTrue((int)djb.dispersa64(mensaje) ==
+                              djb32.dispersa(mensaje));
+        }
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            Dispersor<String> d =
+                FabricaDispersores.dispersorCadena(algoritmo);
+            if (algoritmo == AlgoritmoDispersor.SIP_STRING ||
+                algoritmo == AlgoritmoDispersor.XXH64_STRING) {
+                Dispersor64<String> d64 =
+                    FabricaDispersores.dispersorCadena64(algoritmo);
+                for (String mensaje : MENSAJES)
+                    Assert.assertTrue(d.dispersa(mensaje) ==
+                                      d64.dispersa(mensaje));
+            }
+        }
+        AlgoritmoDispersor[] sin64 = {
+            AlgoritmoDispersor.XOR_STRING, AlgoritmoDispersor.CRC32C_STRING,
+            AlgoritmoDispersor.XXH32_STRING
+        };
+        for (AlgoritmoDispersor algoritmo : sin64) {
+            try {
+                FabricaDispersores.dispersorCadena64(algoritmo);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            try {
+                FabricaDispersores.dispersorBuffer64(algoritmo, 0L);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link FabricaDispersores#dispersorCadena64} como
+     * huella: entre muchas cadenas distintas no hay dispersiones de 64 bits
+     * repetidas.
+     */
+    @Test public void testDispersorCadena64Huellas() {
+        Dispersor64<String> bj = FabricaDispersores
+            .dispersorCadena64(AlgoritmoDispersor.BJ_STRING, 1L);
+        int n = 1 << 18;
+        long[] huellas = new long[n];
+        for (int i = 0; i < n; i++)
+            huellas[i] = bj.dispersa64(String.valueOf(i));
+        Arrays.sort(huellas);
+        for (int i = 1; i < n; i++)
+            Assert.assertTrue(huellas[i] != huellas[i-1]);
+    }
 }
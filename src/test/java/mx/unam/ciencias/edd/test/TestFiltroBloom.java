@@ -0,0 +1,140 @@
+package mx.unam.ciencias.edd.test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import mx.unam.ciencias.edd.FiltroBloom;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link FiltroBloom}.
+ */
+public class TestFiltroBloom {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Probabilidad de falsos positivos deseada. */
+    private static final double PROBABILIDAD = 0.01;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El filtro. */
+    private FiltroBloom<Integer> filtro;
+
+    /**
+     * Crea un filtro para cada prueba.
+     */
+    public TestFiltroBloom() {
+        random = new Random();
+        total = 10000 + random.nextInt(10000);
+        filtro = new FiltroBloom<Integer>(total, PROBABILIDAD);
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#FiltroBloom} y el cálculo del
+     * tamaño óptimo.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(filtro.getElementos() == 0);
+        Assert.assertTrue(filtro.getCasillas() ==
+                          FiltroBloom.casillas(total, PROBABILIDAD));
+        Assert.assertTrue(filtro.getFunciones() == 7);
+        Assert.assertTrue(FiltroBloom.casillas(1000, 0.01) == 9586);
+        Assert.assertTrue(FiltroBloom.funciones(1000, 9586) == 7);
+        Assert.assertTrue(filtro.probabilidadFalsos() == 0.0);
+        try {
+            new FiltroBloom<Integer>(0, PROBABILIDAD);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new FiltroBloom<Integer>(total, 1.0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new FiltroBloom<Integer>(0, 3, n -> n, n -> n);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#agrega} y {@link
+     * FiltroBloom#contiene}: no hay falsos negativos, y la proporción de
+     * falsos positivos es cercana a la deseada.
+     */
+    @Test public void testAgregaContiene() {
+        for (int i = 0; i < total; i++) {
+            filtro.agrega(2 * i);
+            Assert.assertTrue(filtro.contiene(2 * i));
+            Assert.assertTrue(filtro.getElementos() == i + 1);
+        }
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(filtro.contiene(2 * i));
+        int falsos = 0;
+        for (int i = 0; i < total; i++)
+            if (filtro.contiene(2 * i + 1))
+                falsos++;
+        Assert.assertTrue(falsos < 2 * PROBABILIDAD * total);
+        Assert.assertTrue(filtro.probabilidadFalsos() < 2 * PROBABILIDAD);
+        Assert.assertFalse(filtro.contiene(null));
+        try {
+            filtro.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#contiene} con dispersores
+     * propios, incluso uno que siempre regresa 0.
+     */
+    @Test public void testDispersoresPropios() {
+        FiltroBloom<Integer> f =
+            new FiltroBloom<Integer>(1 << 16, 5, n -> n * 0x9e3779b9, n -> 0);
+        for (int i = 0; i < 1000; i++)
+            f.agrega(i);
+        for (int i = 0; i < 1000; i++)
+            Assert.assertTrue(f.contiene(i));
+    }
+
+    /* Regresa los bytes de la representación en cadena de un entero. */
+    private static byte[] bytes(int n) {
+        return String.valueOf(n).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#contiene} con los dispersores
+     * por omisión: las cadenas se dispersan por su contenido y no chocan
+     * aunque tengan el mismo {@link String#hashCode}, y los arreglos de
+     * bytes se encuentran por su contenido.
+     */
+    @Test public void testDispersoresPorOmision() {
+        FiltroBloom<String> cadenas = new FiltroBloom<String>(1 << 16, 5, null, null);
+        Assert.assertTrue("Aa".hashCode() == "BB".hashCode());
+        cadenas.agrega("Aa");
+        Assert.assertTrue(cadenas.contiene("Aa"));
+        Assert.assertFalse(cadenas.contiene("BB"));
+        FiltroBloom<byte[]> arreglos = new FiltroBloom<byte[]>(total,
+                                                               PROBABILIDAD);
+        for (int i = 0; i < total; i++)
+            arreglos.agrega(bytes(i));
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(arreglos.contiene(bytes(i)));
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloom#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < total; i++)
+            filtro.agrega(random.nextInt());
+        filtro.limpia();
+        Assert.assertTrue(filtro.getElementos() == 0);
+        Assert.assertTrue(filtro.probabilidadFalsos() == 0.0);
+        for (int i = 0; i < total; i++)
+            Assert.assertFalse(filtro.contiene(random.nextInt()));
+    }
+}
@@ -0,0 +1,128 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.FiltroBloomContador;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link FiltroBloomContador}.
+ */
+public class TestFiltroBloomContador {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Probabilidad de falsos positivos deseada. */
+    private static final double PROBABILIDAD = 0.01;
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El filtro. */
+    private FiltroBloomContador<String> filtro;
+
+    /**
+     * Crea un filtro para cada prueba.
+     */
+    public TestFiltroBloomContador() {
+        random = new Random();
+        total = 5000 + random.nextInt(5000);
+        filtro = new FiltroBloomContador<String>(total, PROBABILIDAD);
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloomContador#agrega} y {@link
+     * FiltroBloomContador#contador}.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total; i++)
+            filtro.agrega(String.valueOf(i));
+        long suma = 0;
+        for (int i = 0; i < filtro.getCasillas(); i++)
+            suma += filtro.contador(i);
+        Assert.assertTrue(suma <= (long)total * filtro.getFunciones());
+        Assert.assertTrue(suma > (long)total * filtro.getFunciones() * 0.9);
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(filtro.contiene(String.valueOf(i)));
+        try {
+            filtro.contador(-1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            filtro.contador(filtro.getCasillas());
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloomContador#elimina}: al eliminar
+     * los elementos agregados los contadores regresan a cero, y los
+     * elementos que quedan se siguen encontrando.
+     */
+    @Test public void testElimina() {
+        for (int i = 0; i < total; i++)
+            filtro.agrega(String.valueOf(i));
+        for (int i = 0; i < total; i += 2)
+            filtro.elimina(String.valueOf(i));
+        Assert.assertTrue(filtro.getElementos() == total / 2);
+        for (int i = 1; i < total; i += 2)
+            Assert.assertTrue(filtro.contiene(String.valueOf(i)));
+        int falsos = 0;
+        for (int i = 0; i < total; i += 2)
+            if (filtro.contiene(String.valueOf(i)))
+                falsos++;
+        Assert.assertTrue(falsos < PROBABILIDAD * total);
+        for (int i = 1; i < total; i += 2)
+            filtro.elimina(String.valueOf(i));
+        for (int i = 0; i < filtro.getCasillas(); i++)
+            Assert.assertTrue(filtro.contador(i) == 0);
+        try {
+            filtro.elimina("no está");
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloomContador} con contadores
+     * saturados: nunca provocan falsos negativos.
+     */
+    @Test public void testSaturacion() {
+        FiltroBloomContador<Integer> f =
+            new FiltroBloomContador<Integer>(8, 3, n -> n << 29,
+                                             n -> 1 << 29);
+        for (int i = 0; i < 100; i++)
+            f.agrega(random.nextInt(1000));
+        for (int i = 0; i < f.getCasillas(); i++)
+            Assert.assertTrue(f.contador(i) == FiltroBloomContador.MAXIMO);
+        f.agrega(7);
+        f.elimina(7);
+        Assert.assertTrue(f.contiene(7));
+    }
+
+    /**
+     * Prueba unitaria para {@link FiltroBloomContador#agrega} con un segundo
+     * dispersor constante en 0: las casillas de un elemento no se repiten,
+     * así que cada una se incrementa exactamente una vez.
+     */
+    @Test public void testSegundoConstante() {
+        for (int casillas : new int[] { 1 << 6, 1 << 16 }) {
+            FiltroBloomContador<Integer> f =
+                new FiltroBloomContador<Integer>(casillas, 5,
+                                                 n -> n * 0x9e3779b9,
+                                                 n -> 0);
+            f.agrega(random.nextInt());
+            int suma = 0;
+            for (int i = 0; i < casillas; i++) {
+                Assert.assertTrue(f.contador(i) <= 1);
+                suma += f.contador(i);
+            }
+            Assert.assertTrue(suma == 5);
+        }
+    }
+}
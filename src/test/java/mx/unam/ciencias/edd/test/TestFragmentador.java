@@ -0,0 +1,120 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import mx.unam.ciencias.edd.Fragmentador;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Fragmentador}.
+ */
+public class TestFragmentador {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Los datos. */
+    private byte[] datos;
+    /* El fragmentador. */
+    private Fragmentador fragmentador;
+
+    /**
+     * Crea datos aleatorios y un fragmentador para cada prueba.
+     */
+    public TestFragmentador() {
+        random = new Random();
+        datos = new byte[(1 << 22) + random.nextInt(1 << 20)];
+        random.nextBytes(datos);
+        fragmentador = new Fragmentador(512, 2048, 8192, random.nextLong());
+    }
+
+    /**
+     * Prueba unitaria para {@link Fragmentador#fragmenta}.
+     */
+    @Test public void testFragmenta() {
+        int[] cortes = fragmentador.fragmenta(datos);
+        Assert.assertTrue(cortes[cortes.length - 1] == datos.length);
+        int anterior = 0;
+        for (int i = 0; i < cortes.length; i++) {
+            int n = cortes[i] - anterior;
+            Assert.assertTrue(n <= fragmentador.getMaximo());
+            Assert.assertTrue(n >= fragmentador.getMinimo() ||
+                              i == cortes.length - 1);
+            anterior = cortes[i];
+        }
+        double promedio = datos.length / (double)cortes.length;
+        Assert.assertTrue(promedio > fragmentador.getPromedio() / 2.0);
+        Assert.assertTrue(promedio < fragmentador.getPromedio() * 2.0);
+        Assert.assertTrue(fragmentador.fragmenta(new byte[0]).length == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link Fragmentador#corta} en pedazos: corta
+     * igual que sobre el arreglo completo.
+     */
+    @Test public void testCorta() {
+        int[] cortes = fragmentador.fragmenta(datos);
+        int k = 0;
+        int i = 0;
+        int inicio = 0;
+        while (i < datos.length) {
+            int n = Math.min(1 + random.nextInt(5000), datos.length - i);
+            int j = i;
+            int c;
+            while ((c = fragmentador.corta(datos, j, i + n - j)) != -1) {
+                j += c;
+                Assert.assertTrue(cortes[k++] == j);
+                inicio = j;
+            }
+            i += n;
+        }
+        Assert.assertTrue(fragmentador.termina() == datos.length - inicio);
+        if (inicio < datos.length)
+            Assert.assertTrue(cortes[k++] == datos.length);
+        Assert.assertTrue(k == cortes.length);
+    }
+
+    /**
+     * Prueba unitaria para la resincronización de los cortes: insertar
+     * bytes al principio sólo cambia los primeros fragmentos.
+     */
+    @Test public void testResincroniza() {
+        int[] cortes = fragmentador.fragmenta(datos);
+        byte[] otros = new byte[datos.length + 100];
+        random.nextBytes(otros);
+        System.arraycopy(datos, 0, otros, 100, datos.length);
+        Set<Integer> originales = new HashSet<Integer>();
+        for (int c : cortes)
+            originales.add(c);
+        int comunes = 0;
+        for (int c : fragmentador.fragmenta(otros))
+            if (originales.contains(c - 100))
+                comunes++;
+        Assert.assertTrue(comunes >= cortes.length - 3);
+    }
+
+    /**
+     * Prueba unitaria para tamaños inválidos en {@link
+     * Fragmentador#Fragmentador(int,int,int,long)}.
+     */
+    @Test public void testLimitesInvalidos() {
+        int[][] invalidos = { { 0, 2, 3 }, { 2, 2, 3 }, { 1, 3, 3 },
+                              { 3, 2, 1 } };
+        for (int[] t : invalidos) {
+            try {
+                new Fragmentador(t[0], t[1], t[2], 0L);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+        Fragmentador f = new Fragmentador();
+        Assert.assertTrue(f.getMinimo() == Fragmentador.MINIMO);
+        Assert.assertTrue(f.getPromedio() == Fragmentador.PROMEDIO);
+        Assert.assertTrue(f.getMaximo() == Fragmentador.MAXIMO);
+    }
+}
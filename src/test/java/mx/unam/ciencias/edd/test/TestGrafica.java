@@ -2,10 +2,12 @@ package mx.unam.ciencias.edd.test;
 
 import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
 import mx.unam.ciencias.edd.AccionVerticeGrafica;
 import mx.unam.ciencias.edd.Color;
 import mx.unam.ciencias.edd.Grafica;
 import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.TipoMonticulo;
 import mx.unam.ciencias.edd.VerticeGrafica;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -91,6 +93,30 @@ public class TestGrafica {
         } catch (IllegalArgumentException iae) {}
     }
 
+    /**
+     * Prueba unitaria para {@link Grafica#agrega} con muchos elementos: el
+     * índice de vértices hace que agregar y buscar no recorra la lista, y el
+     * orden de iteración sigue siendo el de los agregados.
+     */
+    @Test public void testAgregaMuchos() {
+        int n = 200000 + random.nextInt(100000);
+        for (int i = 0; i < n; i++)
+            grafica.agrega(n - i);
+        for (int i = 1; i < n; i++)
+            grafica.conecta(i, i + 1);
+        Assert.assertTrue(grafica.getElementos() == n);
+        Assert.assertTrue(grafica.getAristas() == n - 1);
+        for (int i = 0; i < 1000; i++) {
+            int e = 1 + random.nextInt(n);
+            Assert.assertTrue(grafica.contiene(e));
+            Assert.assertTrue(grafica.vertice(e).get() == e);
+        }
+        Assert.assertFalse(grafica.contiene(n + 1));
+        int c = n;
+        for (Integer e : grafica)
+            Assert.assertTrue(e == c--);
+    }
+
     /**
      * Prueba unitaria para {@link Grafica#conecta}.
      */
@@ -737,4 +763,104 @@ public class TestGrafica {
             Assert.assertTrue(lista.equals(dijkstra));
         }
     }
+
+    /* Regresa el peso de una trayectoria. */
+    private double peso(Lista<VerticeGrafica<Integer>> trayectoria) {
+        double peso = 0;
+        VerticeGrafica<Integer> anterior = null;
+        for (VerticeGrafica<Integer> v : trayectoria) {
+            if (anterior != null)
+                peso += grafica.getPeso(anterior.get(), v.get());
+            anterior = v;
+        }
+        return peso;
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * Grafica#dijkstra(Object,Object,TipoMonticulo)}: todos los montículos
+     * encuentran trayectorias del mismo peso.
+     */
+    @Test public void testDijkstraMonticulos() {
+        total = 50 + random.nextInt(100);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int k = 0; k < 4 * total; k++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(20));
+        }
+        for (int i = 0; i < total; i++) {
+            Lista<VerticeGrafica<Integer>> dijkstra = grafica.dijkstra(0, i);
+            double peso = peso(dijkstra);
+            for (TipoMonticulo tipo : TipoMonticulo.values()) {
+                Lista<VerticeGrafica<Integer>> t =
+                    grafica.dijkstra(0, i, tipo);
+                Assert.assertTrue(t.getElementos() > 0 ==
+                                  dijkstra.getElementos() > 0);
+                Assert.assertTrue(peso(t) == peso);
+            }
+        }
+        grafica.limpia();
+        grafica.agrega(0);
+        grafica.agrega(1);
+        grafica.conecta(0, 1, 1.5);
+        Assert.assertTrue(grafica.dijkstra(0, 1).getElementos() == 2);
+        try {
+            grafica.dijkstra(0, 1, TipoMonticulo.RADIX);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#dijkstra} y {@link
+     * Grafica#trayectoriaMinima} desde varios hilos a la vez: los recorridos
+     * no comparten estado, así que dan lo mismo que desde un hilo.
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    @Test public void testConsultasConcurrentes() throws InterruptedException {
+        total = 200 + random.nextInt(200);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < 4 * total; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(100));
+        }
+        int[] origenes = new int[50];
+        int[] destinos = new int[50];
+        int[] longitudes = new int[50];
+        int[] cortas = new int[50];
+        for (int i = 0; i < origenes.length; i++) {
+            origenes[i] = random.nextInt(total);
+            destinos[i] = random.nextInt(total);
+            longitudes[i] = grafica.dijkstra(origenes[i], destinos[i])
+                .getLongitud();
+            cortas[i] = grafica.trayectoriaMinima(origenes[i], destinos[i])
+                .getLongitud();
+        }
+        AtomicBoolean correctas = new AtomicBoolean(true);
+        Thread[] hilos = new Thread[8];
+        for (int h = 0; h < hilos.length; h++) {
+            hilos[h] = new Thread(() -> {
+                    for (int r = 0; r < 5; r++)
+                        for (int i = 0; i < origenes.length; i++) {
+                            int o = origenes[i], d = destinos[i];
+                            if (grafica.dijkstra(o, d).getLongitud() !=
+                                longitudes[i] ||
+                                grafica.trayectoriaMinima(o, d)
+                                .getLongitud() != cortas[i])
+                                correctas.set(false);
+                        }
+                });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos)
+            hilo.join();
+        Assert.assertTrue(correctas.get());
+        grafica.paraCadaVertice(v -> Assert.assertTrue(v.getColor() ==
+                                                       Color.NINGUNO));
+    }
 }
@@ -0,0 +1,187 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Color;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCongelada;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaCongelada}.
+ */
+public class TestGraficaCongelada {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba.
+     */
+    public TestGraficaCongelada() {
+        random = new Random();
+        total = 10 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(random.nextInt(total) * total + i);
+        Integer[] e = elementos();
+        for (int i = 0; i < 3 * total; i++) {
+            int a = e[random.nextInt(total)];
+            int b = e[random.nextInt(total)];
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, 1 + random.nextInt(10));
+        }
+    }
+
+    /* Regresa los elementos de la gráfica en orden. */
+    private Integer[] elementos() {
+        Integer[] e = new Integer[grafica.getElementos()];
+        int i = 0;
+        for (Integer n : grafica)
+            e[i++] = n;
+        return e;
+    }
+
+    /* Regresa los elementos de una trayectoria. */
+    private Lista<Integer> elementos(Lista<VerticeGrafica<Integer>> l) {
+        Lista<Integer> r = new Lista<Integer>();
+        for (VerticeGrafica<Integer> v : l)
+            r.agrega(v.get());
+        return r;
+    }
+
+    /* Regresa el peso de una trayectoria. */
+    private double peso(Lista<VerticeGrafica<Integer>> l) {
+        double p = 0;
+        VerticeGrafica<Integer> anterior = null;
+        for (VerticeGrafica<Integer> v : l) {
+            if (anterior != null)
+                p += grafica.getPeso(anterior.get(), v.get());
+            anterior = v;
+        }
+        return p;
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#congela}.
+     */
+    @Test public void testCongela() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        Assert.assertTrue(congelada.getElementos() ==
+                          grafica.getElementos());
+        Assert.assertTrue(congelada.getAristas() == grafica.getAristas());
+        Assert.assertFalse(congelada.esVacia());
+        Integer[] e = elementos();
+        int i = 0;
+        for (Integer n : congelada)
+            Assert.assertTrue(n.equals(e[i++]));
+        for (Integer a : e) {
+            Assert.assertTrue(congelada.contiene(a));
+            VerticeGrafica<Integer> v = congelada.vertice(a);
+            Assert.assertTrue(v.get().equals(a));
+            Assert.assertTrue(v.getGrado() == grafica.vertice(a).getGrado());
+            Assert.assertTrue(v.getColor() == Color.NINGUNO);
+            for (VerticeGrafica<Integer> w : v.vecinos()) {
+                Assert.assertTrue(grafica.sonVecinos(a, w.get()));
+                Assert.assertTrue(congelada.getPeso(a, w.get()) ==
+                                  grafica.getPeso(a, w.get()));
+            }
+            for (Integer b : e)
+                Assert.assertTrue(congelada.sonVecinos(a, b) ==
+                                  grafica.sonVecinos(a, b));
+        }
+        Assert.assertFalse(congelada.contiene(-1));
+        try {
+            congelada.vertice(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        Assert.assertTrue(new Grafica<Integer>().congela().esVacia());
+    }
+
+    /**
+     * Prueba unitaria para que {@link GraficaCongelada} no cambie con la
+     * gráfica original.
+     */
+    @Test public void testInmutable() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        int aristas = congelada.getAristas();
+        Integer[] e = elementos();
+        grafica.elimina(e[0]);
+        grafica.agrega(-1);
+        Assert.assertTrue(congelada.contiene(e[0]));
+        Assert.assertFalse(congelada.contiene(-1));
+        Assert.assertTrue(congelada.getAristas() == aristas);
+        Assert.assertTrue(congelada.getElementos() == total);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#bfs} y {@link
+     * GraficaCongelada#dfs}: recorren en el mismo orden que la gráfica.
+     */
+    @Test public void testRecorridos() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        Integer a = elementos()[random.nextInt(total)];
+        Lista<Integer> esperada = new Lista<Integer>();
+        Lista<Integer> obtenida = new Lista<Integer>();
+        grafica.bfs(a, v -> esperada.agrega(v.get()));
+        congelada.bfs(a, v -> obtenida.agrega(v.get()));
+        Assert.assertTrue(obtenida.equals(esperada));
+        esperada.limpia();
+        obtenida.limpia();
+        grafica.dfs(a, v -> esperada.agrega(v.get()));
+        congelada.dfs(a, v -> obtenida.agrega(v.get()));
+        Assert.assertTrue(obtenida.equals(esperada));
+        Assert.assertTrue(congelada.esConexa() == grafica.esConexa());
+        grafica.agrega(-1);
+        Assert.assertFalse(grafica.congela().esConexa());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCongelada#trayectoriaMinima} y
+     * {@link GraficaCongelada#dijkstra}.
+     */
+    @Test public void testTrayectorias() {
+        GraficaCongelada<Integer> congelada = grafica.congela();
+        Integer[] e = elementos();
+        for (int i = 0; i < 20; i++) {
+            Integer a = e[random.nextInt(total)];
+            Integer b = e[random.nextInt(total)];
+            Lista<VerticeGrafica<Integer>> t = grafica.trayectoriaMinima(a, b);
+            Lista<VerticeGrafica<Integer>> c =
+                congelada.trayectoriaMinima(a, b);
+            Assert.assertTrue(c.getLongitud() == t.getLongitud());
+            if (!c.esVacia()) {
+                Assert.assertTrue(c.getPrimero().get().equals(a));
+                Assert.assertTrue(c.getUltimo().get().equals(b));
+            }
+            t = grafica.dijkstra(a, b);
+            c = congelada.dijkstra(a, b);
+            Assert.assertTrue(c.esVacia() == t.esVacia());
+            Assert.assertTrue(peso(c) == peso(t));
+        }
+        for (int i = 1; i < total; i++)
+            if (!grafica.sonVecinos(e[i-1], e[i]))
+                grafica.conecta(e[i-1], e[i], 1);
+        congelada = grafica.congela();
+        Lista<VerticeGrafica<Integer>> l = congelada.dijkstra(e[0], e[0]);
+        Assert.assertTrue(l.getLongitud() == 1);
+        Assert.assertTrue(l.getPrimero().equals(congelada.vertice(e[0])));
+        Assert.assertTrue(congelada.esConexa());
+        try {
+            congelada.dijkstra(e[0], -1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
@@ -0,0 +1,217 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Dispersor64;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import mx.unam.ciencias.edd.HiperLogLog;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link HiperLogLog}. Las pruebas
+ * de precisión miden el error relativo de la estimación para cardinalidades
+ * de distintos órdenes de magnitud, con dispersores de semillas aleatorias.
+ */
+public class TestHiperLogLog {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El dispersor de enteros. */
+    private Dispersor64<Integer> dispersor;
+
+    /**
+     * Crea un dispersor con semilla aleatoria para cada prueba.
+     */
+    public TestHiperLogLog() {
+        random = new Random();
+        Dispersor64<String> bj =
+            FabricaDispersores.dispersorCadena64(AlgoritmoDispersor.BJ_STRING,
+                                                 random.nextLong());
+        dispersor = n -> bj.dispersa64(String.valueOf(n));
+    }
+
+    /* Regresa un estimador con los enteros en [desde, hasta). */
+    private HiperLogLog<Integer> estimador(int precision, int desde,
+                                           int hasta) {
+        HiperLogLog<Integer> hll =
+            new HiperLogLog<Integer>(precision, dispersor);
+        for (int i = desde; i < hasta; i++)
+            hll.agrega(i);
+        return hll;
+    }
+
+    /* Regresa el error relativo de la estimación de n enteros distintos,
+     * cada uno agregado varias veces. */
+    private double error(int precision, int n) {
+        HiperLogLog<Integer> hll =
+            new HiperLogLog<Integer>(precision, dispersor);
+        int base = random.nextInt(1 << 20);
+        for (int i = 0; i < n; i++) {
+            hll.agrega(base + i);
+            if (random.nextInt(4) == 0)
+                hll.agrega(base + random.nextInt(i + 1));
+        }
+        return Math.abs(hll.cardinalidad() - n) / (double)n;
+    }
+
+    /**
+     * Prueba unitaria para {@link HiperLogLog#HiperLogLog}.
+     */
+    @Test public void testConstructor() {
+        HiperLogLog<Integer> hll = new HiperLogLog<Integer>(dispersor);
+        Assert.assertTrue(hll.getPrecision() == HiperLogLog.PRECISION);
+        Assert.assertTrue(hll.esDisperso());
+        Assert.assertTrue(hll.cardinalidad() == 0);
+        try {
+            new HiperLogLog<Integer>(HiperLogLog.MINIMA_PRECISION - 1,
+                                     dispersor);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new HiperLogLog<Integer>(HiperLogLog.MAXIMA_PRECISION + 1,
+                                     dispersor);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            hll.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link HiperLogLog#cardinalidad} con pocos
+     * elementos, en la representación dispersa: la estimación es casi
+     * exacta.
+     */
+    @Test public void testCardinalidadDispersa() {
+        for (int n = 1; n <= 1000; n = 2 * n + 1) {
+            HiperLogLog<Integer> hll = estimador(HiperLogLog.PRECISION, 0, n);
+            for (int i = 0; i < n; i++)
+                hll.agrega(i);
+            Assert.assertTrue(hll.esDisperso());
+            Assert.assertTrue(Math.abs(hll.cardinalidad() - n) <=
+                              Math.max(1, n / 100));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link HiperLogLog#cardinalidad} con muchos
+     * elementos: el error relativo no pasa de cinco veces el error
+     * típico, y el promedio de varios intentos no pasa del doble.
+     */
+    @Test public void testCardinalidadDensa() {
+        for (int precision = 10; precision <= 14; precision += 2) {
+            double tipico = 1.04 / Math.sqrt(1 << precision);
+            for (int n = 10000; n <= 1000000; n *= 10) {
+                int intentos = n < 1000000 ? 5 : 1;
+                double suma = 0.0;
+                for (int k = 0; k < intentos; k++) {
+                    double e = error(precision, n);
+                    Assert.assertTrue(e < 5 * tipico);
+                    suma += e;
+                }
+                if (intentos > 1)
+                    Assert.assertTrue(suma / intentos < 2 * tipico);
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link HiperLogLog#cardinalidad} más allá de
+     * 2<sup>32</sup> elementos distintos: con registros de rangos que sólo
+     * alcanzan dispersiones de 64 bits, la estimación no se satura.
+     */
+    @Test public void testCardinalidadEnorme() {
+        int p = HiperLogLog.PRECISION;
+        byte[] bytes = new byte[2 + (1 << p)];
+        bytes[0] = (byte)p;
+        bytes[1] = estimador(p, 0, 100000).serializa()[1];
+        for (int i = 2; i < bytes.length; i++)
+            bytes[i] = (byte)(34 - p + random.nextInt(8));
+        HiperLogLog<Integer> hll = HiperLogLog.deserializa(bytes, dispersor);
+        Assert.assertFalse(hll.esDisperso());
+        Assert.assertTrue(hll.cardinalidad() > 1L << 33);
+        bytes[2] = (byte)(66 - p);
+        try {
+            HiperLogLog.deserializa(bytes, dispersor);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link HiperLogLog#une}: unir estimadores da lo
+     * mismo que agregar todos los elementos a uno solo, con cualquier
+     * combinación de representaciones.
+     */
+    @Test public void testUne() {
+        int p = HiperLogLog.PRECISION;
+        int[][] casos = { { 100, 200 }, { 50, 100000 }, { 100000, 50 },
+                          { 100000, 200000 } };
+        for (int[] caso : casos) {
+            int a = caso[0], b = caso[1];
+            HiperLogLog<Integer> uno = estimador(p, 0, a);
+            HiperLogLog<Integer> otro = estimador(p, a / 2, a / 2 + b);
+            HiperLogLog<Integer> todos =
+                estimador(p, 0, Math.max(a, a / 2 + b));
+            uno.une(otro);
+            Assert.assertTrue(uno.esDisperso() == todos.esDisperso());
+            Assert.assertTrue(uno.cardinalidad() == todos.cardinalidad());
+        }
+        HiperLogLog<Integer> hll = estimador(p, 0, 1000);
+        long c = hll.cardinalidad();
+        hll.une(hll);
+        Assert.assertTrue(hll.cardinalidad() == c);
+        try {
+            hll.une(new HiperLogLog<Integer>(p + 1, dispersor));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link HiperLogLog#serializa} y {@link
+     * HiperLogLog#deserializa}.
+     */
+    @Test public void testSerializa() {
+        for (int n : new int[] { 0, 500, 100000 }) {
+            HiperLogLog<Integer> hll = estimador(HiperLogLog.PRECISION, 0, n);
+            byte[] bytes = hll.serializa();
+            HiperLogLog<Integer> copia =
+                HiperLogLog.deserializa(bytes, dispersor);
+            Assert.assertTrue(copia.esDisperso() == hll.esDisperso());
+            Assert.assertTrue(copia.cardinalidad() == hll.cardinalidad());
+            copia.agrega(n);
+            hll.agrega(n);
+            Assert.assertTrue(copia.cardinalidad() == hll.cardinalidad());
+        }
+        byte[] bytes = estimador(HiperLogLog.PRECISION, 0, 500).serializa();
+        byte[] truncados = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncados, 0, truncados.length);
+        try {
+            HiperLogLog.deserializa(truncados, dispersor);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        bytes[1] = 7;
+        try {
+            HiperLogLog.deserializa(bytes, dispersor);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link HiperLogLog#limpia}.
+     */
+    @Test public void testLimpia() {
+        HiperLogLog<Integer> hll = estimador(HiperLogLog.PRECISION, 0,
+                                             100000);
+        Assert.assertFalse(hll.esDisperso());
+        hll.limpia();
+        Assert.assertTrue(hll.esDisperso());
+        Assert.assertTrue(hll.cardinalidad() == 0);
+    }
+}
@@ -0,0 +1,186 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import mx.unam.ciencias.edd.HuellasArchivo;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link HuellasArchivo}.
+ */
+public class TestHuellasArchivo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* La semilla de los dispersores. */
+    private long semilla;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestHuellasArchivo() {
+        random = new Random();
+        semilla = random.nextLong() | 1L;
+    }
+
+    /* Regresa la semilla para el algoritmo. */
+    private long semilla(AlgoritmoDispersor algoritmo) {
+        return algoritmo == AlgoritmoDispersor.XOR_STRING ? 0L : semilla;
+    }
+
+    /* Regresa n líneas aleatorias, algunas vacías y algunas con acentos. */
+    private String[] lineas(int n) {
+        String[] lineas = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder sb = new StringBuilder();
+            int m = random.nextInt(10) == 0 ? 0 : random.nextInt(200);
+            for (int j = 0; j < m; j++)
+                sb.append(random.nextInt(20) == 0 ? 'ñ' :
+                          (char)('a' + random.nextInt(26)));
+            lineas[i] = sb.toString();
+        }
+        return lineas;
+    }
+
+    /* Escribe las líneas en un archivo temporal, terminando algunas en
+     * "\r\n", y la última terminada o no según se reciba; una última línea
+     * vacía siempre se termina, porque si no el archivo no la tendría. */
+    private Path escribeLineas(String[] lineas, boolean terminada)
+        throws IOException {
+        terminada |= lineas[lineas.length - 1].isEmpty();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lineas.length; i++) {
+            sb.append(lineas[i]);
+            if (i + 1 < lineas.length || terminada)
+                sb.append(random.nextBoolean() ? "\n" : "\r\n");
+        }
+        Path archivo = Files.createTempFile("huellas", ".txt");
+        Files.write(archivo, sb.toString().getBytes(StandardCharsets.UTF_8));
+        return archivo;
+    }
+
+    /**
+     * Prueba unitaria para {@link HuellasArchivo#huellasLineas}: la huella
+     * de cada línea es la del dispersor de cadenas sobre la línea.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testHuellasLineas() throws IOException {
+        String[] lineas = lineas(10000 + random.nextInt(10000));
+        for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+            Path archivo = escribeLineas(lineas, random.nextBoolean());
+            try {
+                long s = semilla(algoritmo);
+                int[] huellas =
+                    HuellasArchivo.huellasLineas(archivo, algoritmo, s);
+                Dispersor<String> dispersor =
+                    FabricaDispersores.dispersorCadena(algoritmo, s);
+                Assert.assertTrue(huellas.length == lineas.length);
+                for (int i = 0; i < lineas.length; i++)
+                    Assert.assertTrue(huellas[i] ==
+                                      dispersor.dispersa(lineas[i]));
+            } finally {
+                Files.deleteIfExists(archivo);
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link HuellasArchivo#huellasLineas} con archivos
+     * vacíos y con líneas vacías.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testHuellasLineasVacias() throws IOException {
+        Path archivo = Files.createTempFile("huellas", ".txt");
+        try {
+            AlgoritmoDispersor bj = AlgoritmoDispersor.BJ_STRING;
+            Assert.assertTrue(HuellasArchivo.huellasLineas(archivo, bj, 0L)
+                              .length == 0);
+            Files.write(archivo, "\n\r\n\n".getBytes(StandardCharsets.UTF_8));
+            int[] huellas = HuellasArchivo.huellasLineas(archivo, bj, 0L);
+            int vacia = FabricaDispersores.dispersorCadena(bj).dispersa("");
+            Assert.assertTrue(huellas.length == 3);
+            for (int h : huellas)
+                Assert.assertTrue(h == vacia);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link HuellasArchivo#huellasFijas}: la huella de
+     * cada registro es la del dispersor de búferes sobre el registro, y el
+     * último registro puede ser más corto.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testHuellasFijas() throws IOException {
+        int tamano = 1 + random.nextInt(100);
+        byte[] bytes = new byte[tamano * (10000 + random.nextInt(10000)) +
+                                random.nextInt(tamano)];
+        random.nextBytes(bytes);
+        Path archivo = Files.createTempFile("huellas", ".bin");
+        try {
+            Files.write(archivo, bytes);
+            for (AlgoritmoDispersor algoritmo : AlgoritmoDispersor.values()) {
+                long s = semilla(algoritmo);
+                int[] huellas =
+                    HuellasArchivo.huellasFijas(archivo, tamano, algoritmo, s);
+                Dispersor<ByteBuffer> dispersor =
+                    FabricaDispersores.dispersorBuffer(algoritmo, s);
+                Assert.assertTrue(huellas.length ==
+                                  (bytes.length + tamano - 1) / tamano);
+                for (int i = 0; i < huellas.length; i++) {
+                    int n = Math.min(tamano, bytes.length - i * tamano);
+                    ByteBuffer b = ByteBuffer.wrap(bytes, i * tamano, n);
+                    Assert.assertTrue(huellas[i] == dispersor.dispersa(b));
+                }
+            }
+            try {
+                HuellasArchivo.huellasFijas(archivo, 0,
+                                            AlgoritmoDispersor.BJ_STRING, 0L);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            try {
+                HuellasArchivo.huellasFijas(archivo, tamano,
+                                            AlgoritmoDispersor.XOR_STRING, 1L);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link HuellasArchivo#escribe} y {@link
+     * HuellasArchivo#lee}.
+     * @throws IOException si ocurre un error de entrada/salida.
+     */
+    @Test public void testEscribeLee() throws IOException {
+        int[] huellas = new int[random.nextInt(100000)];
+        for (int i = 0; i < huellas.length; i++)
+            huellas[i] = random.nextInt();
+        Path archivo = Files.createTempFile("huellas", ".bin");
+        try {
+            HuellasArchivo.escribe(huellas, archivo);
+            Assert.assertTrue(Files.size(archivo) == 4L * huellas.length);
+            int[] leidas = HuellasArchivo.lee(archivo);
+            Assert.assertTrue(leidas.length == huellas.length);
+            for (int i = 0; i < huellas.length; i++)
+                Assert.assertTrue(leidas[i] == huellas[i]);
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.AlgoritmoDispersor;
+import mx.unam.ciencias.edd.Dispersor;
+import mx.unam.ciencias.edd.FabricaDispersores;
+import mx.unam.ciencias.edd.Internador;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Internador}.
+ */
+public class TestInternador {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El dispersor de cadenas. */
+    private Dispersor<String> dispersor;
+    /* El internador. */
+    private Internador<String> internador;
+
+    /**
+     * Crea un internador de cadenas para cada prueba.
+     */
+    public TestInternador() {
+        random = new Random();
+        dispersor =
+            FabricaDispersores.dispersorCadena(AlgoritmoDispersor.BJ_STRING,
+                                               random.nextLong());
+        internador = new Internador<String>(dispersor);
+    }
+
+    /* Regresa una copia nueva de la cadena, distinta como instancia. */
+    private static String copia(String cadena) {
+        return new String(cadena.toCharArray());
+    }
+
+    /* Corre el recolector de basura hasta que el internador tenga a lo más
+     * el número de elementos recibido, o se acaben los intentos. */
+    private void recolecta(int elementos) {
+        for (int i = 0; i < 50 && internador.getElementos() > elementos; i++) {
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ie) {}
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Internador#Internador}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(internador.getElementos() == 0);
+        Assert.assertFalse(internador.usaSuaves());
+        Assert.assertTrue(new Internador<String>(dispersor, true).usaSuaves());
+        try {
+            new Internador<String>(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Internador#interna}.
+     */
+    @Test public void testInterna() {
+        int n = 10000 + random.nextInt(10000);
+        String[] canonicas = new String[n];
+        for (int i = 0; i < n; i++) {
+            canonicas[i] = String.valueOf(i);
+            Assert.assertTrue(internador.interna(canonicas[i]) ==
+                              canonicas[i]);
+        }
+        Assert.assertTrue(internador.getElementos() == n);
+        for (int i = 0; i < n; i++) {
+            String c = copia(canonicas[i]);
+            Assert.assertTrue(c != canonicas[i]);
+            Assert.assertTrue(internador.interna(c) == canonicas[i]);
+        }
+        Assert.assertTrue(internador.getElementos() == n);
+        try {
+            internador.interna(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Internador#interna} con un dispersor que
+     * hace chocar a todas las cadenas.
+     */
+    @Test public void testInternaColisiones() {
+        Internador<String> i = new Internador<String>(c -> 7);
+        String[] canonicas = new String[500];
+        for (int k = 0; k < canonicas.length; k++)
+            canonicas[k] = i.interna(String.valueOf(k));
+        for (int k = 0; k < canonicas.length; k++)
+            Assert.assertTrue(i.interna(copia(canonicas[k])) == canonicas[k]);
+        Assert.assertTrue(i.getElementos() == canonicas.length);
+    }
+
+    /**
+     * Prueba unitaria para {@link Internador#contiene}.
+     */
+    @Test public void testContiene() {
+        String a = "a" + random.nextInt();
+        Assert.assertFalse(internador.contiene(a));
+        internador.interna(a);
+        Assert.assertTrue(internador.contiene(copia(a)));
+        Assert.assertFalse(internador.contiene(a + "b"));
+        Assert.assertFalse(internador.contiene(null));
+    }
+
+    /**
+     * Prueba unitaria para las referencias débiles de {@link Internador}:
+     * el recolector de basura se lleva las instancias que nadie más usa,
+     * pero no las que siguen en uso, y la tabla no crece sin límite.
+     */
+    @Test public void testReferenciasDebiles() {
+        String[] vivas = new String[100];
+        for (int i = 0; i < vivas.length; i++)
+            vivas[i] = internador.interna("viva" + i);
+        int capacidad = 0;
+        for (int ronda = 0; ronda < 20; ronda++) {
+            for (int i = 0; i < 10000; i++)
+                internador.interna(ronda + ":" + i);
+            recolecta(vivas.length);
+            capacidad = Math.max(capacidad, internador.getCapacidad());
+        }
+        Assert.assertTrue(internador.getElementos() < 10000);
+        Assert.assertTrue(capacidad <= 1 << 16);
+        for (int i = 0; i < vivas.length; i++)
+            Assert.assertTrue(internador.interna(copia(vivas[i])) ==
+                              vivas[i]);
+    }
+
+    /**
+     * Prueba unitaria para {@link Internador#interna} con referencias
+     * suaves: mientras haya memoria, las instancias se conservan.
+     */
+    @Test public void testReferenciasSuaves() {
+        internador = new Internador<String>(dispersor, true);
+        String a = internador.interna(copia("suave"));
+        int h = System.identityHashCode(a);
+        a = null;
+        System.gc();
+        Assert.assertTrue(internador.contiene("suave"));
+        Assert.assertTrue(System.identityHashCode(internador
+                                                  .interna("suave")) == h);
+    }
+
+    /**
+     * Prueba unitaria para {@link Internador#limpia}.
+     */
+    @Test public void testLimpia() {
+        String a = internador.interna("a");
+        internador.limpia();
+        Assert.assertTrue(internador.getElementos() == 0);
+        Assert.assertFalse(internador.contiene("a"));
+        String b = copia(a);
+        Assert.assertTrue(internador.interna(b) == b);
+    }
+}
@@ -0,0 +1,135 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.BosquejoCountMin;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.MasFrecuentes;
+import mx.unam.ciencias.edd.ValorIndexable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MasFrecuentes}.
+ */
+public class TestMasFrecuentes {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número de elementos a mantener. */
+    private int k;
+    /* El buscador. */
+    private MasFrecuentes<String> frecuentes;
+
+    /**
+     * Crea un buscador para cada prueba.
+     */
+    public TestMasFrecuentes() {
+        random = new Random();
+        k = 5 + random.nextInt(10);
+        frecuentes = new MasFrecuentes<String>(k, 1024, 5);
+    }
+
+    /**
+     * Prueba unitaria para {@link MasFrecuentes#MasFrecuentes}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(frecuentes.getK() == k);
+        Assert.assertTrue(frecuentes.frecuentes().esVacia());
+        try {
+            new MasFrecuentes<String>(0, 1024, 5);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new MasFrecuentes<String>(k, null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MasFrecuentes#agrega} y {@link
+     * MasFrecuentes#frecuentes}: en un flujo con <em>k</em> elementos
+     * frecuentes mezclados con muchos elementos raros, se encuentran
+     * exactamente los frecuentes, del más al menos frecuente.
+     */
+    @Test public void testFrecuentes() {
+        int raros = 20000;
+        int[] cuentas = new int[k];
+        for (int i = 0; i < k; i++)
+            cuentas[i] = 200 * (k - i);
+        int restantes = 0;
+        for (int c : cuentas)
+            restantes += c;
+        int[] pendientes = cuentas.clone();
+        for (int r = 0; r < raros || restantes > 0; r++) {
+            if (r < raros)
+                frecuentes.agrega("raro" + r);
+            for (int j = 0; j < 2 && restantes > 0; j++) {
+                int i = random.nextInt(k);
+                while (pendientes[i] == 0)
+                    i = (i + 1) % k;
+                pendientes[i]--;
+                restantes--;
+                frecuentes.agrega("frecuente" + i);
+            }
+        }
+        Lista<ValorIndexable<String>> lista = frecuentes.frecuentes();
+        Assert.assertTrue(lista.getLongitud() == k);
+        int i = 0;
+        for (ValorIndexable<String> v : lista) {
+            Assert.assertTrue(v.getElemento().equals("frecuente" + i));
+            Assert.assertTrue(v.getValor() >= cuentas[i]);
+            Assert.assertTrue(v.getValor() < cuentas[i] + 100);
+            Assert.assertTrue(frecuentes.estima(v.getElemento()) ==
+                              (long)v.getValor());
+            i++;
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link MasFrecuentes#agrega} con cuentas: un
+     * elemento nuevo con una cuenta grande desplaza al menos frecuente.
+     */
+    @Test public void testAgregaCuenta() {
+        MasFrecuentes<Integer> f =
+            new MasFrecuentes<Integer>(3, new BosquejoCountMin<Integer>(
+                                              1024, 4, false,
+                                              random.nextLong()));
+        f.agrega(1, 10);
+        f.agrega(2, 20);
+        f.agrega(3, 30);
+        f.agrega(4, 5);
+        Lista<ValorIndexable<Integer>> lista = f.frecuentes();
+        Assert.assertTrue(lista.getLongitud() == 3);
+        Assert.assertTrue(lista.getUltimo().getElemento() == 1);
+        f.agrega(4, 10);
+        lista = f.frecuentes();
+        Assert.assertTrue(lista.getPrimero().getElemento() == 3);
+        Assert.assertTrue(lista.getUltimo().getElemento() == 4);
+        Assert.assertTrue(lista.getUltimo().getValor() >= 15);
+        f.agrega(1, 100);
+        Assert.assertTrue(f.frecuentes().getPrimero().getElemento() == 1);
+        lista.getPrimero().setValor(0);
+        Assert.assertTrue(f.frecuentes().getUltimo().getValor() >= 15);
+        try {
+            f.agrega(null);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MasFrecuentes#limpia}.
+     */
+    @Test public void testLimpia() {
+        for (int i = 0; i < 1000; i++)
+            frecuentes.agrega(String.valueOf(random.nextInt(100)));
+        Assert.assertTrue(frecuentes.frecuentes().getLongitud() == k);
+        frecuentes.limpia();
+        Assert.assertTrue(frecuentes.frecuentes().esVacia());
+        Assert.assertTrue(frecuentes.estima("1") == 0);
+    }
+}
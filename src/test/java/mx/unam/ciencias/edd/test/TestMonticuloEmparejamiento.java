@@ -0,0 +1,151 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ComparableIndexable;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.MonticuloEmparejamiento;
+import mx.unam.ciencias.edd.ValorIndexable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloEmparejamiento}.
+ */
+public class TestMonticuloEmparejamiento {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El montículo de emparejamiento. */
+    private MonticuloEmparejamiento<ValorIndexable<String>> monticulo;
+    /* Lista auxiliar. */
+    private Lista<ValorIndexable<String>> lista;
+
+    /* Método que verifica que los índices de los elementos del montículo
+     * sean sus posiciones. */
+    private static <T extends ComparableIndexable<T>> void
+    verificaIndices(MonticuloEmparejamiento<T> monticulo) {
+        for (int i = 0; i < monticulo.getElementos(); i++)
+            Assert.assertTrue(monticulo.get(i).getIndice() == i);
+    }
+
+    /* Vacía el montículo, verificando que los elementos salgan en el orden
+     * de la lista. */
+    private void verificaOrden() {
+        Lista<ValorIndexable<String>> ordenada = Lista.mergeSort(lista);
+        while (!monticulo.esVacia()) {
+            ValorIndexable<String> a = monticulo.elimina();
+            Assert.assertTrue(a.getIndice() == -1);
+            ValorIndexable<String> b = ordenada.eliminaPrimero();
+            Assert.assertTrue(a.getValor() == b.getValor());
+            verificaIndices(monticulo);
+        }
+        Assert.assertTrue(ordenada.esVacia());
+    }
+
+    /**
+     * Crea un montículo de emparejamiento para cada prueba.
+     */
+    public TestMonticuloEmparejamiento() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        lista = new Lista<ValorIndexable<String>>();
+        for (int i = 0; i < total; i++) {
+            String s = Integer.toString(random.nextInt());
+            double p = random.nextDouble();
+            lista.agrega(new ValorIndexable<String>(s, p));
+        }
+        monticulo = new MonticuloEmparejamiento<ValorIndexable<String>>(lista);
+        verificaIndices(monticulo);
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * MonticuloEmparejamiento#MonticuloEmparejamiento}.
+     */
+    @Test public void testConstructor() {
+        Assert.assertTrue(monticulo.getElementos() == total);
+        int i = 0;
+        for (ValorIndexable<String> v : lista)
+            Assert.assertTrue(monticulo.get(i++) == v);
+        monticulo = new MonticuloEmparejamiento<ValorIndexable<String>>(lista,
+                                                                       total);
+        verificaOrden();
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloEmparejamiento#elimina}.
+     */
+    @Test public void testElimina() {
+        verificaOrden();
+        try {
+            monticulo.elimina();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloEmparejamiento#reordena}.
+     */
+    @Test public void testReordena() {
+        for (int i = 0; i < 2 * total; i++) {
+            if (i % 4 == 3)
+                monticulo.elimina();
+            int n = monticulo.getElementos();
+            ValorIndexable<String> v = monticulo.get(random.nextInt(n));
+            v.setValor(v.getValor() * random.nextDouble());
+            monticulo.reordena(v);
+            verificaIndices(monticulo);
+        }
+        Lista<ValorIndexable<String>> restantes =
+            new Lista<ValorIndexable<String>>();
+        for (int i = 0; i < monticulo.getElementos(); i++)
+            restantes.agrega(monticulo.get(i));
+        lista = restantes;
+        verificaOrden();
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloEmparejamiento#esVacia}.
+     */
+    @Test public void testEsVacia() {
+        Assert.assertFalse(monticulo.esVacia());
+        lista = new Lista<ValorIndexable<String>>();
+        monticulo = new MonticuloEmparejamiento<ValorIndexable<String>>(lista);
+        Assert.assertTrue(monticulo.esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloEmparejamiento#getElementos}.
+     */
+    @Test public void testGetElementos() {
+        while (!monticulo.esVacia()) {
+            Assert.assertTrue(monticulo.getElementos() == total--);
+            monticulo.elimina();
+        }
+        Assert.assertTrue(monticulo.getElementos() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloEmparejamiento#get}.
+     */
+    @Test public void testGet() {
+        try {
+            monticulo.get(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            monticulo.get(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(monticulo.get(i) != null);
+    }
+}
@@ -0,0 +1,172 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.MonticuloRadix;
+import mx.unam.ciencias.edd.ValorIndexable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloRadix}.
+ */
+public class TestMonticuloRadix {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El montículo radix. */
+    private MonticuloRadix<ValorIndexable<String>> monticulo;
+    /* Lista auxiliar. */
+    private Lista<ValorIndexable<String>> lista;
+
+    /* Regresa la llave entera de un valor indexable. */
+    private static long llave(ValorIndexable<String> v) {
+        return (long)v.getValor();
+    }
+
+    /* Método que verifica que el montículo tenga los elementos de la lista,
+     * cada uno una sola vez. */
+    private void verificaElementos() {
+        Assert.assertTrue(monticulo.getElementos() == lista.getElementos());
+        for (int i = 0; i < monticulo.getElementos(); i++) {
+            ValorIndexable<String> v = monticulo.get(i);
+            Assert.assertTrue(lista.contiene(v));
+            for (int j = 0; j < i; j++)
+                Assert.assertTrue(monticulo.get(j) != v);
+        }
+    }
+
+    /* Vacía el montículo, verificando que los elementos salgan en el orden
+     * de la lista. */
+    private void verificaOrden() {
+        Lista<ValorIndexable<String>> ordenada = Lista.mergeSort(lista);
+        while (!monticulo.esVacia()) {
+            ValorIndexable<String> a = monticulo.elimina();
+            Assert.assertTrue(a.getIndice() == -1);
+            ValorIndexable<String> b = ordenada.eliminaPrimero();
+            Assert.assertTrue(a.getValor() == b.getValor());
+        }
+        Assert.assertTrue(ordenada.esVacia());
+    }
+
+    /**
+     * Crea un montículo radix para cada prueba.
+     */
+    public TestMonticuloRadix() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        lista = new Lista<ValorIndexable<String>>();
+        for (int i = 0; i < total; i++) {
+            String s = Integer.toString(random.nextInt());
+            double p = random.nextInt(1000);
+            lista.agrega(new ValorIndexable<String>(s, p));
+        }
+        monticulo = new MonticuloRadix<ValorIndexable<String>>(
+            lista, TestMonticuloRadix::llave);
+        verificaElementos();
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#MonticuloRadix}.
+     */
+    @Test public void testConstructor() {
+        monticulo = new MonticuloRadix<ValorIndexable<String>>(
+            lista, total, TestMonticuloRadix::llave);
+        verificaElementos();
+        verificaOrden();
+        lista.agrega(new ValorIndexable<String>("x", -1));
+        try {
+            monticulo = new MonticuloRadix<ValorIndexable<String>>(
+                lista, TestMonticuloRadix::llave);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#elimina}.
+     */
+    @Test public void testElimina() {
+        verificaOrden();
+        try {
+            monticulo.elimina();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#reordena}.
+     */
+    @Test public void testReordena() {
+        long ultima = 0;
+        for (int i = 0; i < 2 * total; i++) {
+            if (i % 4 == 3)
+                ultima = llave(monticulo.elimina());
+            int n = monticulo.getElementos();
+            ValorIndexable<String> v = monticulo.get(random.nextInt(n));
+            long k = llave(v);
+            v.setValor(ultima + random.nextInt((int)(k - ultima) + 1));
+            monticulo.reordena(v);
+        }
+        Lista<ValorIndexable<String>> restantes =
+            new Lista<ValorIndexable<String>>();
+        for (int i = 0; i < monticulo.getElementos(); i++)
+            restantes.agrega(monticulo.get(i));
+        lista = restantes;
+        verificaElementos();
+        if (ultima > 0) {
+            ValorIndexable<String> v = monticulo.get(0);
+            v.setValor(ultima - 1);
+            try {
+                monticulo.reordena(v);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            v.setValor(ultima);
+            monticulo.reordena(v);
+        }
+        verificaOrden();
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#esVacia}.
+     */
+    @Test public void testEsVacia() {
+        Assert.assertFalse(monticulo.esVacia());
+        lista = new Lista<ValorIndexable<String>>();
+        monticulo = new MonticuloRadix<ValorIndexable<String>>(
+            lista, TestMonticuloRadix::llave);
+        Assert.assertTrue(monticulo.esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#getElementos}.
+     */
+    @Test public void testGetElementos() {
+        while (!monticulo.esVacia()) {
+            Assert.assertTrue(monticulo.getElementos() == total--);
+            monticulo.elimina();
+        }
+        Assert.assertTrue(monticulo.getElementos() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#get}.
+     */
+    @Test public void testGet() {
+        try {
+            monticulo.get(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            monticulo.get(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
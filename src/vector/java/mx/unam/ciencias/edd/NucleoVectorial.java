@@ -0,0 +1,123 @@
+package mx.unam.ciencias.edd;
+
+import java.nio.ByteOrder;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * <p>Núcleo vectorial de {@link DispersoresVectoriales}, con la API de
+ * vectores de <code>jdk.incubator.vector</code>. Usa la especie de enteros
+ * preferida del procesador: 4, 8 o 16 carriles con vectores de 128, 256 o
+ * 512 bits.</p>
+ *
+ * <p>XOR es un pliegue de palabras, así que se pueden combinar con XOR
+ * carril por carril y al final entre carriles. Las palabras se leen
+ * little-endian, sin reordenar bytes, y el resultado se voltea una sola vez:
+ * voltear los bytes conmuta con XOR.</p>
+ *
+ * <p>La recurrencia de Daniel J. Bernstein es <em>h</em> ← 33<em>h</em> +
+ * <em>b</em>, así que un bloque de <em>n</em> bytes deja
+ * 33<sup><em>n</em></sup><em>h</em> + Σ <em>b<sub>i</sub></em>
+ * 33<sup><em>n</em>-1-<em>i</em></sup>. Cada carril acumula las palabras de
+ * su posición en los bloques, multiplicando por 33 elevado al tamaño del
+ * bloque; al final los carriles se pesan con las potencias de 33 que les
+ * corresponden y se suman. Sólo una multiplicación por bloque queda en la
+ * cadena de dependencias, en lugar de una por byte.</p>
+ */
+class NucleoVectorial implements DispersoresVectoriales.Nucleo {
+
+    /* La especie de enteros. */
+    private static final VectorSpecies<Integer> ENTEROS =
+        IntVector.SPECIES_PREFERRED;
+    /* El número de bytes de un bloque. */
+    private static final int BLOQUE = ENTEROS.vectorByteSize();
+
+    /* 33 elevado al número de bytes de un bloque. */
+    private final int potenciaBloque;
+    /* El peso de cada carril: 33 elevado a 4 veces los carriles que le
+     * siguen. */
+    private final IntVector pesos;
+
+    /**
+     * Construye el núcleo vectorial.
+     * @throws UnsupportedOperationException si los vectores del procesador
+     *         tienen menos de 128 bits.
+     */
+    public NucleoVectorial() {
+        if (ENTEROS.vectorBitSize() < 128)
+            throw new UnsupportedOperationException("Vectores muy chicos.");
+        int carriles = ENTEROS.length();
+        int[] p = new int[carriles];
+        int q = 1;
+        for (int j = carriles - 1; j >= 0; j--) {
+            p[j] = q;
+            q *= 33 * 33 * 33 * 33;
+        }
+        potenciaBloque = q;
+        pesos = IntVector.fromArray(ENTEROS, p, 0);
+    }
+
+    /**
+     * Función de dispersión XOR sobre un rango de un arreglo de bytes.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @return la dispersión de XOR del rango de la llave.
+     */
+    @Override public int dispersaXOR(byte[] llave, int desplazamiento,
+                                     int longitud) {
+        if (longitud < 2 * BLOQUE)
+            return Dispersores.dispersaXOR(llave, desplazamiento, longitud);
+        int i = desplazamiento;
+        int fin = desplazamiento + longitud - longitud % BLOQUE;
+        IntVector a = IntVector.zero(ENTEROS);
+        for (; i < fin; i += BLOQUE)
+            a = a.lanewise(VectorOperators.XOR, palabras(llave, i));
+        int r = Integer.reverseBytes(a.reduceLanes(VectorOperators.XOR));
+        return r ^ Dispersores.dispersaXOR(llave, i,
+                                           desplazamiento + longitud - i);
+    }
+
+    /**
+     * Función de dispersión de Daniel J. Bernstein con semilla sobre un
+     * rango de un arreglo de bytes.
+     * @param llave el arreglo que contiene a la llave.
+     * @param desplazamiento el índice del primer byte de la llave.
+     * @param longitud el número de bytes de la llave.
+     * @param semilla la semilla.
+     * @return la dispersión de Daniel Bernstein del rango de la llave.
+     */
+    @Override public int dispersaDJB(byte[] llave, int desplazamiento,
+                                     int longitud, int semilla) {
+        if (longitud < 2 * BLOQUE)
+            return Dispersores.dispersaDJB(llave, desplazamiento, longitud,
+                                           semilla);
+        int h = 5381 ^ semilla;
+        int i = desplazamiento;
+        int fin = desplazamiento + longitud - longitud % BLOQUE;
+        IntVector a = IntVector.zero(ENTEROS);
+        for (; i < fin; i += BLOQUE) {
+            IntVector w = palabras(llave, i);
+            IntVector b0 = w.and(0xff).mul(33 * 33 * 33);
+            IntVector b1 = w.lanewise(VectorOperators.LSHR, 8)
+                .and(0xff).mul(33 * 33);
+            IntVector b2 = w.lanewise(VectorOperators.LSHR, 16)
+                .and(0xff).mul(33);
+            IntVector b3 = w.lanewise(VectorOperators.LSHR, 24);
+            a = a.mul(potenciaBloque).add(b0.add(b1).add(b2.add(b3)));
+            h *= potenciaBloque;
+        }
+        h += a.mul(pesos).reduceLanes(VectorOperators.ADD);
+        return Dispersores.dispersaDJB(llave, i,
+                                       desplazamiento + longitud - i,
+                                       h ^ 5381);
+    }
+
+    /* Regresa las palabras little-endian del bloque que empieza en el
+     * índice. */
+    private static IntVector palabras(byte[] llave, int i) {
+        return IntVector.fromByteArray(ENTEROS, llave, i,
+                                       ByteOrder.LITTLE_ENDIAN);
+    }
+}